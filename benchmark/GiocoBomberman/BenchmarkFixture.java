@@ -0,0 +1,90 @@
+package GiocoBomberman;
+
+import java.util.ArrayList;
+/**
+ * BenchmarkFixture prepara una partita completa e riproducibile per i benchmark JMH: sessione con seme fisso e
+ * audio muto, mappa generata, primo livello, gestore delle collisioni e mondo di gioco.
+ *
+ * I benchmark stanno in una cartella di sorgenti separata, {@code benchmark/}, nello stesso package del gioco
+ * cosi da poter usare i metodi visibili nel package. Si compilano insieme ai sorgenti del gioco con JMH
+ * (jmh-core e jmh-generator-annprocess, con le loro dipendenze jopt-simple e commons-math3) nel classpath,
+ * cosi che il processore di annotazioni generi la lista dei benchmark:
+ * <pre>
+ * javac -cp "jmh/*" -d out src/GiocoBomberman/*.java benchmark/GiocoBomberman/*.java
+ * java -cp "out:res:jmh/*" org.openjdk.jmh.Main -prof gc
+ * </pre>
+ * I risultati riportano le operazioni al secondo e, con {@code -prof gc}, i byte allocati per operazione.
+ * {@link RenderBenchmark} crea una finestra e richiede quindi un display.
+ *
+ * @author Davide Vittucci
+ * @see CollisionCheckerBenchmark
+ * @see MapModelBenchmark
+ * @see RenderBenchmark
+ */
+public class BenchmarkFixture {
+	/** Seme usato da tutti i benchmark, perche misurino sempre la stessa mappa. */
+	public static final long SEME = 42L;
+
+	/** Colonne, righe e dimensione delle piastrelle, come nella partita con interfaccia. */
+	public static final int[] DIMENSIONI = {17, 15, 64};
+
+	/** Sessione della partita. */
+	public final GameSession sessione;
+
+	/** Modello della mappa. */
+	public final MapModel mapModel;
+
+	/** Primo livello, gia generato e caricato. */
+	public final Level level;
+
+	/** Gestore delle collisioni sulla mappa del livello. */
+	public final CollisionChecker collisionChecker;
+
+	/** Mondo di gioco del livello. */
+	public final GameWorld world;
+
+	/** Mappa delle bombe, vuota. */
+	public final BombaMap bombaMap;
+
+	/**
+	 * Costruisce la partita.
+	 *
+	 * @param disegnata true se la partita viene disegnata, come con l'interfaccia.
+	 */
+	public BenchmarkFixture(boolean disegnata) {
+		sessione = new GameSession(AudioManager.creaMuto(), null, !disegnata, SEME);
+		mapModel = new MapModel(DIMENSIONI[0], DIMENSIONI[1], sessione);
+		level = new Level(1, mapModel, sessione);
+		collisionChecker = new CollisionChecker(mapModel.getGriglia(), mapModel.getPiastrelle(), DIMENSIONI[2], sessione.getAudio());
+		world = new GameWorld(sessione, level, collisionChecker, mapModel, DIMENSIONI);
+		bombaMap = new BombaMap(DIMENSIONI[0], DIMENSIONI[1]);
+	}
+
+	/**
+	 * Crea dei Puropen distribuiti sulle celle libere della mappa; oltre il numero di celle libere piu nemici
+	 * occupano la stessa cella, che e il caso peggiore per le collisioni tra nemici.
+	 *
+	 * @param numero Numero di nemici da creare.
+	 * @return La lista dei nemici.
+	 */
+	public ArrayList<Nemico> nemici(int numero) {
+		ArrayList<int[]> libere = new ArrayList<>();
+		TileGrid griglia = mapModel.getGriglia();
+		for (int riga = 0; riga < griglia.getRighe(); riga++) {
+			for (int colonna = 0; colonna < griglia.getColonne(); colonna++) {
+				if (griglia.getTipo(riga, colonna) == 0) {
+					libere.add(new int[] {colonna, riga});
+				}
+			}
+		}
+		ArrayList<Nemico> nemici = new ArrayList<>(numero);
+		for (int i = 0; i < numero; i++) {
+			int[] cella = libere.get(i % libere.size());
+			Puropen puropen = new Puropen(sessione.getAudio(), sessione.nuovoCasualeNemico());
+			puropen.setX(cella[0] * DIMENSIONI[2]);
+			puropen.setY(cella[1] * DIMENSIONI[2] - 27);
+			nemici.add(puropen);
+		}
+		return nemici;
+	}
+}
@@ -0,0 +1,127 @@
+package GiocoBomberman;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+/**
+ * Benchmark dei controlli di {@link CollisionChecker} eseguiti ad ogni tick: collisione di Bomberman con la mappa e
+ * le bombe ({@code checkTile}), uscita dalla bomba appena piazzata ({@code checkV}), collisioni tra nemici al
+ * crescere del loro numero e propagazione di un'esplosione ({@code checkExpx}).
+ *
+ * @author Davide Vittucci
+ * @see BenchmarkFixture
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionCheckerBenchmark {
+	/** Partita su cui misurare. */
+	private BenchmarkFixture partita;
+
+	/** Bomberman nella sua posizione iniziale. */
+	private Bomberman bomberman;
+
+	/** Bombe presenti, nessuna. */
+	private ArrayList<Bomba> bombe;
+
+	/** Esplosione al centro della mappa con il raggio massimo. */
+	private Esplosione esplosione;
+
+	/**
+	 * Nemici per {@link CollisionCheckerBenchmark#checkNemiciCollision(Nemici, Blackhole)}. Ha uno stato a parte
+	 * perche il numero di nemici non moltiplichi le esecuzioni degli altri benchmark, che non lo usano.
+	 */
+	@State(Scope.Thread)
+	public static class Nemici {
+		/** Numero di nemici. */
+		@Param({"3", "16", "64", "256"})
+		public int numeroNemici;
+
+		/** Partita su cui misurare. */
+		private BenchmarkFixture partita;
+
+		/** Nemici per le collisioni tra nemici. */
+		private ArrayList<Nemico> nemici;
+
+		/**
+		 * Prepara la partita e i nemici.
+		 */
+		@Setup
+		public void prepara() {
+			partita = new BenchmarkFixture(false);
+			nemici = partita.nemici(numeroNemici);
+		}
+	}
+
+	/**
+	 * Prepara la partita.
+	 */
+	@Setup
+	public void prepara() {
+		partita = new BenchmarkFixture(false);
+		bomberman = partita.sessione.getBomberman();
+		bombe = new ArrayList<>();
+		int tile = BenchmarkFixture.DIMENSIONI[2];
+		esplosione = new Esplosione(7 * tile, 7 * tile, 7);
+	}
+
+	/**
+	 * Collisione di Bomberman con la mappa e le bombe.
+	 *
+	 * @return L'esito della collisione.
+	 */
+	@Benchmark
+	public boolean checkTile() {
+		partita.collisionChecker.checkTile(bomberman, bombe, partita.bombaMap);
+		return bomberman.collisionOn;
+	}
+
+	/**
+	 * Controllo dell'uscita di Bomberman dalla bomba su cui si trova.
+	 *
+	 * @return L'esito della collisione.
+	 */
+	@Benchmark
+	public boolean checkV() {
+		partita.collisionChecker.checkV(bomberman, partita.bombaMap);
+		return bomberman.collisionOn;
+	}
+
+	/**
+	 * Collisioni tra tutti i nemici.
+	 *
+	 * @param nemici I nemici.
+	 * @param blackhole Consuma lo stato dei nemici.
+	 */
+	@Benchmark
+	public void checkNemiciCollision(Nemici nemici, Blackhole blackhole) {
+		nemici.partita.collisionChecker.checkNemiciCollision(nemici.nemici);
+		blackhole.consume(nemici.nemici.get(0).collisionOn);
+	}
+
+	/**
+	 * Propagazione di un'esplosione nelle quattro direzioni.
+	 *
+	 * @return Il raggio verso l'alto calcolato.
+	 */
+	@Benchmark
+	public int checkExpx() {
+		partita.collisionChecker.checkExpx(esplosione);
+		return esplosione.getRaggioSu();
+	}
+}
@@ -0,0 +1,127 @@
+package GiocoBomberman;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Benchmark di {@link MapModel}: l'aggiornamento delle celle colpite fatto da {@code update} e il caricamento di una
+ * mappa generata in memoria con l'assegnazione di fuga e potenziamenti fatto da {@code loadMap}.
+ *
+ * @author Davide Vittucci
+ * @see BenchmarkFixture
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapModelBenchmark {
+	/** Chiamate a {@code update} tra due passate sulle celle attive. */
+	private static final int CHIAMATE_PER_PASSATA = 11;
+
+	/** Blocchi distruttibili della mappa caricata, come nel primo livello. */
+	private static final int BLOCCHI = 35;
+
+	/** Partita su cui misurare. */
+	private BenchmarkFixture partita;
+
+	/** Mappa da caricare, generata una volta. */
+	private int[][] mappa;
+
+	/**
+	 * Muri colpiti da un'esplosione prima di ogni chiamata di {@link MapModelBenchmark#update(Colpiti)}. Ha uno
+	 * stato a parte perche il parametro e la preparazione a ogni chiamata non riguardino {@code loadMap}.
+	 */
+	@State(Scope.Thread)
+	public static class Colpiti {
+		/** Numero di muri colpiti, limitato ai muri della mappa. */
+		@Param({"1", "8", "32"})
+		public int numeroColpiti;
+
+		/** Partita su cui misurare. */
+		private BenchmarkFixture partita;
+
+		/** Indici per righe dei muri da colpire. */
+		private int[] muri;
+
+		/**
+		 * Prepara la partita e sceglie i primi muri della mappa, per righe.
+		 */
+		@Setup
+		public void prepara() {
+			partita = new BenchmarkFixture(false);
+			TileGrid griglia = partita.mapModel.getGriglia();
+			muri = new int[numeroColpiti];
+			int trovati = 0;
+			for (int i = 0; i < griglia.getRighe() * griglia.getColonne() && trovati < muri.length; i++) {
+				if (griglia.getTipo(i / griglia.getColonne(), i % griglia.getColonne()) == 1) {
+					muri[trovati++] = i;
+				}
+			}
+			muri = Arrays.copyOf(muri, trovati);
+		}
+
+		/**
+		 * Riporta i muri scelti all'inizio della distruzione e li segna come colpiti, cosi ogni chiamata trova lo
+		 * stesso numero di celle attive.
+		 */
+		@Setup(org.openjdk.jmh.annotations.Level.Invocation)
+		public void colpisci() {
+			TileGrid griglia = partita.mapModel.getGriglia();
+			griglia.svuotaAttive();
+			for (int cella : muri) {
+				int row = cella / griglia.getColonne();
+				int col = cella % griglia.getColonne();
+				griglia.sostituisci(row, col, 1);
+				griglia.setColpita(row, col);
+			}
+		}
+	}
+
+	/**
+	 * Prepara la partita.
+	 */
+	@Setup
+	public void prepara() {
+		partita = new BenchmarkFixture(false);
+		mappa = new MapGenerator(new SplittableRandom(BenchmarkFixture.SEME)).generateMap(BLOCCHI);
+	}
+
+	/**
+	 * Una passata sulle celle attive con {@code numeroColpiti} muri colpiti: {@code update} fa avanzare le celle
+	 * attive una volta ogni {@value #CHIAMATE_PER_PASSATA} chiamate, quindi ogni operazione comprende esattamente
+	 * una passata, che porta ogni muro al primo stadio della distruzione, e dieci chiamate che contano solo i tick.
+	 *
+	 * @param colpiti I muri colpiti.
+	 */
+	@Benchmark
+	public void update(Colpiti colpiti) {
+		for (int i = 0; i < CHIAMATE_PER_PASSATA; i++) {
+			colpiti.partita.mapModel.update();
+		}
+	}
+
+	/**
+	 * Copia della mappa generata nella griglia e assegnazione di fuga e potenziamenti.
+	 *
+	 * @return La mappa caricata.
+	 */
+	@Benchmark
+	public TileGrid loadMap() {
+		partita.mapModel.loadMap(mappa, 1);
+		return partita.mapModel.getGriglia();
+	}
+}
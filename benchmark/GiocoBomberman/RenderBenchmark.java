@@ -0,0 +1,92 @@
+package GiocoBomberman;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JFrame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Benchmark del disegno di un frame completo con {@link GamePanel#drawGame}: mappa, HUD, bombe, esplosioni, nemici e
+ * Bomberman disegnati su un {@link BufferedImage} fuori schermo a partire da uno {@link RenderSnapshot} del primo
+ * livello. Le viste richiedono una finestra, quindi il benchmark va eseguito con un display.
+ *
+ * @author Davide Vittucci
+ * @see BenchmarkFixture
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+	/** Partita da disegnare. */
+	private BenchmarkFixture partita;
+
+	/** Finestra richiesta dalle viste. */
+	private JFrame finestra;
+
+	/** Pannello che disegna il frame. */
+	private GamePanel gamePanel;
+
+	/** Snapshot del primo tick del livello. */
+	private RenderSnapshot snapshot;
+
+	/** Immagine fuori schermo delle dimensioni del gioco. */
+	private BufferedImage immagine;
+
+	/** Profiler disattivo, come nella partita normale. */
+	private FrameProfiler profiler;
+
+	/**
+	 * Prepara la partita, le viste e lo snapshot da disegnare.
+	 */
+	@Setup
+	public void prepara() {
+		partita = new BenchmarkFixture(true);
+		finestra = new JFrame();
+		finestra.setSize(1088, 960);
+		int tile = BenchmarkFixture.DIMENSIONI[2];
+		gamePanel = new GamePanel(new BombermanView(finestra), new MapView(partita.mapModel, tile),
+				new HudView(partita.sessione.getBomberman()), new EsplosioneView(), finestra);
+		partita.world.step(new Comandi());
+		snapshot = new RenderSnapshot();
+		snapshot.cattura(1, partita.sessione.getBomberman(), partita.sessione.getHudModel(), partita.world.getBombe(),
+				partita.world.getEsplosioni(), partita.world.getNemici(), partita.mapModel);
+		immagine = new BufferedImage(1088, 960, BufferedImage.TYPE_INT_ARGB);
+		profiler = new FrameProfiler();
+	}
+
+	/**
+	 * Rilascia la finestra.
+	 */
+	@TearDown
+	public void chiudi() {
+		finestra.dispose();
+	}
+
+	/**
+	 * Disegna un frame completo.
+	 *
+	 * @return L'immagine disegnata.
+	 */
+	@Benchmark
+	public BufferedImage drawGame() {
+		Graphics2D g2 = immagine.createGraphics();
+		gamePanel.drawGame(g2, snapshot, profiler);
+		g2.dispose();
+		return immagine;
+	}
+}
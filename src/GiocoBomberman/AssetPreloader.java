@@ -0,0 +1,122 @@
+package GiocoBomberman;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * AssetPreloader decodifica in parallelo, all'avvio, tutte le immagini del gioco e le lascia in
+ * {@link SpriteRegistry}, da cui le viste le prendono gia pronte. Le immagini da leggere sono l'atlante degli sprite
+ * e i file singoli elencati nel manifesto {@value #MANIFESTO}, un percorso per riga (le righe vuote e quelle che
+ * iniziano con # sono ignorate).
+ *
+ * La decodifica usa un numero limitato di thread, al massimo {@link #THREAD_MASSIMI}, che terminano al termine del
+ * caricamento. Un'immagine che non si riesce a leggere viene segnalata e saltata: la vista che la usa la richiedera
+ * di nuovo al registro come prima.
+ *
+ * @author Davide Vittucci
+ * @see SpriteRegistry
+ * @see SplashView
+ */
+public class AssetPreloader {
+	/** Manifesto delle immagini da precaricare, nel classpath. */
+	public static final String MANIFESTO = "/assets.txt";
+
+	/** Numero massimo di thread di decodifica. */
+	private static final int THREAD_MASSIMI = 4;
+
+	/** Immagini elencate nel manifesto. */
+	private final List<String> percorsi;
+
+	/** Immagini gia caricate, atlante compreso. */
+	private final AtomicInteger completate = new AtomicInteger();
+
+	/**
+	 * Costruisce il precaricatore leggendo il manifesto.
+	 */
+	public AssetPreloader() {
+		this.percorsi = leggiManifesto();
+	}
+
+	/**
+	 * Avvia il caricamento in sfondo.
+	 *
+	 * @return Un future completato quando tutte le immagini sono state caricate o saltate.
+	 */
+	public CompletableFuture<Void> avvia() {
+		int thread = Math.max(1, Math.min(THREAD_MASSIMI, Runtime.getRuntime().availableProcessors()));
+		ExecutorService esecutore = Executors.newFixedThreadPool(thread, r -> {
+			Thread t = new Thread(r, "AssetPreloader");
+			t.setDaemon(true);
+			return t;
+		});
+		List<CompletableFuture<Void>> compiti = new ArrayList<>();
+		compiti.add(CompletableFuture.runAsync(() -> {
+			SpriteRegistry.precaricaAtlante();
+			completate.incrementAndGet();
+		}, esecutore));
+		for (String percorso : percorsi) {
+			compiti.add(CompletableFuture.runAsync(() -> {
+				try {
+					SpriteRegistry.carica(percorso);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				completate.incrementAndGet();
+			}, esecutore));
+		}
+		CompletableFuture<Void> tutti = CompletableFuture.allOf(compiti.toArray(CompletableFuture<?>[]::new));
+		tutti.whenComplete((r, e) -> esecutore.shutdown());
+		return tutti;
+	}
+
+	/**
+	 * Restituisce il numero di immagini gia caricate.
+	 *
+	 * @return Le immagini caricate, atlante compreso.
+	 */
+	public int getCompletate() {
+		return completate.get();
+	}
+
+	/**
+	 * Restituisce il numero totale di immagini da caricare.
+	 *
+	 * @return Le immagini del manifesto piu l'atlante.
+	 */
+	public int getTotale() {
+		return percorsi.size() + 1;
+	}
+
+	/**
+	 * Legge il manifesto dal classpath.
+	 *
+	 * @return I percorsi elencati, vuoto se il manifesto manca o non puo essere letto.
+	 */
+	private static List<String> leggiManifesto() {
+		List<String> percorsi = new ArrayList<>();
+		InputStream risorsa = AssetPreloader.class.getResourceAsStream(MANIFESTO);
+		if (risorsa == null) {
+			return percorsi;
+		}
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(risorsa, StandardCharsets.UTF_8))) {
+			String riga;
+			while ((riga = in.readLine()) != null) {
+				riga = riga.trim();
+				if (!riga.isEmpty() && !riga.startsWith("#")) {
+					percorsi.add(riga);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return percorsi;
+	}
+}
@@ -0,0 +1,364 @@
+package GiocoBomberman;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+/**
+ * AtlasPacker raccoglie gli sprite PNG della cartella delle risorse in poche pagine dell'atlante, togliendo i bordi
+ * trasparenti di ogni immagine, e scrive un indice che dice dove si trova ogni sprite. A runtime
+ * {@link SpriteRegistry#sprite(String)} apre solo le pagine e l'indice invece di un file per immagine.
+ *
+ * Va eseguito ogni volta che si aggiungono o modificano immagini, dalla radice del progetto:
+ * <pre>
+ * java -cp bin GiocoBomberman.AtlasPacker res
+ * </pre>
+ * Le immagini con un lato maggiore di {@link #LATO_MASSIMO} (sfondi, HUD, menu) restano fuori dall'atlante e
+ * vengono lette come file singoli.
+ *
+ * Formato dell'indice: intero {@link #MAGICO}, byte di versione, byte con il numero di pagine, short con il numero
+ * di sprite e per ogni sprite percorso della risorsa, pagina, regione nella pagina, scarto a sinistra e in alto e
+ * dimensioni originali.
+ *
+ * @author Davide Vittucci
+ * @see Sprite
+ */
+public class AtlasPacker {
+	/** Numero che identifica l'indice dell'atlante ("JBAT"). */
+	public static final int MAGICO = 0x4A424154;
+
+	/** Versione del formato dell'indice. */
+	private static final int VERSIONE = 1;
+
+	/** Cartella dell'atlante, relativa alla radice delle risorse. */
+	public static final String CARTELLA = "atlas";
+
+	/** Nome del file indice nella cartella dell'atlante. */
+	private static final String INDICE = "atlas.idx";
+
+	/** Lato massimo di una pagina. */
+	private static final int LATO_PAGINA = 1024;
+
+	/** Lato massimo di un'immagine inserita nell'atlante. */
+	public static final int LATO_MASSIMO = 256;
+
+	/** Pixel vuoti tra due sprite, perche il filtro di scalatura non legga i vicini. */
+	private static final int SPAZIO = 1;
+
+	/**
+	 * Immagine da inserire nell'atlante, gia privata dei bordi trasparenti.
+	 */
+	private static class Voce {
+		/** Percorso della risorsa, ad esempio "/Bomba/Bomba0.png". */
+		final String percorso;
+		/** Parte visibile dell'immagine. */
+		final BufferedImage ritaglio;
+		/** Colonne trasparenti tolte a sinistra. */
+		final int scartoX;
+		/** Righe trasparenti tolte in alto. */
+		final int scartoY;
+		/** Larghezza originale. */
+		final int larghezza;
+		/** Altezza originale. */
+		final int altezza;
+		/** Pagina assegnata. */
+		int pagina;
+		/** Posizione X nella pagina. */
+		int x;
+		/** Posizione Y nella pagina. */
+		int y;
+
+		/**
+		 * Costruisce una voce.
+		 *
+		 * @param percorso Percorso della risorsa.
+		 * @param ritaglio Parte visibile dell'immagine.
+		 * @param scartoX Colonne tolte a sinistra.
+		 * @param scartoY Righe tolte in alto.
+		 * @param larghezza Larghezza originale.
+		 * @param altezza Altezza originale.
+		 */
+		Voce(String percorso, BufferedImage ritaglio, int scartoX, int scartoY, int larghezza, int altezza) {
+			this.percorso = percorso;
+			this.ritaglio = ritaglio;
+			this.scartoX = scartoX;
+			this.scartoY = scartoY;
+			this.larghezza = larghezza;
+			this.altezza = altezza;
+		}
+
+		/**
+		 * Restituisce la larghezza della parte visibile.
+		 *
+		 * @return La larghezza, 0 se l'immagine e trasparente.
+		 */
+		int larghezzaRitaglio() {
+			return ritaglio == null ? 0 : ritaglio.getWidth();
+		}
+
+		/**
+		 * Restituisce l'altezza della parte visibile.
+		 *
+		 * @return L'altezza, 0 se l'immagine e trasparente.
+		 */
+		int altezzaRitaglio() {
+			return ritaglio == null ? 0 : ritaglio.getHeight();
+		}
+	}
+
+	/**
+	 * Crea l'atlante della cartella delle risorse indicata.
+	 *
+	 * @param args Cartella delle risorse, "res" se assente.
+	 * @throws IOException Se la lettura delle immagini o la scrittura dell'atlante fallisce.
+	 */
+	public static void main(String[] args) throws IOException {
+		Path radice = Paths.get(args.length > 0 ? args[0] : "res");
+		Path cartella = radice.resolve(CARTELLA);
+		List<Voce> voci = leggiImmagini(radice, cartella);
+		int pagine = disponi(voci);
+		Files.createDirectories(cartella);
+		for (int i = 0; i < pagine; i++) {
+			ImageIO.write(disegnaPagina(voci, i), "png", cartella.resolve(nomePagina(i)).toFile());
+		}
+		scriviIndice(voci, pagine, cartella.resolve(INDICE));
+		System.out.println(voci.size() + " sprite in " + pagine + " pagine scritti in " + cartella);
+	}
+
+	/**
+	 * Legge le immagini PNG da inserire nell'atlante, in ordine di percorso.
+	 *
+	 * @param radice Cartella delle risorse.
+	 * @param esclusa Cartella dell'atlante, da non rileggere.
+	 * @return Le voci, con i bordi trasparenti gia tolti.
+	 * @throws IOException Se la lettura fallisce.
+	 */
+	private static List<Voce> leggiImmagini(Path radice, Path esclusa) throws IOException {
+		List<Path> file;
+		try (Stream<Path> percorsi = Files.walk(radice)) {
+			file = percorsi.filter(p -> p.toString().toLowerCase().endsWith(".png"))
+					.filter(p -> !p.startsWith(esclusa))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+		List<Voce> voci = new ArrayList<>();
+		for (Path p : file) {
+			BufferedImage immagine = ImageIO.read(p.toFile());
+			if (immagine == null || immagine.getWidth() > LATO_MASSIMO || immagine.getHeight() > LATO_MASSIMO) {
+				continue;
+			}
+			StringBuilder percorso = new StringBuilder();
+			for (Path parte : radice.relativize(p)) {
+				percorso.append('/').append(parte);
+			}
+			voci.add(ritaglia(normalizza(percorso.toString()), immagine));
+		}
+		return voci;
+	}
+
+	/**
+	 * Toglie i bordi del tutto trasparenti da un'immagine.
+	 *
+	 * @param percorso Percorso della risorsa.
+	 * @param immagine L'immagine originale.
+	 * @return La voce con la parte visibile e gli scarti.
+	 */
+	private static Voce ritaglia(String percorso, BufferedImage immagine) {
+		int w = immagine.getWidth();
+		int h = immagine.getHeight();
+		int minX = w;
+		int minY = h;
+		int maxX = -1;
+		int maxY = -1;
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				if ((immagine.getRGB(x, y) >>> 24) != 0) {
+					minX = Math.min(minX, x);
+					maxX = Math.max(maxX, x);
+					minY = Math.min(minY, y);
+					maxY = Math.max(maxY, y);
+				}
+			}
+		}
+		if (maxX < 0) {
+			return new Voce(percorso, null, 0, 0, w, h);
+		}
+		BufferedImage ritaglio = immagine.getSubimage(minX, minY, maxX - minX + 1, maxY - minY + 1);
+		return new Voce(percorso, ritaglio, minX, minY, w, h);
+	}
+
+	/**
+	 * Dispone le voci nelle pagine a ripiani: le immagini vengono ordinate per altezza e messe una accanto
+	 * all'altra, aprendo un nuovo ripiano quando la riga e piena e una nuova pagina quando la pagina e piena.
+	 *
+	 * @param voci Le voci da disporre; pagina e posizione vengono assegnate.
+	 * @return Il numero di pagine usate.
+	 */
+	private static int disponi(List<Voce> voci) {
+		List<Voce> ordinate = new ArrayList<>(voci);
+		ordinate.sort(Comparator.comparingInt(Voce::altezzaRitaglio).reversed());
+		int pagina = 0;
+		int x = 0;
+		int y = 0;
+		int altezzaRipiano = 0;
+		for (Voce voce : ordinate) {
+			int w = voce.larghezzaRitaglio();
+			int h = voce.altezzaRitaglio();
+			if (w == 0) {
+				continue;
+			}
+			if (x + w > LATO_PAGINA) {
+				x = 0;
+				y += altezzaRipiano + SPAZIO;
+				altezzaRipiano = 0;
+			}
+			if (y + h > LATO_PAGINA) {
+				pagina++;
+				x = 0;
+				y = 0;
+				altezzaRipiano = 0;
+			}
+			voce.pagina = pagina;
+			voce.x = x;
+			voce.y = y;
+			x += w + SPAZIO;
+			altezzaRipiano = Math.max(altezzaRipiano, h);
+		}
+		return pagina + 1;
+	}
+
+	/**
+	 * Disegna una pagina, grande quanto basta per le sue voci.
+	 *
+	 * @param voci Le voci gia disposte.
+	 * @param pagina Indice della pagina.
+	 * @return L'immagine della pagina.
+	 */
+	private static BufferedImage disegnaPagina(List<Voce> voci, int pagina) {
+		int w = 1;
+		int h = 1;
+		for (Voce voce : voci) {
+			if (voce.pagina == pagina && voce.ritaglio != null) {
+				w = Math.max(w, voce.x + voce.larghezzaRitaglio());
+				h = Math.max(h, voce.y + voce.altezzaRitaglio());
+			}
+		}
+		BufferedImage immagine = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2 = immagine.createGraphics();
+		for (Voce voce : voci) {
+			if (voce.pagina == pagina && voce.ritaglio != null) {
+				g2.drawImage(voce.ritaglio, voce.x, voce.y, null);
+			}
+		}
+		g2.dispose();
+		return immagine;
+	}
+
+	/**
+	 * Scrive l'indice dell'atlante.
+	 *
+	 * @param voci Le voci gia disposte.
+	 * @param pagine Numero di pagine.
+	 * @param file File di destinazione.
+	 * @throws IOException Se la scrittura fallisce.
+	 */
+	private static void scriviIndice(List<Voce> voci, int pagine, Path file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(MAGICO);
+			out.writeByte(VERSIONE);
+			out.writeByte(pagine);
+			out.writeShort(voci.size());
+			for (Voce voce : voci) {
+				out.writeUTF(voce.percorso);
+				out.writeByte(voce.pagina);
+				out.writeShort(voce.x);
+				out.writeShort(voce.y);
+				out.writeShort(voce.larghezzaRitaglio());
+				out.writeShort(voce.altezzaRitaglio());
+				out.writeShort(voce.scartoX);
+				out.writeShort(voce.scartoY);
+				out.writeShort(voce.larghezza);
+				out.writeShort(voce.altezza);
+			}
+		}
+	}
+
+	/**
+	 * Legge l'atlante dalle risorse del classpath.
+	 *
+	 * @return Gli sprite dell'atlante per percorso normalizzato, vuoto se l'atlante non esiste.
+	 * @throws IOException Se l'atlante esiste ma non puo essere letto.
+	 */
+	static Map<String, Sprite> carica() throws IOException {
+		Map<String, Sprite> sprite = new HashMap<>();
+		InputStream risorsa = AtlasPacker.class.getResourceAsStream("/" + CARTELLA + "/" + INDICE);
+		if (risorsa == null) {
+			return sprite;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(risorsa))) {
+			if (in.readInt() != MAGICO) {
+				throw new IOException("Indice dell'atlante non valido");
+			}
+			int versione = in.readUnsignedByte();
+			if (versione != VERSIONE) {
+				throw new IOException("Versione dell'atlante non supportata: " + versione);
+			}
+			BufferedImage[] pagine = new BufferedImage[in.readUnsignedByte()];
+			for (int i = 0; i < pagine.length; i++) {
+				try (InputStream pagina = AtlasPacker.class.getResourceAsStream("/" + CARTELLA + "/" + nomePagina(i))) {
+					if (pagina == null) {
+						throw new IOException("Pagina dell'atlante mancante: " + nomePagina(i));
+					}
+					pagine[i] = ImageIO.read(pagina);
+				}
+			}
+			int numero = in.readUnsignedShort();
+			for (int i = 0; i < numero; i++) {
+				String percorso = in.readUTF();
+				BufferedImage pagina = pagine[in.readUnsignedByte()];
+				sprite.put(percorso, new Sprite(pagina, in.readUnsignedShort(), in.readUnsignedShort(),
+						in.readUnsignedShort(), in.readUnsignedShort(), in.readUnsignedShort(),
+						in.readUnsignedShort(), in.readUnsignedShort(), in.readUnsignedShort()));
+			}
+		}
+		return sprite;
+	}
+
+	/**
+	 * Porta un percorso in forma NFC, cosi i nomi con lettere accentate coincidono qualunque sia il file system
+	 * da cui sono stati letti.
+	 *
+	 * @param percorso Il percorso.
+	 * @return Il percorso normalizzato.
+	 */
+	static String normalizza(String percorso) {
+		return Normalizer.normalize(percorso, Normalizer.Form.NFC);
+	}
+
+	/**
+	 * Restituisce il nome del file di una pagina.
+	 *
+	 * @param pagina Indice della pagina.
+	 * @return Il nome del file.
+	 */
+	private static String nomePagina(int pagina) {
+		return "atlas" + pagina + ".png";
+	}
+}
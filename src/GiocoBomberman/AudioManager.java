@@ -1,12 +1,10 @@
 package GiocoBomberman;
 
-import javax.sound.sampled.*;
-import java.io.File;
-import java.io.IOException;
 /**
  * La classe AudioManager gestisce la riproduzione della musica di sottofondo e degli effetti sonori nel gioco Bomberman.
  * Implementa il pattern Singleton per assicurare che esista una sola istanza di AudioManager all'interno dell'applicazione.
- * Fornisce metodi per riprodurre, fermare e gestire il volume della musica e degli effetti sonori.
+ * Fornisce metodi per riprodurre, fermare e gestire il volume della musica e degli effetti sonori; la riproduzione vera
+ * e propria e affidata a {@link RiproduttoreAudio}.
  *
  * @author Davide Vittucci
  */
@@ -14,11 +12,11 @@ public class AudioManager {
 	 /** Istanza unica di AudioManager, parte del pattern Singleton. */
     private static AudioManager instance;
 
-    /** Clip audio per la musica di sottofondo. */
-    private Clip backgroundMusicClip;
+    /** Riproduttore dei suoni, creato al primo suono: un gestore muto non carica le classi di javax.sound. */
+    private RiproduttoreAudio riproduttore;
 
-    /** Clip audio per gli effetti sonori. */
-    private Clip soundEffectClip;
+    /** Se true nessun suono viene riprodotto, ad esempio durante le simulazioni senza interfaccia. */
+    private volatile boolean muto;
     /**
      * Ottiene l'istanza singleton di AudioManager. Se non esiste, viene creata.
      *
@@ -30,6 +28,16 @@ public class AudioManager {
         }
         return instance;
     }
+    /**
+     * Crea un gestore dell'audio separato e muto, per le partite simulate senza interfaccia.
+     *
+     * @return Un nuovo AudioManager che non riproduce suoni.
+     */
+    public static AudioManager creaMuto() {
+        AudioManager audio = new AudioManager();
+        audio.setMuto(true);
+        return audio;
+    }
     /** Costruttore privato per impedire l'istanziazione diretta. */
     private AudioManager() {
     }
@@ -41,51 +49,10 @@ public class AudioManager {
      * @param volume Il volume della musica (0.0 a 1.0).
      */
     public void playBackgroundMusic(String filename, boolean loop,float volume) {
-        try {
-            if (backgroundMusicClip != null && backgroundMusicClip.isRunning()) {
-                backgroundMusicClip.stop(); // Stoppa la musica corrente se in esecuzione
-            }
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filename));
-            backgroundMusicClip = AudioSystem.getClip();
-            backgroundMusicClip.open(audioStream);
-            if (backgroundMusicClip != null) {
-            if (loop) {
-                backgroundMusicClip.loop(Clip.LOOP_CONTINUOUSLY);
-            } else {
-                backgroundMusicClip.start();
-            }
-            setVolume(volume, backgroundMusicClip);}
-            else {
-            	
-            AudioInputStream audioStream1 = AudioSystem.getAudioInputStream(new File(filename));
-            backgroundMusicClip = AudioSystem.getClip();
-            backgroundMusicClip.open(audioStream1);
-            if (backgroundMusicClip != null) {
-                if (loop) {
-                    backgroundMusicClip.loop(Clip.LOOP_CONTINUOUSLY);
-                } else {
-                    backgroundMusicClip.start();
-                }
-                setVolume(volume, backgroundMusicClip);}}
-           
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            e.printStackTrace();
-           
-        }
-    }
-    /**
-     * Imposta il volume di un Clip audio.
-     *
-     * @param volume Il volume desiderato (0.0 a 1.0).
-     * @param clip Il Clip audio di cui impostare il volume.
-     */
-    private void setVolume(float volume, Clip clip) {
-        if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-            FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            float range = gainControl.getMaximum() - gainControl.getMinimum();
-            float gain = (range * volume) + gainControl.getMinimum();
-            gainControl.setValue(gain);
+        if (muto) {
+            return;
         }
+        getRiproduttore().playBackgroundMusic(filename, loop, volume);
     }
     /**
      * Riproduce un effetto sonoro.
@@ -94,15 +61,10 @@ public class AudioManager {
      * @param volume Il volume dell'effetto sonoro (0.0 a 1.0).
      */
     public void play(String filename,float volume) {
-        try {
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filename));
-            soundEffectClip = AudioSystem.getClip();
-            soundEffectClip.open(audioStream);
-            soundEffectClip.start();
-            setVolume(volume, soundEffectClip);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            e.printStackTrace();
+        if (muto) {
+            return;
         }
+        getRiproduttore().play(filename, volume);
     }
     /**
      * Riproduce un effetto sonoro con volume predefinito.
@@ -110,30 +72,40 @@ public class AudioManager {
      * @param filename Il percorso del file audio dell'effetto sonoro.
      */
     public void play(String filename) {
-        try {
-            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filename));
-            soundEffectClip = AudioSystem.getClip();
-            soundEffectClip.open(audioStream);
-            soundEffectClip.start();
-            
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            e.printStackTrace();
+        if (muto) {
+            return;
         }
+        getRiproduttore().play(filename);
+    }
+    /**
+     * Restituisce il riproduttore, creandolo al primo suono.
+     *
+     * @return Il riproduttore dei suoni.
+     */
+    private RiproduttoreAudio getRiproduttore() {
+        if (riproduttore == null) {
+            riproduttore = new RiproduttoreAudio();
+        }
+        return riproduttore;
+    }
+    /**
+     * Attiva o disattiva tutti i suoni.
+     *
+     * @param muto true per non riprodurre piu alcun suono.
+     */
+    public void setMuto(boolean muto) {
+        this.muto = muto;
     }
     /** Ferma la riproduzione della musica di sottofondo e rilascia le risorse. */
     public void stopBackgroundMusic() {
-        if (backgroundMusicClip != null) {
-            backgroundMusicClip.stop();
-            backgroundMusicClip.close();
-            backgroundMusicClip = null;
+        if (riproduttore != null) {
+            riproduttore.stopBackgroundMusic();
         }
     }
     /** Ferma la riproduzione dell'effetto sonoro e rilascia le risorse. */
     public void stopSoundEffect() {
-        if (soundEffectClip != null) {
-            soundEffectClip.stop();
-            soundEffectClip.close();
-            soundEffectClip = null;
+        if (riproduttore != null) {
+            riproduttore.stopSoundEffect();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,175 @@
+package GiocoBomberman;
+
+import java.util.Arrays;
+/**
+ * Bitboard e una griglia di celle vere o false impacchettata in parole long, un bit per cella: ogni riga occupa
+ * {@code ceil(colonne / 64)} parole consecutive, quindi una riga della mappa classica sta in una sola parola.
+ *
+ * Oltre alla lettura e scrittura di una cella, le operazioni su un rettangolo di celle lavorano con una maschera di
+ * colonne per parola: chiedere se una cella qualsiasi di un riquadro e occupata, o segnare un braccio di esplosione,
+ * costa una parola per riga invece di un controllo per cella, anche sulle mappe piu grandi dello schermo.
+ * Le coordinate non vengono controllate: devono cadere nella griglia.
+ *
+ * @author Davide Vittucci
+ * @see BombaMap
+ * @see GameWorld
+ */
+public class Bitboard {
+	/** Numero di colonne. */
+	private final int colonne;
+
+	/** Numero di righe. */
+	private final int righe;
+
+	/** Parole long di ogni riga. */
+	private final int parolePerRiga;
+
+	/** Bit delle celle, per righe; la colonna c sta nel bit c % 64 della parola c / 64 della riga. */
+	private final long[] parole;
+
+	/**
+	 * Costruisce una griglia con tutte le celle false.
+	 *
+	 * @param colonne Numero di colonne.
+	 * @param righe Numero di righe.
+	 */
+	public Bitboard(int colonne, int righe) {
+		this.colonne = colonne;
+		this.righe = righe;
+		this.parolePerRiga = (colonne + 63) >>> 6;
+		this.parole = new long[parolePerRiga * righe];
+	}
+
+	/**
+	 * Legge una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se la cella e vera.
+	 */
+	public boolean get(int row, int col) {
+		return (parole[row * parolePerRiga + (col >>> 6)] & (1L << col)) != 0;
+	}
+
+	/**
+	 * Scrive una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @param valore Il nuovo valore.
+	 */
+	public void set(int row, int col, boolean valore) {
+		int i = row * parolePerRiga + (col >>> 6);
+		if (valore) {
+			parole[i] |= 1L << col;
+		} else {
+			parole[i] &= ~(1L << col);
+		}
+	}
+
+	/**
+	 * Indica se almeno una cella di un rettangolo e vera.
+	 *
+	 * @param riga1 Prima riga del rettangolo.
+	 * @param colonna1 Prima colonna del rettangolo.
+	 * @param riga2 Ultima riga del rettangolo, compresa.
+	 * @param colonna2 Ultima colonna del rettangolo, compresa.
+	 * @return true se almeno una cella e vera.
+	 */
+	public boolean qualcunaInArea(int riga1, int colonna1, int riga2, int colonna2) {
+		int primaParola = colonna1 >>> 6;
+		int ultimaParola = colonna2 >>> 6;
+		for (int row = riga1; row <= riga2; row++) {
+			int base = row * parolePerRiga;
+			for (int p = primaParola; p <= ultimaParola; p++) {
+				if ((parole[base + p] & maschera(p, colonna1, colonna2)) != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Scrive tutte le celle di un rettangolo.
+	 *
+	 * @param riga1 Prima riga del rettangolo.
+	 * @param colonna1 Prima colonna del rettangolo.
+	 * @param riga2 Ultima riga del rettangolo, compresa.
+	 * @param colonna2 Ultima colonna del rettangolo, compresa.
+	 * @param valore Il nuovo valore.
+	 */
+	public void setArea(int riga1, int colonna1, int riga2, int colonna2, boolean valore) {
+		int primaParola = colonna1 >>> 6;
+		int ultimaParola = colonna2 >>> 6;
+		for (int row = riga1; row <= riga2; row++) {
+			int base = row * parolePerRiga;
+			for (int p = primaParola; p <= ultimaParola; p++) {
+				long m = maschera(p, colonna1, colonna2);
+				if (valore) {
+					parole[base + p] |= m;
+				} else {
+					parole[base + p] &= ~m;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calcola la maschera delle colonne di un intervallo che cadono in una parola della riga.
+	 *
+	 * @param parola Indice della parola nella riga.
+	 * @param colonna1 Prima colonna dell'intervallo.
+	 * @param colonna2 Ultima colonna dell'intervallo, compresa.
+	 * @return I bit delle colonne dell'intervallo nella parola.
+	 */
+	private static long maschera(int parola, int colonna1, int colonna2) {
+		long m = -1L;
+		if (parola == colonna1 >>> 6) {
+			m &= -1L << colonna1;
+		}
+		if (parola == colonna2 >>> 6) {
+			m &= -1L >>> (63 - (colonna2 & 63));
+		}
+		return m;
+	}
+
+	/**
+	 * Indica se tutte le celle sono false.
+	 *
+	 * @return true se nessuna cella e vera.
+	 */
+	public boolean isVuota() {
+		for (long parola : parole) {
+			if (parola != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Porta tutte le celle a false.
+	 */
+	public void svuota() {
+		Arrays.fill(parole, 0L);
+	}
+
+	/**
+	 * Restituisce il numero di colonne.
+	 *
+	 * @return Le colonne della griglia.
+	 */
+	public int getColonne() {
+		return colonne;
+	}
+
+	/**
+	 * Restituisce il numero di righe.
+	 *
+	 * @return Le righe della griglia.
+	 */
+	public int getRighe() {
+		return righe;
+	}
+}
@@ -1,6 +1,5 @@
 package GiocoBomberman;
 
-import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -53,7 +52,7 @@ public class Bomba {
     private boolean isCalpestabile = true;
 
     /** Area di collisione della bomba. */
-    private Rectangle collisionArea;
+    private Riquadro collisionArea;
 
     /** Dimensione della piastrella (tile) del gioco. */
     private int tileSize;
@@ -61,6 +60,9 @@ public class Bomba {
     /** Flag per controllare la riproduzione dell'audio dell'esplosione. */
     private boolean audioBombaRiprodotto = false;
 
+    /** Gestore dell'audio della sessione di gioco. */
+    private final AudioManager audio;
+
     /** Lista di osservatori che vengono notificati sugli aggiornamenti di stato. */
     private List<Observer> observers = new ArrayList<>();
     
@@ -70,14 +72,16 @@ public class Bomba {
      * @param tile Dimensione della piastrella (tile) del gioco.
      * @param x Coordinate X della bomba.
      * @param y Coordinate Y della bomba.
+     * @param audio Gestore dell'audio della sessione di gioco.
      */
-    public Bomba(int tile, int x, int y) {
+    public Bomba(int tile, int x, int y, AudioManager audio) {
+    	this.audio = audio;
     	
         this.x = x;
         this.y = y;
         
         this.tileSize = tile ;
-         collisionArea = new Rectangle(x + (tileSize / 2) - 32, y + (tileSize / 2) - 32, 64, 64);
+         collisionArea = new Riquadro(x + (tileSize / 2) - 32, y + (tileSize / 2) - 32, 64, 64);
     }
     /**
      * Aggiunge un observer alla bomba.
@@ -128,9 +132,9 @@ public class Bomba {
     /**
      * Recupera l'area di collisione della bomba.
      *
-     * @return Rectangle rappresentante l'area di collisione.
+     * @return Riquadro rappresentante l'area di collisione.
      */
-    public Rectangle getCollisionArea() {
+    public Riquadro getCollisionArea() {
         return collisionArea;
     }
     /**
@@ -143,10 +147,10 @@ public class Bomba {
      * Aggiorna lo stato della bomba, inclusa la sua animazione e verifica se è esplosa.
      * Gestisce anche la riproduzione del suono di esplosione e l'animazione dell'esplosione.
      *
-     * @param bombaMap Array bidimensionale per la mappa delle bombe.
-     * @param esplosioniMap Array bidimensionale per la mappa delle esplosioni.
+     * @param bombaMap Mappa delle bombe.
+     * @param esplosioniMap Mappa delle esplosioni.
      */
-    public void update(int[][] bombaMap, boolean[][] esplosioniMap) {
+    public void update(BombaMap bombaMap, EsplosioniMap esplosioniMap) {
     	
         if (!exploded&& !isPaused) {
             bombCounter++;
@@ -171,7 +175,7 @@ public class Bomba {
             } else if (bombCounter >= EXPLOSION_TIME) {
                 explode();
                 if (!audioBombaRiprodotto) {
-    	            AudioManager.getInstance().play("res/audio/Bomb-Explodes.wav");
+    	            audio.play("res/audio/Bomb-Explodes.wav");
     	            audioBombaRiprodotto = true; // Imposta la variabile a true dopo la riproduzione
     	        }
             }
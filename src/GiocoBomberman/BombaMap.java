@@ -0,0 +1,97 @@
+package GiocoBomberman;
+/**
+ * BombaMap tiene le celle occupate dalle bombe in due {@link Bitboard}. Una bomba appena piazzata non blocca
+ * Bomberman, che ci sta ancora sopra; quando Bomberman si sposta su un'altra cella la bomba diventa bloccante
+ * per tutti. Le collisioni chiedono con {@link #bloccanteInArea(int, int, int, int)} se il riquadro di un'entita
+ * tocca una bomba bloccante, con una parola per riga.
+ *
+ * @author Davide Vittucci
+ * @see CollisionChecker
+ * @see GameWorld
+ */
+public class BombaMap {
+	/** Celle con una bomba che blocca il movimento. */
+	private final Bitboard bloccanti;
+
+	/** Celle con una bomba appena piazzata, su cui Bomberman si trova ancora. */
+	private final Bitboard sottoBomberman;
+
+	/**
+	 * Costruisce una mappa senza bombe.
+	 *
+	 * @param colonne Numero di colonne.
+	 * @param righe Numero di righe.
+	 */
+	public BombaMap(int colonne, int righe) {
+		this.bloccanti = new Bitboard(colonne, righe);
+		this.sottoBomberman = new Bitboard(colonne, righe);
+	}
+
+	/**
+	 * Indica se in una cella non c'e alcuna bomba.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se la cella e libera.
+	 */
+	public boolean isLibera(int row, int col) {
+		return !bloccanti.get(row, col) && !sottoBomberman.get(row, col);
+	}
+
+	/**
+	 * Indica se in una cella c'e una bomba appena piazzata, che non blocca ancora il movimento.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se la bomba e sotto Bomberman.
+	 */
+	public boolean isSottoBomberman(int row, int col) {
+		return sottoBomberman.get(row, col);
+	}
+
+	/**
+	 * Indica se almeno una cella di un rettangolo contiene una bomba che blocca il movimento.
+	 *
+	 * @param riga1 Prima riga del rettangolo.
+	 * @param colonna1 Prima colonna del rettangolo.
+	 * @param riga2 Ultima riga del rettangolo, compresa.
+	 * @param colonna2 Ultima colonna del rettangolo, compresa.
+	 * @return true se il rettangolo tocca una bomba bloccante.
+	 */
+	public boolean bloccanteInArea(int riga1, int colonna1, int riga2, int colonna2) {
+		return bloccanti.qualcunaInArea(riga1, colonna1, riga2, colonna2);
+	}
+
+	/**
+	 * Segna una bomba appena piazzata sotto Bomberman.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void piazza(int row, int col) {
+		bloccanti.set(row, col, false);
+		sottoBomberman.set(row, col, true);
+	}
+
+	/**
+	 * Rende bloccante la bomba di una cella, quando Bomberman non ci sta piu sopra.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void blocca(int row, int col) {
+		sottoBomberman.set(row, col, false);
+		bloccanti.set(row, col, true);
+	}
+
+	/**
+	 * Libera una cella dalla sua bomba.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void rimuovi(int row, int col) {
+		bloccanti.set(row, col, false);
+		sottoBomberman.set(row, col, false);
+	}
+}
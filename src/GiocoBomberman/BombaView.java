@@ -5,8 +5,6 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
 import java.io.IOException;
 /**
  * La classe BombaView implementa l'interfaccia Observer e si occupa della rappresentazione grafica delle bombe
@@ -19,10 +17,10 @@ public class BombaView implements Observer {
  
 	/** Array di immagini per la bomba 
 	 * */
-    private BufferedImage[] bombImages = new BufferedImage[3];
+    private Sprite[] bombImages = new Sprite[3];
     /** Array di immagini per  le  fasi di esplosione.
 	 * */
-    private BufferedImage[] explosionImages = new BufferedImage[6];
+    private Sprite[] explosionImages = new Sprite[6];
 
     /** Dimensioni originali della finestra di gioco.
      * 
@@ -87,7 +85,7 @@ public class BombaView implements Observer {
     private void loadBombImages() {
         try {
             for (int i = 0; i < 3; i++) {
-                bombImages[i] = ImageIO.read(getClass().getResourceAsStream("/Bomba/Bomba" + i + ".png"));
+                bombImages[i] = SpriteRegistry.sprite("/Bomba/Bomba" + i + ".png");
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -101,12 +99,26 @@ public class BombaView implements Observer {
     private void loadExplosionImages() {
         try {
             for (int i = 1; i < 7; i++) {
-                explosionImages[i - 1] = ImageIO.read(getClass().getResourceAsStream("/Esplosione/esplosione" + i + ".png"));
+                explosionImages[i - 1] = SpriteRegistry.sprite("/Esplosione/esplosione" + i + ".png");
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+    /**
+     * Disegna la bomba leggendo posizione e frame dallo snapshot del frame.
+     *
+     * @param g2 Il componente grafico su cui disegnare.
+     * @param snapshot Lo snapshot del frame da disegnare.
+     * @param indice Posizione della bomba negli array dello snapshot.
+     */
+    public void draw(Graphics2D g2, RenderSnapshot snapshot, int indice) {
+    	this.x = snapshot.bombaX[indice];
+    	this.y = snapshot.bombaY[indice];
+    	this.bombFrame = snapshot.bombaFrame[indice];
+    	this.esplosa = false;
+    	draw(g2);
+    }
     /**
      * Disegna la bomba o l'esplosione sul componente grafico fornito.
      *
@@ -119,12 +131,12 @@ public class BombaView implements Observer {
         if (!esplosa) {
         	 width = 72; // Larghezza scalata
              height = 72;
-            g2.drawImage(bombImages[bombFrame], this.x, this.y-5,width,height, null);
+            bombImages[bombFrame].draw(g2, this.x, this.y-5, width, height);
            
         } else {
         	 width =208; // Larghezza scalata
              height = 208;
-            g2.drawImage(explosionImages[explosionFrame],x-72, x-72, width, height, null);
+            explosionImages[explosionFrame].draw(g2, x-72, x-72, width, height);
             
             
         }
@@ -1,7 +1,5 @@
 package GiocoBomberman;
 
-import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -25,7 +23,7 @@ import java.util.List;
  * @author Davide Vittucci
  * @see CollisionChecker
  * @see Observable
- * @see KeyHandler
+ * @see Comandi
  */
 public class Bomberman extends Entita  implements Observable{
 	/** Coordinate x del Bomberman nel gioco. */
@@ -115,8 +113,8 @@ public class Bomberman extends Entita  implements Observable{
     /** Numero di frame per l'animazione della fuga di Bomberman. */
     private final int FUGAFRAME = 10;
 
-    /** Istanza singola di Bomberman (Singleton). */
-    private static Bomberman instance;
+    /** Gestore dell'audio della sessione di gioco. */
+    private final AudioManager audio;
 
     /** Frame corrente dell'animazione della morte di Bomberman. */
     public int morteFrame = 0;
@@ -127,11 +125,11 @@ public class Bomberman extends Entita  implements Observable{
     /** Indica se Bomberman è stato colpito per la prima volta. */
     private boolean colpitoPrimo = false;
 
-    /** Timestamp dell'inizio della fase di invincibilità di Bomberman. */
-    private long invincibileStartTime;
+    /** Tick rimanenti della fase di invincibilità di Bomberman. */
+    private int tickInvincibilita;
 
-    /** Durata della fase di invincibilità di Bomberman. */
-    private static final long INVINCIBILITÀ_DURATION = 7000;
+    /** Durata della fase di invincibilità di Bomberman in tick (7 secondi). */
+    private static final int INVINCIBILITÀ_DURATION = 7 * GameWorld.TICK_PER_SECONDO;
 
     /** Alterna gli sprite di Bomberman durante la fase di invincibilità. */
     private boolean alternaSprite = false;
@@ -148,31 +146,21 @@ public class Bomberman extends Entita  implements Observable{
 	  * iniziali. Il personaggio inizia con un raggio d'azione di 1 per le bombe, una bomba massima
 	  * disponibile e una velocità predefinita. Il personaggio viene anche impostato come invincibile
 	  * all'inizio.
+	  *
+	  * @param audio Gestore dell'audio della sessione di gioco.
 	  */
-		private Bomberman() {
+		public Bomberman(AudioManager audio) {
+		this.audio = audio;
     	this.tileSize = originalTileSize * scale;
     	this.vite= 4 ;
     	this.inFuga=false;
         setDefaultValues();
-        solidArea = new Rectangle(0, 62, 60, 32);
+        solidArea = new Riquadro(0, 62, 60, 32);
         setInvincibile();
         this.raggio=1;
         this.maxBomb=1;
         speed= 4;
 					}
-		/**
-		 * Metodo per ottenere l'istanza singleton di Bomberman. Se l'istanza non esiste,
-		 * ne crea una nuova e la restituisce.
-		 *
-		 * @return l'istanza singleton di Bomberman.
-		 */
-		public static Bomberman getInstance() {
-	        if (instance == null) {
-	            instance = new Bomberman();
-	        }
-	        return instance;
-	    }
-		
 		/**
 		 * Aggiunge un observer a Bomberman. Gli observer sono notificati quando lo stato di Bomberman cambia.
 		 *
@@ -222,7 +210,7 @@ public class Bomberman extends Entita  implements Observable{
     	this.vite= 4 ;
     	this.inFuga=false;
         setDefaultValues();
-        solidArea = new Rectangle(0, 62, 60, 32);
+        solidArea = new Riquadro(0, 62, 60, 32);
         notifyObservers();
         this.raggio=1;
         this.maxBomb=1;
@@ -289,19 +277,19 @@ public class Bomberman extends Entita  implements Observable{
      * specifici come essere colpito o in fuga.
      * Controlla lo stato del gioco, in pausa o no.
      *
-     * @param keyHandler Gestisce gli input da tastiera.
+     * @param keyHandler I comandi del giocatore per questo tick.
      * @param collisionChecker Controlla le collisioni con altri oggetti nel gioco.
      * @param bombe Lista delle bombe piazzate nel gioco.
      * @param bombaMap Mappa che indica la posizione delle bombe.
      * @param explosionMap Mappa che indica le aree di esplosione delle bombe.
      */
 	
-	public void update(KeyHandler keyHandler, CollisionChecker collisionChecker , ArrayList<Bomba> bombe, int[][] bombaMap,boolean[][] explosionMap) {	
+	public void update(Comandi keyHandler, CollisionChecker collisionChecker , ArrayList<Bomba> bombe, BombaMap bombaMap,EsplosioniMap explosionMap) {	
 		
 		if (!isPaused) {
 			if (!isPaused)	
 			
-		if (this.invincibile && System.currentTimeMillis() - this.invincibileStartTime > INVINCIBILITÀ_DURATION) {
+		if (this.invincibile && --this.tickInvincibilita <= 0) {
             this.invincibile = false;
         }
 		boolean keyPressed= false;
@@ -360,14 +348,14 @@ public class Bomberman extends Entita  implements Observable{
 		int bombermanY =  ((this.getY()+ this.getSolidArea().y+this.getSolidArea().height)/(tileSize));
 		int  bombermanX = ((this.getX() + this.getSolidArea().x+this.getSolidArea().width/2)/(tileSize)) ;
 		
-		if (bombaMap[bombermanY][bombermanX]==2 ){
+		if (bombaMap.isSottoBomberman(bombermanY, bombermanX)){
 			
 			this.setOnBomb(true);
 		} 
 		else  {
 			this.setOnBomb(false);
-			if (bombaMap[lastBomby/tileSize][lastBombx/tileSize]== 2) {
-			    bombaMap[lastBomby/tileSize][lastBombx/tileSize] = 1;}
+			if (bombaMap.isSottoBomberman(lastBomby/tileSize, lastBombx/tileSize)) {
+			    bombaMap.blocca(lastBomby/tileSize, lastBombx/tileSize);}
 		} 
 		
 		
@@ -401,7 +389,7 @@ public class Bomberman extends Entita  implements Observable{
 			morteCounter++;
 			
 			if (!audioMorteRiprodotta) {
-	            AudioManager.getInstance().play("res/audio/Bomberman-Dies.wav");
+	            audio.play("res/audio/Bomberman-Dies.wav");
 	            audioMorteRiprodotta = true; // Imposta la variabile a true dopo la riproduzione
 	        }
              
@@ -456,7 +444,7 @@ public class Bomberman extends Entita  implements Observable{
                
                spriteCounter = 0;
                if (audioPassiCounter >= audioPassiInterval) {
-                   AudioManager.getInstance().play("res/audio/Walking-2.wav",0.85f);
+                   audio.play("res/audio/Walking-2.wav",0.85f);
                    audioPassiCounter = 0; // Resetta il contatore dopo la riproduzione
                }
                }
@@ -474,11 +462,11 @@ public class Bomberman extends Entita  implements Observable{
 	/**
 	 * Restituisce l'area solida di Bomberman utilizzata per la collisione.
 	 *
-	 * @return Rectangle rappresentante l'area solida.
+	 * @return Riquadro rappresentante l'area solida.
 	 */
 	
-    public Rectangle getSolidArea() {
-        return new Rectangle(solidArea.x, solidArea.y, solidArea.width, solidArea.height);
+    public Riquadro getSolidArea() {
+        return new Riquadro(solidArea.x, solidArea.y, solidArea.width, solidArea.height);
     }
     /**
      * Restituisce la posizione x di Bomberman .
@@ -800,7 +788,7 @@ this.inFuga= b;
 	 */
     public void setInvincibile() {
         this.invincibile = true;
-        this.invincibileStartTime = System.currentTimeMillis();
+        this.tickInvincibilita = INVINCIBILITÀ_DURATION;
         notifyObservers();
     }
     
@@ -822,11 +810,4 @@ this.inFuga= b;
     public void setOnBomb(boolean x) {
     	this.onBomb = x;
     }
-    /**
-     * imposta la vecchia istanza di Bomberman a Null, serve quando si inizia una nuova partita
-     
-     */
-   public void resetInstance() {
-	   this.instance = null;
-   }
 }
\ No newline at end of file
@@ -5,8 +5,6 @@ import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
-import javax.imageio.ImageIO;
 import java.io.IOException;
 import java.util.Map;
 /**
@@ -22,16 +20,16 @@ public class BombermanView implements Observer {
 	private Dimension originalSize;
 
 	/** Mappa delle immagini sprite di Bomberman per ogni direzione di movimento. */
-	private Map<Direction, BufferedImage[]> spriteMap;
+	private Map<Direction, Sprite[]> spriteMap;
 
 	/** Mappa delle immagini sprite per lo stato di invincibilità di Bomberman. */
-	private Map<Direction, BufferedImage[]> invicibilitaMap;
+	private Map<Direction, Sprite[]> invicibilitaMap;
 
-	/** Array di BufferedImage per le immagini della sequenza di morte di Bomberman. */
-	public BufferedImage[] morteSprites = new BufferedImage[8];
+	/** Array di Sprite per le immagini della sequenza di morte di Bomberman. */
+	public Sprite[] morteSprites = new Sprite[8];
 
-	/** Array di BufferedImage per le immagini della sequenza di fuga di Bomberman. */
-	public BufferedImage[] fugaSprites = new BufferedImage[10];
+	/** Array di Sprite per le immagini della sequenza di fuga di Bomberman. */
+	public Sprite[] fugaSprites = new Sprite[10];
 
 	/** Larghezza di Bomberman nell'ambito della view. */
 	public int width;
@@ -112,51 +110,51 @@ public class BombermanView implements Observer {
      * Le immagini sono caricate in una mappa di sprite, dove ogni direzione ha quattro sprite corrispondenti.
      */
     private void loadBombermanImages() {
-    	spriteMap.put(Direction.UP, new BufferedImage[4]);
-        spriteMap.put(Direction.DOWN, new BufferedImage[4]);
-        spriteMap.put(Direction.LEFT, new BufferedImage[4]);
-        spriteMap.put(Direction.RIGHT, new BufferedImage[4]);
-        invicibilitaMap.put(Direction.UP, new BufferedImage[4]);
-        invicibilitaMap.put(Direction.DOWN, new BufferedImage[4]);
-        invicibilitaMap.put(Direction.LEFT, new BufferedImage[4]);
-        invicibilitaMap.put(Direction.RIGHT, new BufferedImage[4]);
+    	spriteMap.put(Direction.UP, new Sprite[4]);
+        spriteMap.put(Direction.DOWN, new Sprite[4]);
+        spriteMap.put(Direction.LEFT, new Sprite[4]);
+        spriteMap.put(Direction.RIGHT, new Sprite[4]);
+        invicibilitaMap.put(Direction.UP, new Sprite[4]);
+        invicibilitaMap.put(Direction.DOWN, new Sprite[4]);
+        invicibilitaMap.put(Direction.LEFT, new Sprite[4]);
+        invicibilitaMap.put(Direction.RIGHT, new Sprite[4]);
         try {
-        	 spriteMap.get(Direction.UP)[0] = ImageIO.read(getClass().getResourceAsStream("/Player/schienafermo.png"));
-             spriteMap.get(Direction.UP)[1] = ImageIO.read(getClass().getResourceAsStream("/Player/schienamov.png"));
-             spriteMap.get(Direction.UP)[2] = ImageIO.read(getClass().getResourceAsStream("/Player/schienamov2.png"));
-             spriteMap.get(Direction.UP)[3] = ImageIO.read(getClass().getResourceAsStream("/Player/schienamov2.png"));
-             spriteMap.get(Direction.DOWN)[0] = ImageIO.read(getClass().getResourceAsStream("/Player/davanti.png"));
-             spriteMap.get(Direction.DOWN)[1] = ImageIO.read(getClass().getResourceAsStream("/Player/davantimov.png"));
-             spriteMap.get(Direction.DOWN)[2] = ImageIO.read(getClass().getResourceAsStream("/Player/davantimov2.png"));
-             spriteMap.get(Direction.DOWN)[3] = ImageIO.read(getClass().getResourceAsStream("/Player/davantimov2.png"));
-             spriteMap.get(Direction.RIGHT)[0] = ImageIO.read(getClass().getResourceAsStream("/Player/destrafermo.png"));
-             spriteMap.get(Direction.RIGHT)[1] = ImageIO.read(getClass().getResourceAsStream("/Player/destramov.png"));
-             spriteMap.get(Direction.RIGHT)[2] = ImageIO.read(getClass().getResourceAsStream("/Player/destramov2.png"));
-             spriteMap.get(Direction.RIGHT)[3] = ImageIO.read(getClass().getResourceAsStream("/Player/destramov2.png"));
-             spriteMap.get(Direction.LEFT)[0] = ImageIO.read(getClass().getResourceAsStream("/Player/sinistrafermo.png"));
-             spriteMap.get(Direction.LEFT)[1] = ImageIO.read(getClass().getResourceAsStream("/Player/sinistramov.png"));
-             spriteMap.get(Direction.LEFT)[2] = ImageIO.read(getClass().getResourceAsStream("/Player/sx movimento2.png"));
-             spriteMap.get(Direction.LEFT)[3] = ImageIO.read(getClass().getResourceAsStream("/Player/sx movimento2.png"));
+        	 spriteMap.get(Direction.UP)[0] = SpriteRegistry.sprite("/Player/schienafermo.png");
+             spriteMap.get(Direction.UP)[1] = SpriteRegistry.sprite("/Player/schienamov.png");
+             spriteMap.get(Direction.UP)[2] = SpriteRegistry.sprite("/Player/schienamov2.png");
+             spriteMap.get(Direction.UP)[3] = SpriteRegistry.sprite("/Player/schienamov2.png");
+             spriteMap.get(Direction.DOWN)[0] = SpriteRegistry.sprite("/Player/davanti.png");
+             spriteMap.get(Direction.DOWN)[1] = SpriteRegistry.sprite("/Player/davantimov.png");
+             spriteMap.get(Direction.DOWN)[2] = SpriteRegistry.sprite("/Player/davantimov2.png");
+             spriteMap.get(Direction.DOWN)[3] = SpriteRegistry.sprite("/Player/davantimov2.png");
+             spriteMap.get(Direction.RIGHT)[0] = SpriteRegistry.sprite("/Player/destrafermo.png");
+             spriteMap.get(Direction.RIGHT)[1] = SpriteRegistry.sprite("/Player/destramov.png");
+             spriteMap.get(Direction.RIGHT)[2] = SpriteRegistry.sprite("/Player/destramov2.png");
+             spriteMap.get(Direction.RIGHT)[3] = SpriteRegistry.sprite("/Player/destramov2.png");
+             spriteMap.get(Direction.LEFT)[0] = SpriteRegistry.sprite("/Player/sinistrafermo.png");
+             spriteMap.get(Direction.LEFT)[1] = SpriteRegistry.sprite("/Player/sinistramov.png");
+             spriteMap.get(Direction.LEFT)[2] = SpriteRegistry.sprite("/Player/sx movimento2.png");
+             spriteMap.get(Direction.LEFT)[3] = SpriteRegistry.sprite("/Player/sx movimento2.png");
         } catch (IOException e) {
             e.printStackTrace();
         }
         try {
-            invicibilitaMap.get(Direction.UP)[0] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/schienafermo.png"));
-            invicibilitaMap.get(Direction.UP)[1] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/schienamov.png"));
-            invicibilitaMap.get(Direction.UP)[2] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/schienamov2.png"));
-            invicibilitaMap.get(Direction.UP)[3] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/schienamov2.png"));
-            invicibilitaMap.get(Direction.DOWN)[0] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/davanti.png"));
-            invicibilitaMap.get(Direction.DOWN)[1] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/davantimov.png"));
-            invicibilitaMap.get(Direction.DOWN)[2] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/davantimov2.png"));
-            invicibilitaMap.get(Direction.DOWN)[3] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/davantimov2.png"));
-            invicibilitaMap.get(Direction.RIGHT)[0] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/destrafermo.png"));
-            invicibilitaMap.get(Direction.RIGHT)[1] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/destramov.png"));
-            invicibilitaMap.get(Direction.RIGHT)[2] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/destramov2.png"));
-            invicibilitaMap.get(Direction.RIGHT)[3] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/destramov2.png"));
-            invicibilitaMap.get(Direction.LEFT)[0] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/sinistrafermo.png"));
-            invicibilitaMap.get(Direction.LEFT)[1] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/sinistramov.png"));
-            invicibilitaMap.get(Direction.LEFT)[2] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/sx movimento2.png"));
-            invicibilitaMap.get(Direction.LEFT)[3] = ImageIO.read(getClass().getResourceAsStream("/invincibilita/sx movimento2.png"));
+            invicibilitaMap.get(Direction.UP)[0] = SpriteRegistry.sprite("/invincibilita/schienafermo.png");
+            invicibilitaMap.get(Direction.UP)[1] = SpriteRegistry.sprite("/invincibilita/schienamov.png");
+            invicibilitaMap.get(Direction.UP)[2] = SpriteRegistry.sprite("/invincibilita/schienamov2.png");
+            invicibilitaMap.get(Direction.UP)[3] = SpriteRegistry.sprite("/invincibilita/schienamov2.png");
+            invicibilitaMap.get(Direction.DOWN)[0] = SpriteRegistry.sprite("/invincibilita/davanti.png");
+            invicibilitaMap.get(Direction.DOWN)[1] = SpriteRegistry.sprite("/invincibilita/davantimov.png");
+            invicibilitaMap.get(Direction.DOWN)[2] = SpriteRegistry.sprite("/invincibilita/davantimov2.png");
+            invicibilitaMap.get(Direction.DOWN)[3] = SpriteRegistry.sprite("/invincibilita/davantimov2.png");
+            invicibilitaMap.get(Direction.RIGHT)[0] = SpriteRegistry.sprite("/invincibilita/destrafermo.png");
+            invicibilitaMap.get(Direction.RIGHT)[1] = SpriteRegistry.sprite("/invincibilita/destramov.png");
+            invicibilitaMap.get(Direction.RIGHT)[2] = SpriteRegistry.sprite("/invincibilita/destramov2.png");
+            invicibilitaMap.get(Direction.RIGHT)[3] = SpriteRegistry.sprite("/invincibilita/destramov2.png");
+            invicibilitaMap.get(Direction.LEFT)[0] = SpriteRegistry.sprite("/invincibilita/sinistrafermo.png");
+            invicibilitaMap.get(Direction.LEFT)[1] = SpriteRegistry.sprite("/invincibilita/sinistramov.png");
+            invicibilitaMap.get(Direction.LEFT)[2] = SpriteRegistry.sprite("/invincibilita/sx movimento2.png");
+            invicibilitaMap.get(Direction.LEFT)[3] = SpriteRegistry.sprite("/invincibilita/sx movimento2.png");
        } catch (IOException e) {
            e.printStackTrace();
        }
@@ -169,7 +167,7 @@ public class BombermanView implements Observer {
         try {
             for (int i = 0; i < 8; i++) {
             	
-                morteSprites[i] = ImageIO.read(getClass().getResourceAsStream("/morte/morte" + i + ".png"));
+                morteSprites[i] = SpriteRegistry.sprite("/morte/morte" + i + ".png");
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -183,12 +181,33 @@ public class BombermanView implements Observer {
         try {
             for (int i = 0; i < 9; i++) {
             	
-                fugaSprites[i] = ImageIO.read(getClass().getResourceAsStream("/fuga/fuga" + i + ".png"));
+                fugaSprites[i] = SpriteRegistry.sprite("/fuga/fuga" + i + ".png");
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+    /**
+     * Disegna Bomberman leggendo lo stato dallo snapshot pubblicato dal thread di gioco.
+     *
+     * @param g2 Il contesto grafico su cui disegnare bomberman
+     * @param snapshot Lo snapshot del frame da disegnare.
+     */
+    public void draw(Graphics2D g2, RenderSnapshot snapshot) {
+    	this.width = snapshot.giocatoreLarghezza;
+    	this.height = snapshot.giocatoreAltezza;
+    	this.x = snapshot.interpola(snapshot.giocatorePrecedenteX, snapshot.giocatoreX);
+    	this.y = snapshot.interpola(snapshot.giocatorePrecedenteY, snapshot.giocatoreY);
+    	this.morteFrame = snapshot.giocatoreMorteFrame;
+    	this.fugaFrame = snapshot.giocatoreFugaFrame;
+    	this.spriteNum = snapshot.giocatoreSpriteNum;
+    	this.alterna = snapshot.giocatoreAlterna;
+    	this.invincibile = snapshot.giocatoreInvincibile;
+    	this.colpito = snapshot.giocatoreColpito;
+    	this.inFuga = snapshot.giocatoreInFuga;
+    	this.direction = snapshot.giocatoreDirezione;
+    	draw(g2);
+    }
     /**
      * Disegna il bomberman su schermo, distinguendo quando è morto e quando no
      * 
@@ -196,7 +215,7 @@ public class BombermanView implements Observer {
      *@param g2 Il contesto grafico su cui disegnare bomberman
      */
     public void draw(Graphics2D g2) {
-    	  BufferedImage image = getCurrentAnimationFrame();
+    	  Sprite image = getCurrentAnimationFrame();
 
     	
     	  
@@ -212,7 +231,9 @@ public class BombermanView implements Observer {
     	    	//this.y = this.y -16 ;
     	    	}
      
-        g2.drawImage(image,this.x, this.y, width,height, null);
+        if (image != null) {
+            image.draw(g2, this.x, this.y, width, height);
+        }
       
     }
     
@@ -220,9 +241,9 @@ public class BombermanView implements Observer {
      * Determina quale immagine di Bomberman deve essere visualizzata in base allo stato attuale.
      * Seleziona l'immagine appropriata dalle mappe di sprite o dagli array in base allo stato di Bomberman.
      *
-     * @return BufferedImage L'immagine da visualizzare per Bomberman in questo frame.
+     * @return Sprite L'immagine da visualizzare per Bomberman in questo frame.
      */
-    private BufferedImage getCurrentAnimationFrame() {
+    private Sprite getCurrentAnimationFrame() {
     	
     	if (colpito) {
     		
@@ -233,7 +254,7 @@ if (inFuga) {
             return fugaSprites[fugaFrame];
         }
     	else if (invincibile) {
-    		Map<Direction, BufferedImage[]> spriteSource = alterna ? invicibilitaMap : spriteMap;
+    		Map<Direction, Sprite[]> spriteSource = alterna ? invicibilitaMap : spriteMap;
             return (spriteNum == 1) ? spriteSource.get(direction)[0] : (spriteNum== 2) ? spriteSource.get(direction)[1] : (spriteNum == 3) ? spriteSource.get(direction)[0] : spriteSource.get(direction)[2];
        
     
@@ -0,0 +1,117 @@
+package GiocoBomberman;
+/**
+ * Camera e la finestra sulla mappa mostrata nel frame. Segue Bomberman restando dentro i bordi della mappa, cosi
+ * le arene piu grandi dello schermo scorrono sotto il giocatore; quando la mappa non e piu grande della finestra la
+ * camera resta nell'angolo in alto a sinistra e il disegno e quello di sempre.
+ *
+ * Le viste disegnano in coordinate della mappa con il contesto grafico traslato di {@link #getX()} e
+ * {@link #getY()}, e con {@link #vede(int, int, int, int)} saltano le entita fuori dalla finestra: il costo del
+ * disegno dipende dalla dimensione dello schermo e non da quella della mappa.
+ *
+ * @author Davide Vittucci
+ * @see GamePanel
+ * @see MapView
+ */
+public class Camera {
+	/** Larghezza della finestra in pixel. */
+	private final int larghezza;
+
+	/** Altezza della finestra in pixel. */
+	private final int altezza;
+
+	/** Pixel di tolleranza intorno alla finestra, per gli sprite disegnati piu grandi del loro riquadro. */
+	private final int margine;
+
+	/** Posizione X dell'angolo in alto a sinistra della finestra sulla mappa. */
+	private int x;
+
+	/** Posizione Y dell'angolo in alto a sinistra della finestra sulla mappa. */
+	private int y;
+
+	/**
+	 * Costruisce una camera.
+	 *
+	 * @param larghezza Larghezza della finestra in pixel.
+	 * @param altezza Altezza della finestra in pixel.
+	 * @param margine Pixel di tolleranza intorno alla finestra.
+	 */
+	public Camera(int larghezza, int altezza, int margine) {
+		this.larghezza = larghezza;
+		this.altezza = altezza;
+		this.margine = margine;
+	}
+
+	/**
+	 * Centra la finestra su un punto, senza uscire dalla mappa.
+	 *
+	 * @param centroX Coordinata X del punto da seguire.
+	 * @param centroY Coordinata Y del punto da seguire.
+	 * @param larghezzaMappa Larghezza della mappa in pixel.
+	 * @param altezzaMappa Altezza della mappa in pixel.
+	 */
+	public void segui(int centroX, int centroY, int larghezzaMappa, int altezzaMappa) {
+		x = limita(centroX - larghezza / 2, larghezzaMappa - larghezza);
+		y = limita(centroY - altezza / 2, altezzaMappa - altezza);
+	}
+
+	/**
+	 * Riporta una coordinata tra 0 e il massimo indicato; con un massimo negativo la coordinata e 0.
+	 *
+	 * @param valore La coordinata.
+	 * @param massimo Il valore massimo.
+	 * @return La coordinata limitata.
+	 */
+	private static int limita(int valore, int massimo) {
+		return Math.max(0, Math.min(valore, massimo));
+	}
+
+	/**
+	 * Indica se un riquadro della mappa cade, anche in parte, nella finestra allargata del margine.
+	 *
+	 * @param rx Posizione X del riquadro.
+	 * @param ry Posizione Y del riquadro.
+	 * @param rw Larghezza del riquadro.
+	 * @param rh Altezza del riquadro.
+	 * @return true se il riquadro va disegnato.
+	 */
+	public boolean vede(int rx, int ry, int rw, int rh) {
+		return rx + rw > x - margine && rx < x + larghezza + margine
+				&& ry + rh > y - margine && ry < y + altezza + margine;
+	}
+
+	/**
+	 * Restituisce la posizione X della finestra sulla mappa.
+	 *
+	 * @return La coordinata X in pixel.
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Restituisce la posizione Y della finestra sulla mappa.
+	 *
+	 * @return La coordinata Y in pixel.
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Restituisce la larghezza della finestra.
+	 *
+	 * @return La larghezza in pixel.
+	 */
+	public int getLarghezza() {
+		return larghezza;
+	}
+
+	/**
+	 * Restituisce l'altezza della finestra.
+	 *
+	 * @return L'altezza in pixel.
+	 */
+	public int getAltezza() {
+		return altezza;
+	}
+}
@@ -0,0 +1,63 @@
+package GiocoBomberman;
+/**
+ * Cella e la posizione di una cella della mappa, come colonna e riga. Prende il posto di {@link java.awt.Point}
+ * per le celle in cui far comparire i nemici, cosi che la preparazione dei livelli non dipenda dal modulo
+ * java.desktop.
+ *
+ * @author Davide Vittucci
+ * @see Level
+ * @see MapPack
+ */
+public final class Cella {
+	/** Colonna della cella. */
+	public final int colonna;
+
+	/** Riga della cella. */
+	public final int riga;
+
+	/**
+	 * Costruisce una cella.
+	 *
+	 * @param colonna Colonna della cella.
+	 * @param riga Riga della cella.
+	 */
+	public Cella(int colonna, int riga) {
+		this.colonna = colonna;
+		this.riga = riga;
+	}
+
+	/**
+	 * Confronta due celle per posizione.
+	 *
+	 * @param o L'oggetto da confrontare.
+	 * @return true se o e una cella con la stessa colonna e la stessa riga.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Cella)) {
+			return false;
+		}
+		Cella altra = (Cella) o;
+		return colonna == altra.colonna && riga == altra.riga;
+	}
+
+	/**
+	 * Calcola il codice hash dalla posizione.
+	 *
+	 * @return Il codice hash.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * colonna + riga;
+	}
+
+	/**
+	 * Descrive la cella come colonna e riga.
+	 *
+	 * @return La descrizione.
+	 */
+	@Override
+	public String toString() {
+		return "(" + colonna + ", " + riga + ")";
+	}
+}
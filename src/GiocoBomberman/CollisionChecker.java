@@ -1,7 +1,6 @@
 package GiocoBomberman;
 
 
-import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -20,31 +19,58 @@ import java.util.List;
  */
 public class CollisionChecker {
 	  /**
-     * Mappa delle piastrelle rappresentanti l'ambiente di gioco.
+     * Griglia delle celle rappresentanti l'ambiente di gioco.
      */
-    private Piastrella[][] mapTileNum;
+    private TileGrid griglia;
 
     /**
-     * Array di piastrelle utilizzate nel gioco.
+     * Array di piastrelle utilizzate nel gioco, una per tipo.
      */
     private Piastrella[] tile;
 
+    /**
+     * Collisione di ogni tipo di piastrella, copiata dalle piastrelle per leggerla con un solo accesso.
+     */
+    private final boolean[] solido;
+
     /**
      * Dimensione delle piastrelle nell'ambiente di gioco.
      */
     private int tileSize;
 
+    /**
+     * Gestore dell'audio della sessione di gioco.
+     */
+    private final AudioManager audio;
+
     /**
      * Costruttore per CollisionChecker.
      * 
-     * @param mapTileNum Mappa delle piastrelle del gioco.
-     * @param tile Array delle piastrelle utilizzate.
+     * @param griglia Griglia delle celle del gioco.
+     * @param tile Array delle piastrelle utilizzate, una per tipo.
      * @param tileSize Dimensione delle piastrelle.
+     * @param audio Gestore dell'audio della sessione di gioco.
      */
-	    public CollisionChecker(Piastrella[][] mapTileNum, Piastrella[] tile, int tileSize) {
-	        this.mapTileNum = mapTileNum;
+	    public CollisionChecker(TileGrid griglia, Piastrella[] tile, int tileSize, AudioManager audio) {
+	        this.audio = audio;
+	        this.griglia = griglia;
 	        this.tile = tile;
 	        this.tileSize = tileSize;
+	        this.solido = new boolean[tile.length];
+	        for (int i = 0; i < tile.length; i++) {
+	            solido[i] = tile[i] != null && tile[i].collision;
+	        }
+	    }
+
+	    /**
+	     * Indica se la piastrella di una cella blocca il movimento.
+	     *
+	     * @param row Riga della cella.
+	     * @param col Colonna della cella.
+	     * @return true se la cella ha una collisione.
+	     */
+	    private boolean solida(int row, int col) {
+	        return solido[griglia.getTipo(row, col)];
 	    }
 	
 
@@ -56,7 +82,7 @@ public class CollisionChecker {
 	     * @param bombe Lista delle bombe presenti nel gioco.
 	     * @param mapBomb Mappa delle posizioni delle bombe.
 	     */
-	public void checkTile (Entita entita, List<Bomba> bombe, int[][] mapBomb) {
+	public void checkTile (Entita entita, List<Bomba> bombe, BombaMap mapBomb) {
 		 
 		int entityLeftWorldX = entita.getX() + entita.getSolidArea().x ;
 		int entityRightWorldX = entita.getX() + entita.getSolidArea().x+entita.getSolidArea().width ;
@@ -67,14 +93,14 @@ public class CollisionChecker {
 		int entityRightCol =entityRightWorldX/tileSize;
 		int entityTopRow =  entityTopWorldY/tileSize;
 		int entityBottomRow=  entityBottomWorldY/tileSize;
-		Piastrella tileNum1, tileNum2 ;
+		boolean solido1, solido2;
 		
 		switch(entita.getDirection()) {
 		case UP:
 			entityTopRow = (entityTopWorldY-entita.getSpeed())/tileSize;
-			tileNum1 = mapTileNum[entityTopRow] [entityLeftCol] ;
-			tileNum2 = mapTileNum[entityTopRow][entityRightCol] ;
-			if(tileNum1.collision == true || tileNum2.collision==true || mapBomb[entityTopRow][entityLeftCol] ==1||mapBomb[entityTopRow][entityRightCol] ==1){ //||mapBomb[entityTopRow][entityLeftCol] ||mapBomb[entityTopRow][entityRightCol]
+			solido1 = solida(entityTopRow, entityLeftCol);
+			solido2 = solida(entityTopRow, entityRightCol);
+			if(solido1 || solido2 || mapBomb.bloccanteInArea(entityTopRow, entityLeftCol, entityTopRow, entityRightCol)){
 				entita.collisionOn = true;	
 				
 			}
@@ -84,9 +110,9 @@ public class CollisionChecker {
 		case DOWN:
 			entityBottomRow = (entityBottomWorldY+entita.getSpeed())/tileSize;
 			
-			tileNum1 = mapTileNum[entityBottomRow][entityLeftCol] ;
-			tileNum2 = mapTileNum[entityBottomRow][entityRightCol] ;
-			if(tileNum1.collision == true || tileNum2.collision==true ||mapBomb[entityBottomRow][entityLeftCol] ==1 ||mapBomb[entityBottomRow][entityRightCol] ==1) { // ||mapBomb[entityBottomRow][entityLeftCol] ||mapBomb[entityBottomRow][entityRightCol] 
+			solido1 = solida(entityBottomRow, entityLeftCol);
+			solido2 = solida(entityBottomRow, entityRightCol);
+			if(solido1 || solido2 ||mapBomb.bloccanteInArea(entityBottomRow, entityLeftCol, entityBottomRow, entityRightCol)) {
 				entita.collisionOn = true;}
 			
 			
@@ -96,9 +122,9 @@ public class CollisionChecker {
 			entityLeftCol = (entityLeftWorldX-entita.getSpeed())/tileSize;
 			
 		
-			tileNum1 = mapTileNum[entityTopRow][entityLeftCol] ;
-			tileNum2 = mapTileNum[entityBottomRow][entityLeftCol] ;
-			if(tileNum1.collision == true || tileNum2.collision==true||mapBomb[entityTopRow][entityLeftCol] ==1 ||mapBomb[entityBottomRow][entityLeftCol]==1)  { // ||mapBomb[entityTopRow][entityLeftCol] ||mapBomb[entityBottomRow][entityLeftCol]
+			solido1 = solida(entityTopRow, entityLeftCol);
+			solido2 = solida(entityBottomRow, entityLeftCol);
+			if(solido1 || solido2||mapBomb.bloccanteInArea(entityTopRow, entityLeftCol, entityBottomRow, entityLeftCol))  {
 				entita.collisionOn = true;
 				
 			}
@@ -110,10 +136,10 @@ public class CollisionChecker {
 
 
 		
-			tileNum1 = mapTileNum[entityTopRow][entityRightCol] ;
-			tileNum2 = mapTileNum[entityBottomRow][entityRightCol] ;
+			solido1 = solida(entityTopRow, entityRightCol);
+			solido2 = solida(entityBottomRow, entityRightCol);
 			
-			if(tileNum1.collision == true || tileNum2.collision==true|| mapBomb[entityTopRow][entityRightCol]==1 ||mapBomb[entityBottomRow][entityRightCol]==1)  { // || (mapBomb[entityTopRow][entityRightCol] ||mapBomb[entityBottomRow][entityRightCol]) 
+			if(solido1 || solido2|| mapBomb.bloccanteInArea(entityTopRow, entityRightCol, entityBottomRow, entityRightCol))  {
 				entita.collisionOn = true;
 				
 			}
@@ -130,7 +156,7 @@ public class CollisionChecker {
      * @param entita L'entità 
      * @param mapBomb Mappa delle posizioni delle bombe.
      */
-	public void checkV(Entita entita, int[][] mapBomb) 	 {
+	public void checkV(Entita entita, BombaMap mapBomb) 	 {
 		int entityLeftWorldX = entita.getX() + entita.getSolidArea().x ;
 		int entityRightWorldX = entita.getX() + entita.getSolidArea().x+entita.getSolidArea().width ;
 		int entityTopWorldY = entita.getY() + entita.getSolidArea().y ;
@@ -140,20 +166,20 @@ public class CollisionChecker {
 		int entityRightCol =entityRightWorldX/tileSize;
 		int entityTopRow =  entityTopWorldY/tileSize;
 		int entityBottomRow=  entityBottomWorldY/tileSize;
-		Piastrella tileNum1, tileNum2 ;
+		boolean solido1, solido2;
 	
 		switch(entita.getDirection()) {
 		case UP:
 			entityTopRow = (entityTopWorldY-entita.getSpeed())/tileSize;
-			tileNum1 = mapTileNum[entityTopRow] [entityLeftCol] ;
-			tileNum2 = mapTileNum[entityTopRow][entityRightCol] ;
-			if(tileNum1.collision == false ) {
+			solido1 = solida(entityTopRow, entityLeftCol);
+			solido2 = solida(entityTopRow, entityRightCol);
+			if(!solido1 ) {
 				if (entita.getSpeed()<5) {
 				entita.setX(entita.getX() - entita.getSpeed());
 				}
 				else {entita.setX(entita.getX() - 4);}
 			}
-			if(tileNum2.collision==false) {
+			if(!solido2) {
 				if (entita.getSpeed()<5) {
 				entita.setX(entita.getX() + entita.getSpeed());
 				}
@@ -162,15 +188,15 @@ public class CollisionChecker {
 		break;
 		case DOWN:
 			entityBottomRow = (entityBottomWorldY+entita.getSpeed())/tileSize;
-			tileNum1 = mapTileNum[entityBottomRow][entityLeftCol] ;
-			tileNum2 = mapTileNum[entityBottomRow][entityRightCol] ;
-			if(tileNum1.collision == false) {
+			solido1 = solida(entityBottomRow, entityLeftCol);
+			solido2 = solida(entityBottomRow, entityRightCol);
+			if(!solido1) {
 				if (entita.getSpeed()<5) {
 				entita.setX(entita.getX() - entita.getSpeed());
 				}
 				else {entita.setX(entita.getX() - 4);}
 			}
-			if( tileNum2.collision==false) {
+			if( !solido2) {
 				if (entita.getSpeed()<5) {
 				entita.setX(entita.getX() + entita.getSpeed());
 				}
@@ -179,15 +205,15 @@ public class CollisionChecker {
 		break;
 		case LEFT:
 			entityLeftCol = (entityLeftWorldX-entita.getSpeed())/tileSize;
-			tileNum1 = mapTileNum[entityTopRow][entityLeftCol] ;
-			tileNum2 = mapTileNum[entityBottomRow][entityLeftCol] ;
-			if(tileNum1.collision == false) {
+			solido1 = solida(entityTopRow, entityLeftCol);
+			solido2 = solida(entityBottomRow, entityLeftCol);
+			if(!solido1) {
 				if (entita.getSpeed()<5) {
 				entita.setY(entita.getY() - entita.getSpeed());
 				}
 				else {entita.setY(entita.getY() - 4);}
 			}
-			if( tileNum2.collision==false) {
+			if( !solido2) {
 				if (entita.getSpeed()<5) {
 				entita.setY(entita.getY() + entita.getSpeed());
 				}
@@ -196,15 +222,15 @@ public class CollisionChecker {
 		break;
 		case RIGHT:
 			entityRightCol =( entityRightWorldX +entita.getSpeed())/tileSize;
-			tileNum1 = mapTileNum[entityTopRow][entityRightCol] ;
-			tileNum2 = mapTileNum[entityBottomRow][entityRightCol] ;
-			if(tileNum1.collision == false) {
+			solido1 = solida(entityTopRow, entityRightCol);
+			solido2 = solida(entityBottomRow, entityRightCol);
+			if(!solido1) {
 				if (entita.getSpeed()<6) {
 				entita.setY(entita.getY() - entita.getSpeed());
 				}
 				else {entita.setY(entita.getY() - 4);}
 			}
-			if( tileNum2.collision==false){
+			if( !solido2){
 				if (entita.getSpeed()<6) {
 				entita.setY(entita.getY() + entita.getSpeed());
 			}
@@ -222,11 +248,11 @@ public class CollisionChecker {
      * @param entita L'entità da controllare.
      * @param explosionMap Mappa delle esplosioni.
      */
-	public void checkDeath(Entita entita, boolean[][] explosionMap) {
+	public void checkDeath(Entita entita, EsplosioniMap explosionMap) {
 	    int x = entita.getRealX() / tileSize;
 	    int y = entita.getRealY() / tileSize;
 
-	    if (explosionMap[y][x]) {
+	    if (explosionMap.isCoperta(y, x)) {
 	        if (!entita.invincibile) {
 	         
 	                entita.setColpito(true);
@@ -264,16 +290,16 @@ public class CollisionChecker {
 	                break;
 	        }
 
-	        Rectangle nextPosition = new Rectangle(nextX + nemico.getSolidArea().x, nextY + nemico.getSolidArea().y,
+	        Riquadro nextPosition = new Riquadro(nextX + nemico.getSolidArea().x, nextY + nemico.getSolidArea().y,
 	                                               nemico.getSolidArea().width, nemico.getSolidArea().height);
 
 	        for (Nemico otherNemico : nemici) {
 	            if (nemico != otherNemico) {
-	                Rectangle otherPosition = new Rectangle(otherNemico.getX() + otherNemico.getSolidArea().x,
+	                Riquadro otherPosition = new Riquadro(otherNemico.getX() + otherNemico.getSolidArea().x,
 	                                                        otherNemico.getY() + otherNemico.getSolidArea().y,
 	                                                        otherNemico.getSolidArea().width, otherNemico.getSolidArea().height);
 
-	                if (nextPosition.intersects(otherPosition)) {
+	                if (nextPosition.interseca(otherPosition)) {
 	                    nemico.cambioDirezione();
 	                    break;
 	                }
@@ -288,16 +314,16 @@ public class CollisionChecker {
      * @param nemici Lista dei nemici nel gioco.
      */
 	public void checkBombermanNemiciCollision(Bomberman bomberman, ArrayList<Nemico> nemici) {
-	    Rectangle bombermanPosition = new Rectangle(bomberman.getX() + bomberman.getSolidArea().x, 
+	    Riquadro bombermanPosition = new Riquadro(bomberman.getX() + bomberman.getSolidArea().x, 
 	                                                bomberman.getY() + bomberman.getSolidArea().y,
 	                                                bomberman.getSolidArea().width, bomberman.getSolidArea().height);
 
 	    for (Nemico nemico : nemici) {
-	        Rectangle nemicoPosition = new Rectangle(nemico.getX() + nemico.getSolidArea().x,
+	        Riquadro nemicoPosition = new Riquadro(nemico.getX() + nemico.getSolidArea().x,
 	                                                 nemico.getY() + nemico.getSolidArea().y,
 	                                                 nemico.getSolidArea().width, nemico.getSolidArea().height);
 
-	        if (bombermanPosition.intersects(nemicoPosition)) {
+	        if (bombermanPosition.interseca(nemicoPosition)) {
 	        	if (!bomberman.isInvincibile()&&!bomberman.getColpito()) {
 	            if (!nemico.morto) {
 	            	
@@ -343,17 +369,18 @@ public class CollisionChecker {
 	        int y = startY + i * deltaY;
 	        int x = startX + i * deltaX;
 
-	        if (y < 0 || y >= mapTileNum.length || x < 0 || x >= mapTileNum[0].length) {
+	        if (y < 0 || y >= griglia.getRighe() || x < 0 || x >= griglia.getColonne()) {
 	            break; // Fuori dai limiti della mappa
 	        }
 
-	        if (mapTileNum[y][x].getTipo() == 1) { // Muro distruttibile
+	        int tipo = griglia.getTipo(y, x);
+	        if (tipo == 1) { // Muro distruttibile
 	        	
-	            mapTileNum[y][x].setColpita(true);
+	            griglia.setColpita(y, x);
 	           
 	            raggio = i - 1; // L'esplosione si ferma qui
 	            break;
-	        } else if (mapTileNum[y][x].getTipo() == 2) { // Muro indistruttibile
+	        } else if (tipo == 2) { // Muro indistruttibile
 	            raggio = i - 1; // L'esplosione si ferma prima del muro
 	            break;
 	        } else {
@@ -371,7 +398,7 @@ public class CollisionChecker {
      * @param mapBomb Mappa delle posizioni delle bombe.
      */
 
-	public void checkTileDenkyun(Denkyun entita, ArrayList<Bomba> bombe, int[][] mapBomb) {
+	public void checkTileDenkyun(Denkyun entita, ArrayList<Bomba> bombe, BombaMap mapBomb) {
 	int entityLeftWorldX = entita.getX() + entita.getSolidArea().x ;
 	int entityRightWorldX = entita.getX() + entita.getSolidArea().x+entita.getSolidArea().width ;
 	int entityTopWorldY = entita.getY() + entita.getSolidArea().y ;
@@ -381,14 +408,14 @@ public class CollisionChecker {
 	int entityRightCol =entityRightWorldX/tileSize;
 	int entityTopRow =  entityTopWorldY/tileSize;
 	int entityBottomRow=  entityBottomWorldY/tileSize;
-	Piastrella tileNum1, tileNum2 ;
+	int tipo1, tipo2;
 	
 	switch(entita.getDirection()) {
 	case UP:
 		entityTopRow = (entityTopWorldY-entita.getSpeed())/tileSize;
-		tileNum1 = mapTileNum[entityTopRow] [entityLeftCol] ;
-		tileNum2 = mapTileNum[entityTopRow][entityRightCol] ;
-		if(tileNum1.getTipo()==2 || tileNum2.getTipo()==2 || mapBomb[entityTopRow][entityLeftCol] ==1||mapBomb[entityTopRow][entityRightCol] ==1){ //||mapBomb[entityTopRow][entityLeftCol] ||mapBomb[entityTopRow][entityRightCol]
+		tipo1 = griglia.getTipo(entityTopRow, entityLeftCol);
+		tipo2 = griglia.getTipo(entityTopRow, entityRightCol);
+		if(tipo1==2 || tipo2==2 || mapBomb.bloccanteInArea(entityTopRow, entityLeftCol, entityTopRow, entityRightCol)){
 			entita.collisionOn = true;	
 			
 		}
@@ -398,9 +425,9 @@ public class CollisionChecker {
 	case DOWN:
 		entityBottomRow = (entityBottomWorldY+entita.getSpeed())/tileSize;
 		
-		tileNum1 = mapTileNum[entityBottomRow][entityLeftCol] ;
-		tileNum2 = mapTileNum[entityBottomRow][entityRightCol] ;
-		if(tileNum1.getTipo()==2 || tileNum2.getTipo()==2 ||mapBomb[entityBottomRow][entityLeftCol] ==1 ||mapBomb[entityBottomRow][entityRightCol] ==1) { // ||mapBomb[entityBottomRow][entityLeftCol] ||mapBomb[entityBottomRow][entityRightCol] 
+		tipo1 = griglia.getTipo(entityBottomRow, entityLeftCol);
+		tipo2 = griglia.getTipo(entityBottomRow, entityRightCol);
+		if(tipo1==2 || tipo2==2 ||mapBomb.bloccanteInArea(entityBottomRow, entityLeftCol, entityBottomRow, entityRightCol)) {
 			entita.collisionOn = true;}
 		
 		
@@ -410,9 +437,9 @@ public class CollisionChecker {
 		entityLeftCol = (entityLeftWorldX-entita.getSpeed())/tileSize;
 		
 	
-		tileNum1 = mapTileNum[entityTopRow][entityLeftCol] ;
-		tileNum2 = mapTileNum[entityBottomRow][entityLeftCol] ;
-		if(tileNum1.getTipo()==2 || tileNum2.getTipo()==2||mapBomb[entityTopRow][entityLeftCol] ==1 ||mapBomb[entityBottomRow][entityLeftCol]==1)  { // ||mapBomb[entityTopRow][entityLeftCol] ||mapBomb[entityBottomRow][entityLeftCol]
+		tipo1 = griglia.getTipo(entityTopRow, entityLeftCol);
+		tipo2 = griglia.getTipo(entityBottomRow, entityLeftCol);
+		if(tipo1==2 || tipo2==2||mapBomb.bloccanteInArea(entityTopRow, entityLeftCol, entityBottomRow, entityLeftCol))  {
 			entita.collisionOn = true;
 			
 		}
@@ -424,10 +451,10 @@ public class CollisionChecker {
 
 
 	
-		tileNum1 = mapTileNum[entityTopRow][entityRightCol] ;
-		tileNum2 = mapTileNum[entityBottomRow][entityRightCol] ;
+		tipo1 = griglia.getTipo(entityTopRow, entityRightCol);
+		tipo2 = griglia.getTipo(entityBottomRow, entityRightCol);
 		
-		if(tileNum1.getTipo()==2|| tileNum2.getTipo()==2|| mapBomb[entityTopRow][entityRightCol]==1 ||mapBomb[entityBottomRow][entityRightCol]==1)  { // || (mapBomb[entityTopRow][entityRightCol] ||mapBomb[entityBottomRow][entityRightCol]) 
+		if(tipo1==2|| tipo2==2|| mapBomb.bloccanteInArea(entityTopRow, entityRightCol, entityBottomRow, entityRightCol))  {
 			entita.collisionOn = true;
 			
 		}
@@ -447,51 +474,46 @@ public class CollisionChecker {
 	        int tileX = bomberman.getRealX()/64 ;
 	        int tileY = bomberman.getRealY() /64 ;
 	        
-	        Piastrella piastrella = mapTileNum[tileY][ tileX];
+	        int tipo = griglia.getTipo(tileY, tileX);
+	        boolean raccolto = griglia.isRaccolto(tileY, tileX);
 	       
-	        if (piastrella != null && piastrella.getTipo() == 4 && nemici.isEmpty() && !bomberman.isInFuga()) {
+	        if (tipo == 4 && nemici.isEmpty() && !bomberman.isInFuga()) {
 	        	bomberman.setX(bomberman.getRealX());
 	        	bomberman.setY(bomberman.getRealY()-48);
 	            bomberman.setInFuga(true);
-	            AudioManager.getInstance().play("res/audio/Stage-Clear.wav");
+	            audio.play("res/audio/Stage-Clear.wav");
 	        }
 	
 	    	
-	        if (piastrella != null && piastrella.getTipo() == 7 && !piastrella.raccolto) {
-	        	piastrella.calpestata=true;
+	        if (tipo == 7 && !raccolto) {
+	        	griglia.raccogli(tileY, tileX);
 	            bomberman.setVite(1);;
-	            piastrella.raccolto=true;
-	            AudioManager.getInstance().play("res/audio/Item Get.wav");
+	            audio.play("res/audio/Item Get.wav");
 	        }
-	        if (piastrella != null && piastrella.getTipo() == 10&& !piastrella.raccolto ) {
-	        	piastrella.calpestata=true;
+	        if (tipo == 10 && !raccolto) {
+	        	griglia.raccogli(tileY, tileX);
 	            bomberman.setMaxBomb(5);
-	            piastrella.raccolto=true;
-	            AudioManager.getInstance().play("res/audio/Item Get.wav");
+	            audio.play("res/audio/Item Get.wav");
 	        }
-	        if (piastrella != null && piastrella.getTipo() == 8 && !piastrella.raccolto) {
-	        	piastrella.calpestata=true;
+	        if (tipo == 8 && !raccolto) {
+	        	griglia.raccogli(tileY, tileX);
 	        	bomberman.setPunteggio(300);;
-	        	piastrella.raccolto=true;
-	        	AudioManager.getInstance().play("res/audio/Item Get.wav");
+	        	audio.play("res/audio/Item Get.wav");
 	        }
-	        if (piastrella != null && piastrella.getTipo() == 5&& !piastrella.raccolto) {
-	        	piastrella.calpestata=true;
+	        if (tipo == 5 && !raccolto) {
+	        	griglia.raccogli(tileY, tileX);
 	        	bomberman.setRaggio();
-	        	piastrella.raccolto=true;
-	        	AudioManager.getInstance().play("res/audio/Item Get.wav");
+	        	audio.play("res/audio/Item Get.wav");
 	        }
-	        if (piastrella != null && piastrella.getTipo() == 6 && !piastrella.raccolto) {
-	        	piastrella.calpestata=true;
+	        if (tipo == 6 && !raccolto) {
+	        	griglia.raccogli(tileY, tileX);
 	        	bomberman.setVelocita();
-	        	piastrella.raccolto=true;
-	        	AudioManager.getInstance().play("res/audio/Item Get.wav");
+	        	audio.play("res/audio/Item Get.wav");
 	        }
-	        if (piastrella != null && piastrella.getTipo() == 9  && !piastrella.raccolto) {
-	        	piastrella.calpestata=true;
+	        if (tipo == 9 && !raccolto) {
+	        	griglia.raccogli(tileY, tileX);
 	        	bomberman.setInvincibile();
-	        	piastrella.raccolto=true;
-	        	AudioManager.getInstance().play("res/audio/Item Get.wav");
+	        	audio.play("res/audio/Item Get.wav");
 	        	}
 	    }}
 
@@ -0,0 +1,36 @@
+package GiocoBomberman;
+
+/**
+ * Stato dei comandi del giocatore in un tick: direzioni, bomba, pausa e ripresa. E quello che il mondo di gioco
+ * legge a ogni {@link GameWorld#step(Comandi)}, senza sapere da dove arrivano i comandi: dalla tastiera tramite
+ * {@link KeyHandler}, da un {@link InputScript} o da un {@link Replay}. Non dipende da AWT, quindi le simulazioni
+ * senza interfaccia non hanno bisogno del modulo java.desktop.
+ *
+ * @author Davide Vittucci
+ * @see KeyHandler
+ */
+public class Comandi {
+    /** Indica se il tasto per muoversi verso l'alto è premuto. */
+    public boolean upPressed;
+
+    /** Indica se il tasto per muoversi verso il basso è premuto. */
+    public boolean downPressed;
+
+    /** Indica se il tasto per muoversi verso sinistra è premuto. */
+    public boolean leftPressed;
+
+    /** Indica se il tasto per muoversi verso destra è premuto. */
+    public boolean rightPressed;
+
+    /** Indica se il tasto per piazzare una bomba è premuto. */
+    public boolean bombPressed = false;
+
+    /** Flag per gestire lo stato del tasto della bomba. */
+    public boolean bombKeyPressed = false;
+
+    /** Indica se il tasto Esc è premuto. */
+    public boolean escPressed;
+
+    /** Indica se il tasto Enter è premuto. */
+    public boolean avviaPressed;
+}
@@ -1,10 +1,8 @@
 package GiocoBomberman;
 
-import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 /**
  * La classe Denkyun rappresenta un tipo di nemico nel gioco Bomberman.
  * Questo nemico si muove casualmente nella mappa e può essere eliminato tramite esplosioni.
@@ -96,14 +94,14 @@ public class Denkyun extends Nemico {
     private boolean alternaSprite = false;
 
     /**
-     * Timestamp di inizio dello stato di invincibilità.
+     * Tick rimanenti dello stato di invincibilità.
      */
-    private long invincibileStartTime;
+    private int tickInvincibilita;
 
     /**
-     * Durata dell'invincibilità in millisecondi.
+     * Durata dell'invincibilità in tick (4 secondi).
      */
-    private static final long INVINCIBILITÀ_DURATION = 4000;
+    private static final int INVINCIBILITÀ_DURATION = 4 * GameWorld.TICK_PER_SECONDO;
 
     /**
      * Indica se Denkyun è stato colpito.
@@ -149,16 +147,31 @@ public class Denkyun extends Nemico {
      * Indica se l'audio della morte è già stato riprodotto.
      */
     private boolean audioMorteRiprodotta;
+
+    /**
+     * Gestore dell'audio della sessione di gioco.
+     */
+    private final AudioManager audio;
+
+    /**
+     * Generatore casuale usato per i cambi di direzione.
+     */
+    private final SplittableRandom random;
 	
 	
 	/**
 	 * Costruttore di Denkyun. Imposta le dimensioni delle piastrelle e i valori di default.
+	 *
+	 * @param audio Gestore dell'audio della sessione di gioco.
+	 * @param random Generatore casuale del nemico, separato da quello della sessione.
 	 */
-		 public Denkyun() {
+		 public Denkyun(AudioManager audio, SplittableRandom random) {
+			 this.audio = audio;
+			 this.random = random;
 			 this.tileSize = originalTileSize * scale;
 
 			 setDefaultValues();
-			 solidArea = new Rectangle(0, 22, 53, 62);}
+			 solidArea = new Riquadro(0, 22, 53, 62);}
 		 /**
 		  * Aggiunge un osservatore alla lista degli osservatori.
 		  * 
@@ -196,11 +209,11 @@ public class Denkyun extends Nemico {
 			morteFrame= 0;
 		 	}
 		 /**
-		  * Imposta Denkyun come invincibile e inizia a tracciare il tempo di invincibilità.
+		  * Imposta Denkyun come invincibile per {@link #INVINCIBILITÀ_DURATION} tick.
 		  */
 		 public void setInvincibile() {
 		        this.invincibile = true;
-		        this.invincibileStartTime = System.currentTimeMillis();
+		        this.tickInvincibilita = INVINCIBILITÀ_DURATION;
 		        notifyObservers() ;
 		    }
 		 /**
@@ -236,7 +249,7 @@ public class Denkyun extends Nemico {
 		        }
 			 if (morto) {
 				 if (!audioMorteRiprodotta) {
-			            AudioManager.getInstance().play("res/audio/Enemy-Dies.wav");
+			            audio.play("res/audio/Enemy-Dies.wav");
 			            audioMorteRiprodotta = true; // Imposta la variabile a true dopo la riproduzione
 			        }
 					morteCounter++;
@@ -280,10 +293,10 @@ public class Denkyun extends Nemico {
 		  * @param bombaMap Mappa delle bombe.
 		  * @param explosionMap Mappa delle esplosioni.
 		  */
-		 public void update(CollisionChecker collisionChecker , ArrayList<Bomba> bombe, int[][] bombaMap,boolean[][] explosionMap) {
+		 public void update(CollisionChecker collisionChecker , ArrayList<Bomba> bombe, BombaMap bombaMap,EsplosioniMap explosionMap) {
 			 
 			 if (!isPaused) {
-				 if (this.invincibile && System.currentTimeMillis() - this.invincibileStartTime > INVINCIBILITÀ_DURATION) {
+				 if (this.invincibile && --this.tickInvincibilita <= 0) {
 			            this.invincibile = false;
 			        }
 			 if (!colpito) {
@@ -317,8 +330,7 @@ public class Denkyun extends Nemico {
 		  * @return True se il cambio di direzione è necessario.
 		  */
 	private boolean cambioRandom() {
-        Random rand = new Random();
-        int x = rand.nextInt(300);
+        int x = random.nextInt(300);
         
        
         return x <= 1; 
@@ -329,11 +341,10 @@ public class Denkyun extends Nemico {
 	 public void cambioDirezione() {
 		 
 		 	Direction oldDirection = direction;
-	        Random rand = new Random();
-	        int dir = rand.nextInt(4); 
+	        int dir = random.nextInt(4); 
 	        Direction newDirection = Direction.values()[dir];
 	        while (newDirection.equals(oldDirection)){
-	        	 dir = rand.nextInt(4); 
+	        	 dir = random.nextInt(4); 
 	        	newDirection = Direction.values()[dir];
 	        }
 	        direction = newDirection;
@@ -376,7 +387,7 @@ public class Denkyun extends Nemico {
 	 * @return l'area rettangolare che rappresenta lo spazio fisico occupato da Denkyun.
 	 */
 	@Override
-	public Rectangle getSolidArea() {
+	public Riquadro getSolidArea() {
 		// TODO Auto-generated method stub
 		return solidArea;
 	}
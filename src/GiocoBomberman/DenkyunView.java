@@ -3,12 +3,10 @@ package GiocoBomberman;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.imageio.ImageIO;
 /**
  * La classe DenkyunView e responsabile per la rappresentazione visiva del nemico Denkyun nel videogioco Bomberman.
  * Questa classe estende {@link NemicoView} e implementa {@link Observer} per aggiornarsi con le modifiche allo stato di Denkyun.
@@ -27,16 +25,16 @@ import javax.imageio.ImageIO;
 public class DenkyunView extends NemicoView implements Observer {
 
 	/**
-	 * Array di immagini BufferedImage che rappresenta i vari sprite di Denkyun.
+	 * Array di immagini Sprite che rappresenta i vari sprite di Denkyun.
 	 * Ogni immagine corrisponde a una diversa posizione o fase di animazione del personaggio.
 	 */
-	private BufferedImage[] spriteMap;
+	private Sprite[] spriteMap;
 
 	/**
-	 * Array di immagini BufferedImage per la rappresentazione visiva dello stato di invincibilità di Denkyun.
+	 * Array di immagini Sprite per la rappresentazione visiva dello stato di invincibilità di Denkyun.
 	 * Queste immagini vengono utilizzate per visualizzare un aspetto differente quando Denkyun è invincibile.
 	 */
-	private BufferedImage[] invincibilitaMap;
+	private Sprite[] invincibilitaMap;
 
 	/**
 	 * Larghezza corrente dell'immagine sprite di Denkyun da disegnare.
@@ -85,17 +83,17 @@ public class DenkyunView extends NemicoView implements Observer {
 	private int spriteNum;
 
 	/**
-	 * Array di immagini BufferedImage che rappresenta le varie fasi dell'animazione di morte di Denkyun.
+	 * Array di immagini Sprite che rappresenta le varie fasi dell'animazione di morte di Denkyun.
 	 */
-	public BufferedImage[] morteSprites = new BufferedImage[3];
+	public Sprite[] morteSprites = new Sprite[3];
 	/**
 	 * Costruttore della classe DenkyunView. Inizializza gli array di sprite e invincibilità,
 	 * e carica le immagini necessarie per rappresentare visivamente Denkyun.
 	 */
 public DenkyunView() {
  
-    spriteMap = new BufferedImage[6];
-    invincibilitaMap = new BufferedImage[6];
+    spriteMap = new Sprite[6];
+    invincibilitaMap = new Sprite[6];
     loadDenkuynimage();
     loadMorteImages();
 }
@@ -127,31 +125,51 @@ public void update(Object model) {
 private void loadDenkuynimage() {
 	
     try {
-    	 spriteMap[0] = ImageIO.read(getClass().getResourceAsStream("/Denkyun/Denkyun 0.png"));
-         spriteMap[1] = ImageIO.read(getClass().getResourceAsStream("/Denkyun/Denkyun 1.png"));
-         spriteMap[2] = ImageIO.read(getClass().getResourceAsStream("/Denkyun/Denkyun 2.png"));
-         spriteMap[3] = ImageIO.read(getClass().getResourceAsStream("/Denkyun/Denkyun 3.png"));
-         spriteMap[4] = ImageIO.read(getClass().getResourceAsStream("/Denkyun/Denkyun 4.png"));
-         spriteMap[5] = ImageIO.read(getClass().getResourceAsStream("/Denkyun/Denkyun 5.png"));
-         invincibilitaMap[0] = ImageIO.read(getClass().getResourceAsStream("/DenkyunInv/Denkyun 0.png"));
-         invincibilitaMap[1] = ImageIO.read(getClass().getResourceAsStream("/DenkyunInv/Denkyun 1.png"));
-         invincibilitaMap[2] = ImageIO.read(getClass().getResourceAsStream("/DenkyunInv/Denkyun 2.png"));
-         invincibilitaMap[3] = ImageIO.read(getClass().getResourceAsStream("/DenkyunInv/Denkyun 3.png"));
-         invincibilitaMap[4] = ImageIO.read(getClass().getResourceAsStream("/DenkyunInv/Denkyun 4.png"));
-         invincibilitaMap[5] = ImageIO.read(getClass().getResourceAsStream("/DenkyunInv/Denkyun 5.png"));
+    	 spriteMap[0] = SpriteRegistry.sprite("/Denkyun/Denkyun 0.png");
+         spriteMap[1] = SpriteRegistry.sprite("/Denkyun/Denkyun 1.png");
+         spriteMap[2] = SpriteRegistry.sprite("/Denkyun/Denkyun 2.png");
+         spriteMap[3] = SpriteRegistry.sprite("/Denkyun/Denkyun 3.png");
+         spriteMap[4] = SpriteRegistry.sprite("/Denkyun/Denkyun 4.png");
+         spriteMap[5] = SpriteRegistry.sprite("/Denkyun/Denkyun 5.png");
+         invincibilitaMap[0] = SpriteRegistry.sprite("/DenkyunInv/Denkyun 0.png");
+         invincibilitaMap[1] = SpriteRegistry.sprite("/DenkyunInv/Denkyun 1.png");
+         invincibilitaMap[2] = SpriteRegistry.sprite("/DenkyunInv/Denkyun 2.png");
+         invincibilitaMap[3] = SpriteRegistry.sprite("/DenkyunInv/Denkyun 3.png");
+         invincibilitaMap[4] = SpriteRegistry.sprite("/DenkyunInv/Denkyun 4.png");
+         invincibilitaMap[5] = SpriteRegistry.sprite("/DenkyunInv/Denkyun 5.png");
        
         
     } catch (IOException e) {
         e.printStackTrace();
     }
 }
+/**
+ * Disegna Denkyun leggendo lo stato dallo snapshot del frame.
+ *
+ * @param g2 Il contesto grafico su cui disegnare Denkyun.
+ * @param snapshot Lo snapshot del frame da disegnare.
+ * @param indice Posizione di Denkyun negli array dello snapshot.
+ */
+@Override
+public void draw(Graphics2D g2, RenderSnapshot snapshot, int indice) {
+	this.width = snapshot.nemicoLarghezza[indice];
+	this.height = snapshot.nemicoAltezza[indice];
+	this.x = snapshot.interpola(snapshot.nemicoPrecedenteX[indice], snapshot.nemicoX[indice]);
+	this.y = snapshot.interpola(snapshot.nemicoPrecedenteY[indice], snapshot.nemicoY[indice]);
+	this.invincibile = snapshot.nemicoInvincibile[indice];
+	this.alterna = snapshot.nemicoAlterna[indice];
+	this.morteFrame = snapshot.nemicoMorteFrame[indice];
+	this.spriteNum = snapshot.nemicoSpriteNum[indice];
+	this.morto = snapshot.nemicoMorto[indice];
+	draw(g2);
+}
 /**
  * Disegna Denkyun sul contesto grafico fornito.
  *
  * @param g2 Il contesto grafico su cui disegnare Denkyun.
  */
 public void draw(Graphics2D g2) {
-	  BufferedImage image = getCurrentAnimationFrame();
+	  Sprite image = getCurrentAnimationFrame();
 
 	  
 	 if(morto) {
@@ -162,7 +180,9 @@ public void draw(Graphics2D g2) {
 		 
 	 }
  
-    g2.drawImage(image,x, y, width,height, null);
+    if (image != null) {
+        image.draw(g2, x, y, width, height);
+    }
     g2.setColor(Color.RED);
    
 }
@@ -173,7 +193,7 @@ private void loadMorteImages() {
     try {
         for (int i = 0; i < 3; i++) {
         	
-            morteSprites[i] = ImageIO.read(getClass().getResourceAsStream("/morteNemici/morte" + i + ".png"));
+            morteSprites[i] = SpriteRegistry.sprite("/morteNemici/morte" + i + ".png");
         }
     } catch (IOException e) {
         e.printStackTrace();
@@ -183,15 +203,15 @@ private void loadMorteImages() {
  * Ottiene l'immagine corrente da visualizzare per Denkyun.
  * Sceglie l'immagine appropriata in base allo stato corrente di Denkyun, come se è morto, invincibile, ecc.
  *
- * @return L'immagine BufferedImage corrente da visualizzare per Denkyun.
+ * @return L'immagine Sprite corrente da visualizzare per Denkyun.
  */
-private BufferedImage getCurrentAnimationFrame() {
+private Sprite getCurrentAnimationFrame() {
 	if (morto) {
 		
         return morteSprites[morteFrame];
     }
 	if (invincibile) {
-		 BufferedImage[] spriteSource = alterna ? invincibilitaMap : spriteMap;
+		 Sprite[] spriteSource = alterna ? invincibilitaMap : spriteMap;
 		 return (spriteNum == 1) ? spriteSource[0] : (spriteNum == 2) ? spriteSource[1] :
 	        	(spriteNum == 3) ? spriteSource[2] : (spriteNum== 4) ? spriteSource[3] : (spriteNum == 5) ? spriteSource[4] 
 	        			:(spriteNum == 6) ? spriteSource[5] : spriteSource[0];
@@ -1,7 +1,5 @@
 package GiocoBomberman;
 
-import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 /**
  * La classe astratta Entita rappresenta un'entita di base nel videogioco Bomberman.
@@ -51,12 +49,27 @@ public abstract class Entita {
 	/**
 	 * Area solida utilizzata per la gestione delle collisioni.
 	 */
-	public Rectangle solidArea;
+	public Riquadro solidArea;
 
 	/**
 	 * Flag che indica se è avvenuta una collisione.
 	 */
 	public boolean collisionOn = false;
+	/**
+	 * Coordinata x dell'entità all'inizio del tick corrente, usata per interpolare il disegno.
+	 */
+	public int xPrecedente;
+	/**
+	 * Coordinata y dell'entità all'inizio del tick corrente, usata per interpolare il disegno.
+	 */
+	public int yPrecedente;
+	/**
+	 * Ricorda la posizione corrente come posizione precedente. Va chiamato all'inizio di ogni tick.
+	 */
+	public void salvaPosizionePrecedente() {
+		xPrecedente = x;
+		yPrecedente = y;
+	}
 
 	/**
 	 * Ottiene la direzione corrente dell'entità.
@@ -77,7 +90,7 @@ public abstract class Entita {
 	 * 
 	 * @return Area solida dell'entità.
 	 */
-	public abstract Rectangle getSolidArea();
+	public abstract Riquadro getSolidArea();
 
 	/**
 	 * Ottiene la coordinata x dell'entità.
@@ -144,7 +157,7 @@ public abstract class Entita {
      * @param bombaMap Mappa delle posizioni delle bombe.
      * @param esplosioniMap Mappa delle esplosioni.
      */
-	public  void update(CollisionChecker collisionChecker, ArrayList<Bomba> bombe, int[][] bombaMap, boolean[][] esplosioniMap) {
+	public  void update(CollisionChecker collisionChecker, ArrayList<Bomba> bombe, BombaMap bombaMap, EsplosioniMap esplosioniMap) {
 	}
 	/**
      * Verifica se l'entità è attualmente in stato di invincibilità.
@@ -1,6 +1,5 @@
 package GiocoBomberman;
 
-import java.awt.Rectangle;
 /**
  * La classe Esplosione rappresenta l'effetto di un'esplosione nel gioco Bomberman.
  * Gestisce le caratteristiche di un'esplosione come la sua posizione, raggio,
@@ -76,6 +75,12 @@ public class Esplosione
      */
     private boolean explosionDone;
 
+    /**
+     * Flag per indicare se i raggi dell'esplosione sono gia stati calcolati e le sue celle segnate nella mappa
+     * delle esplosioni.
+     */
+    private boolean accesa;
+
     /**
      * Costruttore per inizializzare l'esplosione.
      * 
@@ -104,6 +109,20 @@ public class Esplosione
         this.raggioSinistra = raggioSinistra;
         this.raggioDestra = raggioDestra;
     }
+    /**
+     * Segna l'esplosione come accesa: da questo momento i suoi raggi non cambiano piu fino alla fine.
+     */
+    public void accendi() {
+        accesa = true;
+    }
+    /**
+     * Indica se l'esplosione e gia stata accesa.
+     * 
+     * @return true se i raggi sono gia stati calcolati.
+     */
+    public boolean isAccesa() {
+        return accesa;
+    }
     /**
      * Aggiorna lo stato dell'esplosione. Gestisce il contatore dell'esplosione, 
      * l'animazione e determina se l'esplosione è terminata.
@@ -1,10 +1,8 @@
 package GiocoBomberman;
 
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
 /**
  * La classe EsplosioneView e responsabile della visualizzazione delle esplosioni nel gioco Bomberman.
  * Gestisce il rendering delle immagini dell'esplosione in diverse fasi e direzioni.
@@ -12,27 +10,27 @@ import javax.imageio.ImageIO;
  */
 public class EsplosioneView {
 	/**
-	 * Array bidimensionale di BufferedImage per gestire gli sprite delle esplosioni.
+	 * Array bidimensionale di Sprite per gestire gli sprite delle esplosioni.
 	 * Il primo indice rappresenta la direzione dell'esplosione (centro, su, giù, sinistra, destra),
 	 * mentre il secondo indice rappresenta le diverse fasi dell'animazione dell'esplosione.
 	 */
-	private BufferedImage[][] spriteEsplosione;
+	private Sprite[][] spriteEsplosione;
 
 	/**
-	 * Array bidimensionale di BufferedImage per gestire l'allungamento degli sprite delle esplosioni.
+	 * Array bidimensionale di Sprite per gestire l'allungamento degli sprite delle esplosioni.
 	 * Utilizzato per rappresentare la propagazione dell'esplosione in direzioni orizzontali e verticali.
 	 * Il primo indice rappresenta la direzione dell'allungamento (orizzontale, verticale),
 	 * mentre il secondo indice rappresenta le diverse fasi dell'animazione dell'esplosione.
 	 */
-	private BufferedImage[][] spriteAllungamento;
+	private Sprite[][] spriteAllungamento;
     
     /**
      * Costruttore della classe EsplosioneView.
      * Inizializza gli array di sprite e carica le immagini necessarie.
      */
     public EsplosioneView() {
-        spriteEsplosione = new BufferedImage[5][5]; // 5 direzioni, 5 stadi per ogni direzione
-        spriteAllungamento = new BufferedImage[2][5];
+        spriteEsplosione = new Sprite[5][5]; // 5 direzioni, 5 stadi per ogni direzione
+        spriteAllungamento = new Sprite[2][5];
         caricaSprite();
     }
     /**
@@ -47,13 +45,13 @@ public class EsplosioneView {
             for (int i = 0; i < direzioni.length; i++) {
                 for (int j = 0; j < 5; j++) { 
                     String percorso = "/EsplosioneDivisa/"+j+"/"+ direzioni[i]+" " + j + ".png";
-                    spriteEsplosione[i][j] = ImageIO.read(getClass().getResourceAsStream(percorso));
+                    spriteEsplosione[i][j] = SpriteRegistry.sprite(percorso);
                 }
             }
             for (int i = 0; i < direzioni2.length; i++) {
                 for (int j = 0; j < 5; j++) { 
                     String percorso = "/EsplosioneDivisa/"+j+"/"+ direzioni2[i]+" " + j + ".png";
-                    spriteAllungamento[i][j] = ImageIO.read(getClass().getResourceAsStream(percorso));
+                    spriteAllungamento[i][j] = SpriteRegistry.sprite(percorso);
                 }
             }
         } catch (IOException e) {
@@ -64,41 +62,46 @@ public class EsplosioneView {
      * Disegna l'esplosione sullo schermo.
      *
      * @param g2 Il contesto grafico per il rendering.
-     * @param esplosione L'oggetto Esplosione da visualizzare.
+     * @param snapshot Lo snapshot del frame da disegnare.
+     * @param indice Posizione dell'esplosione negli array dello snapshot.
      */
-    public void draw(Graphics2D g2, Esplosione esplosione) {
+    public void draw(Graphics2D g2, RenderSnapshot snapshot, int indice) {
     	
     	
-    	int centroX = esplosione.getX();
-		int centroY = esplosione.getY();
-		int frame = esplosione.getFrame()  ;
-		int raggio = esplosione.getRaggio();
+    	int centroX = snapshot.esplosioneX[indice];
+		int centroY = snapshot.esplosioneY[indice];
+		int frame = snapshot.esplosioneFrame[indice];
+		int raggio = snapshot.esplosioneRaggio[indice];
+		int raggioSu = snapshot.esplosioneSu[indice];
+		int raggioGiu = snapshot.esplosioneGiu[indice];
+		int raggioSinistra = snapshot.esplosioneSinistra[indice];
+		int raggioDestra = snapshot.esplosioneDestra[indice];
         
-            g2.drawImage(spriteEsplosione[0][frame], centroX, centroY,64,64, null);
-        for (int i = 1; i <= esplosione.getRaggioDestra(); i++) {
+            spriteEsplosione[0][frame].draw(g2, centroX, centroY, 64, 64);
+        for (int i = 1; i <= raggioDestra; i++) {
         	if (i!=raggio) {
-            g2.drawImage(spriteAllungamento[0][frame], centroX + (i * 64), centroY,64,64, null);
+            spriteAllungamento[0][frame].draw(g2, centroX + (i * 64), centroY, 64, 64);
         }}
-        for (int i = 1; i <= esplosione.getRaggioSinistra(); i++) {
+        for (int i = 1; i <= raggioSinistra; i++) {
         	if (i!=raggio) {
-            g2.drawImage(spriteAllungamento[0][frame], centroX - (i * 64), centroY,64,64, null);
+            spriteAllungamento[0][frame].draw(g2, centroX - (i * 64), centroY, 64, 64);
         }}
-        for (int i = 1; i <= esplosione.getRaggioSu(); i++) {
+        for (int i = 1; i <= raggioSu; i++) {
         	if (i!=raggio) {
-            g2.drawImage(spriteAllungamento[1][frame], centroX , centroY- (i * 64),64,64, null);
+            spriteAllungamento[1][frame].draw(g2, centroX, centroY- (i * 64), 64, 64);
         }}
-        for (int i = 1; i <= esplosione.getRaggioGiu(); i++) {
+        for (int i = 1; i <= raggioGiu; i++) {
         	if (i!=raggio) {
-            g2.drawImage(spriteAllungamento[1][frame], centroX , centroY+ (i * 64),64,64, null);
+            spriteAllungamento[1][frame].draw(g2, centroX, centroY+ (i * 64), 64, 64);
         }}
-        if (esplosione.getRaggioDestra()==raggio) {
-            g2.drawImage(spriteEsplosione[4][frame], centroX+ (raggio*64), centroY,64,64, null);}
-        if (esplosione.getRaggioSinistra()==raggio) {
-            g2.drawImage(spriteEsplosione[3][frame], centroX-(raggio*64), centroY,64,64, null);}
-        if (esplosione.getRaggioSu() ==raggio){
-            g2.drawImage(spriteEsplosione[1][frame], centroX, centroY-(raggio*64),64,64, null);}
-        if (esplosione.getRaggioGiu() ==raggio) {
-            g2.drawImage(spriteEsplosione[2][frame], centroX, centroY+ (raggio*64),64,64, null);}
+        if (raggioDestra==raggio) {
+            spriteEsplosione[4][frame].draw(g2, centroX+ (raggio*64), centroY, 64, 64);}
+        if (raggioSinistra==raggio) {
+            spriteEsplosione[3][frame].draw(g2, centroX-(raggio*64), centroY, 64, 64);}
+        if (raggioSu ==raggio){
+            spriteEsplosione[1][frame].draw(g2, centroX, centroY-(raggio*64), 64, 64);}
+        if (raggioGiu ==raggio) {
+            spriteEsplosione[2][frame].draw(g2, centroX, centroY+ (raggio*64), 64, 64);}
         }}
     
 
@@ -0,0 +1,101 @@
+package GiocoBomberman;
+/**
+ * EsplosioniMap conta, per ogni cella, quante esplosioni la stanno coprendo. Ogni esplosione aggiunge le proprie
+ * celle una sola volta quando si accende e le toglie una sola volta quando finisce, quindi la fine di
+ * un'esplosione non libera le celle ancora coperte da un'altra che si sovrappone.
+ *
+ * Le celle con almeno un'esplosione sono tenute anche in una {@link Bitboard}, aggiornata solo quando un conteggio
+ * passa da 0 a 1 o torna a 0, cosi che {@link #isCoperta(int, int)} resti la lettura di un bit.
+ * Le coordinate non vengono controllate: devono cadere nella griglia.
+ *
+ * @author Davide Vittucci
+ * @see GameWorld
+ * @see CollisionChecker#checkDeath(Entita, EsplosioniMap)
+ */
+public class EsplosioniMap {
+	/** Numero di colonne. */
+	private final int colonne;
+
+	/** Numero di esplosioni che coprono ogni cella, per righe. */
+	private final short[] coperture;
+
+	/** Celle coperte da almeno un'esplosione. */
+	private final Bitboard coperte;
+
+	/**
+	 * Costruisce una mappa senza esplosioni.
+	 *
+	 * @param colonne Numero di colonne.
+	 * @param righe Numero di righe.
+	 */
+	public EsplosioniMap(int colonne, int righe) {
+		this.colonne = colonne;
+		this.coperture = new short[colonne * righe];
+		this.coperte = new Bitboard(colonne, righe);
+	}
+
+	/**
+	 * Indica se una cella e coperta da almeno un'esplosione.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se la cella e coperta.
+	 */
+	public boolean isCoperta(int row, int col) {
+		return coperte.get(row, col);
+	}
+
+	/**
+	 * Restituisce il numero di esplosioni che coprono una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return Il numero di esplosioni.
+	 */
+	public int getCoperture(int row, int col) {
+		return coperture[row * colonne + col];
+	}
+
+	/**
+	 * Aggiunge un'esplosione alle celle di un rettangolo.
+	 *
+	 * @param riga1 Prima riga del rettangolo.
+	 * @param colonna1 Prima colonna del rettangolo.
+	 * @param riga2 Ultima riga del rettangolo, compresa.
+	 * @param colonna2 Ultima colonna del rettangolo, compresa.
+	 */
+	public void copri(int riga1, int colonna1, int riga2, int colonna2) {
+		for (int row = riga1; row <= riga2; row++) {
+			int base = row * colonne;
+			for (int col = colonna1; col <= colonna2; col++) {
+				if (coperture[base + col]++ == 0) {
+					coperte.set(row, col, true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Toglie un'esplosione dalle celle di un rettangolo, che deve essere stato coperto con
+	 * {@link #copri(int, int, int, int)}.
+	 *
+	 * @param riga1 Prima riga del rettangolo.
+	 * @param colonna1 Prima colonna del rettangolo.
+	 * @param riga2 Ultima riga del rettangolo, compresa.
+	 * @param colonna2 Ultima colonna del rettangolo, compresa.
+	 * @throws IllegalStateException Se una cella del rettangolo non era coperta.
+	 */
+	public void scopri(int riga1, int colonna1, int riga2, int colonna2) {
+		for (int row = riga1; row <= riga2; row++) {
+			int base = row * colonne;
+			for (int col = colonna1; col <= colonna2; col++) {
+				if (coperture[base + col] == 0) {
+					throw new IllegalStateException("Cella " + col + "," + row + " non coperta da esplosioni");
+				}
+				if (--coperture[base + col] == 0) {
+					coperte.set(row, col, false);
+				}
+			}
+		}
+	}
+}
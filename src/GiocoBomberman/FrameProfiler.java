@@ -0,0 +1,186 @@
+package GiocoBomberman;
+
+/**
+ * FrameProfiler misura la durata delle fasi di ogni tick della simulazione e di ogni frame disegnato, registrandola
+ * in un {@link LatencyHistogram} per fase. I risultati sono mostrati da {@link ProfilerView} sopra il gioco
+ * (tasto F3) oppure stampati da {@link HeadlessSimulation} quando rigioca un {@link Replay}.
+ *
+ * Le fasi si misurano a catena per leggere l'orologio una sola volta per confine:
+ * <pre>
+ * long t = profiler.inizio();
+ * ...
+ * t = profiler.fine(Fase.GIOCATORE, t);
+ * ...
+ * t = profiler.fine(Fase.BOMBE, t);
+ * </pre>
+ * Quando il profiler e disattivo {@link #inizio()} restituisce 0 e {@link #fine(Fase, long)} non legge l'orologio,
+ * quindi il costo e di un confronto per fase. Le fasi della simulazione sono scritte dal thread di gioco e quelle del
+ * disegno dal thread di Swing, come richiesto da {@link LatencyHistogram}.
+ *
+ * @author Davide Vittucci
+ * @see LatencyHistogram
+ * @see ProfilerView
+ */
+public class FrameProfiler {
+
+	/**
+	 * Fasi misurate, nell'ordine in cui vengono mostrate.
+	 */
+	public enum Fase {
+		/** Aggiornamento di Bomberman. */
+		GIOCATORE("Giocatore"),
+		/** Raccolta di fuga e potenziamenti e morte di Bomberman nelle esplosioni. */
+		FUGA_POTENZIAMENTI("checkFugaPot"),
+		/** Aggiornamento delle bombe. */
+		BOMBE("Bombe"),
+		/** Propagazione e aggiornamento delle esplosioni. */
+		ESPLOSIONI("checkExpx"),
+		/** Aggiornamento dei nemici. */
+		NEMICI("Nemici"),
+		/** Aggiornamento della mappa. */
+		MAPPA("MapModel.update"),
+		/** Collisioni tra nemici. */
+		COLLISIONI_NEMICI("Collisioni nemici"),
+		/** Collisioni tra Bomberman e nemici. */
+		COLLISIONI_BOMBERMAN("Collisioni Bomberman"),
+		/** Tick completo. */
+		TICK("Tick"),
+		/** Disegno della mappa. */
+		DISEGNO_MAPPA("Disegno mappa"),
+		/** Disegno dell'HUD. */
+		DISEGNO_HUD("Disegno HUD"),
+		/** Disegno delle bombe. */
+		DISEGNO_BOMBE("Disegno bombe"),
+		/** Disegno delle esplosioni. */
+		DISEGNO_ESPLOSIONI("Disegno esplosioni"),
+		/** Disegno dei nemici. */
+		DISEGNO_NEMICI("Disegno nemici"),
+		/** Disegno di Bomberman. */
+		DISEGNO_GIOCATORE("Disegno giocatore"),
+		/** Frame completo, compresa la copia sullo schermo. */
+		FRAME("Frame");
+
+		/** Nome mostrato nei risultati. */
+		private final String etichetta;
+
+		/**
+		 * Costruisce una fase.
+		 *
+		 * @param etichetta Nome mostrato nei risultati.
+		 */
+		Fase(String etichetta) {
+			this.etichetta = etichetta;
+		}
+
+		/**
+		 * Restituisce il nome mostrato nei risultati.
+		 *
+		 * @return L'etichetta della fase.
+		 */
+		public String getEtichetta() {
+			return etichetta;
+		}
+	}
+
+	/** Fasi in ordine, senza la copia fatta da {@link Fase#values()}. */
+	private static final Fase[] FASI = Fase.values();
+
+	/** Istogramma di ogni fase, per ordinale. */
+	private final LatencyHistogram[] istogrammi = new LatencyHistogram[FASI.length];
+
+	/** Indica se le misure sono attive. */
+	private volatile boolean attivo;
+
+	/**
+	 * Costruisce un profiler disattivo.
+	 */
+	public FrameProfiler() {
+		for (int i = 0; i < istogrammi.length; i++) {
+			istogrammi[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Inizia la misura della prima fase di una catena.
+	 *
+	 * @return L'istante corrente, oppure 0 se il profiler e disattivo.
+	 */
+	public long inizio() {
+		return attivo ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Chiude la misura di una fase e inizia la successiva.
+	 *
+	 * @param fase La fase appena conclusa.
+	 * @param inizio Il valore restituito da {@link #inizio()} o dalla chiamata precedente.
+	 * @return L'istante di fine della fase, oppure 0 se la misura non era attiva.
+	 */
+	public long fine(Fase fase, long inizio) {
+		if (inizio == 0) {
+			return 0;
+		}
+		long adesso = System.nanoTime();
+		istogrammi[fase.ordinal()].registra(adesso - inizio);
+		return adesso;
+	}
+
+	/**
+	 * Attiva o disattiva le misure. All'attivazione i risultati precedenti vengono scartati.
+	 *
+	 * @param attivo true per attivare le misure.
+	 */
+	public void setAttivo(boolean attivo) {
+		if (attivo && !this.attivo) {
+			azzera();
+		}
+		this.attivo = attivo;
+	}
+
+	/**
+	 * Indica se le misure sono attive.
+	 *
+	 * @return true se il profiler sta misurando.
+	 */
+	public boolean isAttivo() {
+		return attivo;
+	}
+
+	/**
+	 * Scarta i risultati di tutte le fasi.
+	 */
+	public void azzera() {
+		for (LatencyHistogram istogramma : istogrammi) {
+			istogramma.azzera();
+		}
+	}
+
+	/**
+	 * Restituisce l'istogramma di una fase.
+	 *
+	 * @param fase La fase.
+	 * @return L'istogramma delle durate della fase.
+	 */
+	public LatencyHistogram getIstogramma(Fase fase) {
+		return istogrammi[fase.ordinal()];
+	}
+
+	/**
+	 * Restituisce un riepilogo testuale con campioni, p50, p99 e massimo di ogni fase misurata, in microsecondi.
+	 *
+	 * @return Il riepilogo, una fase per riga.
+	 */
+	public String riepilogo() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-22s %10s %9s %9s %9s%n", "Fase (us)", "campioni", "p50", "p99", "max"));
+		for (Fase fase : FASI) {
+			LatencyHistogram istogramma = istogrammi[fase.ordinal()];
+			if (istogramma.getConteggio() == 0) {
+				continue;
+			}
+			sb.append(String.format("%-22s %10d %9.1f %9.1f %9.1f%n", fase.getEtichetta(), istogramma.getConteggio(),
+					istogramma.percentile(50) / 1000.0, istogramma.percentile(99) / 1000.0, istogramma.getMassimo() / 1000.0));
+		}
+		return sb.toString();
+	}
+}
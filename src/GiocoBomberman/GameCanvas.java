@@ -0,0 +1,101 @@
+package GiocoBomberman;
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+/**
+ * GameCanvas e la superficie del disegno diretto: il thread di gioco disegna ogni frame subito dopo il tick in una
+ * {@link BufferStrategy} a {@link #PAGINE} pagine e lo presenta, invece di chiedere a Swing un repaint che puo
+ * essere accorpato o ritardato. Dopo ogni presentazione {@link Toolkit#sync()} svuota la coda del sistema grafico,
+ * cosi il frame arriva sullo schermo nel tick in cui e stato prodotto.
+ *
+ * Il disegno diretto si attiva con la proprieta di sistema {@value #PROPRIETA}; senza, il gioco usa il solito
+ * repaint di {@link GamePanel}. Il contenuto del frame e lo stesso nei due casi, perche entrambi passano per
+ * {@link GamePanel#disegnaFrame(Graphics, int, int)}.
+ *
+ * @author Davide Vittucci
+ * @see GamePanel
+ * @see GameLoop
+ */
+public class GameCanvas extends Canvas {
+	/**
+	 * Identificatore univoco per la serializzazione.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/** Proprieta di sistema che attiva il disegno diretto, ad esempio -Djbomberman.disegnoDiretto=true. */
+	public static final String PROPRIETA = "jbomberman.disegnoDiretto";
+
+	/** Numero di pagine della BufferStrategy: una mostrata e una in disegno. */
+	private static final int PAGINE = 2;
+
+	/** Pannello che disegna il contenuto dei frame. */
+	private final GamePanel pannello;
+
+	/** Strategia di presentazione, creata al primo frame disegnato. */
+	private volatile BufferStrategy strategia;
+
+	/**
+	 * Costruisce la superficie del disegno diretto di un pannello.
+	 *
+	 * @param pannello Il pannello che disegna i frame.
+	 */
+	public GameCanvas(GamePanel pannello) {
+		this.pannello = pannello;
+		setIgnoreRepaint(true);
+		setFocusable(false);
+	}
+
+	/**
+	 * Indica se il disegno diretto e stato richiesto con la proprieta di sistema.
+	 *
+	 * @return true se il gioco deve usare il disegno diretto.
+	 */
+	public static boolean isRichiesto() {
+		return Boolean.getBoolean(PROPRIETA);
+	}
+
+	/**
+	 * Disegna e presenta un frame. Va chiamato dal thread di gioco.
+	 *
+	 * @return true se il frame e stato presentato, false se la superficie non e ancora sullo schermo.
+	 */
+	public boolean disegna() {
+		if (!isShowing() || getWidth() <= 0 || getHeight() <= 0) {
+			return false;
+		}
+		BufferStrategy strategia = this.strategia;
+		if (strategia == null) {
+			createBufferStrategy(PAGINE);
+			strategia = getBufferStrategy();
+			this.strategia = strategia;
+		}
+		do {
+			do {
+				Graphics g = strategia.getDrawGraphics();
+				try {
+					pannello.disegnaFrame(g, getWidth(), getHeight());
+				} finally {
+					g.dispose();
+				}
+			} while (strategia.contentsRestored());
+			strategia.show();
+		} while (strategia.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+		return true;
+	}
+
+	/**
+	 * Libera la strategia di presentazione quando la superficie viene tolta dalla finestra.
+	 */
+	@Override
+	public void removeNotify() {
+		BufferStrategy strategia = this.strategia;
+		this.strategia = null;
+		if (strategia != null) {
+			strategia.dispose();
+		}
+		super.removeNotify();
+	}
+}
@@ -3,27 +3,27 @@ package GiocoBomberman;
 
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.awt.BorderLayout;
-import java.awt.Dimension;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.io.IOException;
+import java.nio.file.Path;
 
 import javax.swing.JFrame;
-import javax.swing.Timer;
 /**
  * La classe GameController e il nucleo centrale della logica di gioco di Bomberman. Coordina l'interazione tra
  * vari componenti del gioco, come Bomberman, nemici, bombe, esplosioni e il livello di gioco. Implementa l'interfaccia
  * Runnable per gestire il ciclo di gioco in un thread separato.
  *
- * Gestisce la logica di gioco, aggiornando lo stato dei vari elementi, gestendo le collisioni, e reagendo a eventi
- * come la sconfitta o la vittoria del giocatore. Inoltre, gestisce la pausa e la ripresa del gioco, e la transizione
+ * Le regole della partita sono in {@link GameWorld}, che il controller fa avanzare di un tick alla volta; il controller
+ * si occupa dell'input, dell'HUD e degli eventi come la sconfitta o la vittoria del giocatore. Inoltre, gestisce la pausa e la ripresa del gioco, e la transizione
  * tra diversi stati di gioco (come la vittoria o la sconfitta).
  *
  * Usa il pattern Observer per aggiornare la vista del gioco in base ai cambiamenti nello stato dei modelli.
  *
+ * Ogni partita viene registrata da un {@link ReplayRecorder} e salvata in {@link Replay#PERCORSO_ULTIMA_PARTITA};
+ * con {@link #riproduci(Replay)} i comandi vengono invece letti da un replay, alla velocita normale del gioco.
+ *
  * @author Davide Vittucci
  * @see java.lang.Runnable
  * @see HudModel
@@ -31,26 +31,33 @@ import javax.swing.Timer;
  * @see CollisionChecker
  * @see KeyHandler
  * @see GamePanel
+ * @see GameWorld
  */
 
-public class GameController implements Runnable {
+public class GameController implements Runnable, GameLoop.Callback {
 	/** Modello HUD per la visualizzazione delle informazioni di gioco. */
 	private HudModel hudModel;
 
 	/** Riferimento al personaggio principale del gioco, Bomberman. */
 	private Bomberman bomberman;
 
-	/** Gestore delle collisioni del gioco. */
-	private CollisionChecker collisionChecker;
-
 	/** Gestore degli input da tastiera. */
 	private KeyHandler keyHandler;
 
-	/** Lista delle bombe piazzate nel gioco. */
-	private ArrayList<Bomba> bombe = new ArrayList<>();
+	/** Comandi usati dal mondo nel tick corrente, copiati dalla tastiera o letti dal replay. */
+	private final Comandi comandi = new Comandi();
+
+	/** Registratore dei comandi della partita, null durante la riproduzione di un replay. */
+	private ReplayRecorder registratore;
+
+	/** Sorgente dei comandi quando si riproduce un replay, altrimenti null. */
+	private InputScript riproduzione;
 
-	/** Lista delle esplosioni attive nel gioco. */
-	private ArrayList<Esplosione> esplosioni = new ArrayList<>();
+	/** Misura le fasi dei tick e dei frame, mostrato con il tasto F3. */
+	private final FrameProfiler profiler = new FrameProfiler();
+
+	/** Regole e stato della partita, senza dipendenze da Swing. */
+	private GameWorld world;
 
 	/** Pannello di gioco principale per la visualizzazione dei componenti del gioco. */
 	private GamePanel gamePanel;
@@ -58,41 +65,29 @@ public class GameController implements Runnable {
 	/** Indica se il ciclo di gioco è in esecuzione. */
 	private boolean running;
 
-	/** Dimensione delle piastrelle nel gioco. */
-	private int tileSize;
-
 	/** Thread dedicato al ciclo di gioco. */
 	private Thread gameThread;
 
-	/** Modello della mappa del gioco. */
-	private MapModel mapModel;
-
-	/** Frequenza di aggiornamento del gioco in frame al secondo. */
-	private static final int FPS = 60;
-
-	/** Mappa delle posizioni delle bombe nel gioco. */
-	private int[][] bombaMap;
+	/** Scheduler a passo fisso che esegue il ciclo di gioco. */
+	private GameLoop gameLoop;
 
-	/** Lista dei nemici presenti nel gioco. */
-	private ArrayList<Nemico> nemici;
+	/** Snapshot dello stato di gioco scambiati tra il thread di gioco e il thread di Swing. */
+	private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
 
-	/** Livello corrente del gioco. */
-	private Level currentLevel;
+	/** Numero di tick simulati dall'inizio della partita. */
+	private long tickCorrente;
 
-	/** Mappa delle esplosioni nel gioco. */
-	private boolean[][] esplosioniMap;
-
-	/** Durata del timer per il livello corrente. */
-	private int durataTimer;
+	/** Modello della mappa del gioco. */
+	private MapModel mapModel;
 
-	/** Timer per il controllo del tempo nel livello corrente. */
-	private Timer livelloTimer;
+	/** Frequenza di aggiornamento del gioco in frame al secondo. */
+	private static final int FPS = GameWorld.TICK_PER_SECONDO;
 
 	/** Controller del menu del gioco. */
 	private MenuController menuController;
 
 	/** Indica se il gioco è in pausa. */
-	private boolean isPaused;
+	private volatile boolean isPaused;
 
 	/** Indica se le statistiche del gioco sono state aggiornate dopo la fine del livello. */
 	private boolean statisticheAggiornate;
@@ -106,15 +101,6 @@ public class GameController implements Runnable {
 	/** Vista per la schermata di vittoria. */
 	private VintoView vintoView;
 
-	/** Ultima posizione X in cui è stata piazzata una bomba. */
-	private int lastBombx;
-
-	/** Ultima posizione Y in cui è stata piazzata una bomba. */
-	private int lastBomby;
-
-	/** Tempo rimanente nel livello corrente. */
-	public int tempoRimanente;
-
 	/** Vista per la schermata di sconfitta. */
 	private PersoView persoView;
 
@@ -128,17 +114,16 @@ public class GameController implements Runnable {
 	 * Inizializza il controller con le componenti necessarie per gestire il gioco.
 	 * 
 	 * @param menuController Controller del menu principale.
-	 * @param bomberman Il personaggio principale del gioco.
+	 * @param sessione La sessione della partita, con il personaggio principale e il modello dell'HUD.
 	 * @param level Il livello corrente del gioco.
 	 * @param collisionChecker Gestore delle collisioni del gioco.
 	 * @param mapModel Modello della mappa del gioco.
 	 * @param keyHandler Gestore degli input da tastiera.
 	 * @param gamePanel Pannello principale del gioco.
-	 * @param hudModel Modello per l'HUD del gioco.
 	 * @param dimensioni Array contenente le dimensioni del gioco.
 	 * @param finestra Finestra principale del gioco.
 	 */
-    public GameController(MenuController menuController,Bomberman bomberman,Level level, CollisionChecker collisionChecker, MapModel mapModel, KeyHandler keyHandler, GamePanel gamePanel, HudModel hudModel, int[] dimensioni, JFrame finestra) {
+    public GameController(MenuController menuController,GameSession sessione,Level level, CollisionChecker collisionChecker, MapModel mapModel, KeyHandler keyHandler, GamePanel gamePanel, int[] dimensioni, JFrame finestra) {
     	pausaView = new PausaView(finestra);
     	persoView = new PersoView(finestra);
     	vintoView = new VintoView(finestra);
@@ -150,57 +135,19 @@ public class GameController implements Runnable {
         vintoView.toggleVisibility(false);
         setupOverlayListeners();
     	this.mapModel = mapModel;
-        this.bomberman = bomberman;
-        this.currentLevel = level;
-        this.nemici = currentLevel.getEnemies();
-        this.collisionChecker = collisionChecker;
+        this.bomberman = sessione.getBomberman();
+        this.world = new GameWorld(sessione, level, collisionChecker, mapModel, dimensioni);
+        world.setProfiler(profiler);
         this.keyHandler = keyHandler;
-        this.hudModel = hudModel;
+        this.hudModel = sessione.getHudModel();
         this.menuController= menuController;
         this.gamePanel = gamePanel;
         this.running = true;
-        this.tileSize= dimensioni[2];
-        bombaMap = new int[dimensioni[1]][dimensioni[0]];
-        esplosioniMap = new boolean[dimensioni[1]][dimensioni[0]];
         this.finestra= finestra;
-        this.durataTimer = level.getTimer();
-        this.tempoRimanente = durataTimer;
         this.isPaused=false;
-        this.mapModel.addObserver(gamePanel.getMapView());
-        this.mapModel.notifica();
-        this.hudModel.addObserver(gamePanel.getHudView());
-        this.hudModel.notifica();
-        for (Nemico nemico : nemici) {
-            nemico.addObserver(gamePanel.getNemicoView(nemico));
-        }
-        livelloTimer = new Timer(1000, new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (!isPaused) { // Controlla se il gioco è in pausa
-                    tempoRimanente--; 
-                    if (tempoRimanente <= 0) {
-                    	if (bomberman.getVita() > 0) {
-                        bomberman.setColpito(true);}
-                        livelloTimer.stop();
-
-                        Timer ritardoTimer = new Timer(2500, new ActionListener() {
-                            @Override
-                            public void actionPerformed(ActionEvent e) {
-                                tempoRimanente = durataTimer;
-                                if (!isPaused) { // Controlla di nuovo se il gioco è in pausa prima di riavviare il timer
-                                    livelloTimer.start();
-                                }
-                            }
-                        });
-                        ritardoTimer.setRepeats(false);
-                        ritardoTimer.start();
-                    }
-                }
-            }
-        });
-        livelloTimer.start();
-       
-     
+        this.registratore = new ReplayRecorder(sessione.getSeme());
+        updateHud();
+        pubblicaSnapshot();
     }
     /**
      * Imposta i listener per le interazioni con le viste di pausa, sconfitta e vittoria.
@@ -235,6 +182,7 @@ public class GameController implements Runnable {
         }
         
         new GestoreGiocatore().salvaGiocatori(menuController.getModel().getGiocatori());
+        salvaReplay();
         statisticheAggiornate = true;
     }}
     /**
@@ -253,10 +201,25 @@ public class GameController implements Runnable {
      */
     public void startGame() {
     	
-        gameThread = new Thread(this);
+        gameLoop = new GameLoop(this, FPS, frequenzaSchermo());
+        gameThread = new Thread(this, "GameLoop");
         gameThread.start();
         
     }
+    /**
+     * Restituisce la frequenza di aggiornamento dello schermo principale, usata come frequenza del disegno.
+     * Se non e nota, o e piu bassa di quella della simulazione, si disegna a ogni tick.
+     *
+     * @return La frequenza del disegno in frame al secondo.
+     */
+    private static int frequenzaSchermo() {
+    	if (GraphicsEnvironment.isHeadless()) {
+    		return FPS;
+    	}
+    	int frequenza = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+    			.getDisplayMode().getRefreshRate();
+    	return frequenza == DisplayMode.REFRESH_RATE_UNKNOWN ? FPS : Math.max(FPS, frequenza);
+    }
     /**
      * Avvia una nuova partita, resettando il personaggio principale e il thread.
      */
@@ -265,7 +228,6 @@ public class GameController implements Runnable {
     	AudioManager.getInstance().play("res/audio/Title-Screen-Select2.wav");
     	running = false;
         gameThread.interrupt();
-        this.bomberman.resetInstance();
         menuController.newStartGame();
         AudioManager.getInstance().playBackgroundMusic(("res/audio/game.wav"), true,0.7f);
     }
@@ -275,35 +237,114 @@ public class GameController implements Runnable {
     public void stopGame() {
     	AudioManager.getInstance().play("res/audio/Title-Screen-Select2.wav");
     	   running = false;
-    	   this.bomberman.resetInstance();
     	   gameThread.interrupt();
     	    menuController.mostraMenuIniziale();
     	    AudioManager.getInstance().playBackgroundMusic(("res/audio/main.wav"), true,0.7f);
     }
     /**
      * Il ciclo principale di gioco che viene eseguito nel thread dedicato.
+     * La temporizzazione dei tick e delegata a {@link GameLoop}.
      */
     public void run() {
     	AudioManager.getInstance().playBackgroundMusic(("res/audio/game.wav"), true,0.7f);
-        long lastTime = System.nanoTime();
-        double ns = 1000000000 / FPS;
-        double delta = 0;
-        long currentTime;
-
-        while (running) {
-        
-        	controlloStatoPartita();
-            
-                currentTime = System.nanoTime();
-                delta += (currentTime - lastTime) / ns;
-                lastTime = currentTime;
-
-                if (delta >= 1) {
-                    update();
-                    gamePanel.repaint();
-                    delta--;
-                }
-            } }
+    	gameLoop.run();
+    	salvaReplay();
+    }
+    /**
+     * Fa giocare la partita ai comandi di un replay invece che alla tastiera. Va chiamato prima di
+     * {@link #startGame()}, su una sessione creata con il seme del replay; la tastiera resta attiva solo per la pausa.
+     *
+     * @param replay Il replay da riprodurre.
+     */
+    public void riproduci(Replay replay) {
+    	this.riproduzione = replay.script();
+    	this.registratore = null;
+    }
+    /**
+     * Salva il replay della partita registrata finora. Va chiamato solo dal thread di gioco.
+     */
+    private void salvaReplay() {
+    	if (registratore == null) {
+    		return;
+    	}
+    	try {
+    		registratore.getReplay().salva(Path.of(Replay.PERCORSO_ULTIMA_PARTITA));
+    	} catch (IOException e) {
+    		e.printStackTrace();
+    	}
+    }
+    /**
+     * Indica se il ciclo di gioco deve continuare.
+     *
+     * @return true finche la partita e in corso.
+     */
+    @Override
+    public boolean isRunning() {
+    	return running;
+    }
+    /**
+     * Indica se la simulazione puo essere sospesa: gioco in pausa oppure schermata di vittoria o sconfitta visibile.
+     *
+     * @return true se il gioco e inattivo.
+     */
+    @Override
+    public boolean isIdle() {
+    	return isPaused || persoView.isVisible() || vintoView.isVisible();
+    }
+    /**
+     * Controlla lo stato della partita ad ogni giro del ciclo.
+     */
+    @Override
+    public void controllaStato() {
+    	controlloStatoPartita();
+    }
+    /**
+     * Avanza la simulazione di un tick e pubblica lo snapshot del nuovo stato.
+     */
+    @Override
+    public void tick() {
+    	update();
+    	tickCorrente++;
+    	pubblicaSnapshot();
+    }
+    /**
+     * Fotografa lo stato corrente nello slot libero del triplo buffer e lo rende visibile al thread di Swing.
+     * Va chiamato solo dal thread che esegue la simulazione.
+     */
+    private void pubblicaSnapshot() {
+    	snapshots.inScrittura().cattura(tickCorrente, bomberman, hudModel, world.getBombe(), world.getEsplosioni(), world.getNemici(), mapModel);
+    	snapshots.pubblica();
+    }
+    /**
+     * Restituisce l'ultimo snapshot pubblicato. Va chiamato solo dal thread di Swing durante il disegno.
+     *
+     * @return L'ultimo snapshot dello stato di gioco.
+     */
+    public RenderSnapshot getSnapshot() {
+    	return snapshots.leggi();
+    }
+    /**
+     * Restituisce il profiler delle fasi dei tick e dei frame.
+     *
+     * @return Il profiler della partita.
+     */
+    public FrameProfiler getProfiler() {
+    	return profiler;
+    }
+    /**
+     * Disegna lo stato corrente: con il disegno diretto il frame viene presentato subito da questo thread,
+     * altrimenti si richiede il ridisegno del pannello di gioco. Sotto le schermate di pausa e di fine partita
+     * il frame e sempre disegnato dal pannello.
+     */
+    @Override
+    public void render() {
+    	if (isIdle()) {
+    		gamePanel.sospendiDisegnoDiretto();
+    		gamePanel.repaint();
+    	} else if (!gamePanel.disegnaDiretto()) {
+    		gamePanel.repaint();
+    	}
+    }
             
         
     /**
@@ -312,14 +353,7 @@ public class GameController implements Runnable {
     public void pauseGame() {
     	
         isPaused = true;
-        livelloTimer.stop();
-        bomberman.pause();
-        for (Bomba bomba : bombe) {
-            bomba.pause();
-        }
-        for (Nemico nemico : nemici) {
-            nemico.pause();
-        }
+        world.pause();
         pausaView.toggleVisibility(true);  
     }
     /**
@@ -359,216 +393,33 @@ public class GameController implements Runnable {
     	AudioManager.getInstance().play("res/audio/Title-Screen-Select.wav");
         if (isPaused) {
             isPaused = false;
-            livelloTimer.start();
-            bomberman.resume();
-            for (Bomba bomba : bombe) {
-                bomba.resume();
-            }
-            for (Nemico nemico : nemici) {
-                nemico.resume();
-            }
+            world.resume();
+            gameLoop.sveglia();
         }pausaView.toggleVisibility(false);  
     }
     /**
-     * Prepara il livello impostando i nemici e il tempo rimanente.
-     */
-    private void setupLevel() {
-    	
-        nemici = currentLevel.getEnemies();
-        tempoRimanente = currentLevel.getTimer(); 
-
-      
-    }
-    /**
-     * Aggiorna lo stato del gioco ad ogni frame.
-     * Gestisce l'aggiornamento di tutti gli elementi del gioco come Bomberman, bombe, nemici e collisioni.
+     * Aggiorna lo stato del gioco ad ogni frame avanzando il mondo di gioco di un tick con i comandi correnti.
+     * I comandi della tastiera vengono copiati una sola volta per tick, cosi il mondo vede esattamente quelli registrati
+     * anche se il thread di Swing li modifica durante l'aggiornamento.
      */
     public void update() {
-    	
-    	if (bomberman.getVittoria()) {
-    			bomberman.setExp(currentLevel.getLevelNumber());
-    			currentLevel.changeLevel();
-    		 
-    	        bomberman.setInFuga(false);
-    	        bomberman.setVittoria(false);
-    	        bomberman.setVite(2);
-    	        bomberman.setPunteggio(1000);
-    	        setupLevel();
+    	if (riproduzione != null) {
+    		riproduzione.applica(tickCorrente, comandi);
+    	} else {
+    		int maschera = Replay.maschera(keyHandler);
+    		registratore.registra(tickCorrente, maschera);
+    		Replay.applicaMaschera(maschera, comandi);
     	}
+    	world.step(comandi);
     	updateHud();
-    	
-    	
-    
-    	bomberman.update(keyHandler, collisionChecker, bombe, bombaMap, esplosioniMap);
-    
-    	collisionChecker.checkFugaPot(bomberman, nemici);
-    	if (!bomberman.isInvincibile()) {
-    	collisionChecker.checkDeath(bomberman, esplosioniMap);}
-    	
-    	
-    	
-        for (Iterator<Bomba> iterator = bombe.iterator(); iterator.hasNext();) {
-	        Bomba bomba = iterator.next();
-	        
-	        bomba.update(bombaMap,esplosioniMap);
-	        
-	        if (bomba.hasExploded()  ) { //&& bomba.isExplosionDone()
-	        	
-	            iterator.remove(); 
-	            gamePanel.removeBombaView(bomba);
-	            bombaMap[bomba.getY() / tileSize][bomba.getX() / tileSize] = 0;
-	            Esplosione esplosione = new Esplosione(bomba.getX(), bomba.getY(),bomberman.getRaggio());
-	            esplosioni.add(esplosione);
-	           
-	          }
-    }	
-
-     
-      for (Iterator<Esplosione> iterator = esplosioni.iterator(); iterator.hasNext();) {
-    	     Esplosione esplosione = iterator.next();
-    	   
-    	     collisionChecker.checkExpx(esplosione);
-    	     impostaEsplosioniTrue(esplosione);
-	         esplosione.update();
-	         if (esplosione.isExplosionDone() ) { 
-		        	
-		            iterator.remove(); 
-		            impostaEsplosioniFalse(esplosione);
-		        }}
-      for (Iterator<Nemico> iterator = nemici.iterator(); iterator.hasNext();) {
-    	  Nemico nemico = iterator.next();
-    	  
-    	  nemico.update(collisionChecker, bombe, bombaMap, esplosioniMap);
-    	  if (nemico.mortoFine) { 
-    		  bomberman.setPunteggio(nemico.getPunteggio());
-    		  iterator.remove(); }
-      }    
-      
-        this.mapModel.update();
-      
-        if (keyHandler.bombPressed && !keyHandler.bombKeyPressed && !bomberman.getColpito()&& !bomberman.isInFuga()) {
-            placeBomb(bombe, bombaMap);
-            keyHandler.bombKeyPressed = true;
-        } else if (!keyHandler.bombPressed) {
-        	keyHandler.bombKeyPressed = false;
-        }
-        collisionChecker.checkNemiciCollision(nemici);
-        collisionChecker.checkBombermanNemiciCollision(bomberman, nemici);
-       }
+    }
    
     /**
      * Aggiorna l'HUD con il tempo rimanente e il numero del livello corrente.
      */
     private void updateHud() {
-    	hudModel.setTempo(getTempo());
-		hudModel.setLevel(currentLevel.getLevelNumber());
-	}
-    /**
-     * Piazza una bomba sul campo di gioco.
-     * 
-     * @param bombe Lista delle bombe piazzate.
-     * @param bombaMap Mappa delle bombe per gestire la loro posizione.
-     */
-	public void placeBomb( ArrayList<Bomba> bombe, int[][] bombaMap) {
-    	if (bombe.size()<bomberman.getMaxBomb()) {
-    	int bombaX =  ((bomberman.getX()+  bomberman.getSolidArea().x + bomberman.getSolidArea().width/2 ) / tileSize * tileSize);
-        int bombaY = ((bomberman.getY()  + bomberman.getSolidArea().y + bomberman.getSolidArea().height ) / tileSize * tileSize);
-        if (bombaMap[bombaY/tileSize][bombaX/tileSize]== 0) {
-        Bomba bomba = new Bomba(tileSize,bombaX, bombaY);
-        BombaView bombaView = new BombaView(finestra);
-        
-        bomba.addObserver(bombaView);
-        bomba.notifica();
-        bombe.add(bomba);
-        gamePanel.addBombaView(bomba, bombaView);
-      
-        bomberman.setOnBomb(true);
-        if (bombaMap[lastBomby/tileSize][lastBombx/tileSize]== 2) {
-        bombaMap[lastBomby/tileSize][lastBombx/tileSize] = 1;}
-        bombaMap[bombaY/ tileSize][bombaX / tileSize] = 2;
-        lastBomby = bombaY;
-        
-        lastBombx = bombaX;
-        bomberman.setXBomb(bombaX);
-        bomberman.setYBomb(bombaY);
-        }
-        AudioManager.getInstance().play("res/audio/Place-Bomb.wav");}
-       } 
-	/**
-	 * Imposta le celle della mappa delle esplosioni su true in base al raggio dell'esplosione.
-	 * 
-	 * @param esplosione L'oggetto esplosione che deve essere gestito.
-	 */
- private void impostaEsplosioniTrue( Esplosione esplosione) {
-	 
-	 int centroX = esplosione.getX() / tileSize;
-	 int centroY = esplosione.getY() / tileSize;
-	
-	 esplosioniMap[centroY][centroX] = true;
-	
-	 for (int i = 1; i <= esplosione.getRaggioSu(); i++) {
-		 
-	      esplosioniMap[centroY - i][centroX] = true;
-	      
-	      
-	 }
-	 
-	 for (int i = 1; i <= esplosione.getRaggioGiu(); i++) {
-		
-	     esplosioniMap[centroY + i][centroX] = true;
-	    
-	    
-	 }
-	 // Sinistra
-	 for (int i = 1; i <= esplosione.getRaggioSinistra(); i++) {
-	     esplosioniMap[centroY][centroX - i]= true;
-	    
-	 }
-	 // Destra
-	 for (int i = 1; i <= esplosione.getRaggioDestra(); i++) {
-	     esplosioniMap[centroY][centroX + i] = true;
-	   
-	 }
-	
-	}
-
-/**
- * Imposta le celle della mappa delle esplosioni su false dopo che l'esplosione è terminata.
- * 
- * @param esplosione L'oggetto esplosione che deve essere gestito.
- */
-private void impostaEsplosioniFalse( Esplosione esplosione) {
-	 
-	 int centroX = esplosione.getX() / tileSize;
-	 int centroY = esplosione.getY() / tileSize;
-
-	 
-	 esplosioniMap[centroY][centroX] = false;
-	 esplosioniMap.getClass();
-	
-	 for (int i = 1; i <= esplosione.getRaggioSu(); i++) {
-		 
-	      esplosioniMap[centroY - i][centroX] = false;
-	      esplosioniMap.getClass();
-	 }
-	 // Giù
-	 for (int i = 1; i <= esplosione.getRaggioGiu(); i++) {
-		
-	     esplosioniMap[centroY + i][centroX] = false;
-	     esplosioniMap.getClass();
-	   
-	 }
-	 // Sinistra
-	 for (int i = 1; i <= esplosione.getRaggioSinistra(); i++) {
-	     esplosioniMap[centroY][centroX - i] = false;
-	     esplosioniMap.getClass();
-	 }
-	 // Destra
-	 for (int i = 1; i <= esplosione.getRaggioDestra(); i++) {
-	     esplosioniMap[centroY][centroX + i] = false;
-	     esplosioniMap.getClass();
-	 }
-	 //stampaEsplosioniMap();
+    	hudModel.setTempo(world.getTempo());
+		hudModel.setLevel(world.getLevel().getLevelNumber());
 	}
 /**
  * Restituisce la lista delle bombe attualmente attive nel gioco.
@@ -576,7 +427,7 @@ private void impostaEsplosioniFalse( Esplosione esplosione) {
  * @return Lista delle bombe.
  */
 public ArrayList<Bomba> getBombe() {
-        return bombe;
+        return world.getBombe();
     }
 /**
  * Restituisce il tempo rimanente nel livello corrente.
@@ -584,8 +435,7 @@ public ArrayList<Bomba> getBombe() {
  * @return Il tempo rimanente.
  */
 public int getTempo() {
-	// TODO Auto-generated method stub
-	return tempoRimanente;
+	return world.getTempo();
 }
 /**
  * Controlla lo stato della partita, gestendo pause e fine del gioco.
@@ -601,7 +451,7 @@ public void controlloStatoPartita() {
 	  loseGame();
         
     }
-	if (currentLevel.getLevelNumber() > 3) {
+	if (world.getLevel().getLevelNumber() > Level.ULTIMO_LIVELLO) {
 		finePartita(true);
 		  winGame();
 	        
@@ -622,8 +472,7 @@ public HudModel getHudModel() {
  * @return Lista delle esplosioni.
  */
 public  ArrayList<Esplosione> getEsplosioni() {
-	// TODO Auto-generated method stub
-	return esplosioni;
+	return world.getEsplosioni();
 }
 /**
  * Restituisce la lista dei nemici attualmente attivi nel gioco.
@@ -631,6 +480,5 @@ public  ArrayList<Esplosione> getEsplosioni() {
  * @return Lista dei nemici.
  */
 public ArrayList<Nemico> getNemici() {
-	// TODO Auto-generated method stub
-	return nemici;
+	return world.getNemici();
 }}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package GiocoBomberman;
+
+import java.util.concurrent.locks.LockSupport;
+/**
+ * GameLoop e lo scheduler del ciclo di gioco a passo fisso.
+ * Esegue la simulazione a una frequenza costante di tick, indipendente dalla velocita del disco o del rendering,
+ * e tra un tick e l'altro parcheggia il thread invece di girare a vuoto.
+ *
+ * L'attesa usa la strategia "spin-then-park": il thread viene parcheggiato con {@link LockSupport#parkNanos(long)}
+ * fino a poco prima della scadenza e gli ultimi microsecondi vengono coperti con {@link Thread#onSpinWait()},
+ * cosi da avere tick precisi senza tenere occupato un core. Dopo uno stallo (GC, finestra trascinata, debugger)
+ * il numero di tick di recupero e limitato e il tempo in eccesso viene scartato.
+ *
+ * Il disegno ha una frequenza propria, di solito quella dello schermo: se e piu alta di quella della simulazione,
+ * tra un tick e l'altro il ciclo chiede altri frame, nei quali le viste interpolano le posizioni tra gli ultimi
+ * due tick (vedi {@link RenderSnapshot#interpola(int, int)}). Dopo ogni tick viene comunque disegnato un frame.
+ *
+ * Quando il gioco e inattivo (pausa o schermate di fine partita) il ciclo non simula e controlla lo stato
+ * a bassa frequenza, con un consumo di CPU quasi nullo; {@link #sveglia()} lo riattiva immediatamente.
+ *
+ * @author Davide Vittucci
+ * @see GameController
+ */
+public class GameLoop implements Runnable {
+
+	/**
+	 * Operazioni che il ciclo invoca sul gioco che sta eseguendo.
+	 */
+	public interface Callback {
+		/**
+		 * Indica se il ciclo deve continuare.
+		 *
+		 * @return true finche la partita e in corso.
+		 */
+		boolean isRunning();
+
+		/**
+		 * Indica se il gioco e inattivo e la simulazione puo essere sospesa.
+		 *
+		 * @return true se in pausa o se una schermata di fine partita e visibile.
+		 */
+		boolean isIdle();
+
+		/**
+		 * Controlla lo stato della partita (input di pausa, vittoria, sconfitta). Invocato ad ogni giro del ciclo.
+		 */
+		void controllaStato();
+
+		/**
+		 * Avanza la simulazione di un tick.
+		 */
+		void tick();
+
+		/**
+		 * Richiede il disegno dello stato corrente.
+		 */
+		void render();
+	}
+
+	/** Numero massimo di tick eseguiti di fila per recuperare uno stallo. */
+	private static final int MAX_TICK_RECUPERO = 5;
+
+	/** Margine finale dell'attesa coperto con lo spin invece che con il park, in nanosecondi. */
+	private static final long MARGINE_SPIN_NS = 200_000L;
+
+	/** Intervallo di controllo dello stato quando il gioco e inattivo, in nanosecondi. */
+	private static final long ATTESA_INATTIVO_NS = 50_000_000L;
+
+	/** Gioco da eseguire. */
+	private final Callback callback;
+
+	/** Durata di un tick in nanosecondi. */
+	private final long durataTickNs;
+
+	/** Intervallo minimo tra due frame in nanosecondi. */
+	private final long durataFrameNs;
+
+	/** Thread che esegue il ciclo, usato per risvegliarlo. */
+	private volatile Thread thread;
+
+	/**
+	 * Costruisce un ciclo di gioco a passo fisso.
+	 *
+	 * @param callback Il gioco da eseguire.
+	 * @param tickPerSecondo Frequenza della simulazione in tick al secondo.
+	 */
+	public GameLoop(Callback callback, int tickPerSecondo) {
+		this(callback, tickPerSecondo, tickPerSecondo);
+	}
+
+	/**
+	 * Costruisce un ciclo di gioco a passo fisso che disegna a una frequenza propria.
+	 *
+	 * @param callback Il gioco da eseguire.
+	 * @param tickPerSecondo Frequenza della simulazione in tick al secondo.
+	 * @param framePerSecondo Frequenza del disegno in frame al secondo, di solito quella dello schermo.
+	 */
+	public GameLoop(Callback callback, int tickPerSecondo, int framePerSecondo) {
+		this.callback = callback;
+		this.durataTickNs = 1_000_000_000L / tickPerSecondo;
+		this.durataFrameNs = 1_000_000_000L / Math.max(tickPerSecondo, framePerSecondo);
+	}
+
+	/**
+	 * Esegue il ciclo finche il gioco e in corso.
+	 */
+	@Override
+	public void run() {
+		thread = Thread.currentThread();
+		long prossimoTick = System.nanoTime();
+		long prossimoFrame = prossimoTick;
+		boolean eraInattivo = false;
+
+		while (callback.isRunning() && !Thread.currentThread().isInterrupted()) {
+			callback.controllaStato();
+
+			if (callback.isIdle()) {
+				if (!eraInattivo) {
+					callback.render(); // ultimo frame sotto la schermata di pausa
+					eraInattivo = true;
+				}
+				LockSupport.parkNanos(this, ATTESA_INATTIVO_NS);
+				continue;
+			}
+			if (eraInattivo) {
+				// Alla ripresa il tempo passato in pausa non va recuperato
+				prossimoTick = System.nanoTime();
+				eraInattivo = false;
+			}
+
+			long adesso = System.nanoTime();
+			int tickEseguiti = 0;
+			while (adesso - prossimoTick >= 0 && tickEseguiti < MAX_TICK_RECUPERO) {
+				callback.tick();
+				prossimoTick += durataTickNs;
+				tickEseguiti++;
+			}
+			if (tickEseguiti == MAX_TICK_RECUPERO && adesso - prossimoTick >= 0) {
+				// Stallo troppo lungo: si scarta il ritardo invece di accelerare la simulazione
+				prossimoTick = adesso + durataTickNs;
+			}
+			if (tickEseguiti > 0 || adesso - prossimoFrame >= 0) {
+				callback.render();
+				prossimoFrame = adesso + durataFrameNs;
+			}
+			attendiFino(prossimoFrame - prossimoTick < 0 ? prossimoFrame : prossimoTick);
+		}
+	}
+
+	/**
+	 * Attende fino all'istante indicato parcheggiando il thread e completando l'attesa con uno spin breve.
+	 *
+	 * @param scadenza Istante di risveglio secondo {@link System#nanoTime()}.
+	 */
+	private void attendiFino(long scadenza) {
+		long rimanente = scadenza - System.nanoTime();
+		while (rimanente > MARGINE_SPIN_NS) {
+			LockSupport.parkNanos(this, rimanente - MARGINE_SPIN_NS);
+			if (Thread.currentThread().isInterrupted()) {
+				return;
+			}
+			rimanente = scadenza - System.nanoTime();
+		}
+		while (scadenza - System.nanoTime() > 0) {
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Risveglia il ciclo se sta attendendo, ad esempio alla ripresa dalla pausa.
+	 */
+	public void sveglia() {
+		Thread t = thread;
+		if (t != null) {
+			LockSupport.unpark(t);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package GiocoBomberman;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 
 import java.awt.Color;
@@ -10,10 +11,10 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
 import javax.swing.Timer;
 
 import java.awt.event.ActionEvent;
@@ -22,6 +23,9 @@ import java.awt.event.ActionListener;
  * La classe GamePanel gestisce la visualizzazione grafica del gioco Bomberman.
  * Questa classe estende JPanel e si occupa di disegnare tutti gli elementi grafici del gioco,
  * inclusi i nemici, le bombe, l'HUD e la mappa di gioco.
+ * Il tasto F3 mostra sopra il gioco i tempi delle fasi misurati da {@link FrameProfiler}.
+ * Con il disegno diretto attivo i frame della partita sono presentati da {@link GameCanvas} sul thread di gioco;
+ * il pannello disegna solo l'ultimo frame sotto le schermate di pausa e di fine partita.
  * 
  * @author Davide Vittucci
  * @see BombermanView
@@ -30,6 +34,7 @@ import java.awt.event.ActionListener;
  * @see EsplosioneView
  * @see NemicoView
  * @see BombaView
+ * @see GameCanvas
  */
 
 public class GamePanel extends JPanel {
@@ -38,6 +43,9 @@ public class GamePanel extends JPanel {
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/** Durata di un tick della simulazione in nanosecondi, usata per interpolare le posizioni tra due tick. */
+	private static final float DURATA_TICK_NS = 1_000_000_000f / GameWorld.TICK_PER_SECONDO;
+
 	/**
 	 * Vista grafica di Bomberman nel gioco.
 	 */
@@ -69,9 +77,14 @@ public class GamePanel extends JPanel {
 	private EsplosioneView esplosioneView;
 
 	/**
-	 * Mappa che associa ogni nemico a una vista specifica per la loro rappresentazione grafica.
+	 * Vista condivisa da tutti i Puropen, caricata una sola volta.
 	 */
-	private HashMap<Nemico, NemicoView> nemiciViews;
+	private PuropenView puropenView;
+
+	/**
+	 * Vista condivisa da tutti i Denkyun, caricata una sola volta.
+	 */
+	private DenkyunView denkyunView;
 
 	/**
 	 * Larghezza predefinita dell'immagine off-screen per il rendering.
@@ -99,9 +112,34 @@ public class GamePanel extends JPanel {
 	private Image scaledOffScreenImage;
 
 	/**
-	 * Mappa delle viste delle bombe per la loro rappresentazione grafica.
+	 * Vista condivisa da tutte le bombe, caricata una sola volta.
+	 */
+	private BombaView bombaView;
+
+	/**
+	 * Tabella dei tempi delle fasi, visibile quando il profiler e attivo.
+	 */
+	private ProfilerView profilerView = new ProfilerView();
+
+	/**
+	 * Superficie del disegno diretto, null se il gioco usa il repaint di Swing.
 	 */
-	private HashMap<Bomba, BombaView> bombeViews;
+	private GameCanvas canvas;
+
+	/**
+	 * Indica se la superficie del disegno diretto e stata resa visibile.
+	 */
+	private volatile boolean disegnoDiretto;
+
+	/**
+	 * Serializza il disegno dei frame tra il thread di Swing e il thread di gioco.
+	 */
+	private final Object lockDisegno = new Object();
+
+	/**
+	 * Camera che inquadra la parte di mappa disegnata nel frame, grande quanto il buffer off-screen.
+	 */
+	private Camera camera;
 	/**
 	 * Costruttore della classe GamePanel.
 	 * Inizializza il panel con le viste necessarie per visualizzare gli elementi del gioco.
@@ -110,19 +148,35 @@ public class GamePanel extends JPanel {
 	 * @param mapView La vista della mappa.
 	 * @param hudView La vista dell'HUD.
 	 * @param esplosioneView La vista delle esplosioni.
-	 * @param view Mappa delle viste dei nemici.
 	 * @param finestra Il frame contenente il panel.
 	 */
-    public GamePanel(BombermanView bombermanView,  MapView mapView, HudView hudView, EsplosioneView esplosioneView,HashMap<Nemico, NemicoView> view, Frame finestra ) {
+    public GamePanel(BombermanView bombermanView,  MapView mapView, HudView hudView, EsplosioneView esplosioneView, Frame finestra ) {
         this.bombermanView = bombermanView;
         
         this.mapView = mapView;
         this.hudView = hudView;
         this.esplosioneView =esplosioneView;
-        this.nemiciViews = view;
         this.finestra=finestra;
-        bombeViews = new HashMap<>();
+        puropenView = new PuropenView();
+        denkyunView = new DenkyunView();
+        bombaView = new BombaView(finestra);
+        camera = new Camera(OFF_SCREEN_WIDTH, OFF_SCREEN_HEIGHT, mapView.getTileSize());
         initializeOffScreenBuffer(OFF_SCREEN_WIDTH, OFF_SCREEN_HEIGHT);
+        if (GameCanvas.isRichiesto()) {
+            canvas = new GameCanvas(this);
+            canvas.setVisible(false);
+            add(canvas);
+        }
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_F3 && gameController != null) {
+                    FrameProfiler profiler = gameController.getProfiler();
+                    profiler.setAttivo(!profiler.isAttivo());
+                    repaint();
+                }
+            }
+        });
         addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent e) {
@@ -142,15 +196,6 @@ public class GamePanel extends JPanel {
             }
         });
     }
-    /**
-     * Aggiunge una vista di una bomba al panel.
-     *
-     * @param bomba L'oggetto Bomba da visualizzare.
-     * @param bombaView La vista della bomba.
-     */
-    public void addBombaView(Bomba bomba, BombaView bombaView) {
-        bombeViews.put(bomba, bombaView);
-    }
 
 /**
  * Imposta il controller di gioco per il panel.
@@ -179,27 +224,99 @@ public class GamePanel extends JPanel {
      */
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2OffScreen = offScreenImage.createGraphics();
-        drawGame(g2OffScreen);
-        g2OffScreen.dispose();
-        int newWidth = finestra.getWidth();
-        int newHeight = finestra.getHeight();
-        g.drawImage(offScreenImage, 0, 0, newWidth, newHeight, null);
+        if (canvas != null && canvas.isVisible()) {
+            return; // il frame e presentato dal disegno diretto
+        }
+        disegnaFrame(g, finestra.getWidth(), finestra.getHeight());
+    }
+    /**
+     * Disegna l'ultimo snapshot nel buffer off-screen e lo copia scalato sulla destinazione. Usato sia dal repaint
+     * di Swing sia da {@link GameCanvas}; le due strade non disegnano mai insieme.
+     * Le posizioni vengono interpolate secondo il tempo trascorso dalla cattura dello snapshot, cosi i frame
+     * disegnati tra due tick mostrano il movimento in corso invece di ripetere l'ultima posizione.
+     *
+     * @param g Oggetto Graphics della destinazione.
+     * @param larghezza Larghezza della destinazione.
+     * @param altezza Altezza della destinazione.
+     */
+    void disegnaFrame(Graphics g, int larghezza, int altezza) {
+        synchronized (lockDisegno) {
+            if (gameController == null) {
+                return;
+            }
+            RenderSnapshot snapshot = gameController.getSnapshot();
+            if (snapshot.tick < 0) {
+                return;
+            }
+            FrameProfiler profiler = gameController.getProfiler();
+            long inizio = profiler.inizio();
+            snapshot.alfa = Math.min(1f, (System.nanoTime() - snapshot.istante) / DURATA_TICK_NS);
+            Graphics2D g2OffScreen = offScreenImage.createGraphics();
+            drawGame(g2OffScreen, snapshot, profiler);
+            if (profiler.isAttivo()) {
+                profilerView.draw(g2OffScreen, profiler);
+            }
+            g2OffScreen.dispose();
+            g.drawImage(offScreenImage, 0, 0, larghezza, altezza, null);
+            profiler.fine(FrameProfiler.Fase.FRAME, inizio);
+        }
+    }
+    /**
+     * Disegna e presenta un frame con il disegno diretto. Va chiamato dal thread di gioco.
+     *
+     * @return true se il frame e stato presentato, false se va richiesto con repaint.
+     */
+    public boolean disegnaDiretto() {
+        if (canvas == null) {
+            return false;
+        }
+        if (!disegnoDiretto) {
+            disegnoDiretto = true;
+            SwingUtilities.invokeLater(() -> {
+                canvas.setVisible(true);
+                revalidate();
+            });
+            return false;
+        }
+        return canvas.disegna();
+    }
+    /**
+     * Nasconde la superficie del disegno diretto, cosi le schermate di pausa e di fine partita sono visibili sopra
+     * l'ultimo frame disegnato dal pannello.
+     */
+    public void sospendiDisegnoDiretto() {
+        if (canvas != null && disegnoDiretto) {
+            disegnoDiretto = false;
+            SwingUtilities.invokeLater(() -> {
+                canvas.setVisible(false);
+                revalidate();
+            });
+        }
+    }
+    /**
+     * Dispone i componenti e porta la superficie del disegno diretto a coprire tutto il pannello.
+     */
+    @Override
+    public void doLayout() {
+        super.doLayout();
+        if (canvas != null) {
+            canvas.setBounds(0, 0, getWidth(), getHeight());
+        }
     }
 
 /**
  * Disegna i nemici sul panel.
  *
  * @param g2 Oggetto Graphics2D usato per disegnare.
+ * @param snapshot Lo snapshot del frame da disegnare.
  */
-    private void drawEnemies(Graphics2D g2) {
-    	for (Nemico nemico : gameController.getNemici()) {
-    		NemicoView view = nemiciViews.get(nemico);
-    	    if (view != null) {
-    	        view.draw(g2); 
-    	    }
-	    	
-	        
+    private void drawEnemies(Graphics2D g2, RenderSnapshot snapshot) {
+    	for (int i = 0; i < snapshot.numNemici; i++) {
+    		if (!camera.vede(snapshot.nemicoX[i], snapshot.nemicoY[i], snapshot.nemicoLarghezza[i], snapshot.nemicoAltezza[i])) {
+    			continue;
+    		}
+    		NemicoView view = snapshot.nemicoTipo[i] == RenderSnapshot.DENKYUN ? denkyunView : puropenView;
+    	    view.draw(g2, snapshot, i);
 	    }
 		
 	}
@@ -207,44 +324,63 @@ public class GamePanel extends JPanel {
      * Disegna le bombe sul panel.
      *
      * @param g2 Oggetto Graphics2D usato per disegnare.
+     * @param snapshot Lo snapshot del frame da disegnare.
      */
-	public void drawBombs(Graphics2D g2) {
-	    for (Bomba bomba : gameController.getBombe()) {
-	         
-	    	getBombaView(bomba).draw(g2);
-	        
+	public void drawBombs(Graphics2D g2, RenderSnapshot snapshot) {
+		int tileSize = mapView.getTileSize();
+	    for (int i = 0; i < snapshot.numBombe; i++) {
+	    	if (!camera.vede(snapshot.bombaX[i], snapshot.bombaY[i], tileSize, tileSize)) {
+	    		continue;
+	    	}
+	    	bombaView.draw(g2, snapshot, i);
 	    }
 	}
 	/**
-	 * Disegna gli elementi di gioco sul buffer off-screen.
+	 * Disegna gli elementi di gioco sul buffer off-screen a partire dallo snapshot pubblicato dal thread di gioco,
+	 * misurando ogni fase del disegno. Visibile nel package per i benchmark.
+	 * La camera segue Bomberman: mappa ed entita sono disegnate in coordinate della mappa con il contesto traslato
+	 * e solo se inquadrate, mentre l'HUD resta fisso in alto e viene disegnato per ultimo sopra il resto.
 	 *
 	 * @param g2 Oggetto Graphics2D usato per disegnare.
+	 * @param snapshot Lo snapshot del frame da disegnare.
+	 * @param profiler Il profiler che misura le fasi.
 	 */
-	private void drawGame(Graphics2D g2) {
-		
-	    mapView.draw(g2);
-	    hudView.draw(g2, gameController.getHudModel());
-	    drawBombs(g2);
-	    drawExp(g2);
-	    drawEnemies(g2);
-	    bombermanView.draw(g2);
-	    
-		
-		
-	   
-	    
-	    
+	void drawGame(Graphics2D g2, RenderSnapshot snapshot, FrameProfiler profiler) {
+		long t = profiler.inizio();
+		int centroX = snapshot.interpola(snapshot.giocatorePrecedenteX, snapshot.giocatoreX) + snapshot.giocatoreLarghezza / 2;
+		int centroY = snapshot.interpola(snapshot.giocatorePrecedenteY, snapshot.giocatoreY) + snapshot.giocatoreAltezza / 2;
+		int tileSize = mapView.getTileSize();
+		camera.segui(centroX, centroY, snapshot.colonne * tileSize, snapshot.righe * tileSize);
+		g2.translate(-camera.getX(), -camera.getY());
+	    mapView.draw(g2, snapshot, camera);
+	    t = profiler.fine(FrameProfiler.Fase.DISEGNO_MAPPA, t);
+	    drawBombs(g2, snapshot);
+	    t = profiler.fine(FrameProfiler.Fase.DISEGNO_BOMBE, t);
+	    drawExp(g2, snapshot);
+	    t = profiler.fine(FrameProfiler.Fase.DISEGNO_ESPLOSIONI, t);
+	    drawEnemies(g2, snapshot);
+	    t = profiler.fine(FrameProfiler.Fase.DISEGNO_NEMICI, t);
+	    bombermanView.draw(g2, snapshot);
+	    t = profiler.fine(FrameProfiler.Fase.DISEGNO_GIOCATORE, t);
+	    g2.translate(camera.getX(), camera.getY());
+	    hudView.draw(g2, snapshot);
+	    profiler.fine(FrameProfiler.Fase.DISEGNO_HUD, t);
 	}
 	/**
 	 * Disegna le esplosioni sul panel.
 	 *
 	 * @param g2 Oggetto Graphics2D usato per disegnare.
+	 * @param snapshot Lo snapshot del frame da disegnare.
 	 */
-    public void drawExp(Graphics2D g2) {
-	    for (Esplosione esplosione : gameController.getEsplosioni()) {
-	         
-	    	esplosioneView.draw(g2,esplosione);
-	        
+    public void drawExp(Graphics2D g2, RenderSnapshot snapshot) {
+		int tileSize = mapView.getTileSize();
+	    for (int i = 0; i < snapshot.numEsplosioni; i++) {
+	    	int raggio = snapshot.esplosioneRaggio[i] * tileSize;
+	    	if (!camera.vede(snapshot.esplosioneX[i] - raggio, snapshot.esplosioneY[i] - raggio,
+	    			2 * raggio + tileSize, 2 * raggio + tileSize)) {
+	    		continue;
+	    	}
+	    	esplosioneView.draw(g2, snapshot, i);
 	    }
 	}
     
@@ -257,50 +393,4 @@ public class GamePanel extends JPanel {
         return this.bombermanView;
     }
 
-    /**
-     * Ottiene la vista del nemico specificato.
-     *
-     * @param nemico L'oggetto Nemico di cui si vuole ottenere la vista.
-     * @return La vista del nemico corrispondente.
-     */
-    public NemicoView getNemicoView(Nemico nemico) {
-        return nemiciViews.get(nemico);
-    }
-
-    /**
-     * Restituisce la vista di una specifica bomba.
-     *
-     * @param bomba L'oggetto Bomba di cui si vuole ottenere la vista.
-     * @return La vista della bomba corrispondente.
-     */
-    public BombaView getBombaView(Bomba bomba) {
-        return bombeViews.get(bomba);
-    }
-
-    /**
-     * Rimuove la vista di una bomba dal pannello di gioco.
-     *
-     * @param bomba L'oggetto Bomba di cui rimuovere la vista.
-     */
-    public void removeBombaView(Bomba bomba) {
-        bombeViews.remove(bomba);
-    }
-
-    /**
-     * Ottiene l'Observer associato alla vista della mappa.
-     *
-     * @return L'Observer collegato alla mappa.
-     */
-    public Observer getMapView() {
-        return mapView;
-    }
-
-    /**
-     * Ottiene l'Observer associato alla vista dell'HUD.
-     *
-     * @return L'Observer collegato all'HUD.
-     */
-    public Observer getHudView() {
-        return hudView;
-    }
 	}
@@ -0,0 +1,246 @@
+package GiocoBomberman;
+
+import java.util.SplittableRandom;
+/**
+ * GameSession raccoglie tutto lo stato che appartiene a una singola partita: il personaggio, il modello dell'HUD,
+ * il gestore dell'audio e il file in cui esportare, se richiesto, la mappa generata per ogni livello.
+ *
+ * Ogni partita riceve la propria sessione e la passa ai modelli che ne hanno bisogno, quindi piu partite possono
+ * convivere nello stesso processo, ad esempio nelle simulazioni in parallelo di {@link SimulationPool}.
+ * La partita con interfaccia usa l'audio di {@link AudioManager#getInstance()}; le sessioni create con
+ * {@link #headless(long)} sono mute e non preparano in anticipo il livello successivo. Nessuna sessione carica
+ * immagini: le sceglie la vista. La mappa passa in memoria dal generatore al modello, quindi le sessioni non
+ * condividono alcun file; l'esportazione si attiva con la proprieta di sistema {@value #PROPRIETA_ESPORTAZIONE}.
+ * Una sessione puo anche ricevere un {@link MapPack}: i livelli che vi trovano una mappa la usano invece di
+ * generarla.
+ *
+ * Tutta la casualita della partita deriva dal seme della sessione: da un unico {@link SplittableRandom} vengono
+ * separati flussi indipendenti per la generazione della mappa, i potenziamenti, la posizione dei nemici e
+ * l'intelligenza di ciascun nemico. A parita di seme e di comandi la partita si svolge sempre allo stesso modo,
+ * indipendentemente dall'ordine in cui i vari sottosistemi consumano i propri numeri casuali.
+ *
+ * @author Davide Vittucci
+ * @see Bomberman
+ * @see HudModel
+ * @see AudioManager
+ */
+public class GameSession {
+	/** Proprieta di sistema con il file in cui esportare le mappe, ad esempio -Djbomberman.esportaMappa=res/maps/mappa1.txt. */
+	public static final String PROPRIETA_ESPORTAZIONE = "jbomberman.esportaMappa";
+
+	/** Il personaggio principale della partita. */
+	private final Bomberman bomberman;
+
+	/** Il modello dell'HUD della partita. */
+	private final HudModel hudModel;
+
+	/** Il gestore dell'audio usato dai modelli della partita. */
+	private final AudioManager audio;
+
+	/** Percorso del file in cui esportare la mappa di ogni livello, null per non esportarla. */
+	private final String percorsoEsportazione;
+
+	/** Pacchetto da cui prendere le mappe dei livelli, null per generarle. */
+	private MapPack pacchetto;
+
+	/** Indica se la sessione e senza interfaccia. */
+	private final boolean headless;
+
+	/** Seme da cui deriva tutta la casualita della partita. */
+	private long seme;
+
+	/** Flusso casuale per la generazione della mappa. */
+	private SplittableRandom casualeMappa;
+
+	/** Flusso casuale per l'assegnazione della fuga e dei potenziamenti. */
+	private SplittableRandom casualePotenziamenti;
+
+	/** Flusso casuale per la posizione iniziale dei nemici. */
+	private SplittableRandom casualeSpawn;
+
+	/** Flusso da cui viene separato il generatore di ogni nemico. */
+	private SplittableRandom casualeNemici;
+
+	/**
+	 * Costruisce una sessione.
+	 *
+	 * @param audio Il gestore dell'audio della partita.
+	 * @param percorsoEsportazione Percorso del file in cui esportare le mappe, o null per non esportarle.
+	 * @param headless true se la partita non viene disegnata e il livello successivo non va preparato in anticipo.
+	 * @param seme Seme da cui deriva tutta la casualita della partita.
+	 */
+	public GameSession(AudioManager audio, String percorsoEsportazione, boolean headless, long seme) {
+		this.audio = audio;
+		this.percorsoEsportazione = percorsoEsportazione;
+		this.headless = headless;
+		impostaSeme(seme);
+		this.bomberman = new Bomberman(audio);
+		this.hudModel = new HudModel();
+		bomberman.addObserver(hudModel);
+	}
+
+	/**
+	 * Prepara la sessione per una nuova partita con un altro seme, riportando Bomberman allo stato iniziale.
+	 * Dopo la chiamata la partita si svolge come in una sessione appena creata con lo stesso seme, quindi il
+	 * {@link Replay} di una partita successiva alla prima si rigioca correttamente.
+	 *
+	 * @param seme Seme della nuova partita.
+	 */
+	public void nuovaPartita(long seme) {
+		impostaSeme(seme);
+		bomberman.reset();
+		bomberman.setInvincibile();
+	}
+
+	/**
+	 * Separa dal seme i flussi casuali dei sottosistemi, sempre nello stesso ordine.
+	 *
+	 * @param seme Seme della partita.
+	 */
+	private void impostaSeme(long seme) {
+		this.seme = seme;
+		SplittableRandom radice = new SplittableRandom(seme);
+		this.casualeMappa = radice.split();
+		this.casualePotenziamenti = radice.split();
+		this.casualeSpawn = radice.split();
+		this.casualeNemici = radice.split();
+	}
+
+	/**
+	 * Crea una sessione senza interfaccia: audio muto, nessuna preparazione anticipata dei livelli e nessuna
+	 * esportazione della mappa.
+	 *
+	 * @param seme Seme da cui deriva tutta la casualita della partita.
+	 * @return La nuova sessione.
+	 */
+	public static GameSession headless(long seme) {
+		return new GameSession(AudioManager.creaMuto(), null, true, seme);
+	}
+
+	/**
+	 * Restituisce il file di esportazione delle mappe indicato con la proprieta {@value #PROPRIETA_ESPORTAZIONE}.
+	 *
+	 * @return Il percorso del file, o null se l'esportazione non e richiesta.
+	 */
+	public static String percorsoEsportazioneRichiesto() {
+		return System.getProperty(PROPRIETA_ESPORTAZIONE);
+	}
+
+	/**
+	 * Restituisce il personaggio principale.
+	 *
+	 * @return Bomberman.
+	 */
+	public Bomberman getBomberman() {
+		return bomberman;
+	}
+
+	/**
+	 * Restituisce il modello dell'HUD.
+	 *
+	 * @return Il modello dell'HUD.
+	 */
+	public HudModel getHudModel() {
+		return hudModel;
+	}
+
+	/**
+	 * Restituisce il gestore dell'audio.
+	 *
+	 * @return Il gestore dell'audio.
+	 */
+	public AudioManager getAudio() {
+		return audio;
+	}
+
+	/**
+	 * Restituisce il percorso del file in cui esportare la mappa di ogni livello.
+	 *
+	 * @return Il percorso del file, o null se le mappe non vanno esportate.
+	 */
+	public String getPercorsoEsportazione() {
+		return percorsoEsportazione;
+	}
+
+	/**
+	 * Restituisce il pacchetto da cui prendere le mappe dei livelli.
+	 *
+	 * @return Il pacchetto, o null se le mappe vengono generate.
+	 */
+	public MapPack getPacchetto() {
+		return pacchetto;
+	}
+
+	/**
+	 * Imposta il pacchetto da cui prendere le mappe: il livello n usa la mappa n - 1, se il pacchetto ne ha abbastanza.
+	 *
+	 * @param pacchetto Il pacchetto, o null per generare le mappe.
+	 */
+	public void setPacchetto(MapPack pacchetto) {
+		this.pacchetto = pacchetto;
+	}
+
+	/**
+	 * Restituisce il seme della partita.
+	 *
+	 * @return Il seme da cui deriva tutta la casualita della partita.
+	 */
+	public long getSeme() {
+		return seme;
+	}
+
+	/**
+	 * Restituisce il flusso casuale per la generazione della mappa.
+	 *
+	 * @return Il generatore della mappa.
+	 */
+	public SplittableRandom getCasualeMappa() {
+		return casualeMappa;
+	}
+
+	/**
+	 * Restituisce il flusso casuale per l'assegnazione della fuga e dei potenziamenti.
+	 *
+	 * @return Il generatore dei potenziamenti.
+	 */
+	public SplittableRandom getCasualePotenziamenti() {
+		return casualePotenziamenti;
+	}
+
+	/**
+	 * Restituisce il flusso casuale per la posizione iniziale dei nemici.
+	 *
+	 * @return Il generatore delle posizioni dei nemici.
+	 */
+	public SplittableRandom getCasualeSpawn() {
+		return casualeSpawn;
+	}
+
+	/**
+	 * Restituisce il flusso casuale da cui si separano quelli dei nemici.
+	 *
+	 * @return Il generatore dei nemici.
+	 */
+	public SplittableRandom getCasualeNemici() {
+		return casualeNemici;
+	}
+
+	/**
+	 * Crea un flusso casuale indipendente per l'intelligenza di un nuovo nemico.
+	 * I nemici vanno creati sempre nello stesso ordine perche la partita sia riproducibile.
+	 *
+	 * @return Il generatore del nemico.
+	 */
+	public SplittableRandom nuovoCasualeNemico() {
+		return casualeNemici.split();
+	}
+
+	/**
+	 * Indica se la sessione e senza interfaccia.
+	 *
+	 * @return true se la partita non viene disegnata.
+	 */
+	public boolean isHeadless() {
+		return headless;
+	}
+}
@@ -0,0 +1,397 @@
+package GiocoBomberman;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+/**
+ * GameWorld contiene le regole di una partita di Bomberman: movimento del giocatore e dei nemici, bombe,
+ * esplosioni, distruzione dei muri, raccolta dei potenziamenti, tempo del livello e passaggio di livello.
+ *
+ * Non dipende da Swing e non misura il tempo reale: ogni chiamata a {@link #step(Comandi)} avanza la partita
+ * di un tick e tutte le durate (tempo del livello, invincibilita, animazioni) sono espresse in tick.
+ * Per questo puo essere eseguito sia da {@link GameController} al ritmo del {@link GameLoop} sia da
+ * {@link HeadlessSimulation} alla massima velocita consentita dalla CPU.
+ *
+ * La durata delle fasi di ogni tick viene misurata dal {@link FrameProfiler} impostato con
+ * {@link #setProfiler(FrameProfiler)}, disattivo per impostazione predefinita.
+ *
+ * @author Davide Vittucci
+ * @see GameController
+ * @see HeadlessSimulation
+ */
+public class GameWorld {
+	/** Numero di tick simulati in un secondo di gioco. */
+	public static final int TICK_PER_SECONDO = 60;
+
+	/** Attesa dopo lo scadere del tempo prima di farlo ripartire, in tick (2,5 secondi). */
+	private static final int TICK_RITARDO_TEMPO = 150;
+
+	/** Il personaggio principale. */
+	private Bomberman bomberman;
+
+	/** Gestore dell'audio della sessione di gioco. */
+	private AudioManager audio;
+
+	/** Il livello corrente. */
+	private Level currentLevel;
+
+	/** Gestore delle collisioni. */
+	private CollisionChecker collisionChecker;
+
+	/** Modello della mappa. */
+	private MapModel mapModel;
+
+	/** Lista delle bombe piazzate. */
+	private ArrayList<Bomba> bombe = new ArrayList<>();
+
+	/** Lista delle esplosioni attive. */
+	private ArrayList<Esplosione> esplosioni = new ArrayList<>();
+
+	/** Lista dei nemici del livello corrente. */
+	private ArrayList<Nemico> nemici;
+
+	/** Mappa delle posizioni delle bombe. */
+	private BombaMap bombaMap;
+
+	/** Numero di esplosioni che coprono ogni cella. */
+	private EsplosioniMap esplosioniMap;
+
+	/** Dimensione delle piastrelle in pixel. */
+	private int tileSize;
+
+	/** Ultima posizione X in cui e stata piazzata una bomba. */
+	private int lastBombx;
+
+	/** Ultima posizione Y in cui e stata piazzata una bomba. */
+	private int lastBomby;
+
+	/** Durata del tempo del livello in secondi. */
+	private int durataTimer;
+
+	/** Tempo rimanente nel livello corrente, in secondi. */
+	private int tempoRimanente;
+
+	/** Tick trascorsi dall'ultimo decremento del tempo. */
+	private int tickSecondo;
+
+	/** Tick mancanti alla ripartenza del tempo dopo che e scaduto, 0 se il tempo sta scorrendo. */
+	private int tickRitardoTempo;
+
+	/** Misura la durata delle fasi del tick. */
+	private FrameProfiler profiler = new FrameProfiler();
+
+	/**
+	 * Costruisce il mondo di gioco a partire dal livello gia generato.
+	 *
+	 * @param sessione La sessione di gioco, che fornisce il personaggio e l'audio.
+	 * @param level Il livello corrente.
+	 * @param collisionChecker Gestore delle collisioni.
+	 * @param mapModel Modello della mappa.
+	 * @param dimensioni Colonne, righe e dimensione delle piastrelle.
+	 */
+	public GameWorld(GameSession sessione, Level level, CollisionChecker collisionChecker, MapModel mapModel, int[] dimensioni) {
+		this.bomberman = sessione.getBomberman();
+		this.audio = sessione.getAudio();
+		this.currentLevel = level;
+		this.nemici = level.getEnemies();
+		this.collisionChecker = collisionChecker;
+		this.mapModel = mapModel;
+		this.tileSize = dimensioni[2];
+		this.bombaMap = new BombaMap(dimensioni[0], dimensioni[1]);
+		this.esplosioniMap = new EsplosioniMap(dimensioni[0], dimensioni[1]);
+		this.durataTimer = level.getTimer();
+		this.tempoRimanente = durataTimer;
+	}
+
+	/**
+	 * Avanza la partita di un tick.
+	 * Gestisce il cambio di livello, il tempo, Bomberman, bombe, esplosioni, nemici, mappa e collisioni.
+	 *
+	 * @param keyHandler Lo stato dei comandi per questo tick.
+	 */
+	public void step(Comandi keyHandler) {
+		long inizioTick = profiler.inizio();
+		bomberman.salvaPosizionePrecedente();
+		for (Nemico nemico : nemici) {
+			nemico.salvaPosizionePrecedente();
+		}
+		if (bomberman.getVittoria()) {
+			bomberman.setExp(currentLevel.getLevelNumber());
+			currentLevel.changeLevel();
+
+			bomberman.setInFuga(false);
+			bomberman.setVittoria(false);
+			bomberman.setVite(2);
+			bomberman.setPunteggio(1000);
+			setupLevel();
+		}
+		aggiornaTempo();
+
+		long t = profiler.inizio();
+		bomberman.update(keyHandler, collisionChecker, bombe, bombaMap, esplosioniMap);
+		t = profiler.fine(FrameProfiler.Fase.GIOCATORE, t);
+
+		collisionChecker.checkFugaPot(bomberman, nemici);
+		if (!bomberman.isInvincibile()) {
+			collisionChecker.checkDeath(bomberman, esplosioniMap);
+		}
+		t = profiler.fine(FrameProfiler.Fase.FUGA_POTENZIAMENTI, t);
+
+		for (Iterator<Bomba> iterator = bombe.iterator(); iterator.hasNext();) {
+			Bomba bomba = iterator.next();
+			bomba.update(bombaMap, esplosioniMap);
+			if (bomba.hasExploded()) {
+				iterator.remove();
+				bombaMap.rimuovi(bomba.getY() / tileSize, bomba.getX() / tileSize);
+				esplosioni.add(new Esplosione(bomba.getX(), bomba.getY(), bomberman.getRaggio()));
+			}
+		}
+		t = profiler.fine(FrameProfiler.Fase.BOMBE, t);
+
+		for (Iterator<Esplosione> iterator = esplosioni.iterator(); iterator.hasNext();) {
+			Esplosione esplosione = iterator.next();
+			if (!esplosione.isAccesa()) {
+				collisionChecker.checkExpx(esplosione);
+				esplosione.accendi();
+				copriEsplosione(esplosione);
+			}
+			esplosione.update();
+			if (esplosione.isExplosionDone()) {
+				iterator.remove();
+				scopriEsplosione(esplosione);
+			}
+		}
+		t = profiler.fine(FrameProfiler.Fase.ESPLOSIONI, t);
+
+		for (Iterator<Nemico> iterator = nemici.iterator(); iterator.hasNext();) {
+			Nemico nemico = iterator.next();
+			nemico.update(collisionChecker, bombe, bombaMap, esplosioniMap);
+			if (nemico.mortoFine) {
+				bomberman.setPunteggio(nemico.getPunteggio());
+				iterator.remove();
+			}
+		}
+		t = profiler.fine(FrameProfiler.Fase.NEMICI, t);
+
+		mapModel.update();
+		profiler.fine(FrameProfiler.Fase.MAPPA, t);
+
+		if (keyHandler.bombPressed && !keyHandler.bombKeyPressed && !bomberman.getColpito() && !bomberman.isInFuga()) {
+			placeBomb();
+			keyHandler.bombKeyPressed = true;
+		} else if (!keyHandler.bombPressed) {
+			keyHandler.bombKeyPressed = false;
+		}
+		t = profiler.inizio();
+		collisionChecker.checkNemiciCollision(nemici);
+		t = profiler.fine(FrameProfiler.Fase.COLLISIONI_NEMICI, t);
+		collisionChecker.checkBombermanNemiciCollision(bomberman, nemici);
+		profiler.fine(FrameProfiler.Fase.COLLISIONI_BOMBERMAN, t);
+		profiler.fine(FrameProfiler.Fase.TICK, inizioTick);
+	}
+
+	/**
+	 * Fa scorrere il tempo del livello: un secondo ogni {@link #TICK_PER_SECONDO} tick. Allo scadere Bomberman
+	 * viene colpito e, dopo {@link #TICK_RITARDO_TEMPO} tick, il tempo riparte dalla durata iniziale.
+	 */
+	private void aggiornaTempo() {
+		if (tickRitardoTempo > 0) {
+			tickRitardoTempo--;
+			if (tickRitardoTempo == 0) {
+				tempoRimanente = durataTimer;
+			}
+			return;
+		}
+		tickSecondo++;
+		if (tickSecondo < TICK_PER_SECONDO) {
+			return;
+		}
+		tickSecondo = 0;
+		tempoRimanente--;
+		if (tempoRimanente <= 0) {
+			if (bomberman.getVita() > 0) {
+				bomberman.setColpito(true);
+			}
+			tickRitardoTempo = TICK_RITARDO_TEMPO;
+		}
+	}
+
+	/**
+	 * Prepara il livello appena caricato impostando i nemici e il tempo rimanente.
+	 */
+	private void setupLevel() {
+		nemici = currentLevel.getEnemies();
+		tempoRimanente = currentLevel.getTimer();
+		tickSecondo = 0;
+	}
+
+	/**
+	 * Piazza una bomba sotto Bomberman se non ha raggiunto il numero massimo e la cella e libera.
+	 */
+	private void placeBomb() {
+		if (bombe.size() < bomberman.getMaxBomb()) {
+			int bombaX = ((bomberman.getX() + bomberman.getSolidArea().x + bomberman.getSolidArea().width / 2) / tileSize * tileSize);
+			int bombaY = ((bomberman.getY() + bomberman.getSolidArea().y + bomberman.getSolidArea().height) / tileSize * tileSize);
+			if (bombaMap.isLibera(bombaY / tileSize, bombaX / tileSize)) {
+				bombe.add(new Bomba(tileSize, bombaX, bombaY, audio));
+
+				bomberman.setOnBomb(true);
+				if (bombaMap.isSottoBomberman(lastBomby / tileSize, lastBombx / tileSize)) {
+					bombaMap.blocca(lastBomby / tileSize, lastBombx / tileSize);
+				}
+				bombaMap.piazza(bombaY / tileSize, bombaX / tileSize);
+				lastBomby = bombaY;
+				lastBombx = bombaX;
+				bomberman.setXBomb(bombaX);
+				bomberman.setYBomb(bombaY);
+			}
+			audio.play("res/audio/Place-Bomb.wav");
+		}
+	}
+
+	/**
+	 * Aggiunge alla mappa delle esplosioni le celle coperte dai raggi di un'esplosione appena accesa: il braccio
+	 * orizzontale, centro compreso, e le due parti di quello verticale, cosi che ogni cella venga contata una volta.
+	 *
+	 * @param esplosione L'esplosione accesa.
+	 */
+	private void copriEsplosione(Esplosione esplosione) {
+		int centroX = esplosione.getX() / tileSize;
+		int centroY = esplosione.getY() / tileSize;
+
+		esplosioniMap.copri(centroY, centroX - esplosione.getRaggioSinistra(),
+				centroY, centroX + esplosione.getRaggioDestra());
+		if (esplosione.getRaggioSu() > 0) {
+			esplosioniMap.copri(centroY - esplosione.getRaggioSu(), centroX, centroY - 1, centroX);
+		}
+		if (esplosione.getRaggioGiu() > 0) {
+			esplosioniMap.copri(centroY + 1, centroX, centroY + esplosione.getRaggioGiu(), centroX);
+		}
+	}
+
+	/**
+	 * Toglie dalla mappa delle esplosioni le celle di un'esplosione finita, con gli stessi raggi con cui erano
+	 * state aggiunte da {@link #copriEsplosione(Esplosione)}.
+	 *
+	 * @param esplosione L'esplosione finita.
+	 */
+	private void scopriEsplosione(Esplosione esplosione) {
+		int centroX = esplosione.getX() / tileSize;
+		int centroY = esplosione.getY() / tileSize;
+
+		esplosioniMap.scopri(centroY, centroX - esplosione.getRaggioSinistra(),
+				centroY, centroX + esplosione.getRaggioDestra());
+		if (esplosione.getRaggioSu() > 0) {
+			esplosioniMap.scopri(centroY - esplosione.getRaggioSu(), centroX, centroY - 1, centroX);
+		}
+		if (esplosione.getRaggioGiu() > 0) {
+			esplosioniMap.scopri(centroY + 1, centroX, centroY + esplosione.getRaggioGiu(), centroX);
+		}
+	}
+
+	/**
+	 * Mette in pausa Bomberman, le bombe e i nemici.
+	 */
+	public void pause() {
+		bomberman.pause();
+		for (Bomba bomba : bombe) {
+			bomba.pause();
+		}
+		for (Nemico nemico : nemici) {
+			nemico.pause();
+		}
+	}
+
+	/**
+	 * Riprende Bomberman, le bombe e i nemici dalla pausa.
+	 */
+	public void resume() {
+		bomberman.resume();
+		for (Bomba bomba : bombe) {
+			bomba.resume();
+		}
+		for (Nemico nemico : nemici) {
+			nemico.resume();
+		}
+	}
+
+	/**
+	 * Imposta il profiler che misura le fasi del tick.
+	 *
+	 * @param profiler Il profiler da usare.
+	 */
+	public void setProfiler(FrameProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Restituisce il profiler che misura le fasi del tick.
+	 *
+	 * @return Il profiler.
+	 */
+	public FrameProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Restituisce il personaggio principale.
+	 *
+	 * @return Bomberman.
+	 */
+	public Bomberman getBomberman() {
+		return bomberman;
+	}
+
+	/**
+	 * Restituisce il livello corrente.
+	 *
+	 * @return Il livello corrente.
+	 */
+	public Level getLevel() {
+		return currentLevel;
+	}
+
+	/**
+	 * Restituisce il modello della mappa.
+	 *
+	 * @return Il modello della mappa.
+	 */
+	public MapModel getMapModel() {
+		return mapModel;
+	}
+
+	/**
+	 * Restituisce la lista delle bombe attive.
+	 *
+	 * @return Lista delle bombe.
+	 */
+	public ArrayList<Bomba> getBombe() {
+		return bombe;
+	}
+
+	/**
+	 * Restituisce la lista delle esplosioni attive.
+	 *
+	 * @return Lista delle esplosioni.
+	 */
+	public ArrayList<Esplosione> getEsplosioni() {
+		return esplosioni;
+	}
+
+	/**
+	 * Restituisce la lista dei nemici del livello corrente.
+	 *
+	 * @return Lista dei nemici.
+	 */
+	public ArrayList<Nemico> getNemici() {
+		return nemici;
+	}
+
+	/**
+	 * Restituisce il tempo rimanente nel livello corrente.
+	 *
+	 * @return Il tempo rimanente in secondi.
+	 */
+	public int getTempo() {
+		return tempoRimanente;
+	}
+}
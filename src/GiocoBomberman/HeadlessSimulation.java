@@ -0,0 +1,229 @@
+package GiocoBomberman;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+/**
+ * HeadlessSimulation esegue partite complete senza finestra, senza audio e senza immagini, facendo avanzare
+ * {@link GameWorld} alla massima velocita consentita dalla CPU invece che al ritmo del {@link GameLoop}.
+ * I comandi del giocatore sono forniti da un {@link InputScript}.
+ *
+ * Serve per simulare in blocco molti livelli, ad esempio per il bilanciamento o per verificare che una modifica
+ * alle regole non cambi l'esito delle partite. Ogni partita ha la propria {@link GameSession}, quindi molte
+ * simulazioni possono essere eseguite in parallelo con {@link SimulationPool}. Puo essere avviata con:
+ * <pre>java GiocoBomberman.HeadlessSimulation [partite] [tickMassimi]</pre>
+ * oppure, per rigiocare un {@link Replay} alla massima velocita (ad esempio per riprodurre una segnalazione o come
+ * carico deterministico per misurare {@link GameWorld#step(Comandi)}):
+ * <pre>java GiocoBomberman.HeadlessSimulation --replay file [ripetizioni]</pre>
+ *
+ * @author Davide Vittucci
+ * @see GameWorld
+ * @see InputScript
+ */
+public class HeadlessSimulation {
+	/** Colonne, righe e dimensione delle piastrelle, come nella partita con interfaccia. */
+	private static final int[] DIMENSIONI = {17, 15, 64};
+
+	/**
+	 * Esito di una partita simulata.
+	 */
+	public static class Risultato {
+		/** Numero di tick simulati. */
+		public final long tick;
+
+		/** Livello raggiunto. */
+		public final int livello;
+
+		/** Punteggio finale. */
+		public final int punteggio;
+
+		/** Vite rimaste. */
+		public final int vite;
+
+		/** Indica se la partita e stata vinta. */
+		public final boolean vinta;
+
+		/** Indica se la partita e stata persa. */
+		public final boolean persa;
+
+		/**
+		 * Costruisce l'esito di una partita.
+		 *
+		 * @param tick Numero di tick simulati.
+		 * @param livello Livello raggiunto.
+		 * @param punteggio Punteggio finale.
+		 * @param vite Vite rimaste.
+		 * @param vinta Se la partita e stata vinta.
+		 * @param persa Se la partita e stata persa.
+		 */
+		public Risultato(long tick, int livello, int punteggio, int vite, boolean vinta, boolean persa) {
+			this.tick = tick;
+			this.livello = livello;
+			this.punteggio = punteggio;
+			this.vite = vite;
+			this.vinta = vinta;
+			this.persa = persa;
+		}
+
+		@Override
+		public String toString() {
+			String esito = vinta ? "vinta" : persa ? "persa" : "interrotta";
+			return esito + " al livello " + livello + " dopo " + tick + " tick, punteggio " + punteggio + ", vite " + vite;
+		}
+	}
+
+	/** Seme della partita. */
+	private final long seme;
+
+	/** Sorgente dei comandi del giocatore. */
+	private final InputScript script;
+
+	/** Numero massimo di tick dopo cui la partita viene interrotta. */
+	private final long tickMassimi;
+
+	/** Misura le fasi dei tick, disattivo se non impostato. */
+	private FrameProfiler profiler = new FrameProfiler();
+
+	/**
+	 * Costruisce una simulazione.
+	 *
+	 * @param seme Seme della partita: a parita di seme e di comandi l'esito e sempre lo stesso.
+	 * @param script Sorgente dei comandi del giocatore.
+	 * @param tickMassimi Numero massimo di tick da simulare.
+	 */
+	public HeadlessSimulation(long seme, InputScript script, long tickMassimi) {
+		this.seme = seme;
+		this.script = script;
+		this.tickMassimi = tickMassimi;
+	}
+
+	/**
+	 * Crea una simulazione che rigioca un replay per tutti i suoi tick.
+	 *
+	 * @param replay Il replay da rigiocare.
+	 * @return La simulazione.
+	 */
+	public static HeadlessSimulation daReplay(Replay replay) {
+		return new HeadlessSimulation(replay.getSeme(), replay.script(), replay.getTickTotali());
+	}
+
+	/**
+	 * Imposta il profiler che misura le fasi dei tick simulati.
+	 *
+	 * @param profiler Il profiler da usare.
+	 */
+	public void setProfiler(FrameProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Gioca una partita dal primo livello fino alla vittoria, alla sconfitta o al limite di tick.
+	 *
+	 * @return L'esito della partita.
+	 */
+	public Risultato esegui() {
+		return esegui(null);
+	}
+
+	/**
+	 * Gioca una partita registrandone i comandi, ad esempio per salvare come {@link Replay} una simulazione
+	 * che ha prodotto un esito inatteso.
+	 *
+	 * @param registratore Registratore dei comandi, creato con lo stesso seme della simulazione, oppure null.
+	 * @return L'esito della partita.
+	 */
+	public Risultato esegui(ReplayRecorder registratore) {
+		GameSession sessione = GameSession.headless(seme);
+		Bomberman bomberman = sessione.getBomberman();
+		MapModel mapModel = new MapModel(DIMENSIONI[0], DIMENSIONI[1], sessione);
+		Level level = new Level(1, mapModel, sessione);
+		CollisionChecker collisionChecker = new CollisionChecker(mapModel.getGriglia(), mapModel.getPiastrelle(), DIMENSIONI[2], sessione.getAudio());
+		GameWorld world = new GameWorld(sessione, level, collisionChecker, mapModel, DIMENSIONI);
+		world.setProfiler(profiler);
+		Comandi input = new Comandi();
+
+		long tick = 0;
+		while (tick < tickMassimi) {
+			script.applica(tick, input);
+			if (registratore != null) {
+				registratore.registra(tick, Replay.maschera(input));
+			}
+			world.step(input);
+			tick++;
+			if (bomberman.getVita() == 0 || level.getLevelNumber() > Level.ULTIMO_LIVELLO) {
+				break;
+			}
+		}
+		boolean vinta = level.getLevelNumber() > Level.ULTIMO_LIVELLO;
+		boolean persa = bomberman.getVita() == 0;
+		return new Risultato(tick, level.getLevelNumber(), bomberman.getPunteggio(), bomberman.getVita(), vinta, persa);
+	}
+
+	/**
+	 * Simula una serie di partite con comandi casuali e stampa l'esito di ciascuna.
+	 *
+	 * @param args Numero di partite (default 100) e tick massimi per partita (default 10 minuti di gioco),
+	 *             oppure {@code --replay}, il file del replay e il numero di ripetizioni (default 1).
+	 * @throws IOException Se il replay non puo essere letto.
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+		if (args.length > 0 && args[0].equals("--replay")) {
+			rigioca(Replay.carica(Path.of(args[1])), args.length > 2 ? Integer.parseInt(args[2]) : 1);
+			return;
+		}
+		int partite = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		long tickMassimi = args.length > 1 ? Long.parseLong(args[1]) : 10L * 60 * GameWorld.TICK_PER_SECONDO;
+
+		List<Risultato> risultati;
+		long inizio = System.nanoTime();
+		try (SimulationPool pool = new SimulationPool(Runtime.getRuntime().availableProcessors())) {
+			risultati = pool.esegui(partite, i -> new HeadlessSimulation(i, InputScript.casuale(i), tickMassimi));
+		}
+		double secondi = (System.nanoTime() - inizio) / 1e9;
+
+		long tickTotali = 0;
+		int vinte = 0;
+		int perse = 0;
+		for (int i = 0; i < risultati.size(); i++) {
+			Risultato risultato = risultati.get(i);
+			System.out.println("Partita " + i + ": " + risultato);
+			tickTotali += risultato.tick;
+			if (risultato.vinta) {
+				vinte++;
+			}
+			if (risultato.persa) {
+				perse++;
+			}
+		}
+		System.out.printf("%d partite (%d vinte, %d perse), %d tick in %.2f s (%.0f tick/s)%n",
+				partite, vinte, perse, tickTotali, secondi, tickTotali / secondi);
+	}
+
+	/**
+	 * Rigioca un replay piu volte di seguito sullo stesso thread, stampando l'esito, la velocita e i tempi delle fasi
+	 * del tick. La prima ripetizione scalda la JVM e non viene misurata.
+	 *
+	 * @param replay Il replay da rigiocare.
+	 * @param ripetizioni Numero di volte in cui rigiocarlo.
+	 */
+	private static void rigioca(Replay replay, int ripetizioni) {
+		System.out.println(replay);
+		FrameProfiler profiler = new FrameProfiler();
+		long inizio = System.nanoTime();
+		long tickTotali = 0;
+		for (int i = 0; i < ripetizioni; i++) {
+			profiler.setAttivo(i > 0 || ripetizioni == 1);
+			HeadlessSimulation simulazione = daReplay(replay);
+			simulazione.setProfiler(profiler);
+			Risultato risultato = simulazione.esegui();
+			tickTotali += risultato.tick;
+			if (i == 0) {
+				System.out.println("Esito: " + risultato);
+			}
+		}
+		double secondi = (System.nanoTime() - inizio) / 1e9;
+		System.out.printf("%d ripetizioni, %d tick in %.3f s (%.0f tick/s)%n", ripetizioni, tickTotali, secondi, tickTotali / secondi);
+		System.out.print(profiler.riepilogo());
+	}
+}
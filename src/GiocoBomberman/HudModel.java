@@ -5,7 +5,9 @@ import java.util.List;
 /**
  * HudModel e un modello per l'HUD nel gioco Bomberman.
  * Implementa sia il pattern Observable che Observer per aggiornare e essere aggiornato sullo stato del gioco.
- * È realizzato come Singleton per garantire un'unica istanza in tutto il gioco.
+ * Ogni partita ha il proprio HudModel, fornito da {@link GameSession}.
+ * I metodi set notificano gli osservatori solo quando il valore cambia davvero, cosi l'aggiornamento del
+ * tempo e del livello ad ogni tick non produce notifiche inutili.
  *
  * @author Davide Vittucci
  * @see Observable
@@ -13,12 +15,6 @@ import java.util.List;
  * @see Bomberman
  */
 public class HudModel implements Observable , Observer{
-	/**
-	 * Singleton instance of HudModel.
-	 * Utilizzata per mantenere una singola istanza di HudModel in tutto il gioco.
-	 */
-	private static HudModel instance;
-
 	/**
 	 * Punteggio attuale del giocatore.
 	 * Rappresenta il punteggio accumulato dal giocatore durante il gioco.
@@ -69,22 +65,9 @@ public class HudModel implements Observable , Observer{
     /** Lista degli observer per il pattern Observer. */
     private List<Observer> observers = new ArrayList<>();
     /**
-     *
- *costruttore privato
-     
+     * Costruisce il modello dell'HUD di una partita.
      */
-private HudModel()  {	
-}
-/**
- * Restituisce l'istanza singleton di HudModel. Se non esiste, viene creata.
- *
- * @return L'istanza singleton di HudModel.
- */
-public static HudModel getInstance() {
-    if (instance == null) {
-        instance = new HudModel();
-    }
-    return instance;
+public HudModel()  {	
 }
 /**
  * Aggiorna lo stato di HudModel in base ai dati di un altro modello (ad esempio Bomberman).
@@ -139,6 +122,9 @@ public void notifica() {
  * @param tempo Il tempo rimanente da impostare.
  */
 public void setTempo(int tempo) {
+    if (this.tempo == tempo) {
+        return;
+    }
     this.tempo = tempo;
     notifyObservers();
 }
@@ -148,6 +134,9 @@ public void setTempo(int tempo) {
  * @param vita Il numero di vite da impostare.
  */
 public void setVita(int vita) {
+    if (this.vita == vita) {
+        return;
+    }
     this.vita = vita;
     notifyObservers();
 }
@@ -157,6 +146,9 @@ public void setVita(int vita) {
  * @param punteggio Il punteggio da impostare.
  */
 public void setPunteggio(int punteggio) {
+    if (this.punteggio == punteggio) {
+        return;
+    }
     this.punteggio = punteggio;
     notifyObservers();
 }
@@ -166,6 +158,9 @@ public void setPunteggio(int punteggio) {
  * @param raggio Il raggio di esplosione da impostare.
  */
 public void setRaggio(int raggio) {
+    if (this.raggio == raggio) {
+        return;
+    }
     this.raggio = raggio;
     notifyObservers();
 }
@@ -175,6 +170,9 @@ public void setRaggio(int raggio) {
  * @param bombe Il numero massimo di bombe da impostare.
  */
 public void setBombe(int bombe) {
+    if (this.bombe == bombe) {
+        return;
+    }
     this.bombe = bombe;
     notifyObservers();
 }
@@ -184,6 +182,9 @@ public void setBombe(int bombe) {
  * @param speed La velocità da impostare.
  */
 public void setSpeed(int speed) {
+    if (this.speed == speed) {
+        return;
+    }
     this.speed = speed;
     notifyObservers();
 }
@@ -201,6 +202,9 @@ public int getTempo() {
  * @param levelNumber Il numero del livello da impostare.
  */
 public void setLevel(int levelNumber) {
+    if (this.level == levelNumber) {
+        return;
+    }
     this.level = levelNumber;
     notifyObservers();
 }
@@ -4,10 +4,10 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.Graphics2D;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
 /**
  * HudView si occupa di visualizzare l'interfaccia utente del gioco, 
  * inclusi il punteggio, la vita, il tempo rimanente e altri dettagli relativi al giocatore.
@@ -17,10 +17,34 @@ import javax.imageio.ImageIO;
  */
 public class HudView implements  Observer {
 	 /** Immagine di sfondo per l'HUD. */
-    private BufferedImage hudImage;
+    private Sprite hudImage;
 
     /** Array di sprite per i numeri visualizzati nell'HUD. */
-    private BufferedImage[] numeriSprites = new BufferedImage[10];
+    private Sprite[] numeriSprites = new Sprite[10];
+
+    /** Sprite del potenziamento del raggio. */
+    private Sprite raggioSprite;
+
+    /** Sprite del potenziamento della velocita. */
+    private Sprite speedSprite;
+
+    /** Sprite del potenziamento delle bombe. */
+    private Sprite bombaSprite;
+
+    /** Larghezza della striscia dell'HUD. */
+    private static final int LARGHEZZA = 1115;
+
+    /** Altezza della striscia dell'HUD, disegnata in cima allo schermo. */
+    static final int ALTEZZA = 128;
+
+    /** Striscia dell'HUD gia disegnata, riusata finche i valori non cambiano. */
+    private BufferedImage striscia;
+
+    /** Indica se la striscia mostra i valori correnti. */
+    private boolean strisciaValida;
+
+    /** Cifre del numero in disegno, dalla meno significativa. */
+    private final int[] cifre = new int[10];
 
     /** Posizione X fissa per il punteggio. */
     private final int xPunteggio = 240;
@@ -86,6 +110,7 @@ public class HudView implements  Observer {
 			this.speed =hudModel.getSpeed();
 			this.tempo = hudModel.getTempo();
 			this.currentLevel = hudModel.getLevel();
+			this.strisciaValida = false;
 			 }
 		}
 		/**
@@ -93,53 +118,98 @@ public class HudView implements  Observer {
 		 */
     private void loadHudImage() {
     	try {
-            hudImage = ImageIO.read(getClass().getResourceAsStream("/Hud/hud.png"));
+            hudImage = SpriteRegistry.sprite("/Hud/hud.png");
         } catch (IOException e) {
             e.printStackTrace();
         }
 		
 	}
     /**
-     * Disegna l'HUD sul pannello.
+     * Disegna l'HUD sul pannello. La striscia viene ridisegnata solo quando uno dei valori mostrati cambia;
+     * negli altri frame il disegno e una sola copia della striscia.
      * @param g2 Contesto grafico utilizzato per il disegno.
-     * @param hudModel Il modello dell'HUD contenente i dati da visualizzare.
+     * @param snapshot Lo snapshot del frame contenente i dati da visualizzare.
      */
-	public void draw(Graphics2D g2, HudModel hudModel) {
-		g2.setColor(Color.BLACK); // o qualsiasi sia il colore di sfondo
-	    g2.fillRect(0, 0, 1115, 128);
-		g2.drawImage(hudImage, 0, 0, 1115,128,null);
-		drawPunteggio(g2, punteggio);
-		drawVita( g2, vita);
-		drawTempo( g2,tempo);
-		drawLevel( g2,currentLevel);
-		drawPot(g2,bombe, raggio,speed);
+	public void draw(Graphics2D g2, RenderSnapshot snapshot) {
+		if (!strisciaValida || snapshot.punteggio != punteggio || snapshot.vita != vita || snapshot.maxBombe != bombe
+				|| snapshot.raggio != raggio || snapshot.velocita != speed || snapshot.tempo != tempo
+				|| snapshot.livello != currentLevel) {
+			this.punteggio = snapshot.punteggio;
+			this.vita = snapshot.vita;
+			this.bombe = snapshot.maxBombe;
+			this.raggio = snapshot.raggio;
+			this.speed = snapshot.velocita;
+			this.tempo = snapshot.tempo;
+			this.currentLevel = snapshot.livello;
+			aggiornaStriscia(g2);
+		}
+		g2.drawImage(striscia, 0, 0, null);
     }
 	/**
-	 * Carica gli sprite numerici.
+	 * Ridisegna la striscia dell'HUD con i valori correnti.
+	 * @param g2 Contesto grafico della destinazione, usato per creare una striscia compatibile.
+	 */
+	private void aggiornaStriscia(Graphics2D g2) {
+		if (striscia == null) {
+			striscia = g2.getDeviceConfiguration().createCompatibleImage(LARGHEZZA, ALTEZZA, Transparency.OPAQUE);
+		}
+		Graphics2D gs = striscia.createGraphics();
+		gs.setColor(Color.BLACK); // o qualsiasi sia il colore di sfondo
+	    gs.fillRect(0, 0, LARGHEZZA, ALTEZZA);
+		if (hudImage != null) {
+			hudImage.draw(gs, 0, 0, LARGHEZZA, ALTEZZA);
+		}
+		drawPunteggio(gs, punteggio);
+		drawVita(gs, vita);
+		drawTempo(gs, tempo);
+		drawLevel(gs, currentLevel);
+		drawPot(gs, bombe, raggio, speed);
+		gs.dispose();
+		strisciaValida = true;
+	}
+	/**
+	 * Carica gli sprite numerici e quelli dei potenziamenti.
 	 */
 private void loadNumeriSprites() {
     try {
         for (int i = 0; i < numeriSprites.length; i++) {
-            numeriSprites[i] = ImageIO.read(getClass().getResourceAsStream("/numeri/" + i + ".png"));
+            numeriSprites[i] = SpriteRegistry.sprite("/numeri/" + i + ".png");
         }
+        raggioSprite = SpriteRegistry.sprite("/drop/raggio.png");
+        speedSprite = SpriteRegistry.sprite("/drop/velocità.png");
+        bombaSprite = SpriteRegistry.sprite("/drop/bomba.png");
     } catch (IOException e) {
         e.printStackTrace();
     }
 }
+/**
+ * Disegna le cifre di un numero da sinistra verso destra, senza creare stringhe.
+ * @param g2 Contesto grafico.
+ * @param valore Il numero da disegnare; i valori negativi sono mostrati come zero.
+ * @param x Posizione X della prima cifra.
+ * @param passo Spostamento in X tra una cifra e la successiva.
+ * @return La posizione X dopo l'ultima cifra.
+ */
+private int drawNumero(Graphics2D g2, int valore, int x, int passo) {
+    int v = Math.max(0, valore);
+    int n = 0;
+    do {
+        cifre[n++] = v % 10;
+        v /= 10;
+    } while (v > 0);
+    for (int i = n - 1; i >= 0; i--) {
+        numeriSprites[cifre[i]].draw(g2, x, yGenerale, 32, 48);
+        x += passo; // Sposta la x per il prossimo numero
+    }
+    return x;
+}
 /**
  * Disegna il punteggio sull'HUD.
  * @param g2 Contesto grafico.
  * @param punteggio Il punteggio da visualizzare.
  */
 public void drawPunteggio(Graphics2D g2, int punteggio) {
-    String punteggioStr = String.valueOf(punteggio);
-    int x = xPunteggio;
-
-    for (int i = 0; i < punteggioStr.length(); i++) {
-        int numero = Character.getNumericValue(punteggioStr.charAt(i));
-        g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-        x += larghezzaSprite; // Sposta la x per il prossimo numero
-    }
+    drawNumero(g2, punteggio, xPunteggio, larghezzaSprite);
 }
 /**
  * Disegna il Tempo sull'HUD.
@@ -147,15 +217,7 @@ public void drawPunteggio(Graphics2D g2, int punteggio) {
  * @param c Il Tempo da visualizzare.
  */
 public void drawTempo(Graphics2D g2,int c) {
-	int tempo = c;
-    String tempostr = String.valueOf(tempo);
-    int x = xTempo;
-
-    for (int i = 0; i < tempostr.length(); i++) {
-        int numero = Character.getNumericValue(tempostr.charAt(i));
-        g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-        x += larghezzaSprite; // Sposta la x per il prossimo numero
-    }
+    drawNumero(g2, c, xTempo, larghezzaSprite);
 }
 /**
  * Disegna le vite sull'HUD.
@@ -163,29 +225,15 @@ public void drawTempo(Graphics2D g2,int c) {
  * @param vita le vite da visualizzare.
  */
 public void drawVita(Graphics2D g2, int vita) {
-  
-		int x = xVita;
-		String vitaStr = String.valueOf(vita);
-        for (int i = 0; i < vitaStr.length(); i++) {
-            int numero = Character.getNumericValue(vitaStr.charAt(i));
-            g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-            x += larghezzaSprite; // Sposta la x per il prossimo numero
-        }
-    }
+    drawNumero(g2, vita, xVita, larghezzaSprite);
+}
 /**
  * Disegna il livello sull'HUD.
  * @param g2 Contesto grafico.
  * @param level il livello da visualizzare.
  */
 public void drawLevel(Graphics2D g2, int level) {
-	  
-	int x = xLevel;
-	String vitaStr = String.valueOf(level);
-    for (int i = 0; i < vitaStr.length(); i++) {
-        int numero = Character.getNumericValue(vitaStr.charAt(i));
-        g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-        x += larghezzaSprite; // Sposta la x per il prossimo numero
-    }
+    drawNumero(g2, level, xLevel, larghezzaSprite);
 }
 /**
  * Disegna i potenziamenti sull'HUD.
@@ -195,52 +243,16 @@ public void drawLevel(Graphics2D g2, int level) {
  * @param velocita  velocita attuale
  */
 public void drawPot(Graphics2D g2, int mmaxBombe, int raggioExp, int velocita) {
-	BufferedImage raggio;
-	BufferedImage speed;
-	BufferedImage bombe;
- int x = 758;
-	try {
-		raggio = ImageIO.read(getClass().getResourceAsStream("/drop/raggio.png"));
-		g2.drawImage(raggio, x, yGenerale,32,48, null);
-		x+=32;
-		String raggStr = String.valueOf(raggioExp);
-		for (int i = 0; i < raggStr.length(); i++) {
-	        int numero = Character.getNumericValue(raggStr.charAt(i));
-	        g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-	        x += larghezzaSprite; // Sposta la x per il prossimo numero
-	        x+=32;
-	    }
-		speed = ImageIO.read(getClass().getResourceAsStream("/drop/velocità.png"));
-		g2.drawImage(speed, x, yGenerale,32,48, null);
-		x+=32;
-		String speedStr = String.valueOf(velocita);
-		for (int i = 0; i < speedStr.length(); i++) {
-	        int numero = Character.getNumericValue(speedStr.charAt(i));
-	        g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-	        x += larghezzaSprite; // Sposta la x per il prossimo numero
-	        x+=32;
-	    }
-		bombe = ImageIO.read(getClass().getResourceAsStream("/drop/bomba.png"));
-		g2.drawImage(bombe, x, yGenerale,32,48, null);
-		x+=32;
-		String bombStr = String.valueOf(mmaxBombe);
-		for (int i = 0; i < bombStr.length(); i++) {
-	        int numero = Character.getNumericValue(bombStr.charAt(i));
-	        g2.drawImage(numeriSprites[numero], x, yGenerale,32,48, null);
-	        x += larghezzaSprite; // Sposta la x per il prossimo numero
-	       
-	    }
-	} catch (IOException e) {
-		// TODO Auto-generated catch block
-		e.printStackTrace();
-	} 
-	
-	
-	String vitaStr = String.valueOf(bomberman.getVita());
-    for (int i = 0; i < vitaStr.length(); i++) {
-        int numero = Character.getNumericValue(vitaStr.charAt(i));
-      
+    int x = 758;
+    if (raggioSprite == null || speedSprite == null || bombaSprite == null) {
+        return;
     }
+    raggioSprite.draw(g2, x, yGenerale, 32, 48);
+    x = drawNumero(g2, raggioExp, x + 32, larghezzaSprite + 32);
+    speedSprite.draw(g2, x, yGenerale, 32, 48);
+    x = drawNumero(g2, velocita, x + 32, larghezzaSprite + 32);
+    bombaSprite.draw(g2, x, yGenerale, 32, 48);
+    drawNumero(g2, mmaxBombe, x + 32, larghezzaSprite);
 }
 /**
  * Imposta il GameController associato all'HUD.
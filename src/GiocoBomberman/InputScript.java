@@ -0,0 +1,42 @@
+package GiocoBomberman;
+
+import java.util.SplittableRandom;
+/**
+ * InputScript sostituisce la tastiera nelle simulazioni senza interfaccia: prima di ogni tick imposta nel
+ * {@link Comandi} i comandi che il giocatore premerebbe in quel momento.
+ *
+ * @author Davide Vittucci
+ * @see HeadlessSimulation
+ */
+public interface InputScript {
+
+	/**
+	 * Imposta i comandi per il tick indicato.
+	 *
+	 * @param tick Numero del tick che sta per essere simulato.
+	 * @param input Lo stato dei comandi da aggiornare.
+	 */
+	void applica(long tick, Comandi input);
+
+	/**
+	 * Restituisce uno script che cambia direzione a intervalli regolari e piazza bombe a caso.
+	 * A parita di seme produce sempre la stessa sequenza di comandi.
+	 *
+	 * @param seme Seme del generatore casuale.
+	 * @return Lo script casuale.
+	 */
+	static InputScript casuale(long seme) {
+		SplittableRandom random = new SplittableRandom(seme);
+		return (tick, input) -> {
+			if (tick % 30 == 0) {
+				int direzione = random.nextInt(5);
+				input.upPressed = direzione == 0;
+				input.downPressed = direzione == 1;
+				input.leftPressed = direzione == 2;
+				input.rightPressed = direzione == 3;
+			}
+			// Il tasto resta premuto un solo tick, come una pressione reale
+			input.bombPressed = !input.bombPressed && random.nextInt(90) == 0;
+		};
+	}
+}
@@ -56,23 +56,30 @@ public class JBomberMan {
         });
     }
     /**
-     * Inizializza e visualizza la finestra di gioco e il menu principale.
+     * Inizializza e visualizza la finestra di gioco con la schermata di caricamento, precarica le immagini
+     * in sfondo e al termine mostra il menu principale.
      */
     private static void start() {
-        
-    	
-    
         JFrame finestra = new JFrame("JBomberman");
         finestra.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         finestra.setExtendedState(JFrame.MAXIMIZED_BOTH);
         finestra.setSize(screenWidth, screenHeight);
         finestra.setLayout(new BorderLayout());
         finestra.setLocationRelativeTo(null);
-        
-        MenuModel menuModel = new MenuModel();
-        MenuView menuView = new MenuView(finestra);
-        new MenuController(menuModel, menuView, finestra);
-
+        SplashView splash = new SplashView();
+        finestra.add(splash, BorderLayout.CENTER);
         finestra.setVisible(true);
+        AssetPreloader preloader = new AssetPreloader();
+        Timer avanzamento = new Timer(50, e -> splash.aggiorna(preloader.getCompletate(), preloader.getTotale()));
+        avanzamento.start();
+        preloader.avvia().whenComplete((r, e) -> SwingUtilities.invokeLater(() -> {
+            avanzamento.stop();
+            finestra.remove(splash);
+            MenuModel menuModel = new MenuModel();
+            MenuView menuView = new MenuView(finestra);
+            new MenuController(menuModel, menuView, finestra);
+            finestra.revalidate();
+            finestra.repaint();
+        }));
     }
 }
@@ -4,35 +4,12 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 /**
  * Gestisce gli eventi di tastiera per il gioco JBomberman.
- * Implementa {@link KeyListener} per intercettare e rispondere agli eventi di pressione dei tasti.
+ * Implementa {@link KeyListener} per intercettare e rispondere agli eventi di pressione dei tasti, e scrive i tasti
+ * premuti nei {@link Comandi} che estende.
  * 
  * @author Davide Vittucci
  */
-public class KeyHandler implements KeyListener {
-	  /** Indica se il tasto per muoversi verso l'alto è premuto. */
-    public boolean upPressed;
-
-    /** Indica se il tasto per muoversi verso il basso è premuto. */
-    public boolean downPressed;
-
-    /** Indica se il tasto per muoversi verso sinistra è premuto. */
-    public boolean leftPressed;
-
-    /** Indica se il tasto per muoversi verso destra è premuto. */
-    public boolean rightPressed;
-
-    /** Indica se il tasto per piazzare una bomba è premuto. */
-    public boolean bombPressed = false;
-
-    /** Flag per gestire lo stato del tasto della bomba. */
-    public boolean bombKeyPressed = false;
-
-    /** Indica se il tasto Esc è premuto. */
-    public boolean escPressed;
-
-    /** Indica se il tasto Enter è premuto. */
-    public boolean avviaPressed;
-
+public class KeyHandler extends Comandi implements KeyListener {
     /**
      * Gestisce l'evento di pressione di un tasto.
      * 
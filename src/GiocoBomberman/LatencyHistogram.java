@@ -0,0 +1,158 @@
+package GiocoBomberman;
+
+import java.util.Arrays;
+/**
+ * LatencyHistogram raccoglie durate in nanosecondi in un istogramma a intervalli log-lineari: ogni potenza di due
+ * e divisa in 8 intervalli uguali, quindi i percentili hanno un errore relativo massimo del 12,5% su tutto
+ * l'intervallo da 1 ns a diversi anni, con un array fisso di 488 contatori.
+ *
+ * {@link #registra(long)} non alloca e costa poche istruzioni, quindi puo essere chiamato ad ogni fase di ogni tick.
+ * Ogni istogramma deve avere un solo thread che scrive; gli altri thread possono leggerlo in qualsiasi momento
+ * ottenendo valori approssimati, e chiederne l'azzeramento con {@link #azzera()}, che viene eseguito dal thread
+ * che scrive alla registrazione successiva.
+ *
+ * @author Davide Vittucci
+ * @see FrameProfiler
+ */
+public class LatencyHistogram {
+	/** Bit usati per suddividere ogni potenza di due. */
+	private static final int BIT_SOTTOINTERVALLI = 3;
+
+	/** Intervalli per ogni potenza di due. */
+	private static final int SOTTOINTERVALLI = 1 << BIT_SOTTOINTERVALLI;
+
+	/** Numero totale di intervalli, sufficiente per qualsiasi long positivo. */
+	private static final int NUMERO_INTERVALLI = SOTTOINTERVALLI + (63 - BIT_SOTTOINTERVALLI) * SOTTOINTERVALLI;
+
+	/** Numero di campioni per intervallo. */
+	private final long[] conteggi = new long[NUMERO_INTERVALLI];
+
+	/** Numero totale di campioni. */
+	private long totale;
+
+	/** Somma dei campioni, per la media. */
+	private long somma;
+
+	/** Campione piu grande registrato. */
+	private long massimo;
+
+	/** Indica che l'istogramma va svuotato prima della prossima registrazione. */
+	private volatile boolean daAzzerare;
+
+	/**
+	 * Registra una durata.
+	 *
+	 * @param nanosecondi La durata in nanosecondi; i valori negativi sono considerati zero.
+	 */
+	public void registra(long nanosecondi) {
+		if (daAzzerare) {
+			svuota();
+		}
+		long valore = Math.max(0, nanosecondi);
+		conteggi[indice(valore)]++;
+		totale++;
+		somma += valore;
+		if (valore > massimo) {
+			massimo = valore;
+		}
+	}
+
+	/**
+	 * Chiede di svuotare l'istogramma. Puo essere chiamato da qualsiasi thread.
+	 */
+	public void azzera() {
+		daAzzerare = true;
+	}
+
+	/**
+	 * Svuota l'istogramma; eseguito dal thread che scrive.
+	 */
+	private void svuota() {
+		Arrays.fill(conteggi, 0);
+		totale = 0;
+		somma = 0;
+		massimo = 0;
+		daAzzerare = false;
+	}
+
+	/**
+	 * Restituisce il percentile richiesto, come limite superiore dell'intervallo che lo contiene.
+	 *
+	 * @param percentuale Percentuale tra 0 e 100, ad esempio 99 per il p99.
+	 * @return La durata in nanosecondi, 0 se l'istogramma e vuoto.
+	 */
+	public long percentile(double percentuale) {
+		long campioni = totale;
+		if (campioni == 0) {
+			return 0;
+		}
+		long soglia = Math.max(1, (long) Math.ceil(campioni * percentuale / 100.0));
+		long cumulato = 0;
+		for (int i = 0; i < NUMERO_INTERVALLI; i++) {
+			cumulato += conteggi[i];
+			if (cumulato >= soglia) {
+				return Math.min(limiteSuperiore(i), massimo);
+			}
+		}
+		return massimo;
+	}
+
+	/**
+	 * Restituisce il numero di campioni registrati.
+	 *
+	 * @return Il numero di campioni.
+	 */
+	public long getConteggio() {
+		return totale;
+	}
+
+	/**
+	 * Restituisce la durata media.
+	 *
+	 * @return La media in nanosecondi, 0 se l'istogramma e vuoto.
+	 */
+	public long getMedia() {
+		long campioni = totale;
+		return campioni == 0 ? 0 : somma / campioni;
+	}
+
+	/**
+	 * Restituisce la durata massima registrata.
+	 *
+	 * @return Il massimo in nanosecondi.
+	 */
+	public long getMassimo() {
+		return massimo;
+	}
+
+	/**
+	 * Calcola l'intervallo a cui appartiene un valore.
+	 *
+	 * @param valore Il valore non negativo.
+	 * @return L'indice dell'intervallo.
+	 */
+	private static int indice(long valore) {
+		if (valore < SOTTOINTERVALLI) {
+			return (int) valore;
+		}
+		int esponente = 63 - Long.numberOfLeadingZeros(valore);
+		int sotto = (int) (valore >>> (esponente - BIT_SOTTOINTERVALLI)) - SOTTOINTERVALLI;
+		return SOTTOINTERVALLI + (esponente - BIT_SOTTOINTERVALLI) * SOTTOINTERVALLI + sotto;
+	}
+
+	/**
+	 * Calcola il valore piu grande che appartiene a un intervallo.
+	 *
+	 * @param indice L'indice dell'intervallo.
+	 * @return Il limite superiore dell'intervallo.
+	 */
+	private static long limiteSuperiore(int indice) {
+		if (indice < SOTTOINTERVALLI) {
+			return indice;
+		}
+		int spostamento = (indice - SOTTOINTERVALLI) / SOTTOINTERVALLI;
+		int sotto = (indice - SOTTOINTERVALLI) % SOTTOINTERVALLI;
+		long inferiore = (long) (SOTTOINTERVALLI + sotto) << spostamento;
+		return inferiore + (1L << spostamento) - 1;
+	}
+}
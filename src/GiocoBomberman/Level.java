@@ -1,19 +1,31 @@
 package GiocoBomberman;
 
-import java.awt.Point;
-
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 /**
  * Rappresenta un livello nel gioco Bomberman. Gestisce la generazione della mappa,
  * la posizione dei nemici e altre variabili specifiche di ciascun livello.
  * 
+ * Nella partita con interfaccia il livello successivo viene preparato su un thread di sfondo mentre si gioca
+ * quello corrente: mappa generata, fuga e potenziamenti assegnati e nemici creati in una seconda {@link TileGrid}.
+ * {@link #changeLevel()} attende la preparazione, di solito gia finita, e scambia le celle delle due griglie, cosi il
+ * passaggio di livello non ferma il thread di gioco. I flussi casuali della sessione vengono presi quando la
+ * preparazione e avviata, non quando viene eseguita, e i livelli si preparano uno alla volta e nello stesso ordine,
+ * quindi la partita resta riproducibile; prima di cambiare il seme della sessione va chiamato
+ * {@link #fermaPreparazione()}. Le sessioni senza interfaccia preparano il livello al momento del passaggio e
+ * nessuna sessione prepara in anticipo livelli oltre {@link #ULTIMO_LIVELLO}.
+ * 
  * @author Davide Vittucci
  */
 public class Level {
+	/** Ultimo livello della partita: passarlo significa vincere. */
+	public static final int ULTIMO_LIVELLO = 3;
+
 	 /** Numero del livello corrente. */
     private int levelNumber;
 
@@ -23,102 +35,224 @@ public class Level {
     /** Lista dei nemici presenti nel livello. */
     private ArrayList<Nemico> nemici;
 
-    /** Mappa delle viste dei nemici, associando ciascun nemico alla sua vista. */
-    private HashMap<Nemico, NemicoView> nemicoViews = new HashMap<>();
-
     /** Durata del timer per il livello, espressa in secondi. */
     private int durata_Timer;
 
     /** Modello della mappa utilizzato per gestire la rappresentazione del livello. */
     private MapModel mapModel;
 
-    /** Rappresentazione numerica della mappa, composta da piastrelle con diverse proprietà. */
-    private Piastrella[][] mapTileNum;
+    /** Thread di sfondo che prepara i livelli successivi di tutte le partite. */
+    private static final ExecutorService esecutore = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Level");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Griglia libera in cui preparare il prossimo livello; dopo il passaggio contiene le celle del livello lasciato. */
+    private TileGrid grigliaLibera;
+
+    /** Preparazione del livello successivo, null se non ancora avviata. */
+    private CompletableFuture<Preparazione> prossimo;
+
+    /** Sessione di gioco a cui appartiene il livello. */
+    private GameSession sessione;
 
     /** Generatore della mappa, utilizzato per creare la disposizione iniziale delle piastrelle e dei blocchi distruttibili. */
     public MapGenerator mapGenerator;
+
+    /**
+     * Livello preparato e non ancora giocato.
+     */
+    private static final class Preparazione {
+        /** Numero del livello. */
+        final int levelNumber;
+        /** Griglia con le celle del livello. */
+        final TileGrid griglia;
+        /** Nemici del livello. */
+        final ArrayList<Nemico> nemici = new ArrayList<>();
+        /** Numero di blocchi distruttibili. */
+        int destructibleBlocks;
+        /** Durata del timer in secondi. */
+        int durata_Timer;
+        /** Celle in cui far comparire i nemici indicate dalla mappa del pacchetto, null o vuota per sceglierle tra quelle libere. */
+        ArrayList<Cella> spawnPacchetto;
+        /** Flusso casuale della sessione per fuga e potenziamenti. */
+        final SplittableRandom casualePotenziamenti;
+        /** Flusso casuale della sessione per la posizione dei nemici. */
+        final SplittableRandom casualeSpawn;
+        /** Flusso casuale della sessione da cui separare quello di ogni nemico. */
+        final SplittableRandom casualeNemici;
+
+        /**
+         * Costruisce una preparazione che parte dalle variabili del livello precedente e prende i flussi casuali
+         * attuali della sessione, cosi che una preparazione eseguita piu tardi non usi quelli di un'altra partita.
+         *
+         * @param levelNumber Numero del livello.
+         * @param griglia Griglia in cui preparare le celle.
+         * @param destructibleBlocks Blocchi distruttibili del livello precedente.
+         * @param durata_Timer Durata del timer del livello precedente.
+         * @param sessione Sessione di gioco da cui prendere i flussi casuali.
+         */
+        Preparazione(int levelNumber, TileGrid griglia, int destructibleBlocks, int durata_Timer, GameSession sessione) {
+            this.levelNumber = levelNumber;
+            this.griglia = griglia;
+            this.destructibleBlocks = destructibleBlocks;
+            this.durata_Timer = durata_Timer;
+            this.casualePotenziamenti = sessione.getCasualePotenziamenti();
+            this.casualeSpawn = sessione.getCasualeSpawn();
+            this.casualeNemici = sessione.getCasualeNemici();
+        }
+    }
     /**
      * Costruttore della classe Level.
      * 
      * @param levelNumber Numero del livello.
      * @param mapModel    Modello della mappa associato al livello.
+     * @param sessione    Sessione di gioco a cui appartiene il livello.
      */
-    public Level(int levelNumber, MapModel mapModel ) {
+    public Level(int levelNumber, MapModel mapModel, GameSession sessione ) {
     	this.mapModel = mapModel;
         this.levelNumber = levelNumber;
+        this.sessione = sessione;
         
         this.nemici = new ArrayList<>();
-         mapGenerator = new MapGenerator();
+         mapGenerator = new MapGenerator(sessione.getCasualeMappa());
+        grigliaLibera = new TileGrid(mapModel.getMaxScreenCol(), mapModel.getMaxScreenRow());
         setupLevel();
     }
     /**
-     * Imposta le variabili e genera il livello.
+     * Imposta le variabili e genera il livello, poi avvia la preparazione del successivo.
      */
-    public void setupLevel() {
-    	setUpVar();
-    	generateLevel() ;
-    	setupEnemies() ;
-    	setupView();
+    private void setupLevel() {
+    	applica(prepara(successivo(levelNumber)));
+    	avviaPreparazione();
 	}
+    /**
+     * Crea la preparazione di un livello a partire dalle variabili di quello in gioco, nella griglia libera.
+     *
+     * @param numero Numero del livello da preparare.
+     * @return La preparazione, non ancora eseguita.
+     */
+    private Preparazione successivo(int numero) {
+    	return new Preparazione(numero, grigliaLibera, destructibleBlocks, durata_Timer, sessione);
+    }
+    /**
+     * Prepara un livello senza toccare quello in gioco: puo essere eseguito su un altro thread.
+     *
+     * @param p Il livello da preparare.
+     * @return Il livello preparato.
+     */
+    private Preparazione prepara(Preparazione p) {
+    	setUpVar(p);
+    	generateLevel(p);
+    	setupEnemies(p);
+    	return p;
+    }
+    /**
+     * Fa partire il livello preparato: scambia le sue celle con quelle della mappa in gioco e ne prende i nemici.
+     *
+     * @param p Il livello preparato.
+     */
+    private void applica(Preparazione p) {
+    	mapModel.scambiaGriglia(p.griglia);
+    	grigliaLibera = p.griglia;
+    	levelNumber = p.levelNumber;
+    	destructibleBlocks = p.destructibleBlocks;
+    	durata_Timer = p.durata_Timer;
+    	nemici = p.nemici;
+    }
+    /**
+     * Avvia sul thread di sfondo la preparazione del livello successivo, se la sessione ha un'interfaccia e il
+     * livello in gioco non e l'ultimo.
+     */
+    private void avviaPreparazione() {
+    	if (sessione.isHeadless() || levelNumber >= ULTIMO_LIVELLO) {
+    		prossimo = null;
+    		return;
+    	}
+    	Preparazione p = successivo(levelNumber + 1);
+    	prossimo = CompletableFuture.supplyAsync(() -> prepara(p), esecutore);
+    }
+    /**
+     * Attende la fine della preparazione del livello successivo, se in corso, e la scarta. Va chiamato prima di
+     * cambiare il seme della sessione, perche la preparazione non usi i flussi casuali mentre vengono sostituiti.
+     */
+    public void fermaPreparazione() {
+    	if (prossimo != null) {
+    		prossimo.exceptionally(e -> null).join();
+    		prossimo = null;
+    	}
+    }
     /**
      * Imposta le variabili specifiche per ciascun livello, come il numero di blocchi
      * distruttibili e la durata del timer.
+     *
+     * @param p Il livello in preparazione.
      */
-    private void setUpVar() {
-    	if (levelNumber == 1) {
-        	this.destructibleBlocks =35 ;
-        	this.durata_Timer = 200 ;
+    private void setUpVar(Preparazione p) {
+    	if (p.levelNumber == 1) {
+        	p.destructibleBlocks =35 ;
+        	p.durata_Timer = 200 ;
         }
-        else if (levelNumber == 2) {
-        	this.destructibleBlocks = 40 ;
-        	this.durata_Timer = 170 ;
+        else if (p.levelNumber == 2) {
+        	p.destructibleBlocks = 40 ;
+        	p.durata_Timer = 170 ;
         }
-        else if (levelNumber == 3) {
-        	this.destructibleBlocks = 50;
-        	this.durata_Timer = 150 ;
+        else if (p.levelNumber == 3) {
+        	p.destructibleBlocks = 50;
+        	p.durata_Timer = 150 ;
         }
     	
     }
     /**
-     * Genera la mappa del livello utilizzando il MapGenerator e carica la mappa nel modello.
+     * Genera la mappa del livello utilizzando il MapGenerator e la prepara nella griglia del livello senza passare
+     * da file; se la sessione ha un percorso di esportazione la mappa viene anche salvata. Se la sessione ha un
+     * pacchetto che contiene la mappa del livello, viene usata quella.
+     *
+     * @param p Il livello in preparazione.
      */
-	public void generateLevel() {
-        
+	private void generateLevel(Preparazione p) {
+        MapPack pacchetto = sessione.getPacchetto();
+        if (pacchetto != null && p.levelNumber <= pacchetto.getNumeroMappe()) {
+            pacchetto.copiaCelle(p.levelNumber - 1, p.griglia);
+            p.spawnPacchetto = pacchetto.getSpawn(p.levelNumber - 1);
+            return;
+        }
      
-        mapGenerator.generateMap(destructibleBlocks);
+        int[][] mappa = mapGenerator.generateMap(p.destructibleBlocks);
+        String esportazione = sessione.getPercorsoEsportazione();
+        if (esportazione != null) {
+            mapGenerator.saveMapToFile(esportazione);
+        }
 
-        mapModel.loadMap(this.getLevelNumber());
-        setUpMapTile() ;
+        mapModel.preparaMappa(mappa, p.levelNumber, p.griglia, p.casualePotenziamenti);
        
     }
 
-    /**
-     * Imposta l'array mapTileNum basato sul modello della mappa attuale.
-     */
-	public void setUpMapTile() {
-		this.mapTileNum = mapModel.getMapTile();
-	}
 	 /**
-     * Imposta i nemici nel livello, scegliendo posizioni casuali libere sulla mappa.
+     * Imposta i nemici nel livello, scegliendo posizioni casuali libere sulla mappa
+     * o tra le celle indicate dalla mappa del pacchetto.
+     *
+     * @param p Il livello in preparazione.
      */
-	private void setupEnemies() {
-	    nemici.clear();
-	    ArrayList<Point> freeTiles = freeTiles(); 
+	private void setupEnemies(Preparazione p) {
+	    ArrayList<Nemico> nemici = p.nemici;
+	    ArrayList<Cella> freeTiles = p.spawnPacchetto != null && !p.spawnPacchetto.isEmpty() ? p.spawnPacchetto : freeTiles(p.griglia); 
 
-	    Random rand = new Random();
+	    SplittableRandom rand = p.casualeSpawn;
 
 	  
 
-	    int numPuropen = levelNumber == 1 ? 2 : levelNumber == 2? 4 : 4;
-	    int numDenkyun = levelNumber == 1 ? 1 : levelNumber == 2? 1 : 2;
+	    int numPuropen = p.levelNumber == 1 ? 2 : p.levelNumber == 2? 4 : 4;
+	    int numDenkyun = p.levelNumber == 1 ? 1 : p.levelNumber == 2? 1 : 2;
 
 	    for (int i = 0; i < numPuropen; i++) {
 	        if (!freeTiles.isEmpty()) {
-	            Point spawn = freeTiles.remove(rand.nextInt(freeTiles.size()));
-	            Puropen puropen = new Puropen();
-	            int x=  spawn.x;
+	            Cella spawn = freeTiles.remove(rand.nextInt(freeTiles.size()));
+	            Puropen puropen = new Puropen(sessione.getAudio(), p.casualeNemici.split());
+	            int x=  spawn.colonna;
 	            
-	            int y = spawn.y;
+	            int y = spawn.riga;
 	            
 	            
 	           puropen.setX(x * 64);
@@ -130,10 +264,10 @@ public class Level {
 	    
 	    for (int i = 0; i < numDenkyun; i++) {
 	        if (!freeTiles.isEmpty()) {
-	            Point spawn = freeTiles.remove(rand.nextInt(freeTiles.size()));
-	            Denkyun denkyun = new Denkyun();
-	            denkyun.setX(spawn.x * 64);
-	            denkyun.setY(( spawn.y * 64)-22);
+	            Cella spawn = freeTiles.remove(rand.nextInt(freeTiles.size()));
+	            Denkyun denkyun = new Denkyun(sessione.getAudio(), p.casualeNemici.split());
+	            denkyun.setX(spawn.colonna * 64);
+	            denkyun.setY(( spawn.riga * 64)-22);
 	           
 	            nemici.add(denkyun);
 	           
@@ -144,38 +278,18 @@ public class Level {
      * Restituisce una lista di punti rappresentanti le posizioni libere sulla mappa,
      * dove non ci sono blocchi né ostacoli.
      * 
-     * @return ArrayList di oggetti Point con le posizioni libere.
+     * @param griglia La griglia in cui cercare le posizioni libere.
+     * @return ArrayList di oggetti Cella con le posizioni libere.
      */
-	private ArrayList<Point> freeTiles() {
-	    return IntStream.range(0, mapTileNum.length)
+	private static ArrayList<Cella> freeTiles(TileGrid griglia) {
+	    return IntStream.range(0, griglia.getRighe())
 	                    .boxed()
-	                    .flatMap(row -> IntStream.range(0, mapTileNum[row].length)
-	                                             .filter(col -> mapTileNum[row][col].getTipo() == 0 && !(row == 3 && (col == 2 || col == 3)) && !(row == 4 && col == 2))
-	                                             .mapToObj(col -> new Point(col, row)))
+	                    .flatMap(row -> IntStream.range(0, griglia.getColonne())
+	                                             .filter(col -> griglia.getTipo(row, col) == 0 && !(row == 3 && (col == 2 || col == 3)) && !(row == 4 && col == 2))
+	                                             .mapToObj(col -> new Cella(col, row)))
 	                    .collect(Collectors.toCollection(ArrayList::new));
 	}
 
-	/**
-     * Configura le viste per ciascun nemico e le aggiunge alla mappa nemicoViews.
-     */
-	private void setupView() {
-	    nemici.stream().forEach(nemico -> {
-	        NemicoView view = null;
-	        if (nemico instanceof Puropen) {
-	            view = new PuropenView();
-	            nemico.addObserver(view);
-	            nemico.notifica();
-	        } else if (nemico instanceof Denkyun) {
-	            view = new DenkyunView();
-	            nemico.addObserver(view);
-	            nemico.notifica();
-	        }
-	        if (view != null) {
-	            nemicoViews.put(nemico, view);
-	        }
-	    });
-	}
-
 	 /**
      * Restituisce la lista dei nemici presenti nel livello.
      * 
@@ -184,14 +298,6 @@ public class Level {
     public ArrayList<Nemico> getEnemies() {
         return nemici;
     }
-    /**
-     * Restituisce la mappa delle viste dei nemici.
-     * 
-     * @return HashMap che associa ogni nemico alla sua vista.
-     */
-    public HashMap<Nemico, NemicoView> getView() {
-        return nemicoViews;
-    }
     /**
      * Restituisce la durata del timer per il livello.
      * 
@@ -210,11 +316,11 @@ public class Level {
 		return levelNumber;
 	}
 	/**
-     * Incrementa il numero del livello e reimposta le variabili per il nuovo livello.
+     * Passa al livello successivo, attendendo che la sua preparazione sia finita, e avvia quella del seguente.
      */
 	public void changeLevel() {
-		this.levelNumber++;
-		setupLevel();
-		
+		Preparazione p = prossimo != null ? prossimo.join() : prepara(successivo(levelNumber + 1));
+		applica(p);
+		avviaPreparazione();
 	}
 }
@@ -3,18 +3,12 @@ import java.io.BufferedWriter;
 
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
-import java.util.stream.Collectors;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.util.SplittableRandom;
 /**
  * Generatore di mappe per il gioco Bomberman. Questa classe è responsabile della creazione
  * di layout di mappe casuali, inclusa la posizione di piastrelle distruttibili e indistruttibili.
- * Le mappe generate possono essere salvate su file.
+ * La mappa generata viene passata in memoria a {@link MapModel#loadMap(int[][], int)}; il salvataggio
+ * su file con {@link #saveMapToFile(String)} serve solo a esportarla.
  * 
  * @author Davide Vittucci
  */
@@ -27,21 +21,31 @@ public class MapGenerator {
     /** Numero di colonne nella mappa. */
     private static final int COLS = 17;
 
-    /** Percorso del file in cui salvare la mappa generata. */
-    private static final String MAP_PATH = "res\\maps\\mappa1.txt";
+    /** Generatore casuale della disposizione dei muri. */
+    private final SplittableRandom rand;
 
     /** Rappresentazione interna della mappa come array 2D di interi. */
     private int[][] map = new int[ROWS][COLS];
     
+    /**
+     * Costruisce un generatore di mappe.
+     *
+     * @param rand Generatore casuale della disposizione dei muri.
+     */
+    public MapGenerator(SplittableRandom rand) {
+        this.rand = rand;
+    }
+    
     /**
      * Genera una mappa con un dato numero di blocchi distruttibili.
      *
      * @param blocchi Il numero di blocchi distruttibili da generare nella mappa.
+     * @return La mappa generata, per righe; l'array viene riscritto alla generazione successiva.
      */
-	    public void generateMap(int blocchi) {
+	    public int[][] generateMap(int blocchi) {
 	        initializeMap();
 	        addDestructibleTiles(blocchi);
-	        saveMapToFile();
+	        return map;
 	    }
 	    /**
 	     * Inizializza la mappa con layout di base, inclusi bordi e aree non distruttibili.
@@ -60,7 +64,6 @@ public class MapGenerator {
 	                map[i][j] = ((i - 3) % 2 == 0 || (j - 2) % 2 == 0) ? 0 : 2;
 	            }
 	        }
-	        Random rand = new Random();
 	        
 	       
 	        switch(rand.nextInt(3)) {
@@ -119,7 +122,6 @@ public class MapGenerator {
 	     * @param blocchi Il numero di blocchi distruttibili da aggiungere.
 	     */
 	    private void addDestructibleTiles(int blocchi) {
-	        Random rand = new Random();
 	        int count = 0;
 	        
 	        while (count < blocchi) {
@@ -135,15 +137,19 @@ public class MapGenerator {
 	        }
 	    } 
 	    /**
-	     * Salva la mappa corrente su file.
+	     * Esporta la mappa corrente su file, un numero per piastrella separato da spazi e una riga di testo per riga.
+	     *
+	     * @param percorso Percorso del file in cui salvare la mappa.
 	     */
-	    private void saveMapToFile() {
-	        try (BufferedWriter writer = new BufferedWriter(new FileWriter(MAP_PATH, false))) {
+	    public void saveMapToFile(String percorso) {
+	        try (BufferedWriter writer = new BufferedWriter(new FileWriter(percorso, false))) {
 	            for (int[] row : map) {
-	                String rowAsString = Arrays.stream(row)
-	                                           .mapToObj(String::valueOf)
-	                                           .collect(Collectors.joining(" "));
-	                writer.write(rowAsString);
+	                for (int j = 0; j < row.length; j++) {
+	                    if (j > 0) {
+	                        writer.write(' ');
+	                    }
+	                    writer.write(Integer.toString(row[j]));
+	                }
 	                writer.newLine();
 	            }
 	        } catch (IOException e) {
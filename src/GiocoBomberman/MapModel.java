@@ -1,15 +1,9 @@
 package GiocoBomberman;
 
-import java.io.BufferedReader;
+import java.util.SplittableRandom;
 
-import java.io.FileReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.Random;
-
-import javax.imageio.ImageIO;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 /**
  * MapModel e la classe che rappresenta il modello della mappa nel gioco Bomberman.
@@ -17,6 +11,10 @@ import java.util.List;
  * gli osservatori in caso di cambiamenti. La classe supporta anche il caricamento
  * di livelli e l'assegnazione di potenziamenti e vie di fuga.
  * 
+ * Lo stato delle celle e impacchettato in una {@link TileGrid}; la collisione di ogni tipo sta nelle piastrelle di
+ * {@link #getPiastrelle()}, condivise da tutte le celle di quel tipo. Il modello non contiene immagini: lo sprite
+ * di una cella lo sceglie {@link MapView#getImmagine(int, int)} dal suo tipo e dallo stadio di distruzione.
+ * 
  * @author Davide Vittucci
  * @see Observer
  * @see Piastrella
@@ -38,14 +36,20 @@ public class MapModel {
     public Piastrella[] tiles;
 
     /**
-     * Array di piastrelle per le animazioni di esplosione.
+     * Stato corrente delle celle della mappa, un tipo di piastrella e i suoi flag per cella.
      */
-    public Piastrella[] tilesExp;
+    private final TileGrid griglia;
 
     /**
-     * Matrice bidimensionale di piastrelle che rappresenta lo stato corrente della mappa.
+     * Versione della mappa: aumenta ogni volta che cambia l'aspetto di almeno una piastrella.
      */
-    private Piastrella mapTileNum[][];
+    private int versione;
+
+    /**
+     * Versione dell'ultimo cambiamento di ogni piastrella, per righe. Permette a chi disegna di
+     * ridisegnare solo le piastrelle cambiate dall'ultima versione che ha visto.
+     */
+    private final int[] versioniPiastrelle;
 
     /**
      * Tempo di esplosione per l'animazione.
@@ -58,9 +62,14 @@ public class MapModel {
     private int animationCounter = 0;
 
     /**
-     * Percorso del file della mappa.
+     * Gestore dell'audio della sessione di gioco.
      */
-    private static final String MAP_PATH = "res\\maps\\mappa1.txt";
+    private final AudioManager audio;
+
+    /**
+     * Sessione di gioco, che fornisce il generatore casuale per la fuga e i potenziamenti.
+     */
+    private final GameSession sessione;
 
     /**
      * Lista degli osservatori da notificare in caso di cambiamenti.
@@ -71,15 +80,17 @@ public class MapModel {
      * 
      * @param maxScreenCol il numero massimo di colonne dello schermo
      * @param maxScreenRow il numero massimo di righe dello schermo
+     * @param sessione la sessione di gioco
      */
-    public MapModel(int maxScreenCol, int maxScreenRow) {
+    public MapModel(int maxScreenCol, int maxScreenRow, GameSession sessione) {
+        this.audio = sessione.getAudio();
+        this.sessione = sessione;
         this.maxScreenCol = maxScreenCol;
         this.maxScreenRow = maxScreenRow;
-        mapTileNum = new Piastrella[maxScreenRow][maxScreenCol];
-        tiles = new Piastrella[11] ;
-        tilesExp = new Piastrella[10] ;
-        loadTileImages();
-        loadTileImagesExp();
+        griglia = new TileGrid(maxScreenCol, maxScreenRow);
+        versioniPiastrelle = new int[maxScreenRow * maxScreenCol];
+        tiles = new Piastrella[TileGrid.TIPI] ;
+        loadTiles();
         
       
     }
@@ -114,34 +125,13 @@ public class MapModel {
     public void notifica() {
     	notifyObservers() ;
     }
-    /**
-     * Carica le immagini delle piastrelle esplosive.
-     * Gestisce il caricamento delle immagini per le animazioni delle esplosioni.
-     */
-    private void loadTileImagesExp() {
-    	try {
-    		tilesExp[0]= new Piastrella();
-    		tilesExp[1]= new Piastrella();
-    		tilesExp[2]= new Piastrella();
-    		tilesExp[3]= new Piastrella();
-    		tilesExp[4]= new Piastrella();
-    		tilesExp[5]= new Piastrella();
-    		
-    		tilesExp[0].image = ImageIO.read(getClass().getResourceAsStream("/Distruzione/muroEx0.png")) ;
-    		tilesExp[1].image = ImageIO.read(getClass().getResourceAsStream("/Distruzione/muroEx1.png")) ;
-    		tilesExp[2].image = ImageIO.read(getClass().getResourceAsStream("/Distruzione/muroEx2.png")) ;
-    		tilesExp[3].image = ImageIO.read(getClass().getResourceAsStream("/Distruzione/muroEx3.png")) ;
-    		tilesExp[4].image = ImageIO.read(getClass().getResourceAsStream("/Distruzione/muroEx4.png")) ;
-    		tilesExp[5].image = ImageIO.read(getClass().getResourceAsStream("/Distruzione/muroEx5.png")) ;
-    		}
-    		catch(IOException e) {
-    			e.printStackTrace();
-    		}
-    }
     /**
      * Aggiorna lo stato della mappa.
      * Questo metodo gestisce l'aggiornamento delle piastrelle, incluse le esplosioni e
      * il reset delle piastrelle dopo l'esplosione.
+     * Vengono visitate solo le celle attive della griglia, cioe i muri colpiti e i potenziamenti calpestati,
+     * e ogni cella cambiata viene segnalata con la sua versione a chi disegna. Durante la visita i muri che
+     * cominciano a crollare vengono solo contati: il suono del crollo parte una volta sola, dopo la visita.
      */
     public void update() {
     	animationCounter++;
@@ -149,319 +139,263 @@ public class MapModel {
     	if(animationCounter >EXPLOSION_TIME_EXP){
     	
     		animationCounter=0;
-    	int col = 0;
-		int row = 0;
-    	while(col<maxScreenCol && row < maxScreenRow) {
-    		while(col<maxScreenCol) {
-    			if(mapTileNum[row][col].calpestata) {
-    				mapTileNum[row][col].calpestata=false;
-    				mapTileNum[row][col].image= tiles[0].image ;
-    				mapTileNum[row][col].setTipo(0);
-    				
+    	int attive = griglia.getNumeroAttive();
+    	int crolli = 0;
+    	for (int i = 0; i < attive; i++) {
+    		int cella = griglia.getAttiva(i);
+    		int row = cella / maxScreenCol;
+    		int col = cella % maxScreenCol;
+    			if(griglia.isCalpestata(row, col)) {
+    				griglia.resetCalpestata(row, col);
+    				griglia.setTipo(row, col, 0);
+    				segnaSporca(row, col);
     				
     			}
-			if(mapTileNum[row][col].getColpita()) {
-				int x = mapTileNum[row][col].getStato();
-				if (x==1) { AudioManager.getInstance().play("res/audio/murob.wav",0.7f);}
-				mapTileNum[row][col].image= tilesExp[x].image ;
-				
-				mapTileNum[row][col].setStato();
+			if(griglia.isColpita(row, col)) {
+				int x = griglia.getStato(row, col);
+				if (x==1) { crolli++;}
+				griglia.incrementaStato(row, col);
+				segnaSporca(row, col);
 				
 				if(x==5) {
 					 
-					if (mapTileNum[row][col].fuga) {
-						
-						mapTileNum[row][col]= new Piastrella();
-						mapTileNum[row][col].image= tiles[4].image ;
-						mapTileNum[row][col].setTipo(4);
-						mapTileNum[row][col].collision= tiles[4].collision ;
-						notifyObservers() ;
+					if (griglia.isFuga(row, col)) {
+						griglia.sostituisci(row, col, 4);
 					}
-					else if (mapTileNum[row][col].haPotenziamento()) {
-					
-		                switch (mapTileNum[row][col].getTipoPotenziamento()) {
-		                    case RAGGIO:
-		                   
-		                    	mapTileNum[row][col]= new Piastrella();
-								mapTileNum[row][col].image= tiles[5].image ;
-								mapTileNum[row][col].setTipo(5);
-								mapTileNum[row][col].collision= tiles[5].collision ;	
-		                       
-		                        break;
-		                    case VELOCITA:
-		                    	// 	System.out.println("2");
-		                    	mapTileNum[row][col]= new Piastrella();
-								mapTileNum[row][col].image= tiles[6].image ;
-								mapTileNum[row][col].setTipo(6);
-								mapTileNum[row][col].collision= tiles[6].collision ;	
-		                       
-		                        break;
-		                    // Aggiungi qui i casi per gli altri tipi di potenziamenti
-						case BOMBA:
-							//	System.out.println("1");
-							mapTileNum[row][col]= new Piastrella();
-							mapTileNum[row][col].image= tiles[10].image ;
-							mapTileNum[row][col].setTipo(10);
-							mapTileNum[row][col].collision= tiles[10].collision ;	
-	                       
-							break;
-						case INVINCIBILITA:
-							//	System.out.println("f1");
-							mapTileNum[row][col]= new Piastrella();
-							mapTileNum[row][col].image= tiles[9].image ;
-							mapTileNum[row][col].setTipo(9);
-							mapTileNum[row][col].collision= tiles[9].collision ;	
-	                     
-							break;
-						case PUNTI:
-							//System.out.println("1f");
-							mapTileNum[row][col]= new Piastrella();
-							mapTileNum[row][col].image= tiles[8].image ;
-							mapTileNum[row][col].setTipo(8);
-							mapTileNum[row][col].collision= tiles[8].collision ;	
-	                       
-							break;
-						case VITA:
-						
-							mapTileNum[row][col]= new Piastrella();
-							mapTileNum[row][col].image= tiles[7].image ;
-							mapTileNum[row][col].setTipo(7);
-							mapTileNum[row][col].collision= tiles[7].collision ;	
-	                      
-							break;
-						default:
-							//System.out.println("0");
-							break;
-						
-		                }
-		                notifyObservers() ;}
 					else {
-					mapTileNum[row][col]= new Piastrella();
-					mapTileNum[row][col].image= tiles[0].image ;
-					mapTileNum[row][col].setTipo(0);
-					mapTileNum[row][col].collision= tiles[0].collision ;
+						griglia.sostituisci(row, col, tipoPotenziamento(griglia.getPotenziamento(row, col)));
+					}
 					notifyObservers() ;
-			}}}
-		
-			
-				
-	
-		col++;
-    		}
-	if (col== maxScreenCol) {col=0;
-	row++;
-	}
-    }}}
+			}}
+    	}
+    	griglia.compattaAttive();
+    	if (crolli > 0) {
+    		audio.play("res/audio/murob.wav",0.7f);
+    	}
+    	}}
+    /**
+     * Restituisce il tipo di piastrella che un muro distrutto lascia scoperta.
+     * 
+     * @param potenziamento il potenziamento nascosto nel muro
+     * @return il tipo della piastrella del potenziamento, o dell'erba se il muro non ne nasconde
+     */
+    private static int tipoPotenziamento(TipoPotenziamento potenziamento) {
+    	switch (potenziamento) {
+    		case RAGGIO:
+    			return 5;
+    		case VELOCITA:
+    			return 6;
+    		case BOMBA:
+    			return 10;
+    		case INVINCIBILITA:
+    			return 9;
+    		case PUNTI:
+    			return 8;
+    		case VITA:
+    			return 7;
+    		default:
+    			return 0;
+    	}
+    }
     /**
-     * Carica le immagini per le piastrelle della mappa.
-     * Questo metodo carica e assegna le immagini alle varie tipologie di piastrelle utilizzate nella mappa.
+     * Crea le piastrelle della mappa, una per tipo, con la loro collisione.
      */
-    private void loadTileImages() {
-    	try {
+    private void loadTiles() {
     		tiles[0]= new Piastrella();
-    		tiles[0].image = ImageIO.read(getClass().getResourceAsStream("/tiles/erba.png")) ;
     		tiles[0].setTipo(0);
     		tiles[0].collision = false;
     		tiles[1]= new Piastrella();
-    		tiles[1].image = ImageIO.read(getClass().getResourceAsStream("/tiles/muro.png")) ;
     		tiles[1].collision = true;
     		tiles[1].setTipo(1);
     		tiles[2]= new Piastrella();
-    		tiles[2].image = ImageIO.read(getClass().getResourceAsStream("/tiles/piastrellapietra.png")) ;
     		tiles[2].collision = true;
     		tiles[2].setTipo(2);
     		tiles[3]= new Piastrella();
 
     		tiles[3].setTipo(3);
     		tiles[4]= new Piastrella();
-    		tiles[4].image = ImageIO.read(getClass().getResourceAsStream("/fuga/Fuga.png")) ;
     		tiles[4].collision = false;
     		tiles[4].setTipo(4);
     		
     		tiles[5] = new Piastrella(); // Potenziamento Raggio
-    		tiles[5].image = ImageIO.read(getClass().getResourceAsStream("/drop/raggio.png"));
     		tiles[5].collision = false;
     		tiles[5].setTipo(5);
     		
     		tiles[6] = new Piastrella(); // Potenziamento Raggio
-    		tiles[6].image = ImageIO.read(getClass().getResourceAsStream("/drop/velocità.png"));
     		tiles[6].collision = false;
     		tiles[6].setTipo(6);
     		
     		tiles[7] = new Piastrella(); // Potenziamento Velocità
-    		tiles[7].image = ImageIO.read(getClass().getResourceAsStream("/drop/vita.png"));
     		tiles[7].collision = false;
     		tiles[7].setTipo(7);
     		tiles[8] = new Piastrella(); // Potenziamento Velocità
-    		tiles[8].image = ImageIO.read(getClass().getResourceAsStream("/drop/punti.png"));
     		tiles[8].collision = false;
     		tiles[8].setTipo(8);
     		tiles[9] = new Piastrella(); // Potenziamento Velocità
-    		tiles[9].image = ImageIO.read(getClass().getResourceAsStream("/drop/invincibilita.png"));
     		tiles[9].collision = false;
     		tiles[9].setTipo(9);
     		tiles[10] = new Piastrella(); // Potenziamento Velocità
-    		tiles[10].image = ImageIO.read(getClass().getResourceAsStream("/drop/bomba.png"));
     		tiles[10].collision = false;
     		tiles[10].setTipo(10);
-
-    		}
-    		catch(IOException e) {
-    			e.printStackTrace();
-    		}
     }
     /**
-     * Carica la mappa da un file di testo in base al numero di livello.
+     * Carica nel modello una mappa generata da {@link MapGenerator} e vi assegna fuga e potenziamenti
+     * in base al numero di livello.
      * 
+     * @param mappa i tipi di piastrella della mappa, per righe
      * @param levelNumber il numero del livello da caricare
      */
-    public void loadMap(int levelNumber) {
-    	
-        try (BufferedReader br = new BufferedReader(new FileReader(MAP_PATH))) {
-            int col = 0;
-            int row = 0;
-            ArrayList<Piastrella> piastrelleDistruttibili = new ArrayList<>();
-            while (col < maxScreenCol && row < maxScreenRow) {
-                String line = br.readLine();
-                while (col < maxScreenCol) {
-                    String numbers[] = line.split(" ");
-                    int num = Integer.parseInt(numbers[col]);
-                    
-                    mapTileNum[row][col] = new Piastrella();
-                    mapTileNum[row][col].image = tiles[num].image;
-                    mapTileNum[row][col].setTipo(num);
-                    mapTileNum[row][col].collision = tiles[num].collision;
-                    if (num == 1) {
-                        piastrelleDistruttibili.add(mapTileNum[row][col]);
-                    }
-                    col++;
-                }
-                
-                if (col == maxScreenCol) {
-                    col = 0;
-                    row++;
+    public void loadMap(int[][] mappa, int levelNumber) {
+        preparaMappa(mappa, levelNumber, griglia, sessione.getCasualePotenziamenti());
+        versione++;
+        Arrays.fill(versioniPiastrelle, versione);
+    }
+    /**
+     * Scrive una mappa generata da {@link MapGenerator} in una griglia diversa da quella del modello e vi assegna
+     * fuga e potenziamenti in base al numero di livello. Non modifica il modello, quindi puo preparare il livello
+     * successivo su un altro thread mentre si gioca quello corrente.
+     * 
+     * @param mappa i tipi di piastrella della mappa, per righe
+     * @param levelNumber il numero del livello da preparare
+     * @param destinazione la griglia da sovrascrivere, delle stesse dimensioni del modello
+     * @param casuale il flusso casuale per fuga e potenziamenti, preso dalla sessione quando la preparazione e
+     *        stata avviata
+     */
+    public void preparaMappa(int[][] mappa, int levelNumber, TileGrid destinazione, SplittableRandom casuale) {
+        ArrayList<Integer> piastrelleDistruttibili = new ArrayList<>();
+        destinazione.svuotaAttive();
+        for (int row = 0; row < maxScreenRow; row++) {
+            for (int col = 0; col < maxScreenCol; col++) {
+                int num = mappa[row][col];
+                destinazione.sostituisci(row, col, num);
+                if (num == 1) {
+                    piastrelleDistruttibili.add(row * maxScreenCol + col);
                 }
-            } assegnaFugaEPotenziamenti(piastrelleDistruttibili, levelNumber);
-        } catch (IOException e) {
-            e.printStackTrace();
+            }
         }
+        assegnaFugaEPotenziamenti(piastrelleDistruttibili, levelNumber, destinazione, casuale);
+    }
+    /**
+     * Fa partire un livello preparato in un'altra griglia scambiandone le celle con quelle del modello;
+     * dopo la chiamata l'altra griglia contiene le celle del livello lasciato e puo essere riusata.
+     * 
+     * @param pronta la griglia con il livello preparato
+     */
+    public void scambiaGriglia(TileGrid pronta) {
+        griglia.scambia(pronta);
+        versione++;
+        Arrays.fill(versioniPiastrelle, versione);
     }
     /**
      * Assegna la fuga e i potenziamenti a piastrelle selezionate casualmente.
      * 
-     * @param piastrelle la lista di piastrelle dove assegnare fuga e potenziamenti
+     * @param piastrelle gli indici per righe delle celle dove assegnare fuga e potenziamenti
      * @param levelNumber il numero del livello corrente
+     * @param destinazione la griglia in cui assegnarli
+     * @param rand il flusso casuale da usare
      */
-    private void assegnaFugaEPotenziamenti(ArrayList<Piastrella> piastrelle, int levelNumber) {
+    private void assegnaFugaEPotenziamenti(ArrayList<Integer> piastrelle, int levelNumber, TileGrid destinazione, SplittableRandom rand) {
     	
-        Random rand = new Random();
         if (!piastrelle.isEmpty()) {
             int indiceCasuale = rand.nextInt(piastrelle.size());
-            piastrelle.get(indiceCasuale).setFuga(true);
+            int cella = piastrelle.get(indiceCasuale);
+            destinazione.setFuga(cella / maxScreenCol, cella % maxScreenCol);
             piastrelle.remove(indiceCasuale);
         }
 
         if (levelNumber == 1) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA, destinazione, rand);
 
         // Calcola i potenziamenti casuali
         if (rand.nextDouble() < 0.90) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
         }
         if (rand.nextDouble() < 0.30) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VELOCITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VELOCITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.60) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.10) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO, destinazione, rand);
         }
         if (rand.nextDouble() < 0.25) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA, destinazione, rand);
         }}
         if (levelNumber == 2) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
         if (rand.nextDouble() < 0.50) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
         }
         if (rand.nextDouble() < 0.70) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.25) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.25) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.10) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.25) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VELOCITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VELOCITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.10) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO, destinazione, rand);
         }}
         if (levelNumber == 3) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
         if (rand.nextDouble() < 0.50) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.30) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.25) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VELOCITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.VELOCITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.30) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.INVINCIBILITA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.10) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.BOMBA, destinazione, rand);
         }
         if (rand.nextDouble() < 0.05) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.RAGGIO, destinazione, rand);
         }
         if (rand.nextDouble() < 0.15) {
-            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI);
+            assegnaPotenziamentoFisso(piastrelle, TipoPotenziamento.PUNTI, destinazione, rand);
         }}
     }
     /**
      * Assegna un potenziamento fisso a una piastrella casuale.
      * 
-     * @param piastrelle la lista di piastrelle dove assegnare il potenziamento
+     * @param piastrelle gli indici per righe delle celle dove assegnare il potenziamento
      * @param tipoPotenziamento il tipo di potenziamento da assegnare
+     * @param destinazione la griglia in cui assegnarlo
+     * @param rand il flusso casuale da usare
      */
-    private void assegnaPotenziamentoFisso(ArrayList<Piastrella> piastrelle, TipoPotenziamento tipoPotenziamento) {
+    private void assegnaPotenziamentoFisso(ArrayList<Integer> piastrelle, TipoPotenziamento tipoPotenziamento, TileGrid destinazione, SplittableRandom rand) {
     	
         if (!piastrelle.isEmpty()) {
-            int indiceCasuale = new Random().nextInt(piastrelle.size());
+            int indiceCasuale = rand.nextInt(piastrelle.size());
            
-            piastrelle.get(indiceCasuale).setPotenziamento(tipoPotenziamento);
+            int cella = piastrelle.get(indiceCasuale);
+            destinazione.setPotenziamento(cella / maxScreenCol, cella % maxScreenCol, tipoPotenziamento);
             piastrelle.remove(indiceCasuale); // Rimuove la piastrella per evitare doppioni
         }
     }
-    /**
-     * Ottiene una piastrella specifica dalla mappa.
-     * 
-     * @param row la riga della piastrella
-     * @param col la colonna della piastrella
-     * @return la piastrella alla posizione specificata
-     */
-    public Piastrella getTileNum(int row, int col) {
-        return mapTileNum[row][col];
-    }
-
     /**
      * Ottiene una piastrella dall'array di piastrelle in base all'indice.
      * 
@@ -484,14 +418,41 @@ public class MapModel {
         return maxScreenRow;
     }
     /**
-     * Ottiene la matrice bidimensionale delle piastrelle della mappa.
+     * Segna come cambiato l'aspetto di una piastrella.
+     *
+     * @param row la riga della piastrella
+     * @param col la colonna della piastrella
+     */
+    private void segnaSporca(int row, int col) {
+        versione++;
+        versioniPiastrelle[row * maxScreenCol + col] = versione;
+    }
+    /**
+     * Restituisce la versione corrente della mappa.
+     *
+     * @return la versione, che aumenta ad ogni cambiamento dell'aspetto delle piastrelle
+     */
+    public int getVersione() {
+        return versione;
+    }
+    /**
+     * Restituisce la versione dell'ultimo cambiamento di ogni piastrella, per righe.
+     * L'array e quello interno e va solo letto.
+     *
+     * @return le versioni delle piastrelle
+     */
+    public int[] getVersioniPiastrelle() {
+        return versioniPiastrelle;
+    }
+    /**
+     * Ottiene la griglia con lo stato delle celle della mappa.
      * 
-     * @return la matrice delle piastrelle della mappa
+     * @return la griglia della mappa
      */
-    public Piastrella[][] getMapTile(){return mapTileNum;}
+    public TileGrid getGriglia(){return griglia;}
 
     /**
-     * Ottiene l'array delle piastrelle utilizzate nella mappa.
+     * Ottiene l'array delle piastrelle utilizzate nella mappa, una per tipo e indicizzate per tipo.
      * 
      * @return l'array delle piastrelle
      */
@@ -0,0 +1,217 @@
+package GiocoBomberman;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+/**
+ * MapPack e un pacchetto di mappe gia pronte, salvato in formato binario e aperto come {@link MappedByteBuffer} in
+ * sola lettura. Le mappe restano nel file mappato e quella di un livello viene copiata direttamente nella
+ * {@link TileGrid} del livello, senza interpretare testo e senza copie intermedie.
+ *
+ * All'apertura ogni mappa viene controllata una volta, leggendola dal file mappato: un pacchetto con tipi di
+ * piastrella inesistenti o celle dei nemici fuori dalla mappa viene rifiutato subito, invece di far fallire il
+ * disegno o le collisioni durante la partita.
+ *
+ * Ogni mappa salvata contiene tipo, fuga e potenziamento di ogni cella nel formato a 2 byte di {@link TileGrid}, e
+ * le celle in cui possono comparire i nemici. I pacchetti si creano con {@link MapPackConverter} a partire dalle
+ * mappe di testo.
+ *
+ * Formato del file: intero {@link #MAGICO}, short di versione, short con le colonne, short con le righe, short
+ * riservato e intero con il numero di mappe, seguiti dalla posizione in byte di ogni mappa nel file (interi). Ogni
+ * mappa e composta dalle celle per righe (short), dal numero di celle dei nemici (short) e per ciascuna da colonna
+ * e riga (short).
+ *
+ * @author Davide Vittucci
+ * @see MapPackConverter
+ * @see Level
+ */
+public final class MapPack {
+	/** Numero che identifica i pacchetti di mappe ("JBMP"). */
+	public static final int MAGICO = 0x4A424D50;
+
+	/** Versione del formato del file. */
+	static final int VERSIONE = 1;
+
+	/** Byte dell'intestazione, prima delle posizioni delle mappe. */
+	static final int INTESTAZIONE = 16;
+
+	/** Contenuto del file, mappato in sola lettura. */
+	private final MappedByteBuffer dati;
+
+	/** Colonne di ogni mappa. */
+	private final int colonne;
+
+	/** Righe di ogni mappa. */
+	private final int righe;
+
+	/** Numero di mappe nel pacchetto. */
+	private final int numeroMappe;
+
+	/**
+	 * Costruisce un pacchetto su un file gia mappato e controllato.
+	 *
+	 * @param dati Contenuto del file.
+	 * @param colonne Colonne di ogni mappa.
+	 * @param righe Righe di ogni mappa.
+	 * @param numeroMappe Numero di mappe.
+	 */
+	private MapPack(MappedByteBuffer dati, int colonne, int righe, int numeroMappe) {
+		this.dati = dati;
+		this.colonne = colonne;
+		this.righe = righe;
+		this.numeroMappe = numeroMappe;
+	}
+
+	/**
+	 * Apre un pacchetto di mappe e ne controlla tutte le mappe. Il file resta mappato finche il pacchetto e in uso.
+	 *
+	 * @param percorso Il file del pacchetto.
+	 * @return Il pacchetto.
+	 * @throws IOException Se la lettura fallisce o il file non e un pacchetto valido, anche in una sola mappa.
+	 */
+	public static MapPack apri(Path percorso) throws IOException {
+		try (FileChannel canale = FileChannel.open(percorso, StandardOpenOption.READ)) {
+			long dimensione = canale.size();
+			if (dimensione < INTESTAZIONE || dimensione > Integer.MAX_VALUE) {
+				throw new IOException("Il file non e un pacchetto di mappe: " + percorso);
+			}
+			MappedByteBuffer dati = canale.map(FileChannel.MapMode.READ_ONLY, 0, dimensione);
+			if (dati.getInt(0) != MAGICO) {
+				throw new IOException("Il file non e un pacchetto di mappe: " + percorso);
+			}
+			int versione = dati.getShort(4) & 0xFFFF;
+			if (versione != VERSIONE) {
+				throw new IOException("Versione del pacchetto di mappe non supportata: " + versione);
+			}
+			int colonne = dati.getShort(6) & 0xFFFF;
+			int righe = dati.getShort(8) & 0xFFFF;
+			int numeroMappe = dati.getInt(12);
+			if (colonne == 0 || righe == 0 || numeroMappe < 0
+					|| INTESTAZIONE + 4L * numeroMappe > dimensione) {
+				throw new IOException("Intestazione del pacchetto di mappe non valida: " + percorso);
+			}
+			MapPack pacchetto = new MapPack(dati, colonne, righe, numeroMappe);
+			pacchetto.controlla(percorso);
+			return pacchetto;
+		}
+	}
+
+	/**
+	 * Controlla che ogni mappa sia tutta nel file, abbia solo tipi di piastrella esistenti e celle dei nemici
+	 * dentro la mappa.
+	 *
+	 * @param percorso Il file del pacchetto, per i messaggi di errore.
+	 * @throws IOException Alla prima mappa non valida.
+	 */
+	private void controlla(Path percorso) throws IOException {
+		int celle = colonne * righe;
+		for (int indice = 0; indice < numeroMappe; indice++) {
+			int posizione;
+			try {
+				posizione = posizione(indice);
+			} catch (IllegalStateException e) {
+				throw new IOException(e.getMessage() + ": " + percorso);
+			}
+			for (int i = 0; i < celle; i++) {
+				if (!TileGrid.isSalvataValida(dati.getShort(posizione + 2 * i))) {
+					throw new IOException("Tipo di piastrella non valido nella mappa " + indice + " del pacchetto: "
+							+ percorso);
+				}
+			}
+			int spawn = posizione + 2 * celle;
+			int numero = dati.getShort(spawn) & 0xFFFF;
+			if (spawn + 2 + 4L * numero > dati.limit()) {
+				throw new IOException("Mappa " + indice + " del pacchetto troncata: " + percorso);
+			}
+			for (int i = 0; i < numero; i++) {
+				int cella = spawn + 2 + 4 * i;
+				if ((dati.getShort(cella) & 0xFFFF) >= colonne || (dati.getShort(cella + 2) & 0xFFFF) >= righe) {
+					throw new IOException("Cella dei nemici fuori dalla mappa " + indice + " del pacchetto: "
+							+ percorso);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copia le celle di una mappa nella griglia, che deve avere le stesse dimensioni del pacchetto.
+	 *
+	 * @param indice Indice della mappa, da 0.
+	 * @param griglia La griglia da sovrascrivere.
+	 * @throws IllegalArgumentException Se le dimensioni della griglia sono diverse da quelle del pacchetto.
+	 */
+	public void copiaCelle(int indice, TileGrid griglia) {
+		if (griglia.getColonne() != colonne || griglia.getRighe() != righe) {
+			throw new IllegalArgumentException("Il pacchetto contiene mappe " + colonne + "x" + righe
+					+ ", la griglia e " + griglia.getColonne() + "x" + griglia.getRighe());
+		}
+		griglia.carica(dati, posizione(indice));
+	}
+
+	/**
+	 * Restituisce le celle in cui possono comparire i nemici di una mappa.
+	 *
+	 * @param indice Indice della mappa, da 0.
+	 * @return Le celle come colonna e riga; una lista vuota se la mappa non le indica.
+	 */
+	public ArrayList<Cella> getSpawn(int indice) {
+		int posizione = posizione(indice) + 2 * colonne * righe;
+		int numero = dati.getShort(posizione) & 0xFFFF;
+		if (posizione + 2 + 4L * numero > dati.limit()) {
+			throw new IllegalStateException("Mappa " + indice + " del pacchetto troncata");
+		}
+		ArrayList<Cella> spawn = new ArrayList<>(numero);
+		for (int i = 0; i < numero; i++) {
+			int cella = posizione + 2 + 4 * i;
+			spawn.add(new Cella(dati.getShort(cella) & 0xFFFF, dati.getShort(cella + 2) & 0xFFFF));
+		}
+		return spawn;
+	}
+
+	/**
+	 * Restituisce la posizione in byte di una mappa, controllando che le sue celle siano nel file.
+	 *
+	 * @param indice Indice della mappa, da 0.
+	 * @return La posizione della prima cella.
+	 */
+	private int posizione(int indice) {
+		if (indice < 0 || indice >= numeroMappe) {
+			throw new IndexOutOfBoundsException("Mappa " + indice + " di " + numeroMappe);
+		}
+		int posizione = dati.getInt(INTESTAZIONE + 4 * indice);
+		if (posizione < INTESTAZIONE || posizione + 2L * colonne * righe + 2 > dati.limit()) {
+			throw new IllegalStateException("Mappa " + indice + " del pacchetto troncata");
+		}
+		return posizione;
+	}
+
+	/**
+	 * Restituisce le colonne di ogni mappa.
+	 *
+	 * @return Le colonne.
+	 */
+	public int getColonne() {
+		return colonne;
+	}
+
+	/**
+	 * Restituisce le righe di ogni mappa.
+	 *
+	 * @return Le righe.
+	 */
+	public int getRighe() {
+		return righe;
+	}
+
+	/**
+	 * Restituisce il numero di mappe del pacchetto.
+	 *
+	 * @return Il numero di mappe.
+	 */
+	public int getNumeroMappe() {
+		return numeroMappe;
+	}
+}
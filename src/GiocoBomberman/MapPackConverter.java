@@ -0,0 +1,164 @@
+package GiocoBomberman;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * MapPackConverter crea un {@link MapPack} a partire da mappe nel formato di testo esportato da
+ * {@link MapGenerator#saveMapToFile(String)}, un numero per piastrella separato da spazi e una riga per riga.
+ *
+ * Le mappe di testo contengono solo il tipo delle piastrelle: fuga e potenziamenti vengono assegnati durante la
+ * conversione con le stesse regole di {@link MapModel#loadMap(int[][], int)}, usando come livello la posizione della
+ * mappa nel pacchetto (1, 2, 3, poi di nuovo 1) e un seme fisso, cosi che la stessa conversione produca sempre lo
+ * stesso pacchetto. Le celle dei nemici non vengono indicate e il livello le sceglie tra quelle libere.
+ * <pre>
+ * java -cp bin GiocoBomberman.MapPackConverter mappe.jbm 42 res/maps/mappa1.txt [altre mappe...]
+ * </pre>
+ *
+ * @author Davide Vittucci
+ * @see MapPack
+ */
+public class MapPackConverter {
+	/** Numero di livelli della partita, a cui corrispondono le regole dei potenziamenti. */
+	private static final int LIVELLI = 3;
+
+	/**
+	 * Classe di sole funzioni statiche.
+	 */
+	private MapPackConverter() {
+	}
+
+	/**
+	 * Converte le mappe di testo indicate in un pacchetto.
+	 *
+	 * @param args File del pacchetto, seme per fuga e potenziamenti e file delle mappe di testo.
+	 * @throws IOException Se la lettura o la scrittura falliscono.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Uso: MapPackConverter <pacchetto> <seme> <mappa di testo>...");
+			return;
+		}
+		List<int[][]> mappe = new ArrayList<>();
+		for (int i = 2; i < args.length; i++) {
+			mappe.add(leggiTesto(Paths.get(args[i])));
+		}
+		Path pacchetto = Paths.get(args[0]);
+		converti(mappe, Long.parseLong(args[1]), pacchetto);
+		System.out.println(mappe.size() + " mappe scritte in " + pacchetto);
+	}
+
+	/**
+	 * Legge una mappa di testo.
+	 *
+	 * @param percorso Il file della mappa.
+	 * @return I tipi di piastrella, per righe.
+	 * @throws IOException Se la lettura fallisce o le righe hanno lunghezze diverse.
+	 */
+	static int[][] leggiTesto(Path percorso) throws IOException {
+		List<int[]> righe = new ArrayList<>();
+		for (String linea : Files.readAllLines(percorso)) {
+			linea = linea.trim();
+			if (linea.isEmpty()) {
+				continue;
+			}
+			String[] numeri = linea.split("\\s+");
+			int[] riga = new int[numeri.length];
+			for (int j = 0; j < numeri.length; j++) {
+				riga[j] = Integer.parseInt(numeri[j]);
+			}
+			if (!righe.isEmpty() && riga.length != righe.get(0).length) {
+				throw new IOException("Righe di lunghezza diversa in " + percorso);
+			}
+			righe.add(riga);
+		}
+		if (righe.isEmpty()) {
+			throw new IOException("Mappa vuota: " + percorso);
+		}
+		return righe.toArray(new int[0][]);
+	}
+
+	/**
+	 * Assegna fuga e potenziamenti alle mappe e le scrive in un pacchetto.
+	 *
+	 * @param mappe Le mappe, tutte delle stesse dimensioni.
+	 * @param seme Seme per l'assegnazione di fuga e potenziamenti.
+	 * @param percorso Il file del pacchetto.
+	 * @throws IOException Se la scrittura fallisce o le mappe hanno dimensioni diverse.
+	 */
+	public static void converti(List<int[][]> mappe, long seme, Path percorso) throws IOException {
+		int righe = mappe.get(0).length;
+		int colonne = mappe.get(0)[0].length;
+		GameSession sessione = GameSession.headless(seme);
+		List<TileGrid> griglie = new ArrayList<>(mappe.size());
+		for (int i = 0; i < mappe.size(); i++) {
+			int[][] mappa = mappe.get(i);
+			if (mappa.length != righe || mappa[0].length != colonne) {
+				throw new IOException("La mappa " + (i + 1) + " non e " + colonne + "x" + righe);
+			}
+			MapModel mapModel = new MapModel(colonne, righe, sessione);
+			mapModel.loadMap(mappa, i % LIVELLI + 1);
+			griglie.add(mapModel.getGriglia());
+		}
+		scrivi(percorso, colonne, righe, griglie, new ArrayList<>());
+	}
+
+	/**
+	 * Scrive un pacchetto nel formato letto da {@link MapPack#apri(Path)}.
+	 *
+	 * @param percorso Il file del pacchetto.
+	 * @param colonne Colonne di ogni mappa.
+	 * @param righe Righe di ogni mappa.
+	 * @param griglie Le celle delle mappe.
+	 * @param spawn Le celle dei nemici di ogni mappa; le mappe oltre la fine della lista non ne hanno.
+	 * @throws IOException Se la scrittura fallisce.
+	 */
+	public static void scrivi(Path percorso, int colonne, int righe, List<TileGrid> griglie,
+			List<List<Cella>> spawn) throws IOException {
+		Path cartella = percorso.toAbsolutePath().getParent();
+		if (cartella != null) {
+			Files.createDirectories(cartella);
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(percorso)))) {
+			out.writeInt(MapPack.MAGICO);
+			out.writeShort(MapPack.VERSIONE);
+			out.writeShort(colonne);
+			out.writeShort(righe);
+			out.writeShort(0);
+			out.writeInt(griglie.size());
+			long posizione = MapPack.INTESTAZIONE + 4L * griglie.size();
+			for (int i = 0; i < griglie.size(); i++) {
+				if (posizione > Integer.MAX_VALUE) {
+					throw new IOException("Pacchetto di mappe troppo grande");
+				}
+				out.writeInt((int) posizione);
+				posizione += 2L * colonne * righe + 2 + 4L * spawnDi(spawn, i).size();
+			}
+			for (int i = 0; i < griglie.size(); i++) {
+				griglie.get(i).scrivi(out);
+				List<Cella> celle = spawnDi(spawn, i);
+				out.writeShort(celle.size());
+				for (Cella cella : celle) {
+					out.writeShort(cella.colonna);
+					out.writeShort(cella.riga);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Restituisce le celle dei nemici di una mappa.
+	 *
+	 * @param spawn Le celle dei nemici di ogni mappa.
+	 * @param indice Indice della mappa.
+	 * @return Le celle, vuote se la mappa non ne ha.
+	 */
+	private static List<Cella> spawnDi(List<List<Cella>> spawn, int indice) {
+		return indice < spawn.size() ? spawn.get(indice) : List.of();
+	}
+}
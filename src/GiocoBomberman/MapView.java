@@ -1,11 +1,24 @@
 package GiocoBomberman;
 
+import java.awt.AlphaComposite;
+import java.awt.Composite;
 import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
 /**
  * La classe MapView e responsabile della visualizzazione della mappa nel gioco Bomberman.
  * Gestisce il rendering delle piastrelle della mappa utilizzando le informazioni fornite
  * da un'istanza di MapModel. La classe implementa l'interfaccia Observer per aggiornare
  * la sua visualizzazione quando il modello della mappa cambia.
+ *
+ * La mappa viene disegnata in uno strato fuori schermo compatibile con la destinazione, e ad ogni frame la parte
+ * inquadrata dalla {@link Camera} viene copiata con al piu quattro drawImage. Lo strato copre solo la finestra della
+ * camera ed e usato in modo circolare, cosi memoria e lavoro dipendono dalla dimensione dello schermo e non da quella
+ * della mappa. Nello strato si ridisegnano solo le piastrelle visibili che vi entrano scorrendo, o la cui versione
+ * nello snapshot e piu recente di quella disegnata: muri che si distruggono, potenziamenti raccolti e la fuga che
+ * compare.
  * 
  * @author Davide vittucci
  * @see Observer
@@ -13,6 +26,36 @@ import java.awt.Graphics2D;
  * @see Piastrella
  */
 public class MapView implements Observer{
+	 /**
+     * Sprite di ogni tipo di piastrella, indicizzati per tipo; null per le celle dell'HUD, che non si disegnano.
+     */
+    private static final Sprite[] SPRITE_PIASTRELLE = new Sprite[TileGrid.TIPI];
+
+    /**
+     * Sprite degli stadi della distruzione di un muro, dal primo.
+     */
+    private static final Sprite[] SPRITE_DISTRUZIONE = new Sprite[6];
+
+    static {
+        try {
+            SPRITE_PIASTRELLE[0] = SpriteRegistry.sprite("/tiles/erba.png");
+            SPRITE_PIASTRELLE[1] = SpriteRegistry.sprite("/tiles/muro.png");
+            SPRITE_PIASTRELLE[2] = SpriteRegistry.sprite("/tiles/piastrellapietra.png");
+            SPRITE_PIASTRELLE[4] = SpriteRegistry.sprite("/fuga/Fuga.png");
+            SPRITE_PIASTRELLE[5] = SpriteRegistry.sprite("/drop/raggio.png");
+            SPRITE_PIASTRELLE[6] = SpriteRegistry.sprite("/drop/velocità.png");
+            SPRITE_PIASTRELLE[7] = SpriteRegistry.sprite("/drop/vita.png");
+            SPRITE_PIASTRELLE[8] = SpriteRegistry.sprite("/drop/punti.png");
+            SPRITE_PIASTRELLE[9] = SpriteRegistry.sprite("/drop/invincibilita.png");
+            SPRITE_PIASTRELLE[10] = SpriteRegistry.sprite("/drop/bomba.png");
+            for (int i = 0; i < SPRITE_DISTRUZIONE.length; i++) {
+                SPRITE_DISTRUZIONE[i] = SpriteRegistry.sprite("/Distruzione/muroEx" + i + ".png");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
 	 /**
      * Il modello della mappa che contiene i dati delle piastrelle.
      */
@@ -24,9 +67,41 @@ public class MapView implements Observer{
     private int tileSize;
 
     /**
-     * Matrice bidimensionale di oggetti Piastrella che rappresentano lo stato corrente della mappa.
+     * Strato fuori schermo con le piastrelle gia disegnate, grande quanto la finestra della camera piu una
+     * piastrella per lato e usato in modo circolare: la piastrella (riga, colonna) sta nello slot
+     * (riga % righeStrato, colonna % colonneStrato).
+     */
+    private BufferedImage strato;
+
+    /**
+     * Colonne di piastrelle dello strato.
+     */
+    private int colonneStrato;
+
+    /**
+     * Righe di piastrelle dello strato.
+     */
+    private int righeStrato;
+
+    /**
+     * Indice nella mappa della piastrella disegnata in ogni slot dello strato, -1 se lo slot e vuoto.
+     */
+    private int[] cellaSlot;
+
+    /**
+     * Versione della piastrella disegnata in ogni slot dello strato.
+     */
+    private int[] versioneSlot;
+
+    /**
+     * Colonne della mappa a cui si riferiscono gli slot.
+     */
+    private int colonneMappa;
+
+    /**
+     * Versione della mappa dell'ultimo frame disegnato, -1 se nessuno.
      */
-    private Piastrella mapTileNum[][];
+    private int versioneDisegnata = -1;
 
     /**
      * Costruisce una nuova vista della mappa con un modello di mappa specificato e una dimensione delle piastrelle.
@@ -40,36 +115,132 @@ public class MapView implements Observer{
        
     }
 
+    /**
+     * Ottiene lo sprite con cui disegnare una cella: quello del suo tipo di piastrella, o il fotogramma della
+     * distruzione in corso.
+     * 
+     * @param tipo il tipo di piastrella della cella
+     * @param stato lo stadio di distruzione della cella, 0 se non e iniziata
+     * @return lo sprite della cella, o null per le celle dell'HUD che non vengono disegnate
+     */
+    public static Sprite getImmagine(int tipo, int stato) {
+        if (tipo == 3) {
+            return null;
+        }
+        return stato > 0 ? SPRITE_DISTRUZIONE[stato - 1] : SPRITE_PIASTRELLE[tipo];
+    }
+
     /**
      * Aggiorna la vista della mappa in base alle modifiche nel modello della mappa.
      * Questo metodo viene chiamato quando il modello della mappa notifica i suoi osservatori di un cambiamento.
+     * Non c'e nulla da aggiornare: le piastrelle cambiate arrivano a
+     * {@link #draw(Graphics2D, RenderSnapshot, Camera)} tramite le versioni copiate nel {@link RenderSnapshot}.
      * 
      * @param model il modello della mappa che è stato aggiornato
      */
     public void update(Object model) {
-   	 if (model instanceof MapModel) {
-   		MapModel mapModel = (MapModel) model;
-   		this.mapTileNum = mapModel.getMapTile();
-   
-   	 }
 	}
     /**
-     * Disegna la mappa sullo schermo utilizzando il contesto grafico fornito.
-     * Questo metodo renderizza ciascuna piastrella della mappa in base al suo stato corrente.
+     * Disegna la parte di mappa visibile dalla camera usando le immagini delle piastrelle copiate nello snapshot
+     * del frame, senza leggere il modello che il thread di gioco sta modificando. Il contesto grafico e gia
+     * traslato della posizione della camera.
      * 
      * @param g2 il contesto grafico su cui disegnare la mappa
+     * @param snapshot lo snapshot del frame da disegnare
+     * @param camera la camera che inquadra la mappa
+     */
+    public void draw(Graphics2D g2, RenderSnapshot snapshot, Camera camera) {
+        if (snapshot.colonne == 0 || snapshot.righe == 0) {
+            return;
+        }
+        int colonne = Math.min(snapshot.colonne, (camera.getLarghezza() + tileSize - 1) / tileSize + 1);
+        int righe = Math.min(snapshot.righe, (camera.getAltezza() + tileSize - 1) / tileSize + 1);
+        if (strato == null || colonne != colonneStrato || righe != righeStrato) {
+            strato = g2.getDeviceConfiguration().createCompatibleImage(colonne * tileSize, righe * tileSize,
+                    Transparency.TRANSLUCENT);
+            colonneStrato = colonne;
+            righeStrato = righe;
+            cellaSlot = new int[colonne * righe];
+            versioneSlot = new int[colonne * righe];
+            Arrays.fill(cellaSlot, -1);
+        }
+        if (snapshot.versioneMappa < versioneDisegnata || snapshot.colonne != colonneMappa) {
+            // Mappa di un altro modello: nessuno slot e piu valido
+            Arrays.fill(cellaSlot, -1);
+            colonneMappa = snapshot.colonne;
+        }
+        versioneDisegnata = snapshot.versioneMappa;
+
+        int larghezza = Math.min(camera.getLarghezza(), snapshot.colonne * tileSize);
+        int altezza = Math.min(camera.getAltezza(), snapshot.righe * tileSize);
+        aggiornaStrato(snapshot, camera.getX() / tileSize, (camera.getX() + larghezza - 1) / tileSize,
+                camera.getY() / tileSize, (camera.getY() + altezza - 1) / tileSize);
+
+        int larghezzaStrato = colonneStrato * tileSize;
+        int altezzaStrato = righeStrato * tileSize;
+        for (int py = 0; py < altezza;) {
+            int sy = (camera.getY() + py) % altezzaStrato;
+            int h = Math.min(altezza - py, altezzaStrato - sy);
+            for (int px = 0; px < larghezza;) {
+                int sx = (camera.getX() + px) % larghezzaStrato;
+                int w = Math.min(larghezza - px, larghezzaStrato - sx);
+                int dx = camera.getX() + px;
+                int dy = camera.getY() + py;
+                g2.drawImage(strato, dx, dy, dx + w, dy + h, sx, sy, sx + w, sy + h, null);
+                px += w;
+            }
+            py += h;
+        }
+    }
+    /**
+     * Ridisegna negli slot dello strato le piastrelle visibili che non vi sono ancora, o che sono cambiate dopo
+     * essere state disegnate.
+     *
+     * @param snapshot lo snapshot del frame da disegnare
+     * @param primaColonna prima colonna visibile
+     * @param ultimaColonna ultima colonna visibile
+     * @param primaRiga prima riga visibile
+     * @param ultimaRiga ultima riga visibile
      */
-    public void draw(Graphics2D g2) {
-        for (int row = 0; row < mapModel.getMaxScreenRow(); row++) {
-            for (int col = 0; col < mapModel.getMaxScreenCol(); col++) {
-            	
-            	
-                if (mapTileNum[row][ col].tipo == 3) {continue;}
-                
-                g2.drawImage(mapTileNum[row][ col].image, col * tileSize, row * tileSize, tileSize, tileSize, null);
+    private void aggiornaStrato(RenderSnapshot snapshot, int primaColonna, int ultimaColonna, int primaRiga,
+            int ultimaRiga) {
+        Graphics2D gs = null;
+        Composite normale = null;
+        for (int row = primaRiga; row <= ultimaRiga; row++) {
+            int rigaSlot = row % righeStrato;
+            for (int col = primaColonna; col <= ultimaColonna; col++) {
+                int k = row * snapshot.colonne + col;
+                int slot = rigaSlot * colonneStrato + col % colonneStrato;
+                if (cellaSlot[slot] == k && versioneSlot[slot] == snapshot.versioniPiastrelle[k]) {
+                    continue;
+                }
+                if (gs == null) {
+                    gs = strato.createGraphics();
+                    normale = gs.getComposite();
+                }
+                int x = (col % colonneStrato) * tileSize;
+                int y = rigaSlot * tileSize;
+                gs.setComposite(AlphaComposite.Clear);
+                gs.fillRect(x, y, tileSize, tileSize);
+                gs.setComposite(normale);
+                Sprite image = snapshot.piastrelle[k];
+                if (image != null) {
+                    image.draw(gs, x, y, tileSize, tileSize);
+                }
+                cellaSlot[slot] = k;
+                versioneSlot[slot] = snapshot.versioniPiastrelle[k];
             }
         }
-        
-     
+        if (gs != null) {
+            gs.dispose();
+        }
+    }
+    /**
+     * Restituisce la dimensione delle piastrelle.
+     *
+     * @return la dimensione di ciascuna piastrella in pixel
+     */
+    public int getTileSize() {
+        return tileSize;
     }
 }
\ No newline at end of file
@@ -6,11 +6,11 @@ import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import javax.swing.DefaultListCellRenderer;
@@ -68,6 +68,9 @@ public class MenuController {
     /** Modello della mappa di gioco. */
     private MapModel mapModel;
 
+    /** Sessione della partita in corso, con il personaggio, l'HUD e l'audio. */
+    private GameSession sessione;
+
     /** Livello di gioco corrente. */
     private  Level livello;
 
@@ -233,7 +236,7 @@ public class MenuController {
 	        statsFrame.add(nameLabel);
 
 	        try {
-	            ImageIcon avatarIcon = new ImageIcon(ImageIO.read(getClass().getResourceAsStream(model.getProfiloSelezionato().getAvatar())));
+	            ImageIcon avatarIcon = new ImageIcon(SpriteRegistry.carica(model.getProfiloSelezionato().getAvatar()));
 	            statsFrame.add(new JLabel(avatarIcon));
 	        } catch (IOException e) {
 	            e.printStackTrace();
@@ -273,7 +276,7 @@ public class MenuController {
             JLabel label = (JLabel) super.getListCellRendererComponent(list, giocatore.getUsername(), index, isSelected, cellHasFocus);
             try {
             	
-                ImageIcon icon = new ImageIcon(ImageIO.read(getClass().getResourceAsStream( giocatore.getAvatar())));
+                ImageIcon icon = new ImageIcon(SpriteRegistry.carica(giocatore.getAvatar()));
                 label.setIcon(icon);
             } catch (IOException e) {
                 e.printStackTrace();
@@ -354,25 +357,25 @@ public class MenuController {
     private  void primoGioco(JFrame finestra) {
     	
 
-         this.mapModel = new MapModel(maxScreenCol, maxScreenRow);
-         this.livello = new Level(1,mapModel);
+         Replay replay = caricaReplay();
+         long seme = replay != null ? replay.getSeme() : System.nanoTime();
+         this.sessione = new GameSession(AudioManager.getInstance(), GameSession.percorsoEsportazioneRichiesto(), false, seme);
+         sessione.setPacchetto(caricaPacchetto());
+         this.mapModel = new MapModel(maxScreenCol, maxScreenRow, sessione);
+         this.livello = new Level(1,mapModel,sessione);
          mapView = new MapView(mapModel, tileSize);
        
-         this.bomberman = Bomberman.getInstance();
+         this.bomberman = sessione.getBomberman();
         int[] dimensioni = {17, 15, 64};
         this.bombermanView = new BombermanView( finestra);
-        	bomberman.addObserver(bombermanView); 
-        	bomberman.notifica();
         	keyHandler = new KeyHandler();
-         collisionChecker = new CollisionChecker(mapModel.getMapTile(), mapModel.getPiastrelle(), tileSize);
-         hudModel = HudModel.getInstance();
-         bomberman.addObserver(hudModel); 
+         collisionChecker = new CollisionChecker(mapModel.getGriglia(), mapModel.getPiastrelle(), tileSize, sessione.getAudio());
+         hudModel = sessione.getHudModel();
      	 bomberman.notifica();
          esplosioneView = new EsplosioneView();
         
-        mapModel.loadMap(1);
          hudView = new HudView(bomberman);
-         gamePanel = new GamePanel(bombermanView, mapView, hudView, esplosioneView,livello.getView(), finestra);
+         gamePanel = new GamePanel(bombermanView, mapView, hudView, esplosioneView, finestra);
         gamePanel.setFocusable(true);
         gamePanel.addKeyListener(keyHandler);
         finestra.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -388,13 +391,56 @@ public class MenuController {
         finestra.setVisible(true);
         finestra.setExtendedState(JFrame.MAXIMIZED_BOTH);
         SwingUtilities.invokeLater(() -> gamePanel.requestFocusInWindow());
-        GameController gameController = new GameController( this,bomberman,livello,  collisionChecker, mapModel, keyHandler, gamePanel, hudModel, dimensioni, finestra);
+        GameController gameController = new GameController( this,sessione,livello,  collisionChecker, mapModel, keyHandler, gamePanel, dimensioni, finestra);
         hudView.setGameController(gameController);
         gamePanel.setGameController(gameController);
+        if (replay != null) {
+        	gameController.riproduci(replay);
+        }
        
         gameController.startGame();
         AudioManager.getInstance().stopBackgroundMusic();
     }
+    /**
+     * Apre il pacchetto di mappe indicato dalla proprieta di sistema {@code jbomberman.pacchettoMappe}, se presente.
+     *
+     * @return Il pacchetto, o null se non richiesto, non leggibile o di dimensioni diverse dalla mappa del gioco.
+     */
+    private MapPack caricaPacchetto() {
+    	String percorso = System.getProperty("jbomberman.pacchettoMappe");
+    	if (percorso == null) {
+    		return null;
+    	}
+    	try {
+    		MapPack pacchetto = MapPack.apri(Path.of(percorso));
+    		if (pacchetto.getColonne() != maxScreenCol || pacchetto.getRighe() != maxScreenRow) {
+    			System.err.println("Il pacchetto di mappe " + percorso + " non e " + maxScreenCol + "x" + maxScreenRow);
+    			return null;
+    		}
+    		return pacchetto;
+    	} catch (IOException e) {
+    		e.printStackTrace();
+    		return null;
+    	}
+    }
+    /**
+     * Carica il replay indicato dalla proprieta di sistema {@code jbomberman.replay}, se presente.
+     * Il replay viene riprodotto nella prima partita, alla velocita normale del gioco.
+     *
+     * @return Il replay da riprodurre, o null se non richiesto o non leggibile.
+     */
+    private Replay caricaReplay() {
+    	String percorso = System.getProperty("jbomberman.replay");
+    	if (percorso == null) {
+    		return null;
+    	}
+    	try {
+    		return Replay.carica(Path.of(percorso));
+    	} catch (IOException e) {
+    		e.printStackTrace();
+    		return null;
+    	}
+    }
     /**
      * Configura il gioco per una nuova partita.
      *
@@ -404,17 +450,17 @@ private  void nuovoGioco(JFrame finestra) {
 
 		
         
-        this.livello = new Level(1,mapModel);
+        livello.fermaPreparazione();
+        sessione.nuovaPartita(System.nanoTime());
+        this.livello = new Level(1,mapModel,sessione);
        
-        this.bomberman.reset();
         int[] dimensioni = {17, 15, 64};
         
-        this.collisionChecker = new CollisionChecker(mapModel.getMapTile(), mapModel.getPiastrelle(), tileSize);
+        this.collisionChecker = new CollisionChecker(mapModel.getGriglia(), mapModel.getPiastrelle(), tileSize, sessione.getAudio());
         this.keyHandler = new KeyHandler();
         
         hudModel.notifica();
-        mapModel.loadMap(1);
-        this.gamePanel = new GamePanel(bombermanView,  mapView, hudView, esplosioneView,livello.getView(), finestra);
+        this.gamePanel = new GamePanel(bombermanView,  mapView, hudView, esplosioneView, finestra);
         gamePanel.setFocusable(true);
         gamePanel.addKeyListener(keyHandler);
         finestra.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -430,7 +476,7 @@ private  void nuovoGioco(JFrame finestra) {
         finestra.setVisible(true);
         finestra.setExtendedState(JFrame.MAXIMIZED_BOTH);
         SwingUtilities.invokeLater(() -> gamePanel.requestFocusInWindow());
-        this.gameController = new GameController( this,bomberman,livello,  collisionChecker, mapModel, keyHandler, gamePanel, hudModel, dimensioni, finestra);
+        this.gameController = new GameController( this,sessione,livello,  collisionChecker, mapModel, keyHandler, gamePanel, dimensioni, finestra);
        
         gamePanel.setGameController(gameController);
 
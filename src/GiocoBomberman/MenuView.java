@@ -1,6 +1,5 @@
 package GiocoBomberman;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
@@ -103,7 +102,7 @@ public class MenuView implements Observer  {
             }
         });
         try {
-        	BufferedImage backgroundImage = ImageIO.read(getClass().getResourceAsStream("/Menu/menu.png"));
+        	BufferedImage backgroundImage = SpriteRegistry.carica("/Menu/menu.png");
             Image scaledImage = backgroundImage.getScaledInstance(JBomberMan.screenWidth, JBomberMan.screenHeight, Image.SCALE_SMOOTH);
             ImageIcon backgroundIcon = new ImageIcon(scaledImage);
             backgroundLabel = new JLabel(backgroundIcon);
@@ -120,11 +119,11 @@ public class MenuView implements Observer  {
             editButton.setBounds(700, 840, 200, 40);
             editButton.setVisible(false);
             try {
-                BufferedImage selectImage = ImageIO.read(getClass().getResourceAsStream("/Opzioni/Selezione profilo.png"));
-                BufferedImage playImage = ImageIO.read(getClass().getResourceAsStream("/Opzioni/play.png"));
-                BufferedImage newImage = ImageIO.read(getClass().getResourceAsStream("/Opzioni/Nuovo profilo.png"));
-                BufferedImage stats = ImageIO.read(getClass().getResourceAsStream("/Opzioni/stats.png"));
-                BufferedImage edit = ImageIO.read(getClass().getResourceAsStream("/Opzioni/edit.png"));
+                BufferedImage selectImage = SpriteRegistry.carica("/Opzioni/Selezione profilo.png");
+                BufferedImage playImage = SpriteRegistry.carica("/Opzioni/play.png");
+                BufferedImage newImage = SpriteRegistry.carica("/Opzioni/Nuovo profilo.png");
+                BufferedImage stats = SpriteRegistry.carica("/Opzioni/stats.png");
+                BufferedImage edit = SpriteRegistry.carica("/Opzioni/edit.png");
                 Image scaledImage1 = selectImage.getScaledInstance(500, 40, Image.SCALE_SMOOTH);
                 Image scaledImage2 = newImage.getScaledInstance(500, 40, Image.SCALE_SMOOTH);
                 Image scaledImage3 = playImage.getScaledInstance(300, 60, Image.SCALE_SMOOTH);
@@ -216,7 +215,7 @@ public class MenuView implements Observer  {
         userNameLabel.setBackground(Color.ORANGE);
         statisticsButton.setVisible(true);
         editButton.setVisible(true);
-        BufferedImage avatar = ImageIO.read(getClass().getResourceAsStream(avatarIcon));	
+        BufferedImage avatar = SpriteRegistry.carica(avatarIcon);	
         Image avatar1 = avatar.getScaledInstance(80, 80, Image.SCALE_SMOOTH);
         if (avatarIcon != null) {
             userAvatarLabel.setIcon(new ImageIcon(avatar1));
@@ -23,7 +23,7 @@ public abstract class Nemico extends Entita {
      * @param bombaMap Mappa delle bombe posizionate.
      * @param esplosioniMap Mappa delle esplosioni in corso.
      */
-    public void update(CollisionChecker collisionChecker, ArrayList<Bomba> bombe, int[][] bombaMap, boolean[][] esplosioniMap) {
+    public void update(CollisionChecker collisionChecker, ArrayList<Bomba> bombe, BombaMap bombaMap, EsplosioniMap esplosioniMap) {
     }
 
     /**
@@ -13,4 +13,12 @@ public abstract class NemicoView implements Observer {
 	 */
 	protected abstract void draw(Graphics2D g2);
 
+	/**
+	 *metodo che disegna a schermo il nemico leggendo lo stato dallo snapshot del frame
+	 *@param g2 Il contesto grafico su cui disegnare il nemico.
+	 *@param snapshot Lo snapshot del frame da disegnare.
+	 *@param indice Posizione del nemico negli array dello snapshot.
+	 */
+	protected abstract void draw(Graphics2D g2, RenderSnapshot snapshot, int indice);
+
 }
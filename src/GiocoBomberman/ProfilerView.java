@@ -0,0 +1,88 @@
+package GiocoBomberman;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+/**
+ * ProfilerView disegna sopra il gioco una tabella con p50, p99 e massimo di ogni fase misurata da
+ * {@link FrameProfiler}. Si attiva e disattiva con il tasto F3.
+ *
+ * Le righe vengono ricalcolate quattro volte al secondo e riusate negli altri frame, cosi i valori restano
+ * leggibili e il disegno della tabella non pesa sulle misure del frame.
+ *
+ * @author Davide Vittucci
+ * @see FrameProfiler
+ * @see GamePanel
+ */
+public class ProfilerView {
+	/** Intervallo tra due aggiornamenti delle righe, in nanosecondi. */
+	private static final long INTERVALLO_AGGIORNAMENTO_NS = 250_000_000L;
+
+	/** Posizione X della tabella. */
+	private static final int X = 16;
+
+	/** Altezza di una riga. */
+	private static final int ALTEZZA_RIGA = 18;
+
+	/** Spazio tra il fondo della striscia dell'HUD e lo sfondo della tabella. */
+	private static final int MARGINE = 8;
+
+	/**
+	 * Linea di base della prima riga: lo sfondo, che parte una riga piu in alto, comincia sotto la striscia
+	 * dell'HUD.
+	 */
+	private static final int Y = HudView.ALTEZZA + MARGINE + ALTEZZA_RIGA;
+
+	/** Larghezza dello sfondo della tabella. */
+	private static final int LARGHEZZA = 520;
+
+	/** Carattere della tabella. */
+	private final Font carattere = new Font(Font.MONOSPACED, Font.BOLD, 15);
+
+	/** Colore semitrasparente dello sfondo. */
+	private final Color sfondo = new Color(0, 0, 0, 170);
+
+	/** Fasi mostrate, una per riga dopo l'intestazione. */
+	private final FrameProfiler.Fase[] fasi = FrameProfiler.Fase.values();
+
+	/** Righe calcolate all'ultimo aggiornamento. */
+	private final String[] righe = new String[fasi.length + 1];
+
+	/** Istante dell'ultimo aggiornamento delle righe. */
+	private long ultimoAggiornamento;
+
+	/**
+	 * Disegna la tabella dei tempi.
+	 *
+	 * @param g2 Oggetto Graphics2D usato per disegnare.
+	 * @param profiler Il profiler da mostrare.
+	 */
+	public void draw(Graphics2D g2, FrameProfiler profiler) {
+		long adesso = System.nanoTime();
+		if (righe[0] == null || adesso - ultimoAggiornamento >= INTERVALLO_AGGIORNAMENTO_NS) {
+			aggiornaRighe(profiler);
+			ultimoAggiornamento = adesso;
+		}
+		g2.setColor(sfondo);
+		g2.fillRect(X - 8, Y - ALTEZZA_RIGA, LARGHEZZA, (righe.length + 1) * ALTEZZA_RIGA);
+		g2.setFont(carattere);
+		g2.setColor(Color.WHITE);
+		for (int i = 0; i < righe.length; i++) {
+			g2.drawString(righe[i], X, Y + i * ALTEZZA_RIGA);
+		}
+	}
+
+	/**
+	 * Ricalcola le righe della tabella dai valori correnti degli istogrammi.
+	 *
+	 * @param profiler Il profiler da mostrare.
+	 */
+	private void aggiornaRighe(FrameProfiler profiler) {
+		righe[0] = String.format("%-22s %8s %8s %8s", "Fase (us)", "p50", "p99", "max");
+		for (int i = 0; i < fasi.length; i++) {
+			LatencyHistogram istogramma = profiler.getIstogramma(fasi[i]);
+			righe[i + 1] = String.format("%-22s %8.1f %8.1f %8.1f", fasi[i].getEtichetta(),
+					istogramma.percentile(50) / 1000.0, istogramma.percentile(99) / 1000.0, istogramma.getMassimo() / 1000.0);
+		}
+	}
+}
@@ -1,10 +1,9 @@
 package GiocoBomberman;
 
-import java.awt.Rectangle;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 /**
  * Puropen rappresenta un tipo di nemico nel gioco Bomberman.
  * Questa classe gestisce le proprietà e i comportamenti specifici di questo nemico,
@@ -126,15 +125,30 @@ public class Puropen extends Nemico {
      * Indica se l'audio della morte è già stato riprodotto.
      */
 	private boolean audioMorteRiprodotta;
+
+    /**
+     * Gestore dell'audio della sessione di gioco.
+     */
+    private final AudioManager audio;
+
+    /**
+     * Generatore casuale usato per i cambi di direzione.
+     */
+    private final SplittableRandom random;
 		
 		/**
 		 * Costruttore di Puropen. Imposta le dimensioni delle piastrelle e i valori di default.
+		 *
+		 * @param audio Gestore dell'audio della sessione di gioco.
+		 * @param random Generatore casuale del nemico, separato da quello della sessione.
 		 */
-		 public Puropen() {
+		 public Puropen(AudioManager audio, SplittableRandom random) {
+			 this.audio = audio;
+			 this.random = random;
 			 this.tileSize = originalTileSize * scale;
 			
 			 setDefaultValues();
-			 solidArea = new Rectangle(0, 27, 53, 58);}
+			 solidArea = new Riquadro(0, 27, 53, 58);}
 		  /**
 		     * Imposta i valori di default per Puropen.
 		     */
@@ -177,7 +191,7 @@ public class Puropen extends Nemico {
 		 public void updateSprite() {
 			 if (morto) {
 				 if (!audioMorteRiprodotta) {
-			            AudioManager.getInstance().play("res/audio/Enemy-Dies.wav");
+			            audio.play("res/audio/Enemy-Dies.wav");
 			            audioMorteRiprodotta = true; // Imposta la variabile a true dopo la riproduzione
 			        }
 					morteCounter++;
@@ -210,7 +224,7 @@ public class Puropen extends Nemico {
 		  * @param bombaMap Mappa delle bombe.
 		  * @param explosionMap Mappa delle esplosioni.
 		  */
-		 public void update(CollisionChecker collisionChecker , ArrayList<Bomba> bombe, int[][] bombaMap,boolean[][] explosionMap) {
+		 public void update(CollisionChecker collisionChecker , ArrayList<Bomba> bombe, BombaMap bombaMap,EsplosioniMap explosionMap) {
 			if (!isPaused) {
 			 if (!colpito ) {
 				  if (direction != null) {
@@ -246,8 +260,7 @@ public class Puropen extends Nemico {
 		  * @return True se il cambio di direzione è necessario.
 		  */
 	private boolean cambioRandom() {
-        Random rand = new Random();
-        int x = rand.nextInt(300);
+        int x = random.nextInt(300);
         
        
         return x <= 1; 
@@ -257,11 +270,10 @@ public class Puropen extends Nemico {
 	 public void cambioDirezione() {
 		
 		 	Direction oldDirection = direction;
-	        Random rand = new Random();
-	        int dir = rand.nextInt(4); 
+	        int dir = random.nextInt(4); 
 	        Direction newDirection = Direction.values()[dir];
 	        while (newDirection.equals(oldDirection)){
-	        	 dir = rand.nextInt(4); 
+	        	 dir = random.nextInt(4); 
 	        	newDirection = Direction.values()[dir];
 	        }
 	        direction = newDirection;
@@ -307,7 +319,7 @@ public class Puropen extends Nemico {
      * @return L'area solida del Puropen.
      */
 	@Override
-	public Rectangle getSolidArea() {
+	public Riquadro getSolidArea() {
 		// TODO Auto-generated method stub
 		return solidArea;
 	}
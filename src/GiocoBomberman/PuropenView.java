@@ -3,12 +3,10 @@ package GiocoBomberman;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import javax.imageio.ImageIO;
 /**
  * PuropenView si occupa della rappresentazione grafica del nemico Puropen nel gioco Bomberman.
  * Gestisce il caricamento e il rendering delle immagini di Puropen, inclusa l'animazione della sua morte.
@@ -54,7 +52,7 @@ public class PuropenView  extends NemicoView implements Observer{
     /**
      * Array di immagini per l'animazione della morte di Puropen.
      */
-    public BufferedImage[] morteSprites = new BufferedImage[3];
+    public Sprite[] morteSprites = new Sprite[3];
 
     /**
      * Direzione corrente di movimento di Puropen.
@@ -64,13 +62,13 @@ public class PuropenView  extends NemicoView implements Observer{
     /**
      * Mappa che associa ogni direzione di movimento ai suoi sprite.
      */
-    private Map<Direction, BufferedImage[]> spriteMap;
+    private Map<Direction, Sprite[]> spriteMap;
 
     /**
      * Costruttore di PuropenView. Inizializza e carica le immagini necessarie.
      */
 public PuropenView() {
-	morteSprites= new BufferedImage[3];
+	morteSprites= new Sprite[3];
     spriteMap = new HashMap<>();
     loadPuropenImages();
     loadMorteImages();
@@ -102,7 +100,7 @@ private void loadMorteImages() {
     try {
         for (int i = 0; i < 3; i++) {
         	
-        	morteSprites[i] = ImageIO.read(getClass().getResourceAsStream("/morteNemici/morte" + i + ".png"));
+        	morteSprites[i] = SpriteRegistry.sprite("/morteNemici/morte" + i + ".png");
         }
     } catch (IOException e) {
         e.printStackTrace();
@@ -112,32 +110,51 @@ private void loadMorteImages() {
  * Carica le immagini per Puropen in base alla direzione di movimento.
  */
 private void loadPuropenImages() {
-	spriteMap.put(Direction.UP, new BufferedImage[4]);
-    spriteMap.put(Direction.DOWN, new BufferedImage[4]);
-    spriteMap.put(Direction.LEFT, new BufferedImage[4]);
-    spriteMap.put(Direction.RIGHT, new BufferedImage[4]);
+	spriteMap.put(Direction.UP, new Sprite[4]);
+    spriteMap.put(Direction.DOWN, new Sprite[4]);
+    spriteMap.put(Direction.LEFT, new Sprite[4]);
+    spriteMap.put(Direction.RIGHT, new Sprite[4]);
     try {
-    	 spriteMap.get(Direction.UP)[0] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Su 1.png"));
-         spriteMap.get(Direction.UP)[1] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Su 2.png"));
-         spriteMap.get(Direction.UP)[2] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Su 3.png"));
-         spriteMap.get(Direction.UP)[3] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Su 4.png"));
-         spriteMap.get(Direction.DOWN)[0] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Giu 1.png"));
-         spriteMap.get(Direction.DOWN)[1] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Giu 2.png"));
-         spriteMap.get(Direction.DOWN)[2] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Giu 3.png"));
-         spriteMap.get(Direction.DOWN)[3] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Giu 4.png"));
-         spriteMap.get(Direction.RIGHT)[0] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen destra 1.png"));
-         spriteMap.get(Direction.RIGHT)[1] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen destra 2.png"));
-         spriteMap.get(Direction.RIGHT)[2] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen destra 3.png"));
-         spriteMap.get(Direction.RIGHT)[3] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen destra 4.png"));
-         spriteMap.get(Direction.LEFT)[0] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Sinistra 1.png"));
-         spriteMap.get(Direction.LEFT)[1] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Sinistra 2.png"));
-         spriteMap.get(Direction.LEFT)[2] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Sinistra 3.png"));
-         spriteMap.get(Direction.LEFT)[3] = ImageIO.read(getClass().getResourceAsStream("/Puropen/Puropen Sinistra 4.png"));
+    	 spriteMap.get(Direction.UP)[0] = SpriteRegistry.sprite("/Puropen/Puropen Su 1.png");
+         spriteMap.get(Direction.UP)[1] = SpriteRegistry.sprite("/Puropen/Puropen Su 2.png");
+         spriteMap.get(Direction.UP)[2] = SpriteRegistry.sprite("/Puropen/Puropen Su 3.png");
+         spriteMap.get(Direction.UP)[3] = SpriteRegistry.sprite("/Puropen/Puropen Su 4.png");
+         spriteMap.get(Direction.DOWN)[0] = SpriteRegistry.sprite("/Puropen/Puropen Giu 1.png");
+         spriteMap.get(Direction.DOWN)[1] = SpriteRegistry.sprite("/Puropen/Puropen Giu 2.png");
+         spriteMap.get(Direction.DOWN)[2] = SpriteRegistry.sprite("/Puropen/Puropen Giu 3.png");
+         spriteMap.get(Direction.DOWN)[3] = SpriteRegistry.sprite("/Puropen/Puropen Giu 4.png");
+         spriteMap.get(Direction.RIGHT)[0] = SpriteRegistry.sprite("/Puropen/Puropen destra 1.png");
+         spriteMap.get(Direction.RIGHT)[1] = SpriteRegistry.sprite("/Puropen/Puropen destra 2.png");
+         spriteMap.get(Direction.RIGHT)[2] = SpriteRegistry.sprite("/Puropen/Puropen destra 3.png");
+         spriteMap.get(Direction.RIGHT)[3] = SpriteRegistry.sprite("/Puropen/Puropen destra 4.png");
+         spriteMap.get(Direction.LEFT)[0] = SpriteRegistry.sprite("/Puropen/Puropen Sinistra 1.png");
+         spriteMap.get(Direction.LEFT)[1] = SpriteRegistry.sprite("/Puropen/Puropen Sinistra 2.png");
+         spriteMap.get(Direction.LEFT)[2] = SpriteRegistry.sprite("/Puropen/Puropen Sinistra 3.png");
+         spriteMap.get(Direction.LEFT)[3] = SpriteRegistry.sprite("/Puropen/Puropen Sinistra 4.png");
     } catch (IOException e) {
         e.printStackTrace();
     }
 	
 		
+}
+/**
+ * Disegna Puropen leggendo lo stato dallo snapshot del frame.
+ *
+ * @param g2 Contesto grafico su cui disegnare Puropen.
+ * @param snapshot Lo snapshot del frame da disegnare.
+ * @param indice Posizione di Puropen negli array dello snapshot.
+ */
+@Override
+public void draw(Graphics2D g2, RenderSnapshot snapshot, int indice) {
+	this.width = snapshot.nemicoLarghezza[indice];
+	this.height = snapshot.nemicoAltezza[indice];
+	this.x = snapshot.interpola(snapshot.nemicoPrecedenteX[indice], snapshot.nemicoX[indice]);
+	this.y = snapshot.interpola(snapshot.nemicoPrecedenteY[indice], snapshot.nemicoY[indice]);
+	this.direction = snapshot.nemicoDirezione[indice];
+	this.morteFrame = snapshot.nemicoMorteFrame[indice];
+	this.spriteNum = snapshot.nemicoSpriteNum[indice];
+	this.morto = snapshot.nemicoMorto[indice];
+	draw(g2);
 }
 /**
  * Disegna Puropen sul contesto grafico fornito.
@@ -145,7 +162,7 @@ private void loadPuropenImages() {
  * @param g2 Contesto grafico su cui disegnare Puropen.
  */
 public void draw(Graphics2D g2) {
-	  BufferedImage image = getCurrentAnimationFrame();
+	  Sprite image = getCurrentAnimationFrame();
 
 	    // Dimensioni di default
 	   
@@ -157,7 +174,9 @@ public void draw(Graphics2D g2) {
 			 
 		 }
  
-    g2.drawImage(image,x, y, width,height, null);
+    if (image != null) {
+        image.draw(g2, x, y, width, height);
+    }
     
 }
 
@@ -166,7 +185,7 @@ public void draw(Graphics2D g2) {
  *
  * @return Immagine corrente da visualizzare per Puropen.
  */
-private BufferedImage getCurrentAnimationFrame() {
+private Sprite getCurrentAnimationFrame() {
 if (morto) {
 		
         return morteSprites[morteFrame];
@@ -0,0 +1,385 @@
+package GiocoBomberman;
+
+import java.util.Arrays;
+import java.util.List;
+/**
+ * RenderSnapshot e la fotografia compatta dello stato di gioco necessario al disegno di un frame.
+ * Viene riempita dal thread di gioco alla fine di ogni tick e pubblicata tramite un {@link TripleBuffer},
+ * cosi che il thread di Swing disegni senza mai leggere le liste e la mappa che la simulazione sta modificando.
+ *
+ * Contiene solo valori primitivi e riferimenti a immagini immutabili, organizzati in array paralleli che vengono
+ * riutilizzati di tick in tick: la cattura non alloca memoria se non quando il numero di entita supera la
+ * capacita raggiunta fino a quel momento.
+ *
+ * Per la mappa viene copiato il riferimento all'immagine di ogni piastrella: le immagini non vengono mai
+ * modificate, quindi il riferimento basta a descrivere la cella anche mentre la simulazione la sostituisce.
+ * Vengono copiate solo le piastrelle cambiate dopo l'ultima versione della mappa vista da questo snapshot
+ * (vedi {@link MapModel#getVersione()}), e la versione di ogni piastrella permette a {@link MapView} di
+ * ridisegnare solo quelle cambiate.
+ *
+ * Per Bomberman e per i nemici viene copiata anche la posizione all'inizio del tick: chi disegna imposta
+ * {@link #alfa}, la frazione di tick trascorsa dalla cattura, e le viste disegnano la posizione interpolata
+ * tra le due con {@link #interpola(int, int)}. Cosi il disegno puo andare alla frequenza dello schermo mentre
+ * la simulazione resta a passo fisso.
+ *
+ * @author Davide Vittucci
+ * @see TripleBuffer
+ * @see GamePanel
+ */
+public class RenderSnapshot {
+	/** Tipo di nemico Puropen nell'array {@link #nemicoTipo}. */
+	public static final byte PUROPEN = 0;
+
+	/** Tipo di nemico Denkyun nell'array {@link #nemicoTipo}. */
+	public static final byte DENKYUN = 1;
+
+	/** Spostamento in pixel oltre il quale una posizione non viene interpolata (rinascita, cambio di livello). */
+	private static final int SALTO_MASSIMO = 32;
+
+	/** Numero del tick a cui si riferisce lo snapshot, -1 se non ancora riempito. */
+	public long tick = -1;
+
+	/** Istante della cattura secondo {@link System#nanoTime()}. */
+	public long istante;
+
+	/**
+	 * Frazione del tick successivo trascorsa al momento del disegno, tra 0 e 1. La imposta chi disegna prima di
+	 * passare lo snapshot alle viste; con 1 si disegna la posizione del tick, senza interpolazione.
+	 */
+	public float alfa = 1f;
+
+	/** Posizione X di Bomberman. */
+	public int giocatoreX;
+	/** Posizione Y di Bomberman. */
+	public int giocatoreY;
+	/** Posizione X di Bomberman all'inizio del tick. */
+	public int giocatorePrecedenteX;
+	/** Posizione Y di Bomberman all'inizio del tick. */
+	public int giocatorePrecedenteY;
+	/** Larghezza di Bomberman. */
+	public int giocatoreLarghezza;
+	/** Altezza di Bomberman. */
+	public int giocatoreAltezza;
+	/** Direzione di Bomberman. */
+	public Direction giocatoreDirezione;
+	/** Sprite corrente di Bomberman. */
+	public int giocatoreSpriteNum;
+	/** Frame dell'animazione di morte di Bomberman. */
+	public int giocatoreMorteFrame;
+	/** Frame dell'animazione di fuga di Bomberman. */
+	public int giocatoreFugaFrame;
+	/** Alternanza degli sprite di invincibilita di Bomberman. */
+	public boolean giocatoreAlterna;
+	/** Indica se Bomberman e invincibile. */
+	public boolean giocatoreInvincibile;
+	/** Indica se Bomberman e stato colpito. */
+	public boolean giocatoreColpito;
+	/** Indica se Bomberman e in fuga. */
+	public boolean giocatoreInFuga;
+
+	/** Punteggio mostrato nell'HUD. */
+	public int punteggio;
+	/** Vite mostrate nell'HUD. */
+	public int vita;
+	/** Tempo rimanente mostrato nell'HUD. */
+	public int tempo;
+	/** Livello mostrato nell'HUD. */
+	public int livello;
+	/** Numero massimo di bombe mostrato nell'HUD. */
+	public int maxBombe;
+	/** Raggio delle esplosioni mostrato nell'HUD. */
+	public int raggio;
+	/** Velocita mostrata nell'HUD. */
+	public int velocita;
+
+	/** Numero di bombe valide negli array delle bombe. */
+	public int numBombe;
+	/** Coordinate X delle bombe. */
+	public int[] bombaX = new int[4];
+	/** Coordinate Y delle bombe. */
+	public int[] bombaY = new int[4];
+	/** Frame di animazione delle bombe. */
+	public int[] bombaFrame = new int[4];
+
+	/** Numero di esplosioni valide negli array delle esplosioni. */
+	public int numEsplosioni;
+	/** Coordinate X dei centri delle esplosioni. */
+	public int[] esplosioneX = new int[4];
+	/** Coordinate Y dei centri delle esplosioni. */
+	public int[] esplosioneY = new int[4];
+	/** Frame di animazione delle esplosioni. */
+	public int[] esplosioneFrame = new int[4];
+	/** Raggio massimo delle esplosioni. */
+	public int[] esplosioneRaggio = new int[4];
+	/** Raggio effettivo verso l'alto. */
+	public int[] esplosioneSu = new int[4];
+	/** Raggio effettivo verso il basso. */
+	public int[] esplosioneGiu = new int[4];
+	/** Raggio effettivo verso sinistra. */
+	public int[] esplosioneSinistra = new int[4];
+	/** Raggio effettivo verso destra. */
+	public int[] esplosioneDestra = new int[4];
+
+	/** Numero di nemici validi negli array dei nemici. */
+	public int numNemici;
+	/** Tipo dei nemici ({@link #PUROPEN} o {@link #DENKYUN}). */
+	public byte[] nemicoTipo = new byte[8];
+	/** Coordinate X dei nemici. */
+	public int[] nemicoX = new int[8];
+	/** Coordinate Y dei nemici. */
+	public int[] nemicoY = new int[8];
+	/** Coordinate X dei nemici all'inizio del tick. */
+	public int[] nemicoPrecedenteX = new int[8];
+	/** Coordinate Y dei nemici all'inizio del tick. */
+	public int[] nemicoPrecedenteY = new int[8];
+	/** Larghezze dei nemici. */
+	public int[] nemicoLarghezza = new int[8];
+	/** Altezze dei nemici. */
+	public int[] nemicoAltezza = new int[8];
+	/** Direzioni dei nemici. */
+	public Direction[] nemicoDirezione = new Direction[8];
+	/** Sprite corrente dei nemici. */
+	public int[] nemicoSpriteNum = new int[8];
+	/** Frame dell'animazione di morte dei nemici. */
+	public int[] nemicoMorteFrame = new int[8];
+	/** Indica quali nemici sono morti. */
+	public boolean[] nemicoMorto = new boolean[8];
+	/** Indica quali nemici sono invincibili. */
+	public boolean[] nemicoInvincibile = new boolean[8];
+	/** Alternanza degli sprite di invincibilita dei nemici. */
+	public boolean[] nemicoAlterna = new boolean[8];
+
+	/** Numero di colonne della mappa. */
+	public int colonne;
+	/** Numero di righe della mappa. */
+	public int righe;
+	/** Sprite di ogni piastrella in ordine di riga, null per le celle non disegnate (HUD). */
+	public Sprite[] piastrelle = new Sprite[0];
+	/** Versione dell'ultimo cambiamento di ogni piastrella, in ordine di riga. */
+	public int[] versioniPiastrelle = new int[0];
+	/** Versione della mappa copiata, -1 se non ancora copiata. */
+	public int versioneMappa = -1;
+	/** Modello da cui e stata copiata la mappa; un modello diverso richiede una copia completa. */
+	private MapModel mappaCopiata;
+
+	/**
+	 * Riempie lo snapshot con lo stato corrente del gioco. Va chiamato dal thread di gioco alla fine del tick.
+	 *
+	 * @param tick Numero del tick corrente.
+	 * @param bomberman Il personaggio principale.
+	 * @param hudModel Il modello dell'HUD.
+	 * @param bombe Le bombe attive.
+	 * @param esplosioni Le esplosioni attive.
+	 * @param nemici I nemici del livello.
+	 * @param mapModel Il modello della mappa.
+	 */
+	public void cattura(long tick, Bomberman bomberman, HudModel hudModel, List<Bomba> bombe,
+			List<Esplosione> esplosioni, List<Nemico> nemici, MapModel mapModel) {
+		this.tick = tick;
+		this.istante = System.nanoTime();
+		this.alfa = 1f;
+		catturaGiocatore(bomberman);
+		catturaHud(hudModel);
+		catturaBombe(bombe);
+		catturaEsplosioni(esplosioni);
+		catturaNemici(nemici);
+		catturaMappa(mapModel);
+	}
+
+	/**
+	 * Copia lo stato di Bomberman.
+	 *
+	 * @param bomberman Il personaggio principale.
+	 */
+	private void catturaGiocatore(Bomberman bomberman) {
+		giocatoreX = bomberman.getX();
+		giocatoreY = bomberman.getY();
+		giocatorePrecedenteX = bomberman.xPrecedente;
+		giocatorePrecedenteY = bomberman.yPrecedente;
+		giocatoreLarghezza = bomberman.getWidth();
+		giocatoreAltezza = bomberman.getHeight();
+		giocatoreDirezione = bomberman.getDirection();
+		giocatoreSpriteNum = bomberman.getSpriteNum();
+		giocatoreMorteFrame = bomberman.getMorteFrame();
+		giocatoreFugaFrame = bomberman.getFugaFrame();
+		giocatoreAlterna = bomberman.getAlterna();
+		giocatoreInvincibile = bomberman.isInvincibile();
+		giocatoreColpito = bomberman.isColpito();
+		giocatoreInFuga = bomberman.isInFuga();
+	}
+
+	/**
+	 * Copia i valori mostrati nell'HUD.
+	 *
+	 * @param hudModel Il modello dell'HUD.
+	 */
+	private void catturaHud(HudModel hudModel) {
+		punteggio = hudModel.getPunteggio();
+		vita = hudModel.getVita();
+		tempo = hudModel.getTempo();
+		livello = hudModel.getLevel();
+		maxBombe = hudModel.getMaxBomb();
+		raggio = hudModel.getRaggio();
+		velocita = hudModel.getSpeed();
+	}
+
+	/**
+	 * Copia posizione e frame delle bombe.
+	 *
+	 * @param bombe Le bombe attive.
+	 */
+	private void catturaBombe(List<Bomba> bombe) {
+		int n = bombe.size();
+		if (n > bombaX.length) {
+			int capacita = Math.max(n, bombaX.length * 2);
+			bombaX = Arrays.copyOf(bombaX, capacita);
+			bombaY = Arrays.copyOf(bombaY, capacita);
+			bombaFrame = Arrays.copyOf(bombaFrame, capacita);
+		}
+		for (int i = 0; i < n; i++) {
+			Bomba bomba = bombe.get(i);
+			bombaX[i] = bomba.getX();
+			bombaY[i] = bomba.getY();
+			bombaFrame[i] = bomba.getBombFrame();
+		}
+		numBombe = n;
+	}
+
+	/**
+	 * Copia centro, frame e raggi delle esplosioni.
+	 *
+	 * @param esplosioni Le esplosioni attive.
+	 */
+	private void catturaEsplosioni(List<Esplosione> esplosioni) {
+		int n = esplosioni.size();
+		if (n > esplosioneX.length) {
+			int capacita = Math.max(n, esplosioneX.length * 2);
+			esplosioneX = Arrays.copyOf(esplosioneX, capacita);
+			esplosioneY = Arrays.copyOf(esplosioneY, capacita);
+			esplosioneFrame = Arrays.copyOf(esplosioneFrame, capacita);
+			esplosioneRaggio = Arrays.copyOf(esplosioneRaggio, capacita);
+			esplosioneSu = Arrays.copyOf(esplosioneSu, capacita);
+			esplosioneGiu = Arrays.copyOf(esplosioneGiu, capacita);
+			esplosioneSinistra = Arrays.copyOf(esplosioneSinistra, capacita);
+			esplosioneDestra = Arrays.copyOf(esplosioneDestra, capacita);
+		}
+		for (int i = 0; i < n; i++) {
+			Esplosione esplosione = esplosioni.get(i);
+			esplosioneX[i] = esplosione.getX();
+			esplosioneY[i] = esplosione.getY();
+			esplosioneFrame[i] = esplosione.getFrame();
+			esplosioneRaggio[i] = esplosione.getRaggio();
+			esplosioneSu[i] = esplosione.getRaggioSu();
+			esplosioneGiu[i] = esplosione.getRaggioGiu();
+			esplosioneSinistra[i] = esplosione.getRaggioSinistra();
+			esplosioneDestra[i] = esplosione.getRaggioDestra();
+		}
+		numEsplosioni = n;
+	}
+
+	/**
+	 * Copia lo stato visibile dei nemici.
+	 *
+	 * @param nemici I nemici del livello.
+	 */
+	private void catturaNemici(List<Nemico> nemici) {
+		int n = nemici.size();
+		if (n > nemicoX.length) {
+			int capacita = Math.max(n, nemicoX.length * 2);
+			nemicoTipo = Arrays.copyOf(nemicoTipo, capacita);
+			nemicoX = Arrays.copyOf(nemicoX, capacita);
+			nemicoY = Arrays.copyOf(nemicoY, capacita);
+			nemicoPrecedenteX = Arrays.copyOf(nemicoPrecedenteX, capacita);
+			nemicoPrecedenteY = Arrays.copyOf(nemicoPrecedenteY, capacita);
+			nemicoLarghezza = Arrays.copyOf(nemicoLarghezza, capacita);
+			nemicoAltezza = Arrays.copyOf(nemicoAltezza, capacita);
+			nemicoDirezione = Arrays.copyOf(nemicoDirezione, capacita);
+			nemicoSpriteNum = Arrays.copyOf(nemicoSpriteNum, capacita);
+			nemicoMorteFrame = Arrays.copyOf(nemicoMorteFrame, capacita);
+			nemicoMorto = Arrays.copyOf(nemicoMorto, capacita);
+			nemicoInvincibile = Arrays.copyOf(nemicoInvincibile, capacita);
+			nemicoAlterna = Arrays.copyOf(nemicoAlterna, capacita);
+		}
+		int i = 0;
+		for (Nemico nemico : nemici) {
+			if (nemico instanceof Puropen) {
+				Puropen puropen = (Puropen) nemico;
+				nemicoTipo[i] = PUROPEN;
+				nemicoLarghezza[i] = puropen.getWidth();
+				nemicoAltezza[i] = puropen.getHeight();
+				nemicoSpriteNum[i] = puropen.getSpriteNum();
+				nemicoMorteFrame[i] = puropen.getMorteFrame();
+				nemicoMorto[i] = puropen.isMorto();
+				nemicoInvincibile[i] = false;
+				nemicoAlterna[i] = false;
+			} else if (nemico instanceof Denkyun) {
+				Denkyun denkyun = (Denkyun) nemico;
+				nemicoTipo[i] = DENKYUN;
+				nemicoLarghezza[i] = denkyun.getWidth();
+				nemicoAltezza[i] = denkyun.getHeight();
+				nemicoSpriteNum[i] = denkyun.getSpriteNum();
+				nemicoMorteFrame[i] = denkyun.getMorteFrame();
+				nemicoMorto[i] = denkyun.isMorto();
+				nemicoInvincibile[i] = denkyun.isInvincibile();
+				nemicoAlterna[i] = denkyun.getAlterna();
+			} else {
+				continue;
+			}
+			nemicoX[i] = nemico.getX();
+			nemicoY[i] = nemico.getY();
+			nemicoPrecedenteX[i] = nemico.xPrecedente;
+			nemicoPrecedenteY[i] = nemico.yPrecedente;
+			nemicoDirezione[i] = nemico.getDirection();
+			i++;
+		}
+		numNemici = i;
+	}
+
+	/**
+	 * Calcola la coordinata da disegnare tra quella di inizio tick e quella catturata, secondo {@link #alfa}.
+	 * Gli spostamenti piu lunghi di {@link #SALTO_MASSIMO} non sono movimenti e vengono disegnati subito.
+	 *
+	 * @param precedente Coordinata all'inizio del tick.
+	 * @param corrente Coordinata alla fine del tick.
+	 * @return La coordinata interpolata.
+	 */
+	public int interpola(int precedente, int corrente) {
+		int delta = corrente - precedente;
+		if (delta > SALTO_MASSIMO || delta < -SALTO_MASSIMO) {
+			return corrente;
+		}
+		return precedente + Math.round(delta * alfa);
+	}
+
+	/**
+	 * Copia l'immagine delle piastrelle cambiate dopo la versione della mappa gia presente nello snapshot.
+	 *
+	 * @param mapModel Il modello della mappa.
+	 */
+	private void catturaMappa(MapModel mapModel) {
+		righe = mapModel.getMaxScreenRow();
+		colonne = mapModel.getMaxScreenCol();
+		if (piastrelle.length != righe * colonne || mappaCopiata != mapModel) {
+			piastrelle = new Sprite[righe * colonne];
+			versioniPiastrelle = new int[righe * colonne];
+			versioneMappa = -1;
+			mappaCopiata = mapModel;
+		}
+		int versione = mapModel.getVersione();
+		if (versione == versioneMappa) {
+			return;
+		}
+		int[] versioniModello = mapModel.getVersioniPiastrelle();
+		TileGrid griglia = mapModel.getGriglia();
+		int k = 0;
+		for (int row = 0; row < righe; row++) {
+			for (int col = 0; col < colonne; col++, k++) {
+				if (versioniModello[k] > versioneMappa) {
+					piastrelle[k] = MapView.getImmagine(griglia.getTipo(row, col), griglia.getStato(row, col));
+					versioniPiastrelle[k] = versioniModello[k];
+				}
+			}
+		}
+		versioneMappa = versione;
+	}
+}
@@ -0,0 +1,296 @@
+package GiocoBomberman;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+/**
+ * Replay e la registrazione di una partita: il seme della {@link GameSession} e la sequenza dei comandi del
+ * giocatore tick per tick. Poiche tutta la casualita deriva dal seme e {@link GameWorld} dipende solo dai comandi,
+ * rigiocare un replay riproduce esattamente la stessa partita, sia nel {@link GameLoop} a velocita normale sia in
+ * {@link HeadlessSimulation} alla massima velocita.
+ *
+ * I comandi di un tick sono compressi in una maschera di 7 bit (vedi {@link #maschera(Comandi)}) e vengono
+ * salvati solo i cambiamenti, come coppie (tick trascorsi dal cambiamento precedente, nuova maschera) con i tick
+ * scritti in formato a lunghezza variabile. Un minuto di gioco occupa di solito poche centinaia di byte.
+ *
+ * Formato del file: intero {@link #MAGICO}, byte di versione, seme (long), numero di tick della partita e numero
+ * di cambiamenti (entrambi a lunghezza variabile), seguiti dai cambiamenti.
+ *
+ * @author Davide Vittucci
+ * @see ReplayRecorder
+ * @see InputScript
+ */
+public class Replay {
+	/** Numero che identifica i file di replay ("JBRP"). */
+	public static final int MAGICO = 0x4A425250;
+
+	/** Versione del formato del file. */
+	private static final int VERSIONE = 1;
+
+	/** File in cui la partita con interfaccia salva l'ultimo replay. */
+	public static final String PERCORSO_ULTIMA_PARTITA = "replay/ultima-partita.jbr";
+
+	/** Bit della maschera per il tasto verso l'alto. */
+	public static final int SU = 1;
+
+	/** Bit della maschera per il tasto verso il basso. */
+	public static final int GIU = 1 << 1;
+
+	/** Bit della maschera per il tasto verso sinistra. */
+	public static final int SINISTRA = 1 << 2;
+
+	/** Bit della maschera per il tasto verso destra. */
+	public static final int DESTRA = 1 << 3;
+
+	/** Bit della maschera per il tasto della bomba. */
+	public static final int BOMBA = 1 << 4;
+
+	/** Bit della maschera per il tasto Esc. */
+	public static final int ESC = 1 << 5;
+
+	/** Bit della maschera per il tasto Enter. */
+	public static final int AVVIA = 1 << 6;
+
+	/** Seme della partita registrata. */
+	private final long seme;
+
+	/** Numero di tick simulati nella partita registrata. */
+	private final long tickTotali;
+
+	/** Numero di cambiamenti dei comandi. */
+	private final int numeroEventi;
+
+	/** Cambiamenti dei comandi codificati. */
+	private final byte[] eventi;
+
+	/**
+	 * Costruisce un replay a partire dai cambiamenti gia codificati.
+	 *
+	 * @param seme Seme della partita.
+	 * @param tickTotali Numero di tick simulati.
+	 * @param numeroEventi Numero di cambiamenti dei comandi.
+	 * @param eventi Cambiamenti codificati; l'array non viene copiato.
+	 */
+	Replay(long seme, long tickTotali, int numeroEventi, byte[] eventi) {
+		this.seme = seme;
+		this.tickTotali = tickTotali;
+		this.numeroEventi = numeroEventi;
+		this.eventi = eventi;
+	}
+
+	/**
+	 * Comprime i comandi correnti in una maschera di bit.
+	 *
+	 * @param input Lo stato dei comandi.
+	 * @return La maschera dei tasti premuti.
+	 */
+	public static int maschera(Comandi input) {
+		int maschera = 0;
+		if (input.upPressed) maschera |= SU;
+		if (input.downPressed) maschera |= GIU;
+		if (input.leftPressed) maschera |= SINISTRA;
+		if (input.rightPressed) maschera |= DESTRA;
+		if (input.bombPressed) maschera |= BOMBA;
+		if (input.escPressed) maschera |= ESC;
+		if (input.avviaPressed) maschera |= AVVIA;
+		return maschera;
+	}
+
+	/**
+	 * Imposta i comandi secondo una maschera di bit. Lo stato interno {@link Comandi#bombKeyPressed} non fa parte
+	 * della maschera perche e gestito da {@link GameWorld}.
+	 *
+	 * @param maschera La maschera dei tasti premuti.
+	 * @param input Lo stato dei comandi da aggiornare.
+	 */
+	public static void applicaMaschera(int maschera, Comandi input) {
+		input.upPressed = (maschera & SU) != 0;
+		input.downPressed = (maschera & GIU) != 0;
+		input.leftPressed = (maschera & SINISTRA) != 0;
+		input.rightPressed = (maschera & DESTRA) != 0;
+		input.bombPressed = (maschera & BOMBA) != 0;
+		input.escPressed = (maschera & ESC) != 0;
+		input.avviaPressed = (maschera & AVVIA) != 0;
+	}
+
+	/**
+	 * Restituisce uno script che rigioca i comandi registrati. Ogni script ha il proprio cursore, quindi lo stesso
+	 * replay puo essere rigiocato piu volte, anche in parallelo; i tick devono essere richiesti in ordine crescente.
+	 *
+	 * @return Lo script dei comandi registrati.
+	 */
+	public InputScript script() {
+		return new InputScript() {
+			/** Posizione del prossimo cambiamento negli eventi. */
+			private int posizione;
+
+			/** Cambiamenti ancora da leggere. */
+			private int rimanenti = numeroEventi;
+
+			/** Tick a cui si applica il prossimo cambiamento. */
+			private long prossimoTick = -1;
+
+			@Override
+			public void applica(long tick, Comandi input) {
+				if (prossimoTick < 0 && rimanenti > 0) {
+					prossimoTick = leggiVarLong();
+				}
+				while (rimanenti > 0 && tick >= prossimoTick) {
+					applicaMaschera(eventi[posizione++], input);
+					rimanenti--;
+					if (rimanenti > 0) {
+						prossimoTick += leggiVarLong();
+					}
+				}
+			}
+
+			/**
+			 * Legge un numero a lunghezza variabile dagli eventi.
+			 *
+			 * @return Il numero letto.
+			 */
+			private long leggiVarLong() {
+				long valore = 0;
+				int spostamento = 0;
+				byte b;
+				do {
+					b = eventi[posizione++];
+					valore |= (long) (b & 0x7F) << spostamento;
+					spostamento += 7;
+				} while ((b & 0x80) != 0);
+				return valore;
+			}
+		};
+	}
+
+	/**
+	 * Salva il replay su file, creando le cartelle mancanti.
+	 *
+	 * @param percorso Il file di destinazione.
+	 * @throws IOException Se la scrittura fallisce.
+	 */
+	public void salva(Path percorso) throws IOException {
+		Path cartella = percorso.toAbsolutePath().getParent();
+		if (cartella != null) {
+			Files.createDirectories(cartella);
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(percorso)))) {
+			out.writeInt(MAGICO);
+			out.writeByte(VERSIONE);
+			out.writeLong(seme);
+			scriviVarLong(out, tickTotali);
+			scriviVarLong(out, numeroEventi);
+			out.write(eventi);
+		}
+	}
+
+	/**
+	 * Carica un replay da file.
+	 *
+	 * @param percorso Il file da leggere.
+	 * @return Il replay letto.
+	 * @throws IOException Se la lettura fallisce o il file non e un replay valido.
+	 */
+	public static Replay carica(Path percorso) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(percorso)))) {
+			if (in.readInt() != MAGICO) {
+				throw new IOException("Il file non e un replay: " + percorso);
+			}
+			int versione = in.readUnsignedByte();
+			if (versione != VERSIONE) {
+				throw new IOException("Versione del replay non supportata: " + versione);
+			}
+			long seme = in.readLong();
+			long tickTotali = leggiVarLong(in);
+			int numeroEventi = (int) leggiVarLong(in);
+			byte[] eventi = in.readAllBytes();
+			return new Replay(seme, tickTotali, numeroEventi, eventi);
+		}
+	}
+
+	/**
+	 * Scrive un numero non negativo in formato a lunghezza variabile, 7 bit per byte.
+	 *
+	 * @param out Lo stream di destinazione.
+	 * @param valore Il numero da scrivere.
+	 * @throws IOException Se la scrittura fallisce.
+	 */
+	private static void scriviVarLong(DataOutputStream out, long valore) throws IOException {
+		while ((valore & ~0x7FL) != 0) {
+			out.writeByte((int) (valore & 0x7F) | 0x80);
+			valore >>>= 7;
+		}
+		out.writeByte((int) valore);
+	}
+
+	/**
+	 * Legge un numero in formato a lunghezza variabile.
+	 *
+	 * @param in Lo stream di origine.
+	 * @return Il numero letto.
+	 * @throws IOException Se la lettura fallisce.
+	 */
+	private static long leggiVarLong(DataInputStream in) throws IOException {
+		long valore = 0;
+		int spostamento = 0;
+		int b;
+		do {
+			b = in.readUnsignedByte();
+			valore |= (long) (b & 0x7F) << spostamento;
+			spostamento += 7;
+		} while ((b & 0x80) != 0);
+		return valore;
+	}
+
+	/**
+	 * Restituisce il seme della partita registrata.
+	 *
+	 * @return Il seme.
+	 */
+	public long getSeme() {
+		return seme;
+	}
+
+	/**
+	 * Restituisce il numero di tick simulati nella partita registrata.
+	 *
+	 * @return Il numero di tick.
+	 */
+	public long getTickTotali() {
+		return tickTotali;
+	}
+
+	/**
+	 * Restituisce il numero di cambiamenti dei comandi registrati.
+	 *
+	 * @return Il numero di cambiamenti.
+	 */
+	public int getNumeroEventi() {
+		return numeroEventi;
+	}
+
+	@Override
+	public String toString() {
+		return "Replay[seme=" + seme + ", tick=" + tickTotali + ", cambiamenti=" + numeroEventi + ", byte=" + eventi.length + "]";
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Replay)) {
+			return false;
+		}
+		Replay altro = (Replay) o;
+		return seme == altro.seme && tickTotali == altro.tickTotali && numeroEventi == altro.numeroEventi
+				&& Arrays.equals(eventi, altro.eventi);
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(seme) * 31 + Arrays.hashCode(eventi);
+	}
+}
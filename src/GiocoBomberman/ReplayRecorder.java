@@ -0,0 +1,95 @@
+package GiocoBomberman;
+
+import java.util.Arrays;
+/**
+ * ReplayRecorder registra i comandi di una partita tick per tick e produce un {@link Replay}.
+ * Viene chiamato dal thread di gioco prima di ogni tick; salva solo i cambiamenti della maschera dei comandi in un
+ * array che cresce raddoppiando, quindi durante la partita non alloca quasi mai.
+ *
+ * @author Davide Vittucci
+ * @see Replay
+ */
+public class ReplayRecorder {
+	/** Seme della partita registrata. */
+	private final long seme;
+
+	/** Cambiamenti dei comandi codificati. */
+	private byte[] eventi = new byte[256];
+
+	/** Byte occupati negli eventi. */
+	private int lunghezza;
+
+	/** Numero di cambiamenti registrati. */
+	private int numeroEventi;
+
+	/** Maschera dei comandi dell'ultimo tick registrato; all'inizio nessun tasto e premuto. */
+	private int ultimaMaschera;
+
+	/** Tick dell'ultimo cambiamento registrato. */
+	private long ultimoTick;
+
+	/** Numero di tick registrati. */
+	private long tickTotali;
+
+	/**
+	 * Costruisce un registratore per la partita con il seme dato.
+	 *
+	 * @param seme Seme della sessione di gioco.
+	 */
+	public ReplayRecorder(long seme) {
+		this.seme = seme;
+	}
+
+	/**
+	 * Registra la maschera dei comandi usata per il tick indicato.
+	 *
+	 * @param tick Numero del tick che sta per essere simulato.
+	 * @param maschera Maschera dei comandi, vedi {@link Replay#maschera(Comandi)}.
+	 */
+	public void registra(long tick, int maschera) {
+		tickTotali = tick + 1;
+		if (maschera == ultimaMaschera) {
+			return;
+		}
+		scriviVarLong(tick - ultimoTick);
+		assicuraSpazio(1);
+		eventi[lunghezza++] = (byte) maschera;
+		numeroEventi++;
+		ultimaMaschera = maschera;
+		ultimoTick = tick;
+	}
+
+	/**
+	 * Restituisce il replay di quanto registrato finora. La registrazione puo continuare dopo la chiamata.
+	 *
+	 * @return Il replay.
+	 */
+	public Replay getReplay() {
+		return new Replay(seme, tickTotali, numeroEventi, Arrays.copyOf(eventi, lunghezza));
+	}
+
+	/**
+	 * Scrive un numero non negativo in formato a lunghezza variabile, 7 bit per byte.
+	 *
+	 * @param valore Il numero da scrivere.
+	 */
+	private void scriviVarLong(long valore) {
+		assicuraSpazio(10);
+		while ((valore & ~0x7FL) != 0) {
+			eventi[lunghezza++] = (byte) ((valore & 0x7F) | 0x80);
+			valore >>>= 7;
+		}
+		eventi[lunghezza++] = (byte) valore;
+	}
+
+	/**
+	 * Raddoppia l'array degli eventi se non ha abbastanza byte liberi.
+	 *
+	 * @param byteNecessari Byte da scrivere.
+	 */
+	private void assicuraSpazio(int byteNecessari) {
+		if (lunghezza + byteNecessari > eventi.length) {
+			eventi = Arrays.copyOf(eventi, Math.max(eventi.length * 2, lunghezza + byteNecessari));
+		}
+	}
+}
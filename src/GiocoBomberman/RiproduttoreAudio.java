@@ -0,0 +1,124 @@
+package GiocoBomberman;
+
+import javax.sound.sampled.*;
+import java.io.File;
+import java.io.IOException;
+/**
+ * RiproduttoreAudio riproduce musica ed effetti sonori con javax.sound per conto di {@link AudioManager}. E separato
+ * da AudioManager perche le classi del modulo java.desktop vengano caricate solo quando si suona davvero: un
+ * AudioManager muto non lo crea mai.
+ *
+ * @author Davide Vittucci
+ * @see AudioManager
+ */
+class RiproduttoreAudio {
+    /** Clip audio per la musica di sottofondo. */
+    private Clip backgroundMusicClip;
+
+    /** Clip audio per gli effetti sonori. */
+    private Clip soundEffectClip;
+
+    /**
+     * Riproduce la musica di sottofondo.
+     *
+     * @param filename Il percorso del file audio da riprodurre.
+     * @param loop Se true, la musica viene riprodotta in loop.
+     * @param volume Il volume della musica (0.0 a 1.0).
+     */
+    void playBackgroundMusic(String filename, boolean loop,float volume) {
+        try {
+            if (backgroundMusicClip != null && backgroundMusicClip.isRunning()) {
+                backgroundMusicClip.stop(); // Stoppa la musica corrente se in esecuzione
+            }
+            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filename));
+            backgroundMusicClip = AudioSystem.getClip();
+            backgroundMusicClip.open(audioStream);
+            if (backgroundMusicClip != null) {
+            if (loop) {
+                backgroundMusicClip.loop(Clip.LOOP_CONTINUOUSLY);
+            } else {
+                backgroundMusicClip.start();
+            }
+            setVolume(volume, backgroundMusicClip);}
+            else {
+            	
+            AudioInputStream audioStream1 = AudioSystem.getAudioInputStream(new File(filename));
+            backgroundMusicClip = AudioSystem.getClip();
+            backgroundMusicClip.open(audioStream1);
+            if (backgroundMusicClip != null) {
+                if (loop) {
+                    backgroundMusicClip.loop(Clip.LOOP_CONTINUOUSLY);
+                } else {
+                    backgroundMusicClip.start();
+                }
+                setVolume(volume, backgroundMusicClip);}}
+           
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+            e.printStackTrace();
+           
+        }
+    }
+    /**
+     * Imposta il volume di un Clip audio.
+     *
+     * @param volume Il volume desiderato (0.0 a 1.0).
+     * @param clip Il Clip audio di cui impostare il volume.
+     */
+    private void setVolume(float volume, Clip clip) {
+        if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+            FloatControl gainControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+            float range = gainControl.getMaximum() - gainControl.getMinimum();
+            float gain = (range * volume) + gainControl.getMinimum();
+            gainControl.setValue(gain);
+        }
+    }
+    /**
+     * Riproduce un effetto sonoro.
+     *
+     * @param filename Il percorso del file audio dell'effetto sonoro.
+     * @param volume Il volume dell'effetto sonoro (0.0 a 1.0).
+     */
+    void play(String filename,float volume) {
+        try {
+            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filename));
+            soundEffectClip = AudioSystem.getClip();
+            soundEffectClip.open(audioStream);
+            soundEffectClip.start();
+            setVolume(volume, soundEffectClip);
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+            e.printStackTrace();
+        }
+    }
+    /**
+     * Riproduce un effetto sonoro con volume predefinito.
+     *
+     * @param filename Il percorso del file audio dell'effetto sonoro.
+     */
+    void play(String filename) {
+        try {
+            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(filename));
+            soundEffectClip = AudioSystem.getClip();
+            soundEffectClip.open(audioStream);
+            soundEffectClip.start();
+            
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+            e.printStackTrace();
+        }
+    }
+    /** Ferma la riproduzione della musica di sottofondo e rilascia le risorse. */
+    void stopBackgroundMusic() {
+        if (backgroundMusicClip != null) {
+            backgroundMusicClip.stop();
+            backgroundMusicClip.close();
+            backgroundMusicClip = null;
+        }
+    }
+    /** Ferma la riproduzione dell'effetto sonoro e rilascia le risorse. */
+    void stopSoundEffect() {
+        if (soundEffectClip != null) {
+            soundEffectClip.stop();
+            soundEffectClip.close();
+            soundEffectClip = null;
+        }
+    }
+}
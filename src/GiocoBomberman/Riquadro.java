@@ -0,0 +1,70 @@
+package GiocoBomberman;
+/**
+ * Riquadro e un rettangolo di pixel con lati paralleli agli assi, usato per le aree solide delle entita e le aree di
+ * collisione delle bombe. Prende il posto di {@link java.awt.Rectangle} nel modello, cosi che le regole del gioco
+ * non dipendano dal modulo java.desktop; campi e intersezione si comportano come in Rectangle.
+ *
+ * @author Davide Vittucci
+ * @see Entita
+ * @see CollisionChecker
+ */
+public class Riquadro {
+	/** Posizione X dell'angolo in alto a sinistra. */
+	public int x;
+
+	/** Posizione Y dell'angolo in alto a sinistra. */
+	public int y;
+
+	/** Larghezza in pixel. */
+	public int width;
+
+	/** Altezza in pixel. */
+	public int height;
+
+	/**
+	 * Costruisce un riquadro.
+	 *
+	 * @param x Posizione X dell'angolo in alto a sinistra.
+	 * @param y Posizione Y dell'angolo in alto a sinistra.
+	 * @param width Larghezza in pixel.
+	 * @param height Altezza in pixel.
+	 */
+	public Riquadro(int x, int y, int width, int height) {
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Sposta il riquadro senza cambiarne le dimensioni.
+	 *
+	 * @param x Nuova posizione X dell'angolo in alto a sinistra.
+	 * @param y Nuova posizione Y dell'angolo in alto a sinistra.
+	 */
+	public void setLocation(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Indica se due riquadri hanno almeno un pixel in comune; un riquadro senza area non ne interseca nessuno.
+	 *
+	 * @param altro L'altro riquadro.
+	 * @return true se i riquadri si sovrappongono.
+	 */
+	public boolean interseca(Riquadro altro) {
+		if (width <= 0 || height <= 0 || altro.width <= 0 || altro.height <= 0) {
+			return false;
+		}
+		// Somme calcolate come in Rectangle, tenendo conto dell'overflow
+		int destra = x + width;
+		int basso = y + height;
+		int altroDestra = altro.x + altro.width;
+		int altroBasso = altro.y + altro.height;
+		return (altroDestra < altro.x || altroDestra > x)
+				&& (altroBasso < altro.y || altroBasso > y)
+				&& (destra < x || destra > altro.x)
+				&& (basso < y || basso > altro.y);
+	}
+}
@@ -0,0 +1,226 @@
+package GiocoBomberman;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+/**
+ * ScaledImageCache conserva le immagini di menu e schermate gia scalate, per risorsa e dimensione, e scala quelle
+ * mancanti su un thread di sfondo invece che sul thread di Swing.
+ *
+ * Mentre la finestra viene ridimensionata, {@link Scaler} lascia visibile l'ultima scala disponibile e chiede quella
+ * nuova con {@link #richiedi(String, int, int, Consumer)}; quando e pronta viene consegnata sul thread di Swing.
+ * Le richieste in attesa sono servite dalla piu recente, cosi la dimensione finale di un trascinamento arriva per
+ * prima; quelle che nessuno vuole piu, perche nel frattempo e stata chiesta un'altra dimensione, vengono saltate.
+ * Una stessa scala non viene mai calcolata due volte in parallelo.
+ *
+ * Le immagini meno usate di recente vengono scartate quando la cache supera {@link #PIXEL_MASSIMI} pixel.
+ *
+ * @author Davide Vittucci
+ * @see Scaler
+ */
+public final class ScaledImageCache {
+	/** Pixel complessivi oltre i quali si scartano le immagini meno usate di recente (circa 32 MB). */
+	private static final long PIXEL_MASSIMI = 8_000_000L;
+
+	/** Immagini scalate, dalla meno usata di recente; accesso sincronizzato sulla mappa stessa. */
+	private static final LinkedHashMap<String, ImageIcon> immagini = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** Pixel occupati dalle immagini in cache. */
+	private static long pixel;
+
+	/** Richieste in corso, con chi attende il risultato. */
+	private static final ConcurrentHashMap<String, List<Richiesta>> inCorso = new ConcurrentHashMap<>();
+
+	/**
+	 * Destinatario di una scala richiesta.
+	 */
+	private static final class Richiesta {
+		/** Indica se il destinatario vuole ancora questa scala. */
+		final BooleanSupplier ancoraUtile;
+		/** Riceve l'immagine sul thread di Swing. */
+		final Consumer<ImageIcon> quandoPronta;
+
+		/**
+		 * Costruisce una richiesta.
+		 *
+		 * @param ancoraUtile Indica se il destinatario vuole ancora questa scala.
+		 * @param quandoPronta Riceve l'immagine sul thread di Swing.
+		 */
+		Richiesta(BooleanSupplier ancoraUtile, Consumer<ImageIcon> quandoPronta) {
+			this.ancoraUtile = ancoraUtile;
+			this.quandoPronta = quandoPronta;
+		}
+	}
+
+	/** Esecutore di sfondo con un solo thread, che serve per prima la richiesta piu recente. */
+	private static final ThreadPoolExecutor esecutore = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+			new LinkedBlockingDeque<Runnable>() {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public boolean offer(Runnable r) {
+					return offerFirst(r);
+				}
+			}, r -> {
+				Thread thread = new Thread(r, "ScaledImageCache");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	/**
+	 * Classe di sole funzioni statiche.
+	 */
+	private ScaledImageCache() {
+	}
+
+	/**
+	 * Restituisce l'immagine gia scalata, se presente.
+	 *
+	 * @param percorso Percorso della risorsa nel classpath.
+	 * @param larghezza Larghezza richiesta.
+	 * @param altezza Altezza richiesta.
+	 * @return L'immagine scalata, o null se non e ancora in cache.
+	 */
+	public static ImageIcon get(String percorso, int larghezza, int altezza) {
+		synchronized (immagini) {
+			return immagini.get(chiave(percorso, larghezza, altezza));
+		}
+	}
+
+	/**
+	 * Chiede di scalare un'immagine sul thread di sfondo. Se la stessa scala e gia in corso non ne parte un'altra:
+	 * il destinatario ricevera il risultato di quella in corso.
+	 *
+	 * @param percorso Percorso della risorsa nel classpath.
+	 * @param larghezza Larghezza richiesta.
+	 * @param altezza Altezza richiesta.
+	 * @param ancoraUtile Indica, da qualsiasi thread, se il destinatario vuole ancora questa scala.
+	 * @param quandoPronta Riceve l'immagine sul thread di Swing quando e pronta.
+	 */
+	public static void richiedi(String percorso, int larghezza, int altezza, BooleanSupplier ancoraUtile,
+			Consumer<ImageIcon> quandoPronta) {
+		String chiave = chiave(percorso, larghezza, altezza);
+		boolean[] nuova = new boolean[1];
+		inCorso.compute(chiave, (k, destinatari) -> {
+			if (destinatari == null) {
+				destinatari = new ArrayList<>();
+				nuova[0] = true;
+			}
+			destinatari.add(new Richiesta(ancoraUtile, quandoPronta));
+			return destinatari;
+		});
+		if (!nuova[0]) {
+			return;
+		}
+		esecutore.execute(() -> {
+			if (inCorso.computeIfPresent(chiave, (k, destinatari) -> utile(destinatari) ? destinatari : null) == null) {
+				return;
+			}
+			ImageIcon icona = null;
+			try {
+				icona = scala(percorso, larghezza, altezza);
+				aggiungi(chiave, icona);
+			} catch (IOException | RuntimeException e) {
+				e.printStackTrace();
+			}
+			List<Richiesta> destinatari = inCorso.remove(chiave);
+			if (icona != null) {
+				ImageIcon pronta = icona;
+				SwingUtilities.invokeLater(() -> destinatari.forEach(d -> d.quandoPronta.accept(pronta)));
+			}
+		});
+	}
+
+	/**
+	 * Indica se almeno un destinatario vuole ancora una scala in attesa. Va chiamato dentro il calcolo della voce di
+	 * {@link #inCorso}, cosi che controllo e rimozione di una richiesta non piu utile avvengano in un solo passo e
+	 * un nuovo destinatario non possa aggiungersi a una richiesta che sta per essere scartata.
+	 *
+	 * @param destinatari Destinatari della scala.
+	 * @return true se la scala va calcolata.
+	 */
+	private static boolean utile(List<Richiesta> destinatari) {
+		for (Richiesta richiesta : destinatari) {
+			if (richiesta.ancoraUtile.getAsBoolean()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Legge la risorsa, decodificata una sola volta da {@link SpriteRegistry}, e la scala con la stessa qualita usata
+	 * in precedenza dai menu. Il costruttore di ImageIcon attende che la scalatura sia completa.
+	 *
+	 * @param percorso Percorso della risorsa.
+	 * @param larghezza Larghezza richiesta.
+	 * @param altezza Altezza richiesta.
+	 * @return L'immagine scalata.
+	 * @throws IOException Se la risorsa non puo essere letta.
+	 */
+	private static ImageIcon scala(String percorso, int larghezza, int altezza) throws IOException {
+		BufferedImage originale = SpriteRegistry.carica(percorso);
+		return new ImageIcon(originale.getScaledInstance(larghezza, altezza, Image.SCALE_SMOOTH));
+	}
+
+	/**
+	 * Aggiunge un'immagine alla cache e scarta le meno usate di recente oltre il limite.
+	 *
+	 * @param chiave Chiave dell'immagine.
+	 * @param icona L'immagine scalata.
+	 */
+	private static void aggiungi(String chiave, ImageIcon icona) {
+		synchronized (immagini) {
+			ImageIcon precedente = immagini.put(chiave, icona);
+			if (precedente != null) {
+				pixel -= pixel(precedente);
+			}
+			pixel += pixel(icona);
+			Iterator<Map.Entry<String, ImageIcon>> it = immagini.entrySet().iterator();
+			while (pixel > PIXEL_MASSIMI && it.hasNext()) {
+				Map.Entry<String, ImageIcon> voce = it.next();
+				if (voce.getValue() == icona) {
+					continue;
+				}
+				pixel -= pixel(voce.getValue());
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Calcola i pixel occupati da un'immagine.
+	 *
+	 * @param icona L'immagine.
+	 * @return Larghezza per altezza.
+	 */
+	private static long pixel(ImageIcon icona) {
+		return (long) icona.getIconWidth() * icona.getIconHeight();
+	}
+
+	/**
+	 * Costruisce la chiave di una scala.
+	 *
+	 * @param percorso Percorso della risorsa.
+	 * @param larghezza Larghezza richiesta.
+	 * @param altezza Altezza richiesta.
+	 * @return La chiave.
+	 */
+	static String chiave(String percorso, int larghezza, int altezza) {
+		return percorso + '@' + larghezza + 'x' + altezza;
+	}
+}
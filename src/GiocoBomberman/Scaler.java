@@ -3,12 +3,15 @@ package GiocoBomberman;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Image;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
-import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.JComponent;
 import javax.swing.JLabel;
 /**
  * Scaler e una classe utilizzata per scalare componenti, immagini e dimensioni in base alle dimensioni correnti della finestra di gioco.
@@ -25,6 +28,8 @@ public class Scaler {
     private final static int originalWidth = 1088;
     private final static int originalHeight = 960;
     private final static int baseTileSize = 64;
+    /** Ultima scala richiesta da ogni componente, letta anche dal thread di {@link ScaledImageCache}. */
+    private final static Map<JComponent, String> richieste = Collections.synchronizedMap(new WeakHashMap<>());
     /**
      * costruttore vuoto
      */
@@ -60,14 +65,7 @@ public class Scaler {
      * @param newSize    Nuove dimensioni per l'immagine.
      */
     public void scaleButtonImage(JButton button, String imagePath, Dimension newSize) {
-        try {
-            BufferedImage originalImage = ImageIO.read(getClass().getResourceAsStream(imagePath));
-            Image scaledImage = originalImage.getScaledInstance(newSize.width, newSize.height, Image.SCALE_SMOOTH);
-            button.setIcon(new ImageIcon(scaledImage));
-        } catch (IOException e) {
-            e.printStackTrace();
-            // Gestione dell'errore
-        }
+        scaleImage(button, imagePath, newSize, button::setIcon);
     }
     /**
      * Scala la larghezza in base alle dimensioni correnti della finestra.
@@ -122,14 +120,35 @@ public class Scaler {
      * @param newSize     Nuove dimensioni per l'immagine.
      */
     public void scaleLabelImage(JLabel label, String imagePath, Dimension newSize) {
-        try {
-            BufferedImage originalImage = ImageIO.read(getClass().getResourceAsStream(imagePath));
-            Image scaledImage = originalImage.getScaledInstance(newSize.width, newSize.height, Image.SCALE_SMOOTH);
-            label.setIcon(new ImageIcon(scaledImage));
-        } catch (IOException e) {
-            e.printStackTrace();
-            // Gestione dell'errore
+        scaleImage(label, imagePath, newSize, label::setIcon);
+    }
+    /**
+     * Mostra l'immagine alla nuova dimensione se e gia in {@link ScaledImageCache}; altrimenti lascia visibile la
+     * scala attuale e chiede quella nuova in sfondo, applicandola solo se nel frattempo il componente non ha
+     * chiesto un'altra dimensione.
+     *
+     * @param component   Il componente da aggiornare.
+     * @param imagePath   Percorso dell'immagine.
+     * @param newSize     Nuove dimensioni per l'immagine.
+     * @param setIcon     Imposta l'immagine sul componente.
+     */
+    private void scaleImage(JComponent component, String imagePath, Dimension newSize, Consumer<ImageIcon> setIcon) {
+        if (newSize.width <= 0 || newSize.height <= 0) {
+            return;
+        }
+        String key = ScaledImageCache.chiave(imagePath, newSize.width, newSize.height);
+        richieste.put(component, key);
+        ImageIcon cached = ScaledImageCache.get(imagePath, newSize.width, newSize.height);
+        if (cached != null) {
+            setIcon.accept(cached);
+            return;
         }
+        BooleanSupplier stillWanted = () -> key.equals(richieste.get(component));
+        ScaledImageCache.richiedi(imagePath, newSize.width, newSize.height, stillWanted, icon -> {
+            if (stillWanted.getAsBoolean()) {
+                setIcon.accept(icon);
+            }
+        });
     }
     /**
      * Scala una dimensione in base alle dimensioni correnti della finestra.
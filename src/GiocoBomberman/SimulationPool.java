@@ -0,0 +1,77 @@
+package GiocoBomberman;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+/**
+ * SimulationPool esegue molte {@link HeadlessSimulation} in parallelo su un gruppo fisso di thread.
+ * Ogni simulazione crea la propria {@link GameSession} e non condivide stato con le altre, quindi il numero di
+ * partite al secondo cresce con il numero di core disponibili.
+ *
+ * Il numero di thread va scelto in base ai core: le simulazioni non fanno I/O, perche la mappa passa in memoria dal
+ * generatore al modello e viene scritta su file solo se la sessione la esporta con la proprieta
+ * {@value GameSession#PROPRIETA_ESPORTAZIONE}, cosa che le sessioni di {@link GameSession#headless(long)} non fanno.
+ * Piu thread dei core quindi non aumentano il throughput.
+ *
+ * @author Davide Vittucci
+ * @see HeadlessSimulation
+ * @see GameSession
+ */
+public class SimulationPool implements AutoCloseable {
+	/** Esecutore che ospita le simulazioni. */
+	private final ExecutorService esecutore;
+
+	/**
+	 * Costruisce un gruppo di thread per le simulazioni.
+	 *
+	 * @param thread Numero di thread di lavoro.
+	 */
+	public SimulationPool(int thread) {
+		AtomicInteger contatore = new AtomicInteger();
+		this.esecutore = Executors.newFixedThreadPool(thread, r -> {
+			Thread t = new Thread(r, "Simulazione-" + contatore.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Esegue un certo numero di partite e ne attende la fine.
+	 *
+	 * @param partite Numero di partite da eseguire.
+	 * @param fabbrica Crea la simulazione per la partita di indice dato.
+	 * @return Gli esiti, nello stesso ordine degli indici delle partite.
+	 */
+	public List<HeadlessSimulation.Risultato> esegui(int partite, IntFunction<HeadlessSimulation> fabbrica) {
+		List<Future<HeadlessSimulation.Risultato>> futuri = new ArrayList<>(partite);
+		for (int i = 0; i < partite; i++) {
+			int indice = i;
+			futuri.add(esecutore.submit(() -> fabbrica.apply(indice).esegui()));
+		}
+		List<HeadlessSimulation.Risultato> risultati = new ArrayList<>(partite);
+		try {
+			for (Future<HeadlessSimulation.Risultato> futuro : futuri) {
+				risultati.add(futuro.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Simulazioni interrotte", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Simulazione fallita", e.getCause());
+		}
+		return risultati;
+	}
+
+	/**
+	 * Ferma i thread di lavoro.
+	 */
+	@Override
+	public void close() {
+		esecutore.shutdownNow();
+	}
+}
@@ -0,0 +1,60 @@
+package GiocoBomberman;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.GridBagLayout;
+
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingConstants;
+/**
+ * SplashView e la schermata mostrata all'avvio mentre {@link AssetPreloader} carica le immagini, con una barra
+ * che indica l'avanzamento.
+ *
+ * @author Davide Vittucci
+ * @see JBomberMan
+ */
+public class SplashView extends JPanel {
+	/**
+	 * Identificatore univoco per la serializzazione.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/** Barra di avanzamento del caricamento. */
+	private final JProgressBar barra = new JProgressBar();
+
+	/**
+	 * Costruisce la schermata di caricamento.
+	 */
+	public SplashView() {
+		super(new GridBagLayout());
+		setBackground(Color.BLACK);
+		JPanel contenuto = new JPanel(new BorderLayout(0, 16));
+		contenuto.setOpaque(false);
+		JLabel titolo = new JLabel("JBomberman", SwingConstants.CENTER);
+		titolo.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 48));
+		titolo.setForeground(Color.WHITE);
+		barra.setStringPainted(true);
+		barra.setString("Caricamento...");
+		barra.setForeground(Color.ORANGE);
+		barra.setBorder(BorderFactory.createEmptyBorder());
+		contenuto.add(titolo, BorderLayout.CENTER);
+		contenuto.add(barra, BorderLayout.SOUTH);
+		add(contenuto);
+	}
+
+	/**
+	 * Aggiorna la barra di avanzamento. Va chiamato dal thread di Swing.
+	 *
+	 * @param completate Immagini gia caricate.
+	 * @param totale Immagini da caricare.
+	 */
+	public void aggiorna(int completate, int totale) {
+		barra.setMaximum(totale);
+		barra.setValue(completate);
+		barra.setString("Caricamento " + completate + "/" + totale);
+	}
+}
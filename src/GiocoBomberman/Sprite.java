@@ -0,0 +1,201 @@
+package GiocoBomberman;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+/**
+ * Sprite e un'immagine del gioco disegnabile: una regione di una pagina dell'atlante creato da {@link AtlasPacker},
+ * oppure un'immagine intera quando l'atlante non la contiene.
+ *
+ * La regione dell'atlante non comprende i bordi trasparenti dell'immagine originale, che vengono ricordati come
+ * scarto a sinistra e in alto insieme alle dimensioni originali. {@link #draw(Graphics2D, int, int, int, int)}
+ * riceve il rettangolo dell'immagine originale, come il vecchio drawImage, e disegna solo la parte visibile nella
+ * posizione giusta.
+ *
+ * Alla prima volta che uno sprite viene disegnato a una certa dimensione, la parte visibile viene scalata una volta
+ * in un'immagine compatibile con la superficie di destinazione e ricordata: i disegni successivi alla stessa
+ * dimensione sono una copia senza scalatura e senza conversione di formato. Uno sprite puo essere disegnato a piu
+ * dimensioni, come i potenziamenti, che la mappa disegna a 64x64 e l'HUD a 32x48: ne ricorda fino a
+ * {@value #DIMENSIONI}, dalla piu recente, cosi viste diverse non si costringono a vicenda a riscalarlo.
+ *
+ * @author Davide Vittucci
+ * @see SpriteRegistry
+ */
+public final class Sprite {
+	/** Immagine che contiene la regione: una pagina dell'atlante o l'immagine stessa. */
+	private final BufferedImage pagina;
+
+	/** Posizione X della regione nella pagina. */
+	private final int regioneX;
+
+	/** Posizione Y della regione nella pagina. */
+	private final int regioneY;
+
+	/** Larghezza della regione, 0 se l'immagine e del tutto trasparente. */
+	private final int regioneLarghezza;
+
+	/** Altezza della regione, 0 se l'immagine e del tutto trasparente. */
+	private final int regioneAltezza;
+
+	/** Colonne trasparenti tolte a sinistra. */
+	private final int scartoX;
+
+	/** Righe trasparenti tolte in alto. */
+	private final int scartoY;
+
+	/** Larghezza dell'immagine originale. */
+	private final int larghezza;
+
+	/** Altezza dell'immagine originale. */
+	private final int altezza;
+
+	/** Numero massimo di dimensioni di disegno ricordate per ogni sprite. */
+	private static final int DIMENSIONI = 4;
+
+	/**
+	 * Versioni scalate, dalla piu recente; vuoto finche lo sprite non e stato disegnato. L'array non viene mai
+	 * modificato dopo la pubblicazione: ogni nuova dimensione ne pubblica uno nuovo.
+	 */
+	private volatile Scalata[] scalate = new Scalata[0];
+
+	/**
+	 * Parte visibile di uno sprite gia scalata a una dimensione di disegno.
+	 */
+	private static final class Scalata {
+		/** Larghezza di disegno richiesta. */
+		final int larghezza;
+		/** Altezza di disegno richiesta. */
+		final int altezza;
+		/** Distanza orizzontale della parte visibile dal rettangolo di disegno. */
+		final int dx;
+		/** Distanza verticale della parte visibile dal rettangolo di disegno. */
+		final int dy;
+		/** Parte visibile scalata. */
+		final BufferedImage immagine;
+
+		/**
+		 * Costruisce una versione scalata.
+		 *
+		 * @param larghezza Larghezza di disegno.
+		 * @param altezza Altezza di disegno.
+		 * @param dx Distanza orizzontale della parte visibile.
+		 * @param dy Distanza verticale della parte visibile.
+		 * @param immagine Parte visibile scalata.
+		 */
+		Scalata(int larghezza, int altezza, int dx, int dy, BufferedImage immagine) {
+			this.larghezza = larghezza;
+			this.altezza = altezza;
+			this.dx = dx;
+			this.dy = dy;
+			this.immagine = immagine;
+		}
+	}
+
+	/**
+	 * Costruisce uno sprite come regione di una pagina.
+	 *
+	 * @param pagina Immagine che contiene la regione.
+	 * @param regioneX Posizione X della regione nella pagina.
+	 * @param regioneY Posizione Y della regione nella pagina.
+	 * @param regioneLarghezza Larghezza della regione.
+	 * @param regioneAltezza Altezza della regione.
+	 * @param scartoX Colonne trasparenti tolte a sinistra.
+	 * @param scartoY Righe trasparenti tolte in alto.
+	 * @param larghezza Larghezza dell'immagine originale.
+	 * @param altezza Altezza dell'immagine originale.
+	 */
+	Sprite(BufferedImage pagina, int regioneX, int regioneY, int regioneLarghezza, int regioneAltezza,
+			int scartoX, int scartoY, int larghezza, int altezza) {
+		this.pagina = pagina;
+		this.regioneX = regioneX;
+		this.regioneY = regioneY;
+		this.regioneLarghezza = regioneLarghezza;
+		this.regioneAltezza = regioneAltezza;
+		this.scartoX = scartoX;
+		this.scartoY = scartoY;
+		this.larghezza = larghezza;
+		this.altezza = altezza;
+	}
+
+	/**
+	 * Costruisce uno sprite che occupa un'intera immagine, senza bordi tolti.
+	 *
+	 * @param immagine L'immagine.
+	 * @return Lo sprite.
+	 */
+	static Sprite intera(BufferedImage immagine) {
+		return new Sprite(immagine, 0, 0, immagine.getWidth(), immagine.getHeight(), 0, 0,
+				immagine.getWidth(), immagine.getHeight());
+	}
+
+	/**
+	 * Disegna lo sprite scalando l'immagine originale nel rettangolo indicato.
+	 *
+	 * @param g2 Oggetto Graphics2D usato per disegnare.
+	 * @param x Posizione X del rettangolo.
+	 * @param y Posizione Y del rettangolo.
+	 * @param w Larghezza del rettangolo.
+	 * @param h Altezza del rettangolo.
+	 */
+	public void draw(Graphics2D g2, int x, int y, int w, int h) {
+		if (regioneLarghezza == 0 || regioneAltezza == 0 || w <= 0 || h <= 0) {
+			return;
+		}
+		Scalata[] ricordate = scalate;
+		Scalata s = null;
+		for (Scalata r : ricordate) {
+			if (r.larghezza == w && r.altezza == h) {
+				s = r;
+				break;
+			}
+		}
+		if (s == null) {
+			s = scala(g2, w, h);
+			Scalata[] nuove = new Scalata[Math.min(ricordate.length + 1, DIMENSIONI)];
+			nuove[0] = s;
+			System.arraycopy(ricordate, 0, nuove, 1, nuove.length - 1);
+			scalate = nuove;
+		}
+		g2.drawImage(s.immagine, x + s.dx, y + s.dy, null);
+	}
+
+	/**
+	 * Scala la parte visibile alla dimensione di disegno in un'immagine compatibile con la destinazione.
+	 *
+	 * @param g2 Oggetto Graphics2D della destinazione.
+	 * @param w Larghezza di disegno.
+	 * @param h Altezza di disegno.
+	 * @return La versione scalata.
+	 */
+	private Scalata scala(Graphics2D g2, int w, int h) {
+		int x1 = scartoX * w / larghezza;
+		int y1 = scartoY * h / altezza;
+		int x2 = (scartoX + regioneLarghezza) * w / larghezza;
+		int y2 = (scartoY + regioneAltezza) * h / altezza;
+		BufferedImage immagine = g2.getDeviceConfiguration().createCompatibleImage(Math.max(1, x2 - x1),
+				Math.max(1, y2 - y1), Transparency.TRANSLUCENT);
+		Graphics2D gs = immagine.createGraphics();
+		gs.drawImage(pagina, 0, 0, x2 - x1, y2 - y1, regioneX, regioneY,
+				regioneX + regioneLarghezza, regioneY + regioneAltezza, null);
+		gs.dispose();
+		return new Scalata(w, h, x1, y1, immagine);
+	}
+
+	/**
+	 * Restituisce la larghezza dell'immagine originale.
+	 *
+	 * @return La larghezza in pixel.
+	 */
+	public int getLarghezza() {
+		return larghezza;
+	}
+
+	/**
+	 * Restituisce l'altezza dell'immagine originale.
+	 *
+	 * @return L'altezza in pixel.
+	 */
+	public int getAltezza() {
+		return altezza;
+	}
+}
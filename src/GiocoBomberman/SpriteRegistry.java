@@ -0,0 +1,140 @@
+package GiocoBomberman;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+/**
+ * SpriteRegistry decodifica ogni immagine delle risorse una sola volta per processo e restituisce sempre la stessa
+ * istanza a tutte le viste che la chiedono. Creare una vista, iniziare una nuova partita o caricare una mappa non
+ * legge piu file e non occupa nuova memoria per le immagini gia usate.
+ *
+ * Le immagini restituite sono condivise e vanno considerate immutabili: si possono disegnare ma non modificare.
+ * Il registro puo essere usato da qualsiasi thread; se due thread chiedono insieme la stessa immagine, la
+ * decodifica avviene comunque una volta sola.
+ *
+ * Gli sprite del gioco si chiedono con {@link #sprite(String)}, che li prende dall'atlante creato da
+ * {@link AtlasPacker} quando c'e, e dal file singolo altrimenti.
+ *
+ * @author Davide Vittucci
+ */
+public final class SpriteRegistry {
+	/** Immagini gia decodificate, per percorso della risorsa. */
+	private static final ConcurrentHashMap<String, BufferedImage> immagini = new ConcurrentHashMap<>();
+
+	/** Sprite costruiti da file singoli, per percorso della risorsa. */
+	private static final ConcurrentHashMap<String, Sprite> sprite = new ConcurrentHashMap<>();
+
+	/**
+	 * Atlante, letto alla prima richiesta di uno sprite.
+	 */
+	private static final class Atlante {
+		/** Sprite dell'atlante per percorso normalizzato. */
+		static final Map<String, Sprite> SPRITE = leggi();
+
+		/**
+		 * Legge l'atlante; se non puo essere letto si usano i file singoli.
+		 *
+		 * @return Gli sprite dell'atlante, vuoto in caso di errore.
+		 */
+		private static Map<String, Sprite> leggi() {
+			try {
+				return AtlasPacker.carica();
+			} catch (IOException e) {
+				e.printStackTrace();
+				return Map.of();
+			}
+		}
+	}
+
+	/**
+	 * Classe di sole funzioni statiche.
+	 */
+	private SpriteRegistry() {
+	}
+
+	/**
+	 * Restituisce l'immagine della risorsa indicata, decodificandola solo la prima volta.
+	 *
+	 * @param percorso Percorso della risorsa nel classpath, ad esempio "/Bomba/Bomba1.png".
+	 * @return L'immagine condivisa.
+	 * @throws IOException Se la risorsa non esiste o non puo essere decodificata.
+	 */
+	public static BufferedImage carica(String percorso) throws IOException {
+		BufferedImage immagine = immagini.get(percorso);
+		if (immagine != null) {
+			return immagine;
+		}
+		try {
+			return immagini.computeIfAbsent(percorso, SpriteRegistry::decodifica);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Restituisce lo sprite della risorsa indicata: la sua regione dell'atlante se l'atlante la contiene,
+	 * altrimenti l'intera immagine letta con {@link #carica(String)}.
+	 *
+	 * @param percorso Percorso della risorsa nel classpath, ad esempio "/Bomba/Bomba1.png".
+	 * @return Lo sprite condiviso.
+	 * @throws IOException Se la risorsa non e nell'atlante e non puo essere letta.
+	 */
+	public static Sprite sprite(String percorso) throws IOException {
+		Sprite risultato = Atlante.SPRITE.get(AtlasPacker.normalizza(percorso));
+		if (risultato == null) {
+			risultato = sprite.get(percorso);
+		}
+		if (risultato == null) {
+			Sprite nuovo = Sprite.intera(carica(percorso));
+			risultato = sprite.putIfAbsent(percorso, nuovo);
+			if (risultato == null) {
+				risultato = nuovo;
+			}
+		}
+		return risultato;
+	}
+
+	/**
+	 * Legge subito l'atlante invece che alla prima richiesta di uno sprite.
+	 *
+	 * @return Il numero di sprite nell'atlante, 0 se l'atlante non c'e.
+	 */
+	public static int precaricaAtlante() {
+		return Atlante.SPRITE.size();
+	}
+
+	/**
+	 * Restituisce il numero di immagini decodificate finora.
+	 *
+	 * @return Il numero di immagini nel registro.
+	 */
+	public static int getNumeroImmagini() {
+		return immagini.size();
+	}
+
+	/**
+	 * Decodifica una risorsa.
+	 *
+	 * @param percorso Percorso della risorsa nel classpath.
+	 * @return L'immagine decodificata.
+	 */
+	private static BufferedImage decodifica(String percorso) {
+		try (InputStream in = SpriteRegistry.class.getResourceAsStream(percorso)) {
+			if (in == null) {
+				throw new IOException("Risorsa non trovata: " + percorso);
+			}
+			BufferedImage immagine = ImageIO.read(in);
+			if (immagine == null) {
+				throw new IOException("Formato non riconosciuto: " + percorso);
+			}
+			return immagine;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
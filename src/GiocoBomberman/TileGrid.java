@@ -0,0 +1,393 @@
+package GiocoBomberman;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+/**
+ * TileGrid e lo stato delle celle della mappa, impacchettato in un solo short per cella in un array per righe.
+ *
+ * Ogni cella contiene il tipo di piastrella, lo stadio dell'animazione di distruzione, i flag colpita, fuga,
+ * calpestata e raccolto e il potenziamento nascosto. Quello che dipende solo dal tipo, cioe immagine e collisione,
+ * non e ripetuto nelle celle ma sta nelle piastrelle di {@link MapModel#getPiastrelle()}, una per tipo: la cella
+ * occupa 2 byte invece di un oggetto {@link Piastrella}, e le letture di {@link CollisionChecker} sono accessi
+ * contigui a un array di primitivi.
+ *
+ * Quando un muro distrutto diventa erba, fuga o potenziamento la cella viene riscritta con
+ * {@link #sostituisci(int, int, int)}, che azzera tutti gli altri campi come faceva la nuova piastrella creata in
+ * precedenza.
+ *
+ * Le celle colpite da un'esplosione o con un potenziamento calpestato sono le sole che {@link MapModel#update()}
+ * deve far avanzare: la griglia le tiene in un elenco di celle attive, in cui entrano quando ricevono uno dei due
+ * flag e da cui escono con {@link #compattaAttive()} quando non ne hanno piu. Il costo dell'aggiornamento dipende
+ * cosi dai muri in distruzione e non dalla dimensione della mappa.
+ *
+ * Lo stesso formato a 2 byte per cella e quello delle mappe salvate in un {@link MapPack}: una mappa salvata
+ * conserva solo tipo, fuga e potenziamento, e viene copiata nella griglia senza essere interpretata.
+ *
+ * @author Davide Vittucci
+ * @see MapModel
+ * @see Piastrella
+ */
+public class TileGrid {
+	/** Numero di tipi di piastrella, uno per ogni piastrella di {@link MapModel#getPiastrelle()}. */
+	public static final int TIPI = 11;
+
+	/** Bit del tipo di piastrella. */
+	private static final int TIPO = 0xF;
+
+	/** Posizione dello stadio di distruzione. */
+	private static final int STATO_SHIFT = 4;
+
+	/** Bit dello stadio di distruzione, dopo lo spostamento. */
+	private static final int STATO = 0x7;
+
+	/** Flag della piastrella colpita da un'esplosione. */
+	private static final int COLPITA = 1 << 7;
+
+	/** Flag della piastrella che nasconde la fuga. */
+	private static final int FUGA = 1 << 8;
+
+	/** Flag del potenziamento calpestato, che torna erba al prossimo aggiornamento della mappa. */
+	private static final int CALPESTATA = 1 << 9;
+
+	/** Flag del potenziamento gia raccolto. */
+	private static final int RACCOLTO = 1 << 10;
+
+	/** Flag che rendono attiva una cella. */
+	private static final int ATTIVA = COLPITA | CALPESTATA;
+
+	/** Posizione del potenziamento nascosto: 0 nessuno, altrimenti ordinale di {@link TipoPotenziamento} piu 1. */
+	private static final int POTENZIAMENTO_SHIFT = 11;
+
+	/** Bit del potenziamento nascosto, dopo lo spostamento. */
+	private static final int POTENZIAMENTO = 0x7;
+
+	/** Campi conservati da una mappa salvata: tipo, fuga e potenziamento nascosto. */
+	private static final int SALVATI = TIPO | FUGA | (POTENZIAMENTO << POTENZIAMENTO_SHIFT);
+
+	/** Potenziamenti indicizzati per ordinale. */
+	private static final TipoPotenziamento[] POTENZIAMENTI = TipoPotenziamento.values();
+
+	/** Numero di colonne. */
+	private final int colonne;
+
+	/** Numero di righe. */
+	private final int righe;
+
+	/** Celle impacchettate, per righe; scambiate con quelle di un'altra griglia da {@link #scambia(TileGrid)}. */
+	private short[] celle;
+
+	/** Indici per righe delle celle attive, nell'ordine in cui lo sono diventate. */
+	private int[] attive = new int[16];
+
+	/** Numero di celle attive valide in {@link #attive}. */
+	private int numeroAttive;
+
+	/**
+	 * Costruisce una griglia di celle vuote di tipo 0.
+	 *
+	 * @param colonne Numero di colonne.
+	 * @param righe Numero di righe.
+	 */
+	public TileGrid(int colonne, int righe) {
+		this.colonne = colonne;
+		this.righe = righe;
+		this.celle = new short[colonne * righe];
+	}
+
+	/**
+	 * Restituisce il numero di colonne.
+	 *
+	 * @return Le colonne della griglia.
+	 */
+	public int getColonne() {
+		return colonne;
+	}
+
+	/**
+	 * Restituisce il numero di righe.
+	 *
+	 * @return Le righe della griglia.
+	 */
+	public int getRighe() {
+		return righe;
+	}
+
+	/**
+	 * Riscrive una cella come nuova piastrella del tipo indicato, azzerando stadio, flag e potenziamento.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @param tipo Il tipo di piastrella.
+	 */
+	public void sostituisci(int row, int col, int tipo) {
+		celle[row * colonne + col] = (short) tipo;
+	}
+
+	/**
+	 * Restituisce il tipo di piastrella di una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return Il tipo di piastrella.
+	 */
+	public int getTipo(int row, int col) {
+		return celle[row * colonne + col] & TIPO;
+	}
+
+	/**
+	 * Cambia il tipo di piastrella di una cella lasciando invariati gli altri campi.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @param tipo Il nuovo tipo.
+	 */
+	public void setTipo(int row, int col, int tipo) {
+		int i = row * colonne + col;
+		celle[i] = (short) ((celle[i] & ~TIPO) | tipo);
+	}
+
+	/**
+	 * Restituisce lo stadio dell'animazione di distruzione di una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return Lo stadio, 0 se la distruzione non e iniziata.
+	 */
+	public int getStato(int row, int col) {
+		return (celle[row * colonne + col] >> STATO_SHIFT) & STATO;
+	}
+
+	/**
+	 * Avanza di uno lo stadio dell'animazione di distruzione di una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void incrementaStato(int row, int col) {
+		celle[row * colonne + col] += 1 << STATO_SHIFT;
+	}
+
+	/**
+	 * Indica se una cella e stata colpita da un'esplosione.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se la cella e colpita.
+	 */
+	public boolean isColpita(int row, int col) {
+		return (celle[row * colonne + col] & COLPITA) != 0;
+	}
+
+	/**
+	 * Segna una cella come colpita da un'esplosione.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void setColpita(int row, int col) {
+		attiva(row * colonne + col, COLPITA);
+	}
+
+	/**
+	 * Indica se una cella nasconde la fuga.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se sotto la cella c'e la fuga.
+	 */
+	public boolean isFuga(int row, int col) {
+		return (celle[row * colonne + col] & FUGA) != 0;
+	}
+
+	/**
+	 * Nasconde la fuga in una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void setFuga(int row, int col) {
+		celle[row * colonne + col] |= FUGA;
+	}
+
+	/**
+	 * Indica se il potenziamento di una cella e stato calpestato e non e ancora tornato erba.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se la cella e calpestata.
+	 */
+	public boolean isCalpestata(int row, int col) {
+		return (celle[row * colonne + col] & CALPESTATA) != 0;
+	}
+
+	/**
+	 * Toglie il flag di cella calpestata.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void resetCalpestata(int row, int col) {
+		celle[row * colonne + col] &= ~CALPESTATA;
+	}
+
+	/**
+	 * Indica se il potenziamento di una cella e gia stato raccolto.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return true se il potenziamento e raccolto.
+	 */
+	public boolean isRaccolto(int row, int col) {
+		return (celle[row * colonne + col] & RACCOLTO) != 0;
+	}
+
+	/**
+	 * Segna il potenziamento di una cella come raccolto e calpestato.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 */
+	public void raccogli(int row, int col) {
+		attiva(row * colonne + col, RACCOLTO | CALPESTATA);
+	}
+
+	/**
+	 * Restituisce il potenziamento nascosto in una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @return Il potenziamento, o {@link TipoPotenziamento#NESSUNO}.
+	 */
+	public TipoPotenziamento getPotenziamento(int row, int col) {
+		int codice = (celle[row * colonne + col] >> POTENZIAMENTO_SHIFT) & POTENZIAMENTO;
+		return codice == 0 ? TipoPotenziamento.NESSUNO : POTENZIAMENTI[codice - 1];
+	}
+
+	/**
+	 * Nasconde un potenziamento in una cella.
+	 *
+	 * @param row Riga della cella.
+	 * @param col Colonna della cella.
+	 * @param tipo Il potenziamento.
+	 */
+	public void setPotenziamento(int row, int col, TipoPotenziamento tipo) {
+		int i = row * colonne + col;
+		int codice = tipo == TipoPotenziamento.NESSUNO ? 0 : tipo.ordinal() + 1;
+		celle[i] = (short) ((celle[i] & ~(POTENZIAMENTO << POTENZIAMENTO_SHIFT)) | (codice << POTENZIAMENTO_SHIFT));
+	}
+
+	/**
+	 * Sostituisce tutte le celle con quelle di una mappa salvata, una cella di 2 byte per righe a partire dalla
+	 * posizione indicata; dello stato precedente non resta nulla, nemmeno le celle attive.
+	 *
+	 * @param dati Il buffer con la mappa salvata, letto con accessi assoluti.
+	 * @param posizione Posizione in byte della prima cella nel buffer.
+	 */
+	public void carica(ByteBuffer dati, int posizione) {
+		for (int i = 0; i < celle.length; i++) {
+			celle[i] = (short) (dati.getShort(posizione + 2 * i) & SALVATI);
+		}
+		numeroAttive = 0;
+	}
+
+	/**
+	 * Indica se una cella di una mappa salvata ha un tipo di piastrella esistente.
+	 *
+	 * @param cella La cella nel formato a 2 byte.
+	 * @return true se il tipo e minore di {@link #TIPI}.
+	 */
+	static boolean isSalvataValida(short cella) {
+		return (cella & TIPO) < TIPI;
+	}
+
+	/**
+	 * Scrive le celle nel formato letto da {@link #carica(ByteBuffer, int)}.
+	 *
+	 * @param out La destinazione.
+	 * @throws IOException Se la scrittura fallisce.
+	 */
+	public void scrivi(DataOutput out) throws IOException {
+		for (short cella : celle) {
+			out.writeShort(cella & SALVATI);
+		}
+	}
+
+	/**
+	 * Scambia tutto il contenuto, celle e celle attive, con un'altra griglia delle stesse dimensioni. Gli array non
+	 * vengono copiati: chi tiene un riferimento a questa griglia vede subito le celle dell'altra.
+	 *
+	 * @param altra La griglia con cui scambiare il contenuto.
+	 * @throws IllegalArgumentException Se le dimensioni delle due griglie sono diverse.
+	 */
+	public void scambia(TileGrid altra) {
+		if (altra.colonne != colonne || altra.righe != righe) {
+			throw new IllegalArgumentException("Griglie di dimensioni diverse");
+		}
+		short[] celle = this.celle;
+		this.celle = altra.celle;
+		altra.celle = celle;
+		int[] attive = this.attive;
+		this.attive = altra.attive;
+		altra.attive = attive;
+		int numeroAttive = this.numeroAttive;
+		this.numeroAttive = altra.numeroAttive;
+		altra.numeroAttive = numeroAttive;
+	}
+
+	/**
+	 * Aggiunge dei flag a una cella e la mette tra le attive se non lo era gia.
+	 *
+	 * @param i Indice per righe della cella.
+	 * @param flag I flag da aggiungere.
+	 */
+	private void attiva(int i, int flag) {
+		if ((celle[i] & ATTIVA) == 0 && (flag & ATTIVA) != 0) {
+			if (numeroAttive == attive.length) {
+				attive = Arrays.copyOf(attive, numeroAttive * 2);
+			}
+			attive[numeroAttive++] = i;
+		}
+		celle[i] |= flag;
+	}
+
+	/**
+	 * Restituisce il numero di celle attive.
+	 *
+	 * @return Le celle colpite o calpestate.
+	 */
+	public int getNumeroAttive() {
+		return numeroAttive;
+	}
+
+	/**
+	 * Restituisce l'indice per righe di una cella attiva.
+	 *
+	 * @param i Posizione nell'elenco delle celle attive.
+	 * @return L'indice della cella, da dividere per {@link #getColonne()} per avere la riga.
+	 */
+	public int getAttiva(int i) {
+		return attive[i];
+	}
+
+	/**
+	 * Toglie dall'elenco le celle che non sono piu colpite ne calpestate, mantenendo l'ordine delle altre.
+	 */
+	public void compattaAttive() {
+		int rimaste = 0;
+		for (int i = 0; i < numeroAttive; i++) {
+			if ((celle[attive[i]] & ATTIVA) != 0) {
+				attive[rimaste++] = attive[i];
+			}
+		}
+		numeroAttive = rimaste;
+	}
+
+	/**
+	 * Svuota l'elenco delle celle attive, ad esempio quando tutte le celle vengono riscritte da una nuova mappa.
+	 */
+	public void svuotaAttive() {
+		numeroAttive = 0;
+	}
+}
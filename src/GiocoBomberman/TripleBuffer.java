@@ -0,0 +1,79 @@
+package GiocoBomberman;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+/**
+ * TripleBuffer scambia oggetti tra un unico thread produttore e un unico thread consumatore senza lock.
+ * Usa tre slot preallocati: il produttore scrive sempre nel proprio slot, lo pubblica scambiandolo con lo slot
+ * centrale e il consumatore, quando trova uno slot centrale nuovo, lo scambia con quello che stava leggendo.
+ * Nessuno dei due thread attende mai l'altro e lo slot in lettura non viene mai toccato dal produttore.
+ *
+ * Se il consumatore e piu lento, gli stati intermedi vengono semplicemente saltati e riceve sempre l'ultimo pubblicato.
+ *
+ * @param <T> Tipo degli oggetti scambiati.
+ * @author Davide Vittucci
+ * @see RenderSnapshot
+ */
+public class TripleBuffer<T> {
+	/** Maschera per l'indice dello slot contenuto nello stato centrale. */
+	private static final int INDICE = 0b011;
+
+	/** Bit che indica che lo slot centrale contiene dati non ancora letti. */
+	private static final int NUOVO = 0b100;
+
+	/** I tre slot preallocati. */
+	private final Object[] slot = new Object[3];
+
+	/** Indice dello slot centrale, con il bit {@link #NUOVO} se appena pubblicato. */
+	private final AtomicInteger centrale = new AtomicInteger(1);
+
+	/** Slot di proprieta del produttore. */
+	private int scrittura = 0;
+
+	/** Slot di proprieta del consumatore. */
+	private int lettura = 2;
+
+	/**
+	 * Costruisce il buffer creando i tre slot.
+	 *
+	 * @param fabbrica Crea il contenuto iniziale di ogni slot.
+	 */
+	public TripleBuffer(Supplier<T> fabbrica) {
+		for (int i = 0; i < slot.length; i++) {
+			slot[i] = fabbrica.get();
+		}
+	}
+
+	/**
+	 * Restituisce lo slot in cui il produttore puo scrivere. Da usare solo dal thread produttore.
+	 *
+	 * @return Lo slot in scrittura.
+	 */
+	@SuppressWarnings("unchecked")
+	public T inScrittura() {
+		return (T) slot[scrittura];
+	}
+
+	/**
+	 * Pubblica lo slot in scrittura rendendolo disponibile al consumatore. Da usare solo dal thread produttore.
+	 */
+	public void pubblica() {
+		int precedente = centrale.getAndSet(scrittura | NUOVO);
+		scrittura = precedente & INDICE;
+	}
+
+	/**
+	 * Restituisce l'ultimo slot pubblicato. Da usare solo dal thread consumatore; lo slot resta valido
+	 * fino alla chiamata successiva.
+	 *
+	 * @return L'ultimo slot pubblicato, o quello letto in precedenza se non ce ne sono di nuovi.
+	 */
+	@SuppressWarnings("unchecked")
+	public T leggi() {
+		if ((centrale.get() & NUOVO) != 0) {
+			int precedente = centrale.getAndSet(lettura);
+			lettura = precedente & INDICE;
+		}
+		return (T) slot[lettura];
+	}
+}
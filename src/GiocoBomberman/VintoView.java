@@ -1,6 +1,5 @@
 package GiocoBomberman;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ComponentAdapter;
@@ -79,7 +78,7 @@ public class VintoView extends JPanel {
         setButtonImages();
         // Carica e imposta l'immagine di sfondo
         try {
-            BufferedImage backgroundImage = ImageIO.read(getClass().getResourceAsStream("/backVictory.png"));
+            BufferedImage backgroundImage = SpriteRegistry.carica("/backVictory.png");
             ImageIcon backgroundIcon = new ImageIcon(backgroundImage);
             backgroundLabel = new JLabel(backgroundIcon);
             backgroundLabel.setBounds(0, 0, backgroundImage.getWidth(), backgroundImage.getHeight());
@@ -102,8 +101,8 @@ public class VintoView extends JPanel {
      */
     private void setButtonImages() {
         try {
-            BufferedImage resumeImage = ImageIO.read(getClass().getResourceAsStream("/Opzioni/nuovaPartita.png"));
-            BufferedImage menuImage = ImageIO.read(getClass().getResourceAsStream("/Opzioni/menu.png"));
+            BufferedImage resumeImage = SpriteRegistry.carica("/Opzioni/nuovaPartita.png");
+            BufferedImage menuImage = SpriteRegistry.carica("/Opzioni/menu.png");
             newGameButton.setIcon(new ImageIcon(resumeImage));
             menuButton.setIcon(new ImageIcon(menuImage));
         } catch (IOException e) {